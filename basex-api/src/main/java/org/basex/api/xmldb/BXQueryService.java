@@ -3,6 +3,7 @@ package org.basex.api.xmldb;
 import static org.basex.api.xmldb.BXXMLDBText.*;
 import static org.basex.util.Token.*;
 
+import java.io.*;
 import java.util.*;
 import java.util.Map.*;
 
@@ -135,7 +136,7 @@ public final class BXQueryService implements XPathQueryService {
         qp.close();
         qp.unregister(ctx);
       }
-    } catch(final QueryException ex) {
+    } catch(final QueryException | IOException ex) {
       throw new XMLDBException(ErrorCodes.VENDOR_ERROR, ex.getMessage());
     }
   }
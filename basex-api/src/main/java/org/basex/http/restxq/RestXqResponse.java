@@ -130,8 +130,11 @@ final class RestXqResponse extends WebResponse {
       qc.close();
       if(cache != null) conn.timing(qc.info);
 
-      qc.unregister(ctx);
-      if(singleton != null) singleton.unregister();
+      try {
+        qc.unregister(ctx);
+      } finally {
+        if(singleton != null) singleton.unregister();
+      }
 
       if(forward != null) {
         conn.forward(forward);
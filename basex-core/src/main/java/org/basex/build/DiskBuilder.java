@@ -81,6 +81,13 @@ public final class DiskBuilder extends Builder {
         if(sout != null) sout.close();
       }
 
+      // convert table and heap files to compressed format
+      if(meta.compressdata) {
+        CompressedFile.compress(meta.dbFile(DATATBL), meta.dbFile(DATATBL + 'z'), IO.NODESIZE);
+        CompressedFile.compress(meta.dbFile(DATATXT), meta.dbFile(DATATXT + 'z'), 0);
+        CompressedFile.compress(meta.dbFile(DATAATV), meta.dbFile(DATAATV + 'z'), 0);
+      }
+
       // copy temporary values into database table
       final IOFile tmpFile = meta.dbFile(DATATMP);
       try(DataInput in = new DataInput(tmpFile)) {
@@ -74,7 +74,7 @@ public final class MemBuilder extends Builder {
     try {
       parse();
     } finally {
-      if(data.meta.updindex) data.idmap.finish(data.meta.lastid);
+      data.idmap.finish(data.meta.lastid);
     }
     return data;
   }
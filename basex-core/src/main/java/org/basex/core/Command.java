@@ -100,7 +100,11 @@ public abstract class Command extends Job {
       throw th;
     } finally {
       // ensure that job will be unregistered
-      unregister(ctx);
+      try {
+        unregister(ctx);
+      } catch(final IOException ex) {
+        throw new BaseXException(ex);
+      }
     }
   }
 
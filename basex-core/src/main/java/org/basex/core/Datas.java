@@ -15,6 +15,8 @@ import org.basex.io.*;
 public final class Datas {
   /** Pinned databases (data instance, number of pins). */
   private final IdentityHashMap<Data, Integer> list = new IdentityHashMap<>();
+  /** Functions that will be invoked after databases have been closed. */
+  private final IdentityHashMap<Data, Runnable> closed = new IdentityHashMap<>();
 
   /**
    * Pins and returns a database with the specified name.
@@ -40,6 +42,7 @@ public final class Datas {
 
   /**
    * Unpins a data reference and closes the database if no references exist anymore.
+   * If a function has been registered for the closed database, it will be invoked.
    * @param data data reference
    */
   public synchronized void unpin(final Data data) {
@@ -51,11 +54,26 @@ public final class Datas {
     if(p == 1) {
       data.close();
       list.remove(data);
+      final Runnable func = closed.remove(data);
+      if(func != null) func.run();
     } else {
       list.put(data, p - 1);
     }
   }
 
+  /**
+   * Registers a function that will be invoked after the specified database has been closed.
+   * Functions that have already been registered for the database will be invoked first.
+   * @param data data reference
+   * @param func function
+   */
+  public synchronized void closed(final Data data, final Runnable func) {
+    closed.merge(data, func, (old, f) -> () -> {
+      old.run();
+      f.run();
+    });
+  }
+
   /**
    * Checks if the database with the specified name is pinned.
    * @param name name of the database
@@ -82,6 +100,8 @@ public final class Datas {
   synchronized void close() {
     for(final Data data : list.keySet()) data.close();
     list.clear();
+    for(final Runnable func : closed.values()) func.run();
+    closed.clear();
   }
 
   /**
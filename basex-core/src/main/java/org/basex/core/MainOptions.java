@@ -21,6 +21,8 @@ public final class MainOptions extends Options {
 
   /** Flag for creating a main memory database. */
   public static final BooleanOption MAINMEM = new BooleanOption("MAINMEM", false);
+  /** Flag for storing the contents of main memory databases off-heap. */
+  public static final BooleanOption OFFHEAP = new BooleanOption("OFFHEAP", false);
   /** Flag for closing a database after creating it. */
   public static final BooleanOption CREATEONLY = new BooleanOption("CREATEONLY", false);
 
@@ -72,6 +74,17 @@ public final class MainOptions extends Options {
   /** Cache new documents before adding them to a database. */
   public static final BooleanOption ADDCACHE = new BooleanOption("ADDCACHE", false);
 
+  // Storage
+
+  /** Flag for reading database files via memory mapping. */
+  public static final BooleanOption MAPDATA = new BooleanOption("MAPDATA", false);
+  /** Maximum number of table pages to be read in advance; deactivated if set to 0. */
+  public static final NumberOption READAHEAD = new NumberOption("READAHEAD", 0);
+  /** Flag for compressing the table and text files of new databases. */
+  public static final BooleanOption COMPRESSDATA = new BooleanOption("COMPRESSDATA", false);
+  /** Flag for logging database updates in a write-ahead log. */
+  public static final BooleanOption WAL = new BooleanOption("WAL", false);
+
   // Indexing
 
   /** Flag for creating a text index. */
@@ -80,6 +93,10 @@ public final class MainOptions extends Options {
   public static final BooleanOption ATTRINDEX = new BooleanOption("ATTRINDEX", true);
   /** Flag for creating a token index. */
   public static final BooleanOption TOKENINDEX = new BooleanOption("TOKENINDEX", false);
+  /** Flag for creating a trigram index. */
+  public static final BooleanOption TRIGRAMINDEX = new BooleanOption("TRIGRAMINDEX", false);
+  /** Flag for creating a path value index. */
+  public static final BooleanOption PATHVALUEINDEX = new BooleanOption("PATHVALUEINDEX", false);
   /** Flag for creating a full-text index. */
   public static final BooleanOption FTINDEX = new BooleanOption("FTINDEX", false);
 
@@ -89,6 +106,10 @@ public final class MainOptions extends Options {
   public static final StringOption ATTRINCLUDE = new StringOption("ATTRINCLUDE", "");
   /** Token index: names to include. */
   public static final StringOption TOKENINCLUDE = new StringOption("TOKENINCLUDE", "");
+  /** Trigram index: names to include. */
+  public static final StringOption TRIGRAMINCLUDE = new StringOption("TRIGRAMINCLUDE", "");
+  /** Path value index: paths to include. */
+  public static final StringOption PATHVALUEINCLUDE = new StringOption("PATHVALUEINCLUDE", "");
   /** Full-text index: names to include. */
   public static final StringOption FTINCLUDE = new StringOption("FTINCLUDE", "");
 
@@ -100,8 +121,16 @@ public final class MainOptions extends Options {
   public static final BooleanOption UPDINDEX = new BooleanOption("UPDINDEX", false);
   /** Flag for automatic index updates. */
   public static final BooleanOption AUTOOPTIMIZE = new BooleanOption("AUTOOPTIMIZE", false);
+  /** Flag for storing numeric text and attribute values in columns. */
+  public static final BooleanOption NUMCOLUMNS = new BooleanOption("NUMCOLUMNS", false);
+  /** Flag for optimizing databases in shadow files while they can still be read. */
+  public static final BooleanOption SHADOWOPTIMIZE = new BooleanOption("SHADOWOPTIMIZE", false);
   /** Index split size. */
   public static final NumberOption SPLITSIZE = new NumberOption("SPLITSIZE", 0);
+  /** Memory budget for building index structures, in megabytes (0: derived from heap size). */
+  public static final NumberOption INDEXMEMORY = new NumberOption("INDEXMEMORY", 0);
+  /** Number of threads for building index structures (0: number of processors). */
+  public static final NumberOption INDEXTHREADS = new NumberOption("INDEXTHREADS", 1);
 
   // Full-Text
 
@@ -181,8 +210,9 @@ public final class MainOptions extends Options {
 
   /** Indexing options. */
   public static final Option<?>[] INDEXING = { MAXCATS, MAXLEN, SPLITSIZE, LANGUAGE, STOPWORDS,
-    TEXTINDEX, ATTRINDEX, TOKENINDEX, FTINDEX, TEXTINCLUDE, ATTRINCLUDE, TOKENINCLUDE, FTINCLUDE,
-    STEMMING, CASESENS, DIACRITICS, UPDINDEX, AUTOOPTIMIZE };
+    TEXTINDEX, ATTRINDEX, TOKENINDEX, TRIGRAMINDEX, PATHVALUEINDEX, FTINDEX, TEXTINCLUDE,
+    ATTRINCLUDE, TOKENINCLUDE, TRIGRAMINCLUDE, PATHVALUEINCLUDE, FTINCLUDE, STEMMING, CASESENS,
+    DIACRITICS, UPDINDEX, AUTOOPTIMIZE, COMPRESSDATA, NUMCOLUMNS };
 
   /** XML Parsing options. */
   private static final Option<?>[] XMLPARSING = { INTPARSE, STRIPWS, STRIPNS, DTD, XINCLUDE,
@@ -3,6 +3,7 @@ package org.basex.core;
 import java.util.*;
 
 import org.basex.io.*;
+import org.basex.io.random.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
 import org.basex.util.options.*;
@@ -32,6 +33,8 @@ public final class StaticOptions extends Options {
   public static final BooleanOption FAIRLOCK = new BooleanOption("FAIRLOCK", false);
   /** Timeout (seconds) for remembering result of asynchronous queries. */
   public static final NumberOption CACHETIMEOUT = new NumberOption("CACHETIMEOUT", 3600);
+  /** Size of the page cache shared by all databases (megabytes); deactivated if set to 0. */
+  public static final NumberOption PAGECACHE = new NumberOption("PAGECACHE", 0);
 
   /** Comment: written to the options file. */
   public static final Comment C_CLIENT = new Comment("Client/Server Architecture");
@@ -123,6 +126,7 @@ public final class StaticOptions extends Options {
     // assigns static variables and system properties
     Prop.language = get(LANG);
     Prop.debug = get(DEBUG);
+    PageCache.SHARED.size((long) Math.max(0, get(PAGECACHE)) << 20);
     final String ph = get(PROXYHOST);
     if(!ph.isEmpty()) {
       Prop.setSystem("http.proxyHost", ph);
@@ -321,7 +321,8 @@ public interface Text {
     LI + CmdCreate.DATABASE + " [" + S_NAME + "] ([" + S_INPUT + "]):"  + NL +
     "  " + lang("c_create21", S_NAME, S_INPUT) + NL +
     LI + CmdCreate.INDEX + " [" + CmdIndex.TEXT + '|' + CmdIndex.ATTRIBUTE + '|' +
-      CmdIndex.TOKEN + '|' + CmdIndex.FULLTEXT + "]:" + NL +
+      CmdIndex.TOKEN + '|' + CmdIndex.FULLTEXT + '|' + CmdIndex.TRIGRAM + '|' +
+      CmdIndex.PATHVALUE + "]:" + NL +
     "  " + lang("c_create23") + NL +
     LI + CmdCreate.USER + " [" + S_NAME + "] ([" + S_PW + "]):" + NL +
     "  " + lang("c_create24")
@@ -396,7 +397,8 @@ public interface Text {
     LI + CmdDrop.DATABASE + " [" + S_NAME + "]:" + NL +
     "  " + lang("c_drop21") + NL +
     LI + CmdDrop.INDEX + " [" + CmdIndex.TEXT + '|' + CmdIndex.ATTRIBUTE + '|' +
-      CmdIndex.TOKEN + '|' + CmdIndex.FULLTEXT + "]:" + NL +
+      CmdIndex.TOKEN + '|' + CmdIndex.FULLTEXT + '|' + CmdIndex.TRIGRAM + '|' +
+      CmdIndex.PATHVALUE + "]:" + NL +
     "  " + lang("c_drop22") + NL +
     LI + CmdDrop.USER + " [" + S_NAME + "] (" + ON + " [pattern]): " + NL +
       "  " + lang("c_drop23")
@@ -572,6 +574,10 @@ public interface Text {
   String INDEX_ATTRIBUTES_D = lang("index_attributes") + DOTS;
   /** Create token index. */
   String INDEX_TOKENS_D = lang("index_tokens") + DOTS;
+  /** Create trigram index. */
+  String INDEX_TRIGRAMS_D = lang("index_trigrams") + DOTS;
+  /** Create path value index. */
+  String INDEX_PATHVALUES_D = lang("index_pathvalues") + DOTS;
   /** Create full-text index. */
   String INDEX_FULLTEXT_D = lang("index_fulltext") + DOTS;
 
@@ -618,6 +624,8 @@ public interface Text {
   String DB_PINNED_X = lang("db_pinned_%");
   /** Database updated. */
   String DB_UPDATED_X = lang("db_updated_%");
+  /** Database changed. */
+  String DB_CHANGED_X = lang("db_changed_%");
   /** Database closed. */
   String DB_CLOSED_X = lang("db_closed_%");
   /** Database optimized. */
@@ -864,6 +872,10 @@ public interface Text {
   String PATH_INDEX = lang("path_index");
   /** Info on token index. */
   String TOKEN_INDEX = lang("token_index");
+  /** Info on trigram index. */
+  String TRIGRAM_INDEX = lang("trigram_index");
+  /** Info on path value index. */
+  String PATHVALUE_INDEX = lang("pathvalue_index");
 
   /** Info on elements. */
   String ELEMENTS = lang("elements");
@@ -126,6 +126,15 @@ public abstract class ACreate extends Command {
     return true;
   }
 
+  /**
+   * Returns the number of threads for building index structures.
+   * @param cmd calling command (can be {@code null})
+   * @return number of threads
+   */
+  static int indexThreads(final ACreate cmd) {
+    return cmd != null ? Parallel.threads(cmd.options.get(MainOptions.INDEXTHREADS)) : 1;
+  }
+
   /**
    * Update code.
    *
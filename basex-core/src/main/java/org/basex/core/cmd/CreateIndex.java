@@ -3,6 +3,8 @@ package org.basex.core.cmd;
 import static org.basex.core.Text.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.List;
 
 import org.basex.core.*;
 import org.basex.core.parse.*;
@@ -10,6 +12,7 @@ import org.basex.core.parse.Commands.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
 import org.basex.index.*;
+import org.basex.util.*;
 import org.basex.util.ft.*;
 
 /**
@@ -46,6 +49,14 @@ public final class CreateIndex extends ACreate {
         type = IndexType.TOKEN;
         data.meta.createtoken = true;
         break;
+      case TRIGRAM:
+        type = IndexType.TRIGRAM;
+        data.meta.createtrigram = true;
+        break;
+      case PATHVALUE:
+        type = IndexType.PATHVALUE;
+        data.meta.createpathvalue = true;
+        break;
       case FULLTEXT:
         type = IndexType.FULLTEXT;
         data.meta.createft = true;
@@ -60,6 +71,7 @@ public final class CreateIndex extends ACreate {
     }
     data.meta.names(type, options);
     data.meta.splitsize = options.get(MainOptions.SPLITSIZE);
+    data.meta.indexmemory = options.get(MainOptions.INDEXMEMORY);
 
     return update(data, () -> {
       create(type, data, CreateIndex.this);
@@ -75,26 +87,65 @@ public final class CreateIndex extends ACreate {
   /**
    * Builds the index structures.
    * @param data data reference
-   * @param cmd calling command
+   * @param cmd calling command (can be {@code null})
    * @throws IOException I/O exception
    */
   static void create(final Data data, final ACreate cmd) throws IOException {
-    if(data.meta.createtext) create(IndexType.TEXT, data, cmd);
-    if(data.meta.createattr) create(IndexType.ATTRIBUTE, data, cmd);
-    if(data.meta.createtoken) create(IndexType.TOKEN, data, cmd);
-    if(data.meta.createft) create(IndexType.FULLTEXT, data, cmd);
+    final ArrayList<IndexType> types = new ArrayList<>(6);
+    if(data.meta.createtext) types.add(IndexType.TEXT);
+    if(data.meta.createattr) types.add(IndexType.ATTRIBUTE);
+    if(data.meta.createtoken) types.add(IndexType.TOKEN);
+    if(data.meta.createtrigram) types.add(IndexType.TRIGRAM);
+    if(data.meta.createpathvalue) types.add(IndexType.PATHVALUE);
+    if(data.meta.createft) types.add(IndexType.FULLTEXT);
+    create(types, data, cmd);
+    data.columns(true);
+  }
+
+  /**
+   * Builds the specified indexes. If multiple threads are available, the indexes will be built
+   * in parallel, the threads will be distributed among the value indexes, and the memory budget
+   * will be split among all indexes.
+   * @param types indexes to be built
+   * @param data data reference
+   * @param cmd calling command (can be {@code null})
+   * @throws IOException I/O exception
+   */
+  static void create(final List<IndexType> types, final Data data, final ACreate cmd)
+      throws IOException {
+
+    final int ts = types.size(), threads = indexThreads(cmd);
+    if(ts < 2 || threads < 2) {
+      for(final IndexType type : types) create(type, data, cmd);
+      return;
+    }
+
+    // the full-text index is built by a single thread
+    final int ft = types.contains(IndexType.FULLTEXT) ? 1 : 0, vs = ts - ft;
+    final int rest = Math.max(vs, threads - ft);
+    final ArrayList<Parallel.Task> tasks = new ArrayList<>(ts);
+    for(int t = 0; t < ts; t++) {
+      final IndexType type = types.get(t);
+      final int it = type == IndexType.FULLTEXT ? 1 : rest / vs + (t < rest % vs ? 1 : 0);
+      DropIndex.drop(type, data);
+      tasks.add(() -> {
+        data.createIndex(type, it, ts, cmd);
+        data.meta.index(type, true);
+      });
+    }
+    Parallel.run(tasks);
   }
 
   /**
    * Builds the specified index.
    * @param type index to be built
    * @param data data reference
-   * @param cmd calling command
+   * @param cmd calling command (can be {@code null})
    * @throws IOException I/O exception
    */
   static void create(final IndexType type, final Data data, final ACreate cmd) throws IOException {
     DropIndex.drop(type, data);
-    data.createIndex(type, cmd);
+    data.createIndex(type, indexThreads(cmd), 1, cmd);
     data.meta.index(type, true);
   }
 }
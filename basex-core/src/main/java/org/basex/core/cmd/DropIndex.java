@@ -40,6 +40,12 @@ public final class DropIndex extends ACreate {
     } else if(ci == CmdIndex.TOKEN) {
       type = IndexType.TOKEN;
       data.meta.createtoken = false;
+    } else if(ci == CmdIndex.TRIGRAM) {
+      type = IndexType.TRIGRAM;
+      data.meta.createtrigram = false;
+    } else if(ci == CmdIndex.PATHVALUE) {
+      type = IndexType.PATHVALUE;
+      data.meta.createpathvalue = false;
     } else if(ci == CmdIndex.FULLTEXT) {
       type = IndexType.FULLTEXT;
       data.meta.createft = false;
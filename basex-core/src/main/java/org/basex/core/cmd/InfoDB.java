@@ -55,6 +55,8 @@ public final class InfoDB extends AInfo {
     info(tb, MetaProp.VALUES, meta);
     info(tb, MetaProp.TIMESTAMP, meta);
     info(tb, MetaProp.UPTODATE, meta);
+    info(tb, MetaProp.CACHEHITS, meta);
+    info(tb, MetaProp.CACHEMISSES, meta);
     if(meta.corrupt) tb.add(' ' + DB_CORRUPT + NL);
 
     tb.add(NL).addExt(header, RES_PROPS);
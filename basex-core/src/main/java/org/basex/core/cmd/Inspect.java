@@ -45,7 +45,7 @@ public final class Inspect extends Command {
     final Inspection invKind = new Inspection();
     final Inspection parRef = new Inspection();
     final Inspection parChild = new Inspection();
-    final Inspection idPre = md.updindex ? new Inspection() : null;
+    final Inspection idPre = data.idmap != null ? new Inspection() : null;
     // loop through all database nodes
     for(int pre = 0; pre < md.size; pre++) {
       // check node kind
@@ -3,6 +3,8 @@ package org.basex.core.cmd;
 import static org.basex.core.Text.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.List;
 
 import org.basex.core.*;
 import org.basex.core.users.*;
@@ -45,6 +47,14 @@ public final class Optimize extends ACreate {
         data.meta.autooptimize = autooptimize;
         data.meta.dirty = true;
       }
+      // reassign numeric columns flag
+      final boolean numcolumns = options.get(MainOptions.NUMCOLUMNS);
+      if(numcolumns != data.meta.numcolumns) {
+        data.meta.numcolumns = numcolumns;
+        data.meta.dirty = true;
+      }
+      // assign memory budget for building indexes
+      data.meta.indexmemory = options.get(MainOptions.INDEXMEMORY);
       optimize(data, Optimize.this);
       return info(DB_OPTIMIZED_X, meta.name, jc().performance);
     });
@@ -86,7 +96,7 @@ public final class Optimize extends ACreate {
    * @throws IOException I/O Exception during index rebuild
    */
   public static void optimize(final Data data, final Optimize cmd) throws IOException {
-    optimize(data, false, false, false, false, cmd);
+    optimize(data, false, false, false, false, false, false, cmd);
   }
 
   /**
@@ -95,16 +105,20 @@ public final class Optimize extends ACreate {
    * @param enforceText enforce creation or deletion of text index
    * @param enforceAttr enforce creation or deletion of attribute index
    * @param enforceToken enforce creation or deletion of token index
+   * @param enforceTrigram enforce creation or deletion of trigram index
+   * @param enforcePathValue enforce creation or deletion of path value index
    * @param enforceFt enforce creation or deletion of full-text index
    * @param cmd calling command instance (can be {@code null})
    * @throws IOException I/O Exception during index rebuild
    */
   public static void optimize(final Data data, final boolean enforceText, final boolean enforceAttr,
-      final boolean enforceToken, final boolean enforceFt, final Optimize cmd) throws IOException {
+      final boolean enforceToken, final boolean enforceTrigram, final boolean enforcePathValue,
+      final boolean enforceFt, final Optimize cmd) throws IOException {
 
     // initialize structural indexes
     final MetaData meta = data.meta;
-    if(!meta.uptodate) {
+    final boolean rebuild = !meta.uptodate;
+    if(rebuild) {
       data.paths.init();
       data.elemNames.init();
       data.attrNames.init();
@@ -152,30 +166,39 @@ public final class Optimize extends ACreate {
       meta.ndocs = n;
       meta.uptodate = true;
     }
+    // create, update or drop numeric columns
+    data.columns(rebuild);
 
     // rebuild value indexes
-    optimize(IndexType.TEXT, data, meta.createtext, enforceText, cmd);
-    optimize(IndexType.ATTRIBUTE, data, meta.createattr, enforceAttr, cmd);
-    optimize(IndexType.TOKEN, data, meta.createtoken, enforceToken, cmd);
-    optimize(IndexType.FULLTEXT, data, meta.createft, enforceFt, cmd);
+    final ArrayList<IndexType> types = new ArrayList<>(6);
+    optimize(IndexType.TEXT, data, meta.createtext, enforceText, types);
+    optimize(IndexType.ATTRIBUTE, data, meta.createattr, enforceAttr, types);
+    optimize(IndexType.TOKEN, data, meta.createtoken, enforceToken, types);
+    optimize(IndexType.TRIGRAM, data, meta.createtrigram, enforceTrigram, types);
+    optimize(IndexType.PATHVALUE, data, meta.createpathvalue, enforcePathValue, types);
+    // updatable full-text index: merge incremental updates into a new index
+    optimize(IndexType.FULLTEXT, data, meta.createft,
+        enforceFt || rebuild && meta.ftindex && meta.updftindex, types);
+    CreateIndex.create(types, data, cmd);
   }
 
   /**
-   * Creates or deletes the specified index if the old and new state is different.
+   * Deletes the specified index, or adds it to the indexes to be created,
+   * if the old and new state is different.
    * @param type index type
    * @param data data reference
    * @param create new flag
    * @param enforce enforce operation
-   * @param cmd calling command instance
+   * @param types indexes to be created
    * @throws IOException I/O exception
    */
   private static void optimize(final IndexType type, final Data data, final boolean create,
-      final boolean enforce, final Optimize cmd) throws IOException {
+      final boolean enforce, final List<IndexType> types) throws IOException {
 
     // check if flags have changed
     if(create == data.meta.index(type) && !enforce) return;
     // create or drop index
-    if(create) CreateIndex.create(type, data, cmd);
+    if(create) types.add(type);
     else DropIndex.drop(type, data);
   }
 
@@ -191,11 +214,14 @@ public final class Optimize extends ACreate {
     md.lastid = size - 1;
     md.dirty = true;
 
+    data.idmap = new IdPreMap(md.lastid);
     if(data.meta.updindex) {
-      data.idmap = new IdPreMap(md.lastid);
-      if(data.meta.textindex) optimize(IndexType.TEXT, data, true, true, null);
-      if(data.meta.attrindex) optimize(IndexType.ATTRIBUTE, data, true, true, null);
-      if(data.meta.tokenindex) optimize(IndexType.TOKEN, data, true, true, null);
+      final ArrayList<IndexType> types = new ArrayList<>(4);
+      if(data.meta.textindex) types.add(IndexType.TEXT);
+      if(data.meta.attrindex) types.add(IndexType.ATTRIBUTE);
+      if(data.meta.tokenindex) types.add(IndexType.TOKEN);
+      if(data.meta.ftindex && data.meta.updftindex) types.add(IndexType.FULLTEXT);
+      CreateIndex.create(types, data, null);
     }
   }
 }
@@ -6,6 +6,7 @@ import java.io.*;
 
 import org.basex.build.*;
 import org.basex.core.*;
+import org.basex.core.locks.*;
 import org.basex.core.parse.*;
 import org.basex.core.parse.Commands.*;
 import org.basex.core.users.*;
@@ -15,6 +16,7 @@ import org.basex.io.*;
 import org.basex.io.serial.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
+import org.basex.util.*;
 import org.basex.util.list.*;
 
 /**
@@ -22,10 +24,18 @@ import org.basex.util.list.*;
  * the currently opened database. This effectively eliminates all fragmentation
  * and can lead to significant space savings after updates.
  *
+ * If {@link MainOptions#SHADOWOPTIMIZE} is enabled, the database is rebuilt while other jobs can
+ * still read it. It is only locked for writing when it is replaced with the new instance.
+ * If the database is opened by other sessions, they continue to use the old instance, and the
+ * database will be replaced as soon as it has been closed by all sessions.
+ *
  * @author BaseX Team 2005-23, BSD License
  * @author Leo Woerteler
  */
 public final class OptimizeAll extends ACreate {
+  /** Indicates if the database will be rebuilt while it can still be read by other jobs. */
+  private boolean shadow;
+
   /**
    * Default constructor.
    */
@@ -36,20 +46,58 @@ public final class OptimizeAll extends ACreate {
   @Override
   protected boolean run() {
     final Data data = context.data();
+    final String name = data.meta.name;
+    final String shadowName;
+    if(shadow) {
+      // build new database while the current database can still be read by other jobs
+      if(data.inMemory()) return error(NO_MAINMEM);
+      final DiskData odata = (DiskData) data;
+      final long updates = odata.updates();
+      try {
+        shadowName = build(odata, context, options, this);
+      } catch(final IOException ex) {
+        return error(Util.message(ex));
+      }
+      // replace read lock with write lock, discard new database if the old one was updated
+      context.locking.upgrade(this);
+      if(odata.updates() != updates) {
+        DropDB.drop(shadowName, soptions);
+        return error(DB_CHANGED_X, name);
+      }
+      // database is opened by other sessions: replace it when it has been closed
+      synchronized(context.datas) {
+        if(context.datas.pins(name) > 1) {
+          context.datas.closed(odata, () -> replace(odata, updates, shadowName, soptions));
+          return info(DB_OPTIMIZED_X, name, jc().performance);
+        }
+      }
+    } else {
+      shadowName = null;
+    }
+
     if(!update(data, () -> {
       try {
-        optimizeAll(data, context, options, OptimizeAll.this);
+        if(shadowName != null) replace((DiskData) data, shadowName, context);
+        else optimizeAll(data, context, options, OptimizeAll.this);
         return true;
       } finally {
         context.closeDB();
       }
     })) return false;
 
-    final Open open = new Open(data.meta.name);
-    return open.run(context) ? info(DB_OPTIMIZED_X, data.meta.name, jc().performance) :
+    final Open open = new Open(name);
+    return open.run(context) ? info(DB_OPTIMIZED_X, name, jc().performance) :
       error(open.info());
   }
 
+  @Override
+  public void addLocks() {
+    // shadow mode: lock database for reading, and for writing before it is replaced
+    final Context ctx = jc().context;
+    shadow = ctx != null && ctx.options.get(MainOptions.SHADOWOPTIMIZE);
+    (shadow ? jc().locks.reads : jc().locks.writes).add(Locking.CONTEXT);
+  }
+
   @Override
   public boolean newData(final Context ctx) {
     return true;
@@ -81,21 +129,40 @@ public final class OptimizeAll extends ACreate {
 
     if(data.inMemory()) throw new BaseXException(NO_MAINMEM);
 
-    final DiskData odata = (DiskData) data;
-    final MetaData ometa = odata.meta;
-
     // check if database is also pinned by other users
-    final String name = ometa.name;
+    final DiskData odata = (DiskData) data;
+    final String name = odata.meta.name;
     if(context.datas.pins(name) > 1) throw new BaseXException(DB_PINNED_X, name);
 
+    replace(odata, build(odata, context, options, cmd), context);
+  }
+
+  /**
+   * Creates a temporary database with the contents and index structures of the specified
+   * database. The original database will not be changed.
+   * @param odata disk data
+   * @param context database context
+   * @param options main options
+   * @param cmd command reference or {@code null}
+   * @return name of the temporary database
+   * @throws IOException I/O Exception during index rebuild
+   */
+  private static String build(final DiskData odata, final Context context,
+      final MainOptions options, final OptimizeAll cmd) throws IOException {
+
+    final MetaData ometa = odata.meta;
     // adopt original index options
     options.set(MainOptions.TEXTINDEX, ometa.textindex);
     options.set(MainOptions.ATTRINDEX, ometa.attrindex);
     options.set(MainOptions.TOKENINDEX, ometa.tokenindex);
+    options.set(MainOptions.TRIGRAMINDEX, ometa.trigramindex);
+    options.set(MainOptions.PATHVALUEINDEX, ometa.pathvalueindex);
     options.set(MainOptions.FTINDEX, ometa.ftindex);
     options.set(MainOptions.TEXTINCLUDE, ometa.textinclude);
     options.set(MainOptions.ATTRINCLUDE, ometa.attrinclude);
     options.set(MainOptions.TOKENINCLUDE, ometa.tokeninclude);
+    options.set(MainOptions.TRIGRAMINCLUDE, ometa.trigraminclude);
+    options.set(MainOptions.PATHVALUEINCLUDE, ometa.pathvalueinclude);
     options.set(MainOptions.FTINCLUDE, ometa.ftinclude);
     // adopt original full-text index options
     options.set(MainOptions.STEMMING, ometa.stemming);
@@ -106,10 +173,12 @@ public final class OptimizeAll extends ACreate {
     // adopt original index options
     options.set(MainOptions.MAXLEN, ometa.maxlen);
     options.set(MainOptions.MAXCATS, ometa.maxcats);
+    // adopt original storage options
+    options.set(MainOptions.COMPRESSDATA, ometa.compressdata);
 
     // build database and index structures
     final StaticOptions sopts = context.soptions;
-    final String tmpName = sopts.createTempDb(name);
+    final String tmpName = sopts.createTempDb(ometa.name);
     final DBParser parser = new DBParser(odata, options);
     final DiskBuilder builder = new DiskBuilder(tmpName, parser, sopts, options);
     if(cmd != null) cmd.pushJob(builder);
@@ -121,13 +190,14 @@ public final class OptimizeAll extends ACreate {
     } finally {
       if(cmd != null) cmd.popJob();
     }
-    Close.close(odata, context);
 
     // adopt original meta data, create new index structures
     final MetaData nmeta = ndata.meta;
     nmeta.createtext = ometa.createtext;
     nmeta.createattr = ometa.createattr;
     nmeta.createtoken = ometa.createtoken;
+    nmeta.createtrigram = ometa.createtrigram;
+    nmeta.createpathvalue = ometa.createpathvalue;
     nmeta.createft = ometa.createft;
     nmeta.original = ometa.original;
     nmeta.inputsize = ometa.inputsize;
@@ -142,14 +212,64 @@ public final class OptimizeAll extends ACreate {
     } finally {
       ndata.close();
     }
+    return tmpName;
+  }
+
+  /**
+   * Closes the specified database and replaces it with a temporary database.
+   * @param odata disk data
+   * @param tmpName name of the temporary database
+   * @param context database context
+   * @throws BaseXException database exception
+   */
+  private static void replace(final DiskData odata, final String tmpName, final Context context)
+      throws BaseXException {
+
+    Close.close(odata, context);
+    replace(odata.meta, tmpName, context.soptions);
+  }
+
+  /**
+   * Replaces a closed database with a temporary database. The temporary database is dropped if
+   * the original database has been updated after it was built.
+   * @param odata disk data
+   * @param updates number of updates of the original database when it was built
+   * @param tmpName name of the temporary database
+   * @param sopts static options
+   */
+  private static void replace(final DiskData odata, final long updates, final String tmpName,
+      final StaticOptions sopts) {
+    try {
+      if(odata.updates() == updates) {
+        replace(odata.meta, tmpName, sopts);
+      } else {
+        DropDB.drop(tmpName, sopts);
+        Util.debug(DB_CHANGED_X, odata.meta.name);
+      }
+    } catch(final BaseXException ex) {
+      Util.errln(ex);
+    }
+  }
+
+  /**
+   * Replaces a closed database with a temporary database.
+   * @param ometa meta data of the closed database
+   * @param tmpName name of the temporary database
+   * @param sopts static options
+   * @throws BaseXException database exception
+   */
+  private static void replace(final MetaData ometa, final String tmpName,
+      final StaticOptions sopts) throws BaseXException {
 
     // move file resources to new database
+    final IOFile dir = sopts.dbPath(tmpName);
     for(final ResourceType type : Resources.BINARIES) {
       final IOFile bin = ometa.dir(type);
-      if(bin.exists()) bin.rename(nmeta.dir(type));
+      if(bin.exists()) bin.rename(type.dir(dir));
     }
 
     // drop old database, rename temporary database
+    final String name = ometa.name;
     if(!DropDB.drop(name, sopts)) throw new BaseXException(DB_NOT_DROPPED_X, name);
     if(!AlterDB.alter(tmpName, name, sopts)) throw new BaseXException(DB_NOT_RENAMED_X, tmpName);
   }
@@ -1,9 +1,11 @@
 package org.basex.core.jobs;
 
+import java.io.*;
 import java.util.*;
 
 import org.basex.core.*;
 import org.basex.core.users.*;
+import org.basex.io.random.*;
 import org.basex.util.*;
 
 /**
@@ -52,13 +54,20 @@ public abstract class Job {
   }
 
   /**
-   * Unregisters the job.
+   * Unregisters the job. The locks are released before the logged updates are made durable:
+   * the updates of other jobs can be logged in the meantime and forced to disk together.
+   * The job will only be finished when its updates are durable.
    * @param ctx context
+   * @throws IOException I/O exception (logged updates could not be forced to disk)
    */
-  public final void unregister(final Context ctx) {
+  public final void unregister(final Context ctx) throws IOException {
     stopTimeout();
     ctx.locking.release();
-    ctx.jobs.unregister(this);
+    try {
+      WriteAheadLog.sync();
+    } finally {
+      ctx.jobs.unregister(this);
+    }
   }
 
   /**
@@ -88,6 +97,14 @@ public abstract class Job {
     children.remove(children.size() - 1);
   }
 
+  /**
+   * Removes the specified child job.
+   * @param job child job
+   */
+  public final synchronized void popJob(final Job job) {
+    children.remove(job);
+  }
+
   /**
    * Stops a job or sub job.
    */
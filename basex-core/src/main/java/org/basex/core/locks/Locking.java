@@ -92,6 +92,25 @@ public final class Locking {
     }
   }
 
+  /**
+   * Converts the read locks of the specified job to write locks.
+   * All locks are released before the new locks are acquired, so other jobs may be executed
+   * in the meantime.
+   * @param job job that holds the locks
+   */
+  public void upgrade(final Job job) {
+    final Locks locks = job.jc().locks;
+    release();
+    locks.writes.add(locks.reads);
+    locks.writes.finish(null);
+    locks.reads.reset();
+    try {
+      acquire(locks);
+    } catch(final InterruptedException ex) {
+      throw Util.notExpected("Thread was interrupted: %", ex);
+    }
+  }
+
   /**
    * Puts read and write locks for the specified lock lists.
    * The lists must have been prepared for locking (see {@link Locks#finish(Context)}).
@@ -107,11 +107,15 @@ public abstract class Data {
   public ValueIndex tokenIndex;
   /** Full-text index. */
   public ValueIndex ftIndex;
+  /** Trigram index. */
+  public ValueIndex trigramIndex;
+  /** Path value index. */
+  public ValueIndex pathValueIndex;
 
   /** Indicates if distances are to be updated. */
   public boolean updateDists = true;
-  /** ID-PRE mapping. */
-  public IdPreMap idmap;
+  /** ID-PRE mapping (if {@code null}, it will be created from the table when it is requested). */
+  public volatile IdPreMap idmap;
 
   /** Table access file. */
   protected TableAccess table;
@@ -142,12 +146,15 @@ public abstract class Data {
   }
 
   /**
-   * Drops the specified index.
-   * @param type index to be dropped
-   * @param cmd calling command
+   * Creates the specified index.
+   * @param type index to be created
+   * @param threads number of threads to use
+   * @param builders number of indexes that are built concurrently
+   * @param cmd calling command (can be {@code null})
    * @throws IOException I/O exception
    */
-  public abstract void createIndex(IndexType type, Command cmd) throws IOException;
+  public abstract void createIndex(IndexType type, int threads, int builders, Command cmd)
+      throws IOException;
 
   /**
    * Drops the specified index.
@@ -156,6 +163,23 @@ public abstract class Data {
    */
   public abstract void dropIndex(IndexType type) throws BaseXException;
 
+  /**
+   * Returns the numeric columns of the database.
+   * @return columns, or {@code null} if they are not available or outdated
+   */
+  public NumericColumns columns() {
+    return null;
+  }
+
+  /**
+   * Creates or deletes the numeric columns, depending on the {@link MetaData#numcolumns} flag.
+   * Must only be called if the path index is up-to-date.
+   * @param enforce enforce the creation of existing columns
+   * @throws IOException I/O exception
+   */
+  @SuppressWarnings("unused")
+  public void columns(final boolean enforce) throws IOException { }
+
   /**
    * Starts an update operation: writes a file to disk to indicate that an update is going on,
    * and exclusively locks the table file.
@@ -167,8 +191,9 @@ public abstract class Data {
   /**
    * Finishes an update operation: removes the update file and the exclusive lock.
    * @param opts main options
+   * @throws IOException I/O exception (the changes could not be made persistent)
    */
-  public abstract void finishUpdate(MainOptions opts);
+  public abstract void finishUpdate(MainOptions opts) throws IOException;
 
   /**
    * Flushes updated data.
@@ -218,6 +243,8 @@ public abstract class Data {
       case ATTRIBUTE: return attrIndex;
       case TOKEN:     return tokenIndex;
       case FULLTEXT:  return ftIndex;
+      case TRIGRAM:   return trigramIndex;
+      case PATHVALUE: return pathValueIndex;
       case PATH:      return paths;
       default:        throw Util.notExpected();
     }
@@ -278,19 +305,20 @@ public abstract class Data {
    * @return pre value or {@code -1} if id was not found
    */
   public final int pre(final int id) {
-    if(meta.updindex) return idmap.pre(id);
+    IdPreMap map = idmap;
+    if(map == null) map = idPreMap();
+    // check if the node exists
+    final int pre = map.pre(id);
+    return pre >= 0 && pre < meta.size && id(pre) == id ? pre : -1;
+  }
 
-    // find pre value in the table; start with specified id
-    final int size = meta.size;
-    for(int p = Math.max(0, id); p < meta.size; ++p) {
-      if(id == id(p)) return p;
-    }
-    final int ps = Math.min(size, id);
-    for(int p = 0; p < ps; ++p) {
-      if(id == id(p)) return p;
-    }
-    // id not found
-    return -1;
+  /**
+   * Returns the ID-PRE mapping. If no mapping exists, it is created by scanning the table.
+   * @return mapping
+   */
+  private synchronized IdPreMap idPreMap() {
+    if(idmap == null) idmap = new IdPreMap(this);
+    return idmap;
   }
 
   /**
@@ -544,18 +572,23 @@ public abstract class Data {
       } else {
         // update element name
         final IntList pres = new IntList();
-        // update text index
-        if(meta.updindex && meta.textindex) {
+        // update text and full-text index
+        final boolean text = meta.updindex && meta.textindex, ft = updFtIndex();
+        if(text || ft) {
           final int last = pre + size;
           for(int curr = pre + attSize(pre, kind); curr < last; curr += size(curr, kind(curr))) {
             if(kind(curr) == TEXT) pres.add(curr);
           }
-          textIndex.delete(new ValueCache(pres, IndexType.TEXT, this));
+          if(text) textIndex.delete(new ValueCache(pres, IndexType.TEXT, this));
+          if(ft) ftIndex.delete(new ValueCache(pres, IndexType.FULLTEXT, this));
         }
         table.write1(pre, 3, uriId);
         final int nameId = elemNames.put(name);
         table.write2(nsPre, 1, (nsFlag || nsFlag(nsPre) ? 1 << 15 : 0) | nameId);
-        if(!pres.isEmpty()) textIndex.add(new ValueCache(pres, IndexType.TEXT, this));
+        if(!pres.isEmpty()) {
+          if(text) textIndex.add(new ValueCache(pres, IndexType.TEXT, this));
+          if(ft) ftIndex.add(new ValueCache(pres, IndexType.FULLTEXT, this));
+        }
       }
     }
   }
@@ -1083,8 +1116,10 @@ public abstract class Data {
       if(meta.textindex) textIndex.delete(new ValueCache(pre, size, IndexType.TEXT, this));
       if(meta.attrindex) attrIndex.delete(new ValueCache(pre, size, IndexType.ATTRIBUTE, this));
       if(meta.tokenindex) tokenIndex.delete(new ValueCache(pre, size, IndexType.TOKEN, this));
-      if(id != -1) idmap.delete(pre, id, -size);
+      if(updFtIndex()) ftIndex.delete(new ValueCache(pre, size, IndexType.FULLTEXT, this));
     }
+    final IdPreMap map = idmap;
+    if(id != -1 && map != null) map.delete(pre, id, -size);
   }
 
   /**
@@ -1096,14 +1131,24 @@ public abstract class Data {
    */
   protected final void indexAdd(final int pre, final int id, final int size, final DataClip clip) {
     if(id != -1) resources.insert(pre, clip);
+    final IdPreMap map = idmap;
+    if(id != -1 && map != null) map.insert(pre, id, size);
     if(meta.updindex) {
-      if(id != -1) idmap.insert(pre, id, size);
       if(meta.textindex) textIndex.add(new ValueCache(pre, size, IndexType.TEXT, this));
       if(meta.attrindex) attrIndex.add(new ValueCache(pre, size, IndexType.ATTRIBUTE, this));
       if(meta.tokenindex) tokenIndex.add(new ValueCache(pre, size, IndexType.TOKEN, this));
+      if(updFtIndex()) ftIndex.add(new ValueCache(pre, size, IndexType.FULLTEXT, this));
     }
   }
 
+  /**
+   * Indicates if an incrementally updatable full-text index exists.
+   * @return result of check
+   */
+  private boolean updFtIndex() {
+    return meta.updindex && meta.ftindex && meta.updftindex;
+  }
+
   // HELPER FUNCTIONS =============================================================================
 
   /**
@@ -16,6 +16,9 @@ public interface DataText {
   /** Index version; older version cannot open indexes of these instances. */
   String ISTORAGE = "8.6";
 
+  /** Version of compressed databases; older versions cannot open these instances. */
+  String CSTORAGE = "10.7";
+
   /** Database version. */
   String DBSTR = "STORAGE";
   /** Database version. */
@@ -32,14 +35,26 @@ public interface DataText {
   String DBNDOCS = "NDOCS";
   /** Automatic index update. */
   String DBUPDIDX = "UPDINDEX";
+  /** Incremental full-text index update. */
+  String DBUPDFTX = "UPDFTX";
+  /** Persistent ID-PRE mapping. */
+  String DBIDMAP = "IDMAP";
   /** Automatic optimization. */
   String DBAUTOOPT = "AUTOOPT";
+  /** Compressed storage. */
+  String DBCOMPRESS = "COMPRESS";
+  /** Numeric columns. */
+  String DBNUMCOL = "NUMCOL";
   /** Text index. */
   String DBTXTIDX = "TXTINDEX";
   /** Attribute index. */
   String DBATVIDX = "ATVINDEX";
   /** Token index. */
   String DBTOKIDX = "TOKINDEX";
+  /** Trigram index. */
+  String DBTRIIDX = "TRIINDEX";
+  /** Path value index. */
+  String DBPVLIDX = "PVLINDEX";
   /** Full-text index. */
   String DBFTXIDX = "FTXINDEX";
   /** Text index: names. */
@@ -48,6 +63,10 @@ public interface DataText {
   String DBATVINC = "ATVINC";
   /** Token index: names. */
   String DBTOKINC = "TOKINC";
+  /** Trigram index: names. */
+  String DBTRIINC = "TRIINC";
+  /** Path value index: paths. */
+  String DBPVLINC = "PVLINC";
   /** Full-text index: names. */
   String DBFTXINC = "FTXINC";
   /** Full-text stemming. */
@@ -64,6 +83,10 @@ public interface DataText {
   String DBMAXLEN = "MAXLEN";
   /** Maximum number of categories. */
   String DBMAXCATS = "MAXCATS";
+  /** Full-text index: number of indexed text nodes. */
+  String DBFTNODES = "FTNODES";
+  /** Full-text index: total length of indexed text nodes. */
+  String DBFTLEN = "FTLEN";
   /** Index split size. */
   String DBSPLITS = "SPLITS";
   /** Up-to-date flag. */
@@ -78,6 +101,10 @@ public interface DataText {
   String DBCRTATV = "CRTATV";
   /** Recreate token index. */
   String DBCRTTOK = "CRTTOK";
+  /** Recreate trigram index. */
+  String DBCRTTRI = "CRTTRI";
+  /** Recreate path value index. */
+  String DBCRTPVL = "CRTPVL";
   /** Recreate full-text index. */
   String DBCRTFTX = "CRTFTX";
 
@@ -104,6 +131,10 @@ public interface DataText {
   String DATAATV = "atv";
   /** Database - Token index. */
   String DATATOK = "tok";
+  /** Database - Trigram index. */
+  String DATATRI = "tri";
+  /** Database - Path value index. */
+  String DATAPVL = "pvl";
   /** Database - Full-text index. */
   String DATAFTX = "ftx";
   /** Database - Stopword list. */
@@ -114,6 +145,10 @@ public interface DataText {
   String DATAPTH = "pth";
   /** Database - ID-PRE mapping. */
   String DATAIDP = "idp";
+  /** Database - Numeric columns. */
+  String DATACOL = "col";
+  /** Database - Write-ahead log. */
+  String DATAWAL = "wal";
 
   // XML SERIALIZATION ============================================================================
 
@@ -5,6 +5,7 @@ import static org.basex.data.DataText.*;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.util.*;
 
 import org.basex.build.*;
 import org.basex.core.*;
@@ -16,6 +17,7 @@ import org.basex.index.path.*;
 import org.basex.index.value.*;
 import org.basex.io.*;
 import org.basex.io.in.DataInput;
+import org.basex.io.out.*;
 import org.basex.io.out.DataOutput;
 import org.basex.io.random.*;
 import org.basex.util.*;
@@ -56,6 +58,16 @@ public final class DiskData extends Data {
   private DataAccess texts;
   /** Values access file. */
   private DataAccess values;
+  /** Numeric columns (can be {@code null}). */
+  private volatile NumericColumns columns;
+  /** Indicates if the numeric columns have been read. */
+  private volatile boolean colsRead;
+  /** Write-ahead log (can be {@code null}). */
+  private WriteAheadLog wal;
+  /** Indicates if an update is running. */
+  private boolean updating;
+  /** Number of started updates. */
+  private volatile long updates;
 
   /**
    * Default constructor, called from {@link Open#open}.
@@ -65,6 +77,10 @@ public final class DiskData extends Data {
   public DiskData(final MetaData meta) throws IOException {
     super(meta);
 
+    // open write-ahead log: files of committed updates will be restored before they are read
+    final IOFile log = meta.dbFile(DATAWAL);
+    if(meta.wal || log.exists()) wal = new WriteAheadLog(log);
+
     try(DataInput in = new DataInput(meta.dbFile(DATAINF))) {
       meta.read(in);
       while(true) {
@@ -82,8 +98,8 @@ public final class DiskData extends Data {
 
     // open data and indexes
     init();
+    if(meta.idmap || meta.updindex) idmap = new IdPreMap(meta.dbFile(DATAIDP));
     if(meta.updindex) {
-      idmap = new IdPreMap(meta.dbFile(DATAIDP));
       if(meta.textindex) textIndex = new UpdatableDiskValues(this, IndexType.TEXT);
       if(meta.attrindex) attrIndex = new UpdatableDiskValues(this, IndexType.ATTRIBUTE);
       if(meta.tokenindex) tokenIndex = new UpdatableDiskValues(this, IndexType.TOKEN);
@@ -92,7 +108,18 @@ public final class DiskData extends Data {
       if(meta.attrindex) attrIndex = new DiskValues(this, IndexType.ATTRIBUTE);
       if(meta.tokenindex) tokenIndex = new DiskValues(this, IndexType.TOKEN);
     }
-    if(meta.ftindex) ftIndex = new FTIndex(this);
+    if(meta.ftindex) ftIndex = meta.updindex && meta.updftindex ? new UpdatableFTIndex(this) :
+      new FTIndex(this);
+    if(meta.trigramindex) trigramIndex = new DiskValues(this, IndexType.TRIGRAM);
+    if(meta.pathvalueindex) pathValueIndex = new DiskValues(this, IndexType.PATHVALUE);
+
+    if(wal != null) {
+      for(final ValueIndex index : new ValueIndex[] { textIndex, attrIndex, tokenIndex }) {
+        if(index != null) index.log(wal);
+      }
+      // write back pages that have been recovered from the log
+      if(wal.recovered()) flush(true);
+    }
   }
 
   /**
@@ -113,7 +140,7 @@ public final class DiskData extends Data {
     this.paths = paths;
     this.nspaces = nspaces;
     paths.data(this);
-    if(meta.updindex) idmap = new IdPreMap(meta.lastid);
+    idmap = new IdPreMap(meta.lastid);
     init();
   }
 
@@ -122,9 +149,36 @@ public final class DiskData extends Data {
    * @throws IOException I/O exception
    */
   private void init() throws IOException {
-    table = new TableDiskAccess(meta, false);
-    texts = new DataAccess(meta.dbFile(DATATXT));
-    values = new DataAccess(meta.dbFile(DATAATV));
+    final TableDiskAccess tda = new TableDiskAccess(meta, false);
+    texts = new DataAccess(meta.dbFile(DATATXT), meta.cache, compressed(DATATXT));
+    values = new DataAccess(meta.dbFile(DATAATV), meta.cache, compressed(DATAATV));
+    if(wal != null) {
+      tda.log(wal);
+      texts.log(wal);
+      values.log(wal);
+    }
+    table = tda;
+    concurrent(true);
+  }
+
+  /**
+   * Returns the directory file of a compressed heap file.
+   * @param name name of the heap file
+   * @return directory file, or {@code null} if the database is not compressed
+   */
+  private IOFile compressed(final String name) {
+    return meta.compressdata ? meta.dbFile(name + 'z') : null;
+  }
+
+  /**
+   * Enables or disables concurrent read access to the text and attribute value files.
+   * If {@link MetaData#mapdata} is set, the table file will be mapped and unmapped
+   * when its lock is changed.
+   * @param enable enable or disable concurrent reads
+   */
+  private void concurrent(final boolean enable) {
+    texts.concurrent(enable, meta.mapdata);
+    values.concurrent(enable, meta.mapdata);
   }
 
   /**
@@ -134,29 +188,140 @@ public final class DiskData extends Data {
   private void write() throws IOException {
     if(!meta.dirty) return;
 
+    final IdPreMap map = idmap;
     try(DataOutput out = new DataOutput(meta.dbFile(DATAINF))) {
-      meta.write(out);
-      out.writeToken(token(DBTAGS));
-      elemNames.write(out);
-      out.writeToken(token(DBATTS));
-      attrNames.write(out);
-      out.writeToken(token(DBPATH));
-      paths.write(out);
-      out.writeToken(token(DBNS));
-      nspaces.write(out);
-      out.writeToken(token(DBDOCS));
-      resources.write(out);
-      out.write(0);
+      write(out);
     }
-    if(meta.updindex) idmap.write(meta.dbFile(DATAIDP));
+    if(map != null) map.write(meta.dbFile(DATAIDP));
+    final UpdatableFTIndex ftx = updatableFtIndex();
+    if(ftx != null) ftx.write(meta.dbFile(DATAFTX + 'd'));
     meta.dirty = false;
   }
 
+  /**
+   * Writes all meta data to the specified output.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  private void write(final DataOutput out) throws IOException {
+    write(out, () -> { });
+  }
+
+  /**
+   * Writes all meta data to the specified output.
+   * @param out output stream
+   * @param part called after each part of the meta data has been written
+   * @throws IOException I/O exception
+   */
+  private void write(final DataOutput out, final Runnable part) throws IOException {
+    meta.idmap = idmap != null;
+    meta.write(out);
+    part.run();
+    out.writeToken(token(DBTAGS));
+    elemNames.write(out);
+    part.run();
+    out.writeToken(token(DBATTS));
+    attrNames.write(out);
+    part.run();
+    out.writeToken(token(DBPATH));
+    paths.write(out);
+    part.run();
+    out.writeToken(token(DBNS));
+    nspaces.write(out);
+    part.run();
+    out.writeToken(token(DBDOCS));
+    resources.write(out);
+    out.write(0);
+    part.run();
+  }
+
+  /**
+   * Appends the changes of the current update to the write-ahead log.
+   * All logged changes are written back if the log gets too large, or if database files have
+   * been written directly (see {@link #unlogged()}). This checkpoint is performed by the updating
+   * job, as the database files must not be accessed by other jobs while they are written.
+   * @throws IOException I/O exception
+   */
+  private void commit() throws IOException {
+    if(meta.dirty) {
+      // files are logged in parts: only the changed bytes of each part will be logged
+      final ArrayOutput ao = new ArrayOutput();
+      final ArrayList<byte[]> parts = new ArrayList<>();
+      try(DataOutput out = new DataOutput(ao)) {
+        write(out, () -> parts.add(ao.next()));
+      }
+      wal.file(meta.dbFile(DATAINF), parts.toArray(new byte[0][]));
+      final IdPreMap map = idmap;
+      if(map != null) {
+        parts.clear();
+        try(DataOutput out = new DataOutput(ao)) {
+          map.write(out, () -> parts.add(ao.next()));
+        }
+        wal.file(meta.dbFile(DATAIDP), parts.toArray(new byte[0][]));
+      }
+      final UpdatableFTIndex ftx = updatableFtIndex();
+      if(ftx != null) {
+        final ArrayOutput ftd = new ArrayOutput();
+        try(DataOutput out = new DataOutput(ftd)) {
+          ftx.write(out);
+        }
+        wal.file(meta.dbFile(DATAFTX + 'd'), ftd.finish());
+      }
+    }
+    wal.commit();
+
+    final IOFile upd = meta.updateFile();
+    final boolean unlogged = upd.exists();
+    if(unlogged || wal.size() > WriteAheadLog.CHECKPOINT) flush(true);
+    if(unlogged && !upd.delete()) {
+      throw Util.notExpected("%: could not delete lock file.", meta.name);
+    }
+  }
+
+  /**
+   * Prepares an operation that writes database files directly, bypassing the write-ahead log:
+   * all logged changes are written back. If the operation is part of an update, the updating
+   * file is created, which will be deleted when the update is finished.
+   */
+  private void unlogged() {
+    if(wal == null) return;
+    final IOFile upd = meta.updateFile();
+    if(updating && !upd.exists() && !upd.touch()) {
+      throw Util.notExpected("%: could not create lock file.", meta.name);
+    }
+    flush(true);
+  }
+
+  /**
+   * Returns the full-text index if it is incrementally updatable.
+   * @return index or {@code null}
+   */
+  private UpdatableFTIndex updatableFtIndex() {
+    return ftIndex instanceof UpdatableFTIndex ? (UpdatableFTIndex) ftIndex : null;
+  }
+
+  /**
+   * Swaps in the results of a finished background merge of the full-text index.
+   */
+  private void swapFtIndex() {
+    final UpdatableFTIndex ftx = updatableFtIndex();
+    if(ftx == null || !ftx.merged()) return;
+    unlogged();
+    try {
+      ftx.swap();
+    } catch(final IOException ex) {
+      Util.stack(ex);
+    }
+  }
+
   @Override
   public synchronized void close() {
     if(closed) return;
     super.close();
     try {
+      // logged changes must be durable before they are written back
+      if(wal != null) wal.force();
+      swapFtIndex();
       write();
       table.close();
       texts.close();
@@ -165,6 +330,12 @@ public final class DiskData extends Data {
       close(IndexType.ATTRIBUTE);
       close(IndexType.TOKEN);
       close(IndexType.FULLTEXT);
+      close(IndexType.TRIGRAM);
+      close(IndexType.PATHVALUE);
+      if(wal != null) {
+        wal.checkpoint();
+        wal.close();
+      }
     } catch(final IOException ex) {
       Util.stack(ex);
     }
@@ -184,42 +355,75 @@ public final class DiskData extends Data {
   }
 
   @Override
-  public void createIndex(final IndexType type, final Command cmd) throws IOException {
+  public void createIndex(final IndexType type, final int threads, final int builders,
+      final Command cmd) throws IOException {
     // close existing index
+    unlogged();
     close(type);
     final IndexBuilder ib;
     switch(type) {
-      case TEXT: case ATTRIBUTE: case TOKEN: ib = new DiskValuesBuilder(this, type); break;
-      case FULLTEXT: ib = new FTBuilder(this); break;
+      case TEXT: case ATTRIBUTE: case TOKEN: case TRIGRAM: case PATHVALUE:
+        ib = new DiskValuesBuilder(this, type, threads, builders); break;
+      case FULLTEXT: ib = new FTBuilder(this, builders); break;
       default: throw Util.notExpected();
     }
     try {
       if(cmd != null) cmd.pushJob(ib);
       set(type, ib.build());
     } finally {
-      if(cmd != null) cmd.popJob();
+      if(cmd != null) cmd.popJob(ib);
     }
   }
 
   @Override
   public void dropIndex(final IndexType type) throws BaseXException {
+    unlogged();
     close(type);
     final Index index = index(type);
     if(index != null && !index.drop()) throw new BaseXException(INDEX_NOT_DROPPED_X, type);
   }
 
+  @Override
+  public NumericColumns columns() {
+    if(!meta.numcolumns || !meta.uptodate) return null;
+    if(!colsRead) {
+      synchronized(this) {
+        if(!colsRead) {
+          columns = NumericColumns.read(this);
+          colsRead = true;
+        }
+      }
+    }
+    return columns;
+  }
+
+  @Override
+  public synchronized void columns(final boolean enforce) throws IOException {
+    final IOFile file = meta.dbFile(DATACOL);
+    if(!enforce && meta.numcolumns == file.exists()) return;
+
+    unlogged();
+    columns = null;
+    colsRead = false;
+    if(meta.numcolumns) NumericColumns.build(this);
+    else file.delete();
+  }
+
   /**
    * Assigns the specified index.
    * @param type index to be opened
    * @param index index instance
    */
-  private void set(final IndexType type, final ValueIndex index) {
+  private synchronized void set(final IndexType type, final ValueIndex index) {
     meta.dirty = true;
+    if(wal != null && index != null) index.log(wal);
     switch(type) {
       case TEXT:      textIndex = index; break;
       case ATTRIBUTE: attrIndex = index; break;
       case TOKEN:     tokenIndex = index; break;
       case FULLTEXT:  ftIndex = index; break;
+      case TRIGRAM:   trigramIndex = index; break;
+      case PATHVALUE: pathValueIndex = index; break;
       default:        break;
     }
   }
@@ -227,33 +431,54 @@ public final class DiskData extends Data {
   @Override
   public void startUpdate(final MainOptions opts) throws BaseXException {
     if(!table.lock(true)) throw new BaseXException(DB_PINNED_X, meta.name);
-    if(opts.get(MainOptions.AUTOFLUSH)) {
+    concurrent(false);
+    if(wal != null || opts.get(MainOptions.AUTOFLUSH)) {
       final IOFile upd = meta.updateFile();
       if(upd.exists()) throw new BaseXException(DB_UPDATED_X, meta.name);
-      if(!upd.touch()) throw Util.notExpected("%: could not create lock file.", meta.name);
+      // logged updates can be recovered: the updating file is only created for unlogged operations
+      if(wal == null && !upd.touch()) {
+        throw Util.notExpected("%: could not create lock file.", meta.name);
+      }
     }
+    updating = true;
+    updates++;
   }
 
   @Override
-  public synchronized void finishUpdate(final MainOptions opts) {
+  public synchronized void finishUpdate(final MainOptions opts) throws IOException {
     // OPTIMIZE ALL will close the database before this function is called
     if(closed) return;
 
-    // remove updating file
-    final boolean auto = opts.get(MainOptions.AUTOFLUSH);
-    if(auto) {
-      final IOFile upd = meta.updateFile();
-      if(!upd.exists()) throw Util.notExpected("%: lock file does not exist.", meta.name);
-      if(!upd.delete()) throw Util.notExpected("%: could not delete lock file.", meta.name);
+    swapFtIndex();
+    updating = false;
+    if(wal != null) {
+      // log changes: pages will be written back with the next checkpoint
+      try {
+        commit();
+      } catch(final IOException ex) {
+        // keep updating file and lock: the database will be flagged as inconsistent
+        meta.updateFile().touch();
+        throw ex;
+      }
+    } else {
+      // remove updating file
+      final boolean auto = opts.get(MainOptions.AUTOFLUSH);
+      if(auto) {
+        final IOFile upd = meta.updateFile();
+        if(!upd.exists()) throw Util.notExpected("%: lock file does not exist.", meta.name);
+        if(!upd.delete()) throw Util.notExpected("%: could not delete lock file.", meta.name);
+      }
+      flush(auto);
     }
-
-    flush(auto);
     if(!table.lock(false)) throw Util.notExpected("Database '%': could not unlock.", meta.name);
+    concurrent(true);
   }
 
   @Override
   public synchronized void flush(final boolean all) {
     try {
+      // logged changes must be durable before they are written back
+      if(wal != null && all) wal.force();
       table.flush(all);
       if(all) {
         write();
@@ -261,6 +486,10 @@ public final class DiskData extends Data {
         values.flush();
         if(textIndex != null) textIndex.flush();
         if(attrIndex != null) attrIndex.flush();
+        if(tokenIndex != null) tokenIndex.flush();
+        // all changes have been written back: truncate the log
+        if(wal != null) wal.checkpoint();
+        if(!updating) concurrent(true);
       }
     } catch(final IOException ex) {
       Util.stack(ex);
@@ -276,13 +505,25 @@ public final class DiskData extends Data {
   @Override
   public long textItr(final int pre, final boolean text) {
     final long value = textRef(pre);
-    return Inline.inlined(value) ? Inline.unpackLong(value) : toLong(txt(value, text));
+    if(Inline.inlined(value)) return Inline.unpackLong(value);
+    final NumericColumns cols = columns();
+    if(cols != null) {
+      final long l = cols.itr(pre);
+      if(l != Long.MIN_VALUE) return l;
+    }
+    return toLong(txt(value, text));
   }
 
   @Override
   public double textDbl(final int pre, final boolean text) {
     final long value = textRef(pre);
-    return Inline.inlined(value) ? Inline.unpackDouble(value) : toDouble(txt(value, text));
+    if(Inline.inlined(value)) return Inline.unpackDouble(value);
+    final NumericColumns cols = columns();
+    if(cols != null) {
+      final double d = cols.dbl(pre);
+      if(!Double.isNaN(d)) return d;
+    }
+    return toDouble(txt(value, text));
   }
 
   @Override
@@ -291,9 +532,10 @@ public final class DiskData extends Data {
     if(Inline.inlined(value)) return Inline.unpackLength(value);
 
     final DataAccess da = text ? texts : values;
-    final int l = da.readNum(value & Compress.COMPRESS - 1);
+    final long pos = value & Compress.COMPRESS - 1;
+    final int l = da.readNum(pos);
     // if text is compressed, read number of compressed bytes
-    return Compress.compressed(value) ? da.readNum() : l;
+    return Compress.compressed(value) ? da.readNum(pos + Num.length(l)) : l;
   }
 
   /**
@@ -307,6 +549,14 @@ public final class DiskData extends Data {
     return Compress.compressed(offset) ? Compress.unpack(txt) : txt;
   }
 
+  /**
+   * Returns the number of updates that have been started since the database was opened.
+   * @return number of updates
+   */
+  public long updates() {
+    return updates;
+  }
+
   @Override
   public boolean inMemory() {
     return false;
@@ -17,6 +17,7 @@ import org.basex.util.hash.*;
  * This class stores and organizes the database table and the index structures
  * for textual content in a compressed memory structure.
  * The table mapping is documented in {@link Data}.
+ * If {@link MetaData#offheap} is enabled, the table and the texts are stored in direct buffers.
  *
  * @author BaseX Team 2005-23, BSD License
  * @author Christian Gruen
@@ -61,9 +62,9 @@ public final class MemData extends Data {
 
     super(new MetaData(options));
     table = new TableMemAccess(meta);
-    if(meta.updindex) idmap = new IdPreMap(meta.lastid);
-    this.texts = texts == null ? new TokenSet() : texts;
-    this.values = values == null ? new TokenSet() : values;
+    idmap = new IdPreMap(meta.lastid);
+    this.texts = texts != null ? texts : meta.offheap ? new DirectTokenSet() : new TokenSet();
+    this.values = values != null ? values : meta.offheap ? new DirectTokenSet() : new TokenSet();
     this.elemNames = elemNames == null ? new Names(meta) : elemNames;
     this.attrNames = attrNames == null ? new Names(meta) : attrNames;
     this.paths = paths == null ? new PathIndex(this) : paths;
@@ -71,12 +72,13 @@ public final class MemData extends Data {
   }
 
   @Override
-  public void createIndex(final IndexType type, final Command cmd) throws IOException {
+  public void createIndex(final IndexType type, final int threads, final int builders,
+      final Command cmd) throws IOException {
     final IndexBuilder ib;
     switch(type) {
       case TEXT: case ATTRIBUTE: case TOKEN:
         ib = new MemValuesBuilder(this, type); break;
-      case FULLTEXT:
+      case FULLTEXT: case TRIGRAM: case PATHVALUE:
         throw new BaseXException(NO_MAINMEM);
       default:
         throw Util.notExpected();
@@ -85,7 +87,7 @@ public final class MemData extends Data {
       if(cmd != null) cmd.pushJob(ib);
       set(type, ib.build());
     } finally {
-      if(cmd != null) cmd.popJob();
+      if(cmd != null) cmd.popJob(ib);
     }
   }
 
@@ -95,7 +97,9 @@ public final class MemData extends Data {
       case TEXT:
       case ATTRIBUTE:
       case TOKEN:     break;
-      case FULLTEXT:  throw new BaseXException(NO_MAINMEM);
+      case FULLTEXT:
+      case TRIGRAM:
+      case PATHVALUE: throw new BaseXException(NO_MAINMEM);
       default:        throw Util.notExpected();
     }
     set(type, null);
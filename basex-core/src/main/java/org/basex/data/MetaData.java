@@ -14,6 +14,7 @@ import org.basex.index.resource.*;
 import org.basex.io.*;
 import org.basex.io.in.DataInput;
 import org.basex.io.out.DataOutput;
+import org.basex.io.random.*;
 import org.basex.util.*;
 import org.basex.util.ft.*;
 import org.basex.util.list.*;
@@ -43,13 +44,37 @@ public final class MetaData {
   public boolean attrindex;
   /** Indicates if a token index exists. */
   public boolean tokenindex;
+  /** Indicates if a trigram index exists. */
+  public boolean trigramindex;
+  /** Indicates if a path value index exists. */
+  public boolean pathvalueindex;
   /** Indicates if a full-text index exists. */
   public boolean ftindex;
 
   /** Flag for activated automatic index update. */
   public boolean updindex;
+  /** Flag for an incrementally updatable full-text index. */
+  public boolean updftindex;
+  /** Flag for an up-to-date ID-PRE mapping on disk. */
+  public boolean idmap;
   /** Flag for automatic index updating. */
   public boolean autooptimize;
+  /** Flag for compressed table and text files. */
+  public boolean compressdata;
+  /** Flag for storing numeric values in columns. */
+  public boolean numcolumns;
+  /** Flag for memory-mapped read access (not stored on disk). */
+  public boolean mapdata;
+  /** Maximum number of table pages to be read in advance (not stored on disk). */
+  public int readahead;
+  /** Flag for off-heap storage of main memory databases (not stored on disk). */
+  public boolean offheap;
+  /** Memory budget for building index structures, in megabytes (not stored on disk). */
+  public int indexmemory;
+  /** Flag for write-ahead logging of updates (not stored on disk). */
+  public boolean wal;
+  /** Page cache statistics (not stored on disk). */
+  public final CacheStats cache = new CacheStats();
 
   /** Indicates if the text index is to be recreated. */
   public boolean createtext;
@@ -57,6 +82,10 @@ public final class MetaData {
   public boolean createattr;
   /** Indicates if the token index is to be recreated. */
   public boolean createtoken;
+  /** Indicates if the trigram index is to be recreated. */
+  public boolean createtrigram;
+  /** Indicates if the path value index is to be recreated. */
+  public boolean createpathvalue;
   /** Indicates if the full-text index is to be recreated. */
   public boolean createft;
   /** Text index: names to include. */
@@ -65,6 +94,10 @@ public final class MetaData {
   public String attrinclude;
   /** Token index: names to tokenize. */
   public String tokeninclude;
+  /** Trigram index: names to include. */
+  public String trigraminclude;
+  /** Path value index: paths to include. */
+  public String pathvalueinclude;
   /** Full-text index: names to include. */
   public String ftinclude;
 
@@ -83,6 +116,10 @@ public final class MetaData {
   public int maxlen;
   /** Split size for creating indexes. */
   public int splitsize;
+  /** Full-text index: number of indexed text nodes ({@code -1}: unknown). */
+  public int ftnodes = -1;
+  /** Full-text index: total length of the indexed text nodes. */
+  public long ftlength;
 
   /** Language of full-text search index. */
   public Language language;
@@ -134,12 +171,21 @@ public final class MetaData {
     createtext = options.get(MainOptions.TEXTINDEX);
     createattr = options.get(MainOptions.ATTRINDEX);
     createtoken = options.get(MainOptions.TOKENINDEX);
+    createtrigram = options.get(MainOptions.TRIGRAMINDEX);
+    createpathvalue = options.get(MainOptions.PATHVALUEINDEX);
     createft = options.get(MainOptions.FTINDEX);
     diacritics = options.get(MainOptions.DIACRITICS);
     stemming = options.get(MainOptions.STEMMING);
     casesens = options.get(MainOptions.CASESENS);
     updindex = options.get(MainOptions.UPDINDEX);
     autooptimize = options.get(MainOptions.AUTOOPTIMIZE);
+    compressdata = options.get(MainOptions.COMPRESSDATA);
+    numcolumns = options.get(MainOptions.NUMCOLUMNS);
+    mapdata = options.get(MainOptions.MAPDATA);
+    offheap = options.get(MainOptions.OFFHEAP);
+    wal = options.get(MainOptions.WAL);
+    readahead = options.get(MainOptions.READAHEAD);
+    indexmemory = options.get(MainOptions.INDEXMEMORY);
     maxlen = options.get(MainOptions.MAXLEN);
     maxcats = options.get(MainOptions.MAXCATS);
     stopwords = options.get(MainOptions.STOPWORDS);
@@ -147,6 +193,8 @@ public final class MetaData {
     textinclude = options.get(MainOptions.TEXTINCLUDE);
     attrinclude = options.get(MainOptions.ATTRINCLUDE);
     tokeninclude = options.get(MainOptions.TOKENINCLUDE);
+    trigraminclude = options.get(MainOptions.TRIGRAMINCLUDE);
+    pathvalueinclude = options.get(MainOptions.PATHVALUEINCLUDE);
     ftinclude = options.get(MainOptions.FTINCLUDE);
     splitsize = options.get(MainOptions.SPLITSIZE);
   }
@@ -328,6 +376,8 @@ public final class MetaData {
       case TEXT:      return textindex;
       case ATTRIBUTE: return attrindex;
       case TOKEN:     return tokenindex;
+      case TRIGRAM:   return trigramindex;
+      case PATHVALUE: return pathvalueindex;
       case FULLTEXT:  return ftindex;
       default:        throw Util.notExpected();
     }
@@ -343,6 +393,8 @@ public final class MetaData {
       case TEXT:      textindex = exists; break;
       case ATTRIBUTE: attrindex = exists; break;
       case TOKEN:     tokenindex = exists; break;
+      case TRIGRAM:   trigramindex = exists; break;
+      case PATHVALUE: pathvalueindex = exists; break;
       case FULLTEXT:  ftindex = exists; break;
       default:        throw Util.notExpected();
     }
@@ -358,6 +410,8 @@ public final class MetaData {
       case TEXT:      return textinclude;
       case ATTRIBUTE: return attrinclude;
       case TOKEN:     return tokeninclude;
+      case TRIGRAM:   return trigraminclude;
+      case PATHVALUE: return pathvalueinclude;
       case FULLTEXT:  return ftinclude;
       default:        throw Util.notExpected();
     }
@@ -373,6 +427,8 @@ public final class MetaData {
       case TEXT:      textinclude = options.get(MainOptions.TEXTINCLUDE); break;
       case ATTRIBUTE: attrinclude = options.get(MainOptions.ATTRINCLUDE); break;
       case TOKEN:     tokeninclude = options.get(MainOptions.TOKENINCLUDE); break;
+      case TRIGRAM:   trigraminclude = options.get(MainOptions.TRIGRAMINCLUDE); break;
+      case PATHVALUE: pathvalueinclude = options.get(MainOptions.PATHVALUEINCLUDE); break;
       case FULLTEXT:  ftinclude = options.get(MainOptions.FTINCLUDE); break;
       default:        throw Util.notExpected();
     }
@@ -401,24 +457,36 @@ public final class MetaData {
         case DBNDOCS:    ndocs = toInt(v); break;
         case DBMAXLEN:   maxlen = toInt(v); break;
         case DBMAXCATS:  maxcats = toInt(v); break;
+        case DBFTNODES:  ftnodes = toInt(v); break;
+        case DBFTLEN:    ftlength = toLong(v); break;
         case DBLASTID:   lastid = toInt(v); break;
         case DBTIME:     time = toLong(v); break;
         case DBFSIZE:    inputsize = toLong(v); break;
         case DBFTDC:     diacritics = toBoolean(v); break;
         case DBUPDIDX:   updindex = toBoolean(v); break;
+        case DBUPDFTX:   updftindex = toBoolean(v); break;
+        case DBIDMAP:    idmap = toBoolean(v); break;
         case DBAUTOOPT:  autooptimize = toBoolean(v); break;
+        case DBCOMPRESS: compressdata = toBoolean(v); break;
+        case DBNUMCOL:   numcolumns = toBoolean(v); break;
         case DBTXTIDX:   textindex = toBoolean(v); break;
         case DBATVIDX:   attrindex = toBoolean(v); break;
         case DBTOKIDX:   tokenindex = toBoolean(v); break;
+        case DBTRIIDX:   trigramindex = toBoolean(v); break;
+        case DBPVLIDX:   pathvalueindex = toBoolean(v); break;
         case DBFTXIDX:   ftindex = toBoolean(v); break;
         case DBTXTINC:   textinclude = v; break;
         case DBATVINC:   attrinclude = v; break;
         case DBTOKINC:   tokeninclude = v; break;
+        case DBTRIINC:   trigraminclude = v; break;
+        case DBPVLINC:   pathvalueinclude = v; break;
         case DBFTXINC:   ftinclude = v; break;
         case DBSPLITS:   splitsize = toInt(v); break;
         case DBCRTTXT:   createtext = toBoolean(v); break;
         case DBCRTATV:   createattr = toBoolean(v); break;
         case DBCRTTOK:   createtoken = toBoolean(v); break;
+        case DBCRTTRI:   createtrigram = toBoolean(v); break;
+        case DBCRTPVL:   createpathvalue = toBoolean(v); break;
         case DBCRTFTX:   createft = toBoolean(v); break;
         case DBFTST:     stemming = toBoolean(v); break;
         case DBFTCS:     casesens = toBoolean(v); break;
@@ -428,7 +496,7 @@ public final class MetaData {
 
     // check version of database storage
     if(!storage.equals(STORAGE) && new Version(storage).compareTo(new Version(
-        STORAGE)) > 0) throw new BuildException(H_DB_FORMAT, storage);
+        CSTORAGE)) > 0) throw new BuildException(H_DB_FORMAT, storage);
     // check version of database indexes
     oldindex = !istorage.equals(ISTORAGE) &&
         new Version(istorage).compareTo(new Version(ISTORAGE)) > 0;
@@ -441,7 +509,7 @@ public final class MetaData {
    * @throws IOException I/O Exception
    */
   void write(final DataOutput out) throws IOException {
-    writeInfo(out, DBSTR,      STORAGE);
+    writeInfo(out, DBSTR,      compressdata ? CSTORAGE : STORAGE);
     writeInfo(out, DBFNAME,    original);
     writeInfo(out, DBTIME,     time);
     writeInfo(out, IDBSTR,     ISTORAGE);
@@ -449,19 +517,29 @@ public final class MetaData {
     writeInfo(out, DBNDOCS,    ndocs);
     writeInfo(out, DBSIZE,     size);
     writeInfo(out, DBUPDIDX,   updindex);
+    writeInfo(out, DBUPDFTX,   updftindex);
+    writeInfo(out, DBIDMAP,    idmap);
     writeInfo(out, DBAUTOOPT,  autooptimize);
+    writeInfo(out, DBCOMPRESS, compressdata);
+    writeInfo(out, DBNUMCOL,   numcolumns);
     writeInfo(out, DBTXTIDX,   textindex);
     writeInfo(out, DBATVIDX,   attrindex);
     writeInfo(out, DBTOKIDX,   tokenindex);
+    writeInfo(out, DBTRIIDX,   trigramindex);
+    writeInfo(out, DBPVLIDX,   pathvalueindex);
     writeInfo(out, DBFTXIDX,   ftindex);
     writeInfo(out, DBTXTINC,   textinclude);
     writeInfo(out, DBATVINC,   attrinclude);
     writeInfo(out, DBTOKINC,   tokeninclude);
+    writeInfo(out, DBTRIINC,   trigraminclude);
+    writeInfo(out, DBPVLINC,   pathvalueinclude);
     writeInfo(out, DBFTXINC,   ftinclude);
     writeInfo(out, DBSPLITS,   splitsize);
     writeInfo(out, DBCRTTXT,   createtext);
     writeInfo(out, DBCRTATV,   createattr);
     writeInfo(out, DBCRTTOK,   createtoken);
+    writeInfo(out, DBCRTTRI,   createtrigram);
+    writeInfo(out, DBCRTPVL,   createpathvalue);
     writeInfo(out, DBCRTFTX,   createft);
     writeInfo(out, DBFTST,     stemming);
     writeInfo(out, DBFTCS,     casesens);
@@ -469,6 +547,8 @@ public final class MetaData {
     writeInfo(out, DBFTSW,     stopwords);
     writeInfo(out, DBMAXLEN,   maxlen);
     writeInfo(out, DBMAXCATS,  maxcats);
+    writeInfo(out, DBFTNODES,  ftnodes);
+    writeInfo(out, DBFTLEN,    ftlength);
     writeInfo(out, DBUPTODATE, uptodate);
     writeInfo(out, DBLASTID,   lastid);
     if(language != null) writeInfo(out, DBFTLN, language.toString());
@@ -488,7 +568,9 @@ public final class MetaData {
       attrindex = false;
       tokenindex = false;
     }
-    ftindex = false;
+    trigramindex = false;
+    pathvalueindex = false;
+    if(!updftindex) ftindex = false;
   }
 
   /**
@@ -60,6 +60,16 @@ public enum MetaProp {
     public Boolean value(final MetaData meta) { return meta.uptodate; }
   },
   /** Property. */
+  CACHEHITS(false) {
+    @Override
+    public Long value(final MetaData meta) { return meta.cache.hits(); }
+  },
+  /** Property. */
+  CACHEMISSES(false) {
+    @Override
+    public Long value(final MetaData meta) { return meta.cache.misses(); }
+  },
+  /** Property. */
   INPUTPATH(false) {
     @Override
     public String value(final MetaData meta) { return meta.original; }
@@ -91,6 +101,16 @@ public enum MetaProp {
     public Boolean value(final MetaData meta) { return meta.tokenindex; }
   },
   /** Property. */
+  TRIGRAMINDEX(true) {
+    @Override
+    public Boolean value(final MetaData meta) { return meta.trigramindex; }
+  },
+  /** Property. */
+  PATHVALUEINDEX(true) {
+    @Override
+    public Boolean value(final MetaData meta) { return meta.pathvalueindex; }
+  },
+  /** Property. */
   FTINDEX(true) {
     @Override
     public Boolean value(final MetaData meta) { return meta.ftindex; }
@@ -111,6 +131,16 @@ public enum MetaProp {
     public String value(final MetaData meta) { return meta.tokeninclude; }
   },
   /** Property. */
+  TRIGRAMINCLUDE(true) {
+    @Override
+    public String value(final MetaData meta) { return meta.trigraminclude; }
+  },
+  /** Property. */
+  PATHVALUEINCLUDE(true) {
+    @Override
+    public String value(final MetaData meta) { return meta.pathvalueinclude; }
+  },
+  /** Property. */
   FTINCLUDE(true) {
     @Override
     public String value(final MetaData meta) { return meta.ftinclude; }
@@ -151,6 +181,16 @@ public enum MetaProp {
     public Boolean value(final MetaData meta) { return meta.autooptimize; }
   },
   /** Property. */
+  COMPRESSDATA(true) {
+    @Override
+    public Boolean value(final MetaData meta) { return meta.compressdata; }
+  },
+  /** Property. */
+  NUMCOLUMNS(true) {
+    @Override
+    public Boolean value(final MetaData meta) { return meta.numcolumns; }
+  },
+  /** Property. */
   MAXCATS(true) {
     @Override
     public Integer value(final MetaData meta) { return meta.maxcats; }
@@ -0,0 +1,242 @@
+package org.basex.data;
+
+import static org.basex.data.DataText.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.index.path.*;
+import org.basex.index.stats.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class stores the parsed values of all numeric text and attribute nodes of a database.
+ * Each column comprises the nodes of a leaf path (text or attribute node) of the
+ * {@link PathIndex} that has been classified as numeric. All values are stored in document
+ * order in primitive arrays:
+ *
+ * <ul>
+ *   <li> pre values of all entries (sorted) </li>
+ *   <li> column ids of all entries </li>
+ *   <li> numeric values of all entries </li>
+ * </ul>
+ *
+ * The columns are only valid as long as the database has not been updated
+ * (see {@link MetaData#uptodate}). They will be recreated when the database is optimized.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class NumericColumns {
+  /** Largest integer that can be exactly represented as double. */
+  private static final long MAXINT = 1L << 53;
+
+  /** Pre values (sorted). */
+  private final int[] pres;
+  /** Column ids. */
+  private final int[] columns;
+  /** Numeric values. */
+  private final double[] values;
+  /** Integer flags of all columns (indicates if all values of a column are integers). */
+  private final BitArray integers;
+  /** Column ids of the indexed path nodes. */
+  private final IdentityHashMap<PathNode, Integer> ids = new IdentityHashMap<>();
+
+  /**
+   * Constructor, reading the columns from disk.
+   * @param data data reference
+   * @throws IOException I/O exception
+   */
+  private NumericColumns(final Data data) throws IOException {
+    final ArrayList<PathNode> leaves = leaves(data);
+    try(DataInput in = new DataInput(data.meta.dbFile(DATACOL))) {
+      final int cl = in.readNum();
+      integers = new BitArray(leaves.size(), false);
+      for(int c = 0; c < cl; c++) {
+        final int id = in.readNum();
+        if(id >= leaves.size()) throw new IOException("Invalid column: " + id);
+        ids.put(leaves.get(id), id);
+        if(in.readBool()) integers.set(id);
+      }
+      pres = in.readDiffs().finish();
+      columns = in.readNums();
+      final long[] bits = in.readLongs(in.readNum());
+      values = new double[bits.length];
+      for(int v = 0; v < bits.length; v++) values[v] = Double.longBitsToDouble(bits[v]);
+    }
+  }
+
+  /**
+   * Reads the columns of the specified database.
+   * @param data data reference
+   * @return columns, or {@code null} if they are not available
+   */
+  static NumericColumns read(final Data data) {
+    if(!data.meta.dbFile(DATACOL).exists()) return null;
+    try {
+      return new NumericColumns(data);
+    } catch(final IOException ex) {
+      Util.debug(ex);
+      return null;
+    }
+  }
+
+  /**
+   * Creates the columns of the specified database and writes them to disk.
+   * Must only be called if the path index is up-to-date.
+   * @param data data reference
+   * @throws IOException I/O exception
+   */
+  static void build(final Data data) throws IOException {
+    // assign ids to all numeric leaf nodes
+    final ArrayList<PathNode> leaves = leaves(data);
+    final IdentityHashMap<PathNode, Integer> map = new IdentityHashMap<>();
+    final int ls = leaves.size();
+    for(int l = 0; l < ls; l++) {
+      final PathNode leaf = leaves.get(l);
+      if(StatsType.isNumeric(leaf.stats.type)) map.put(leaf, l);
+    }
+
+    final IntList pres = new IntList(), columns = new IntList(), pars = new IntList();
+    final LongList bits = new LongList();
+    final BitArray doubles = new BitArray(ls, false);
+    final ArrayList<PathNode> nodes = new ArrayList<>();
+    final PathNode root = data.paths.root().get(0);
+    if(!map.isEmpty()) {
+      final int size = data.meta.size;
+      for(int pre = 0; pre < size; pre++) {
+        final int kind = data.kind(pre), par = data.parent(pre, kind);
+        while(!pars.isEmpty() && pars.peek() > par) {
+          pars.pop();
+          nodes.remove(nodes.size() - 1);
+        }
+        if(kind == Data.DOC) {
+          pars.push(pre);
+          nodes.add(root);
+          continue;
+        }
+        if(nodes.isEmpty()) continue;
+
+        final PathNode node = child(nodes.get(nodes.size() - 1), kind,
+            kind == Data.ELEM || kind == Data.ATTR ? data.nameId(pre) : 0);
+        if(node == null) throw Util.notExpected("Path index is not up-to-date.");
+        if(kind == Data.ELEM) {
+          pars.push(pre);
+          nodes.add(node);
+        } else {
+          final Integer id = map.get(node);
+          if(id != null) {
+            final byte[] value = data.text(pre, kind != Data.ATTR);
+            final double d = Token.toDouble(value);
+            if(Double.isNaN(d)) continue;
+            final long l = Token.toLong(value);
+            if(l == Long.MIN_VALUE || l != d || Math.abs(l) > MAXINT) doubles.set(id);
+            pres.add(pre);
+            columns.add(id);
+            bits.add(Double.doubleToRawLongBits(d));
+          }
+        }
+      }
+    }
+
+    try(DataOutput out = new DataOutput(data.meta.dbFile(DATACOL))) {
+      out.writeNum(map.size());
+      for(final PathNode leaf : leaves) {
+        final Integer id = map.get(leaf);
+        if(id == null) continue;
+        out.writeNum(id);
+        out.writeBool(!doubles.get(id));
+      }
+      out.writeDiffs(pres);
+      out.writeNums(columns.finish());
+      out.writeLongs(bits.finish());
+    }
+  }
+
+  /**
+   * Returns the numeric value of the specified text or attribute node.
+   * @param pre pre value
+   * @return value, or {@code NaN} if no value is stored for the node
+   */
+  public double dbl(final int pre) {
+    final int i = Arrays.binarySearch(pres, pre);
+    return i < 0 ? Double.NaN : values[i];
+  }
+
+  /**
+   * Returns the integer value of the specified text or attribute node.
+   * @param pre pre value
+   * @return value, or {@link Long#MIN_VALUE} if no integer is stored for the node
+   */
+  public long itr(final int pre) {
+    final int i = Arrays.binarySearch(pres, pre);
+    return i < 0 || !integers.get(columns[i]) ? Long.MIN_VALUE : (long) values[i];
+  }
+
+  /**
+   * Returns the sum and count of all values of the specified path nodes in document order.
+   * @param nodes leaf path nodes
+   * @return sum and number of values, or {@code null} if not all nodes are stored as columns
+   */
+  public double[] sum(final List<PathNode> nodes) {
+    final BitArray cols = new BitArray();
+    int count = 0;
+    for(final PathNode node : nodes) {
+      final Integer id = ids.get(node);
+      if(id == null) return null;
+      cols.set(id);
+      count += node.stats.count;
+    }
+
+    double sum = 0;
+    int c = 0;
+    final int vl = values.length;
+    for(int v = 0; v < vl; v++) {
+      if(cols.get(columns[v])) {
+        sum += values[v];
+        c++;
+      }
+    }
+    // all nodes must have a numeric value
+    return c == count ? new double[] { sum, c } : null;
+  }
+
+  /**
+   * Returns the number of stored values.
+   * @return number of values
+   */
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * Returns all text and attribute leaf nodes of the path index in a deterministic order.
+   * @param data data reference
+   * @return leaf nodes
+   */
+  private static ArrayList<PathNode> leaves(final Data data) {
+    final ArrayList<PathNode> list = new ArrayList<>();
+    for(final PathNode node : PathIndex.desc(data.paths.root(), true)) {
+      if(node.kind == Data.TEXT || node.kind == Data.ATTR) list.add(node);
+    }
+    return list;
+  }
+
+  /**
+   * Returns the child of a path node with the specified kind and name.
+   * @param node path node
+   * @param kind node kind
+   * @param name name id
+   * @return child, or {@code null} if it does not exist
+   */
+  private static PathNode child(final PathNode node, final int kind, final int name) {
+    for(final PathNode child : node.children) {
+      if(child.kind == kind && child.name == name) return child;
+    }
+    return null;
+  }
+}
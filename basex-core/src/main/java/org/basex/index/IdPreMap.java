@@ -3,6 +3,7 @@ package org.basex.index;
 import java.io.*;
 import java.util.*;
 
+import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.io.in.DataInput;
 import org.basex.io.out.DataOutput;
@@ -33,6 +34,8 @@ public class IdPreMap {
 
   /** Number of records in the table. */
   private int rows;
+  /** Indexes of the records with inserted IDs, sorted by their first IDs (lazily created). */
+  private volatile int[] sorted;
 
   /**
    * Constructor.
@@ -47,6 +50,24 @@ public class IdPreMap {
     oids = new int[1];
   }
 
+  /**
+   * Constructs a map for the IDs of the specified database by scanning its table.
+   * Contiguous PRE ranges with ascending IDs are stored as single records.
+   * @param data data reference
+   */
+  public IdPreMap(final Data data) {
+    this(-1);
+    final int size = data.meta.size;
+    for(int pre = 0, start = 0, id = 0; pre <= size; ++pre) {
+      final int i = pre < size ? data.id(pre) : -1;
+      if(pre == 0 || i != id + pre - start) {
+        if(pre != 0) insert(start, id, pre - start);
+        start = pre;
+        id = i;
+      }
+    }
+  }
+
   /**
    * Constructs a map by reading it from a file.
    * @param f file to read from
@@ -71,22 +92,48 @@ public class IdPreMap {
    */
   public final void write(final IOFile file) throws IOException {
     try(DataOutput out = new DataOutput(file)) {
-      out.writeNum(baseid);
-      out.writeNum(rows);
-      out.writeNums(pres);
-      out.writeNums(fids);
-      out.writeNums(nids);
-      out.writeNums(incs);
-      out.writeNums(oids);
+      write(out);
     }
   }
 
+  /**
+   * Writes the ID-PRE mapping to the specified output.
+   * @param out output stream
+   * @throws IOException I/O error while writing to the output
+   */
+  public final void write(final DataOutput out) throws IOException {
+    write(out, () -> { });
+  }
+
+  /**
+   * Writes the ID-PRE mapping to the specified output.
+   * @param out output stream
+   * @param part called after each part of the mapping has been written
+   * @throws IOException I/O error while writing to the output
+   */
+  public final void write(final DataOutput out, final Runnable part) throws IOException {
+    out.writeNum(baseid);
+    out.writeNum(rows);
+    part.run();
+    out.writeNums(pres);
+    part.run();
+    out.writeNums(fids);
+    part.run();
+    out.writeNums(nids);
+    part.run();
+    out.writeNums(incs);
+    part.run();
+    out.writeNums(oids);
+    part.run();
+  }
+
   /**
    * Finishes database creation.
    * @param base last id
    */
   public final void finish(final int base) {
     baseid = base;
+    sorted = null;
   }
 
   /**
@@ -99,9 +146,18 @@ public class IdPreMap {
     if(rows == 0 || id < pres[0]) return id;
 
     if(id > baseid) {
-      // id was inserted by update
-      for(int i = 0; i < rows; ++i) {
-        if(fids[i] <= id && id <= nids[i]) return pres[i] + id - fids[i];
+      // id was inserted by update: find the last record with a smaller or equal first ID
+      int[] srt = sorted;
+      if(srt == null) srt = sort();
+      int l = 0, h = srt.length - 1;
+      while(l <= h) {
+        final int m = l + h >>> 1;
+        if(fids[srt[m]] <= id) l = m + 1;
+        else h = m - 1;
+      }
+      if(h >= 0) {
+        final int i = srt[h];
+        if(id <= nids[i]) return pres[i] + id - fids[i];
       }
     } else {
       // id is affected by updates
@@ -118,6 +174,7 @@ public class IdPreMap {
    * @param c number of inserted records
    */
   public void insert(final int pre, final int id, final int c) {
+    sorted = null;
     if(rows == 0 && pre == id && id == baseid + 1) {
       // no mapping, and we append at the end => nothing to do
       baseid += c;
@@ -175,6 +232,7 @@ public class IdPreMap {
    * @param c number of deleted records (negative)
    */
   public void delete(final int pre, final int id, final int c) {
+    sorted = null;
     if(rows == 0 && pre == id && id - c == baseid + 1) {
       // no mapping, and we delete at the end => nothing to do
       baseid += c;
@@ -284,6 +342,27 @@ public class IdPreMap {
     return rows;
   }
 
+  /**
+   * Returns the indexes of the records with inserted IDs, sorted by their first IDs.
+   * As the inserted ID intervals are disjoint, the record of an ID can be found via binary search.
+   * @return indexes
+   */
+  private synchronized int[] sort() {
+    int[] srt = sorted;
+    if(srt == null) {
+      final LongList list = new LongList(rows);
+      for(int i = 0; i < rows; ++i) {
+        if(fids[i] != INV) list.add((long) fids[i] << 32 | i);
+      }
+      final long[] entries = list.sort().finish();
+      final int el = entries.length;
+      srt = new int[el];
+      for(int e = 0; e < el; e++) srt[e] = (int) entries[e];
+      sorted = srt;
+    }
+    return srt;
+  }
+
   /**
    * Searches for a given pre value.
    * @param pre pre value
@@ -32,11 +32,13 @@ public abstract class IndexBuilder extends Job {
 
   /** Number of index operations to perform before writing a partial index to disk. */
   private final int splitSize;
-  /** Maximum memory to consume. */
-  private final long maxMem = (long) (Runtime.getRuntime().maxMemory() * 0.8);
+  /** Maximum memory to be consumed by the temporary index structures of this builder (in bytes). */
+  private final long budget;
 
-  /** Names and namespace uri of element or attributes to include. */
+  /** Names and namespace uri of element or attributes to include ({@code null} for paths). */
   private final IndexNames includeNames;
+  /** Paths to include ({@code null} for names). */
+  protected final IndexPaths includePaths;
 
   /** Current pre value. */
   protected int pre;
@@ -44,24 +46,24 @@ public abstract class IndexBuilder extends Job {
   protected long count;
   /** Number of partial index structures. */
   protected int splits;
-  /** Threshold for freeing memory when estimating main memory consumption. */
-  private int gcCount;
 
   /**
    * Constructor.
    * @param data reference
    * @param type index type
+   * @param builders number of index builders that run concurrently and share the memory budget
    */
-  protected IndexBuilder(final Data data, final IndexType type) {
+  protected IndexBuilder(final Data data, final IndexType type, final int builders) {
     this.data = data;
     this.type = type;
     splitSize = (int) Math.min(Integer.MAX_VALUE, (long) data.meta.splitsize * splitFactor());
+    budget = (data.meta.indexmemory > 0 ? (long) data.meta.indexmemory << 20 :
+      Runtime.getRuntime().maxMemory() / 4) / builders;
     size = data.meta.size;
-    includeNames = new IndexNames(type, data);
-    text = type == IndexType.TEXT || type == IndexType.FULLTEXT;
-
-    // run garbage collection if memory maximum is already reached
-    if(Performance.memory() >= maxMem) clean();
+    final boolean paths = type == IndexType.PATHVALUE;
+    includeNames = paths ? null : new IndexNames(type, data);
+    includePaths = paths ? new IndexPaths(data) : null;
+    text = type == IndexType.TEXT || type == IndexType.TRIGRAM || type == IndexType.FULLTEXT;
   }
 
   /**
@@ -86,42 +88,46 @@ public abstract class IndexBuilder extends Job {
    * @return result of check
    */
   protected final boolean indexEntry() {
-    return data.kind(pre) == (text ? Data.TEXT : Data.ATTR) && includeNames.contains(pre, text);
+    return indexEntry(pre);
+  }
+
+  /**
+   * Checks if the specified entry should be indexed.
+   * @param p pre value
+   * @return result of check
+   */
+  protected final boolean indexEntry(final int p) {
+    return includePaths != null ? includePaths.contains(p) :
+      data.kind(p) == (text ? Data.TEXT : Data.ATTR) && includeNames.contains(p, text);
   }
 
   /**
    * Decides whether in-memory temporary index structures are so large
    * that we must flush them to disk before continuing.
+   * If no fixed split size has been specified, the estimated memory consumption of the
+   * structures is compared with the memory budget.
+   * @param memory estimated memory consumption of the temporary structures (in bytes)
    * @return true if structures shall be flushed to disk
-   * @throws IOException I/O Exception
    */
-  protected final boolean splitRequired() throws IOException {
-    // checks if a fixed split size has been specified
-    final boolean split;
-    if(splitSize > 0) {
-      split = count >= (splits + 1L) * splitSize;
-    } else {
-      // if not, estimate how much main memory is left
-      split = Performance.memory() >= maxMem;
-      // stop operation if index splitting degenerates
-      int gc = gcCount;
-      if(split) {
-        if(gc >= 0) throw new BaseXException(OUT_OF_MEM + H_OUT_OF_MEM);
-        gc = 30;
-      } else {
-        gc = Math.max(-1, gc - 1);
-      }
-      gcCount = gc;
-    }
-    if(split && Prop.debug) Util.err("|");
-    return split;
+  protected final boolean splitRequired(final long memory) {
+    return splitRequired(count - (long) splits * splitSize, memory, 1);
   }
 
   /**
-   * Performs memory cleanup after writing partial memory if necessary.
+   * Decides whether the temporary index structure of a partition is so large that it must be
+   * flushed to disk. The split size and memory budget are shared by all partitions.
+   * This function can be called by multiple threads.
+   * @param operations number of index operations performed since the last flush
+   * @param memory estimated memory consumption of the temporary structure (in bytes)
+   * @param parts number of partitions that are indexed in parallel
+   * @return true if structures shall be flushed to disk
    */
-  protected final void clean() {
-    if(splitSize <= 0) Performance.gc(2);
+  protected final boolean splitRequired(final long operations, final long memory,
+      final int parts) {
+    final boolean split = splitSize > 0 ? operations * parts >= splitSize :
+      memory * parts >= budget;
+    if(split && Prop.debug) Util.err("|");
+    return split;
   }
 
   /**
@@ -169,6 +175,8 @@ public abstract class IndexBuilder extends Job {
       case TEXT: return INDEX_TEXTS_D;
       case ATTRIBUTE: return INDEX_ATTRIBUTES_D;
       case TOKEN: return INDEX_TOKENS_D;
+      case TRIGRAM: return INDEX_TRIGRAMS_D;
+      case PATHVALUE: return INDEX_PATHVALUES_D;
       case FULLTEXT: return INDEX_FULLTEXT_D;
       default: throw Util.notExpected();
     }
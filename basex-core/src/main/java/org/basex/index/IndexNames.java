@@ -105,7 +105,7 @@ public final class IndexNames {
    * @param names names
    * @return map
    */
-  private static HashSet<String> toSet(final String names) {
+  static HashSet<String> toSet(final String names) {
     final HashSet<String> set = new HashSet<>();
     final StringBuilder value = new StringBuilder();
     final int sl = names.length();
@@ -0,0 +1,169 @@
+package org.basex.index;
+
+import static org.basex.util.Token.*;
+
+import java.util.*;
+
+import org.basex.data.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * Paths of the path value index. A path consists of the name of an element and the names of
+ * one or two of its children (elements or attributes), whose string values are the keys of the
+ * indexed element. Examples:
+ * <ul>
+ *   <li> {@code order/status}: orders, indexed by the values of their status elements</li>
+ *   <li> {@code order/@id}: orders, indexed by their id attributes</li>
+ *   <li> {@code order/customer+date}: orders, indexed by the composite values of their
+ *     customer and date elements</li>
+ * </ul>
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class IndexPaths {
+  /** Separator of the components of an index key. */
+  public static final byte SEPARATOR = 0x01;
+
+  /** Data reference. */
+  private final Data data;
+  /** Normalized paths. */
+  private final TokenList paths = new TokenList();
+  /** Names of the indexed elements. */
+  private final TokenList names = new TokenList();
+  /** Names of the children that supply the keys (attribute names are prefixed with '@'). */
+  private final ArrayList<byte[][]> children = new ArrayList<>();
+
+  /**
+   * Constructor.
+   * @param data data reference
+   */
+  public IndexPaths(final Data data) {
+    this.data = data;
+    for(final String entry : IndexNames.toSet(data.meta.pathvalueinclude.trim())) {
+      final int slash = entry.indexOf('/');
+      final byte[] name = token(slash == -1 ? entry : entry.substring(0, slash).trim());
+      final String[] steps = slash == -1 ? new String[0] : entry.substring(slash + 1).split("\\+");
+      final int sl = steps.length;
+      final byte[][] child = new byte[sl][];
+      boolean valid = XMLToken.isNCName(name) && sl > 0 && sl < 3;
+      for(int s = 0; valid && s < sl; s++) {
+        child[s] = token(steps[s].trim());
+        final byte[] local = startsWith(child[s], '@') ? substring(child[s], 1) : child[s];
+        valid = XMLToken.isNCName(local);
+      }
+      if(!valid) {
+        Util.debug("Included path is invalid: %", entry);
+        continue;
+      }
+      final TokenBuilder tb = new TokenBuilder().add(name).add('/');
+      for(int s = 0; s < sl; s++) {
+        if(s > 0) tb.add('+');
+        tb.add(child[s]);
+      }
+      paths.add(tb.finish());
+      names.add(name);
+      children.add(child);
+    }
+  }
+
+  /**
+   * Checks if the list of paths is empty.
+   * @return result of check
+   */
+  public boolean isEmpty() {
+    return paths.isEmpty();
+  }
+
+  /**
+   * Returns the normalized path for the specified element and children.
+   * @param name name of the element
+   * @param child names of the children (attribute names are prefixed with '@')
+   * @return path, or {@code null} if no such path is indexed
+   */
+  public byte[] path(final byte[] name, final byte[]... child) {
+    final int ps = paths.size();
+    for(int p = 0; p < ps; p++) {
+      if(eq(names.get(p), name) && Arrays.deepEquals(children.get(p), child)) return paths.get(p);
+    }
+    return null;
+  }
+
+  /**
+   * Checks if the specified database entry is an element that is to be indexed.
+   * @param pre pre value
+   * @return result of check
+   */
+  public boolean contains(final int pre) {
+    if(data.kind(pre) != Data.ELEM) return false;
+    final byte[] name = data.name(pre, Data.ELEM);
+    for(final byte[] nm : names) {
+      if(eq(nm, name)) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the index keys of the specified element. If a child occurs multiple times,
+   * keys will be created for all values. Empty values and values that are longer than the
+   * maximum index length are ignored.
+   * @param pre pre value of an element
+   * @return keys
+   */
+  public TokenList keys(final int pre) {
+    final TokenList keys = new TokenList();
+    final byte[] name = data.name(pre, Data.ELEM);
+    final int ps = paths.size();
+    for(int p = 0; p < ps; p++) {
+      if(!eq(names.get(p), name)) continue;
+      final byte[][] child = children.get(p);
+      final int cl = child.length;
+      TokenList list = new TokenList().add(paths.get(p));
+      for(int c = 0; c < cl && !list.isEmpty(); c++) {
+        final TokenList values = values(pre, child[c]), tmp = new TokenList();
+        for(final byte[] key : list) {
+          for(final byte[] value : values) tmp.add(key(key, value));
+        }
+        list = tmp;
+      }
+      keys.add(list);
+    }
+    return keys;
+  }
+
+  /**
+   * Returns the values of the specified child of an element.
+   * @param pre pre value of the element
+   * @param child name of the child (attribute names are prefixed with '@')
+   * @return values
+   */
+  private TokenList values(final int pre, final byte[] child) {
+    final TokenList values = new TokenList();
+    final boolean attr = startsWith(child, '@');
+    final byte[] name = attr ? substring(child, 1) : child;
+    final int as = pre + data.attSize(pre, Data.ELEM);
+    final int end = attr ? as : pre + data.size(pre, Data.ELEM);
+    for(int p = attr ? pre + 1 : as; p < end;) {
+      final int kind = data.kind(p);
+      if(kind == (attr ? Data.ATTR : Data.ELEM) && eq(data.name(p, kind), name)) {
+        final byte[] value = data.atom(p);
+        final int vl = value.length;
+        if(vl > 0 && vl <= data.meta.maxlen && !values.contains(value)) values.add(value);
+      }
+      p += data.size(p, kind);
+    }
+    return values;
+  }
+
+  /**
+   * Appends a value to an index key.
+   * @param key key (the first component is the normalized path)
+   * @param value value to be appended
+   * @return new key
+   */
+  public static byte[] key(final byte[] key, final byte[] value) {
+    return new TokenBuilder(key.length + value.length + 1).add(key).addByte(SEPARATOR).
+        add(value).finish();
+  }
+}
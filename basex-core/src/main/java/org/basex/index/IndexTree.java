@@ -15,6 +15,12 @@ import org.basex.util.list.*;
 public class IndexTree {
   /** Factor for resize. */
   protected static final double FACTOR = 1.2;
+  /** Estimated memory consumption of a tree node, excluding its key (in bytes). */
+  private static final int NODE = 48;
+  /** Estimated memory consumption of a map entry (in bytes). */
+  private static final int ENTRY = 32;
+  /** Estimated memory consumption of an array, excluding its contents (in bytes). */
+  protected static final int ARRAY = 24;
 
   /** Keys saved in the tree. */
   public final TokenList keys = new TokenList(FACTOR);
@@ -34,6 +40,10 @@ public class IndexTree {
   private final boolean tokenize;
   /** Tree root node. */
   private int root = -1;
+  /** Estimated memory consumption of the keys and the tree structure (in bytes). */
+  private long keyMemory;
+  /** Estimated memory consumption of the ids (in bytes). */
+  protected long idMemory;
 
   /**
    * Constructor.
@@ -80,6 +90,7 @@ public class IndexTree {
           final int i = maps.get(Num.num(n));
           if(i < 0) {
             maps.put(Num.num(n), ids.size());
+            idMemory += ENTRY;
             addNewIds(id, pos);
           } else {
             addIds(id, pos, i);
@@ -111,6 +122,15 @@ public class IndexTree {
     return ids.size();
   }
 
+  /**
+   * Returns the estimated memory consumption of the tree.
+   * The estimation only depends on the indexed data.
+   * @return number of bytes
+   */
+  public final long memory() {
+    return keyMemory + idMemory;
+  }
+
   /**
    * Initializes the index iterator.
    * will be removed to save memory.
@@ -160,6 +180,7 @@ public class IndexTree {
     byte[] vs = Num.newNum(id);
     if(tokenize) vs = Num.add(vs, pos);
     ids.add(vs);
+    idMemory += ARRAY + vs.length;
   }
 
   /**
@@ -171,7 +192,11 @@ public class IndexTree {
   private void addIds(final int id, final int pos, final int n) {
     byte[] vs = ids.get(n);
     vs = Num.add(vs, id);
-    if(tokenize) vs = Num.add(vs, pos);
+    idMemory += Num.length(id);
+    if(tokenize) {
+      vs = Num.add(vs, pos);
+      idMemory += Num.length(pos);
+    }
     ids.set(n, vs);
   }
 
@@ -192,8 +217,12 @@ public class IndexTree {
     tree.add(par); // parent node
     mod.add(false);
     keys.add(key);
+    keyMemory += NODE + key.length;
     addNewIds(id, pos);
-    if(!exist) maps.put(Num.num(keys.size() - 1), ids.size() - 1);
+    if(!exist) {
+      maps.put(Num.num(keys.size() - 1), ids.size() - 1);
+      idMemory += ENTRY;
+    }
     return mod.size() - 1;
   }
 
@@ -28,7 +28,11 @@ public enum IndexType {
   /** Token index. */
   TOKEN,
   /** Full-text index. */
-  FULLTEXT;
+  FULLTEXT,
+  /** Trigram index. */
+  TRIGRAM,
+  /** Path value index. */
+  PATHVALUE;
 
   @Override
   public String toString() {
@@ -11,14 +11,18 @@ import org.basex.data.*;
 public abstract class ValuesBuilder extends IndexBuilder {
   /** Tokenize flag. */
   protected final boolean tokenize;
+  /** Trigram flag. */
+  protected final boolean trigrams;
 
   /**
    * Constructor.
    * @param data reference
    * @param type index type
+   * @param builders number of index builders that run concurrently
    */
-  protected ValuesBuilder(final Data data, final IndexType type) {
-    super(data, type);
+  protected ValuesBuilder(final Data data, final IndexType type, final int builders) {
+    super(data, type, builders);
     tokenize = type == IndexType.TOKEN;
+    trigrams = type == IndexType.TRIGRAM;
   }
 }
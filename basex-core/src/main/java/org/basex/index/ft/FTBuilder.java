@@ -25,19 +25,36 @@ public final class FTBuilder extends IndexBuilder {
   private final FTIndexTrees tree;
   /** Word parser. */
   private final FTLexer lexer;
+  /** Indicates if the index will be updatable. */
+  private final boolean updatable;
   /** Number of indexed tokens. */
   private long ntok;
+  /** Number of indexed text nodes. */
+  private int nodes;
+  /** Total length of the indexed text nodes. */
+  private long length;
 
   /**
    * Constructor.
    * @param data data reference
+   * @param builders number of index builders that run concurrently
    * @throws IOException IOException
    */
-  public FTBuilder(final Data data) throws IOException {
-    super(data, IndexType.FULLTEXT);
-    final MetaData meta = data.meta;
+  public FTBuilder(final Data data, final int builders) throws IOException {
+    super(data, IndexType.FULLTEXT, builders);
     tree = new FTIndexTrees(data.meta.maxlen);
+    lexer = lexer(data);
+    updatable = data.meta.updindex;
+  }
 
+  /**
+   * Returns a lexer for the full-text options of the specified database.
+   * @param data data reference
+   * @return lexer
+   * @throws IOException IOException
+   */
+  static FTLexer lexer(final Data data) throws IOException {
+    final MetaData meta = data.meta;
     final FTOpt fto = new FTOpt();
     fto.set(FTFlag.DC, meta.diacritics);
     fto.set(FTFlag.ST, meta.stemming);
@@ -50,7 +67,7 @@ public final class FTBuilder extends IndexBuilder {
     if(meta.stemming && !Stemmer.supportFor(fto.ln))
       throw new BaseXException(NO_STEMMER_X, fto.ln);
 
-    lexer = new FTLexer(fto);
+    return new FTLexer(fto);
   }
 
   @Override
@@ -58,35 +75,50 @@ public final class FTBuilder extends IndexBuilder {
     Util.debug(detailedInfo());
 
     try {
+      // incremental updates of a previous index are obsolete
+      data.meta.dbFile(DATAFTX + 'd').delete();
       for(pre = 0; pre < size; ++pre) {
         if((pre & 0x0FFF) == 0) check();
         if(!indexEntry()) continue;
 
         // current lexer position
         final StopWords sw = lexer.ftOpt().sw;
-        lexer.init(data.text(pre, true));
+        final byte[] text = data.text(pre, true);
+        lexer.init(text);
         int pos = -1;
+        boolean indexed = false;
         while(lexer.hasNext()) {
           final byte[] token = lexer.nextToken();
           ++pos;
           // skip too long and stopword tokens
           if(token.length <= data.meta.maxlen && !sw.contains(token)) {
-            // check if main memory is exhausted
-            if((ntok++ & 0xFFFF) == 0 && splitRequired()) {
+            // check if memory budget is exhausted
+            if((ntok++ & 0xFFFF) == 0 && splitRequired(tree.memory())) {
               writeIndex(true);
-              clean();
+              // stop operation if the remaining keys exceed the budget
+              if(splitRequired(tree.memory())) throw new BaseXException(OUT_OF_MEM + H_OUT_OF_MEM);
             }
-            tree.index(token, pre, pos, splits);
+            // updatable index: store node ids, which will not change when nodes are moved
+            tree.index(token, updatable ? data.id(pre) : pre, pos, splits);
             count++;
+            indexed = true;
           }
         }
+        if(indexed) {
+          nodes++;
+          length += text.length;
+        }
       }
 
       // finalize partial or all index structures
       write(splits > 0);
 
       finishIndex();
-      return new FTIndex(data);
+      // statistics for relevance scoring
+      data.meta.ftnodes = nodes;
+      data.meta.ftlength = length;
+      data.meta.updftindex = updatable;
+      return updatable ? new UpdatableFTIndex(data) : new FTIndex(data);
 
     } catch(final Throwable th) {
       // drop index files
@@ -158,7 +190,7 @@ public final class FTBuilder extends IndexBuilder {
    * @param lp last offset
    * @throws IOException I/O exception
    */
-  private static void writeInd(final DataOutput outX, final IntList il, final int ls, final int lp)
+  static void writeInd(final DataOutput outX, final IntList il, final int ls, final int lp)
       throws IOException {
 
     final int is = il.size();
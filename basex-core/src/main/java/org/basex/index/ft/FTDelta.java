@@ -0,0 +1,161 @@
+package org.basex.index.ft;
+
+import static org.basex.util.Token.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.*;
+
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * This class contains the full-text index entries that have been added to an
+ * {@link UpdatableFTIndex} since the last merge. For each token, the ids and positions
+ * of its occurrences are stored in an interleaved list.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+final class FTDelta {
+  /** Ids and positions of all tokens. */
+  private final TokenObjMap<IntList> entries = new TokenObjMap<>();
+  /** Number of id/pos entries. */
+  private int size;
+
+  /**
+   * Default constructor.
+   */
+  FTDelta() { }
+
+  /**
+   * Constructor, reading the entries from disk.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  FTDelta(final DataInput in) throws IOException {
+    for(int t = in.readNum(); --t >= 0;) {
+      final byte[] token = in.readToken();
+      for(int e = in.readNum(); --e >= 0;) add(token, in.readNum(), in.readNum());
+    }
+  }
+
+  /**
+   * Adds an occurrence of a token.
+   * @param token token
+   * @param id id of the text node
+   * @param pos position of the token
+   */
+  void add(final byte[] token, final int id, final int pos) {
+    entries.computeIfAbsent(token, IntList::new).add(id).add(pos);
+    size++;
+  }
+
+  /**
+   * Adds the occurrences of another instance.
+   * @param delta entries to be added
+   * @param deleted ids of entries to be skipped
+   */
+  void add(final FTDelta delta, final IntSet deleted) {
+    for(final byte[] token : delta.entries) {
+      final IntList list = delta.entries.get(token);
+      final int ls = list.size();
+      for(int l = 0; l < ls; l += 2) {
+        final int id = list.get(l);
+        if(!deleted.contains(id)) add(token, id, list.get(l + 1));
+      }
+    }
+  }
+
+  /**
+   * Deletes all occurrences of a token in the specified text node.
+   * @param token token
+   * @param id id of the text node
+   */
+  void delete(final byte[] token, final int id) {
+    final IntList list = entries.get(token);
+    if(list == null) return;
+    final int ls = list.size();
+    int n = 0;
+    for(int l = 0; l < ls; l += 2) {
+      if(list.get(l) != id) {
+        list.set(n++, list.get(l));
+        list.set(n++, list.get(l + 1));
+      }
+    }
+    size -= ls - n >> 1;
+    list.size(n);
+  }
+
+  /**
+   * Returns the number of id/pos entries.
+   * @return number of entries
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of occurrences of a token.
+   * @param token token
+   * @return number of occurrences
+   */
+  int count(final byte[] token) {
+    final IntList list = entries.get(token);
+    return list == null ? 0 : list.size() >> 1;
+  }
+
+  /**
+   * Returns the ids and positions of the specified token.
+   * @param token token
+   * @return interleaved ids and positions (can be {@code null})
+   */
+  IntList get(final byte[] token) {
+    return entries.get(token);
+  }
+
+  /**
+   * Returns all tokens that have occurrences and match the specified predicate.
+   * @param matches predicate
+   * @return tokens, ordered by their length and their byte values
+   */
+  byte[][] tokens(final Predicate<byte[]> matches) {
+    final TokenList list = new TokenList();
+    for(final byte[] token : entries) {
+      if(count(token) > 0 && matches.test(token)) list.add(token);
+    }
+    final byte[][] tokens = list.finish();
+    Arrays.sort(tokens, FTDelta::compare);
+    return tokens;
+  }
+
+  /**
+   * Writes the entries to disk.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  void write(final DataOutput out) throws IOException {
+    final byte[][] tokens = tokens(token -> true);
+    out.writeNum(tokens.length);
+    for(final byte[] token : tokens) {
+      final IntList list = entries.get(token);
+      final int ls = list.size();
+      out.writeToken(token);
+      out.writeNum(ls >> 1);
+      for(int l = 0; l < ls; l++) out.writeNum(list.get(l));
+    }
+  }
+
+  /**
+   * Compares two tokens in the order of the index: by their length, and by their byte values.
+   * @param token1 first token
+   * @param token2 second token
+   * @return result of comparison
+   */
+  static int compare(final byte[] token1, final byte[] token2) {
+    final int d = token1.length - token2.length;
+    return d != 0 ? d : diff(token1, token2);
+  }
+}
@@ -51,27 +51,27 @@ import org.basex.util.similarity.*;
  * @author BaseX Team 2005-23, BSD License
  * @author Christian Gruen
  */
-public final class FTIndex extends ValueIndex {
+public class FTIndex extends ValueIndex {
   /** Minimum fixed size for each token entry. */
   private static final int ENTRY = 9;
 
-  /** Cached texts. Increases used memory, but speeds up repeated queries. */
-  private final IntObjMap<byte[]> ctext = new IntObjMap<>();
   /** Levenshtein reference. */
   private final Levenshtein ls = new Levenshtein();
 
+  /** Cached texts. Increases used memory, but speeds up repeated queries. */
+  private IntObjMap<byte[]> ctext;
   /** Index storing each unique token length and pointer
    * on the first token with this length. */
-  private final DataAccess dataX;
+  private DataAccess dataX;
   /** Index storing each token, its data size and pointer on the data. */
-  private final DataAccess dataY;
+  private DataAccess dataY;
   /** Storing pre and pos values for each token. */
-  private final DataAccess dataZ;
+  private DataAccess dataZ;
 
   /** Cache for number of hits and data reference per token. */
-  private final IndexCache cache = new IndexCache();
+  private IndexCache cache;
   /** Token positions. */
-  private final int[] positions;
+  private int[] positions;
 
   /**
    * Constructor, initializing the index structure.
@@ -80,10 +80,20 @@ public final class FTIndex extends ValueIndex {
    */
   public FTIndex(final Data data) throws IOException {
     super(data, IndexType.FULLTEXT);
+    open();
+  }
+
+  /**
+   * Opens the index files and resets all caches.
+   * @throws IOException I/O Exception
+   */
+  final void open() throws IOException {
+    ctext = new IntObjMap<>();
+    cache = new IndexCache();
     // cache token length index
-    dataX = new DataAccess(data.meta.dbFile(DATAFTX + 'x'));
-    dataY = new DataAccess(data.meta.dbFile(DATAFTX + 'y'));
-    dataZ = new DataAccess(data.meta.dbFile(DATAFTX + 'z'));
+    dataX = new DataAccess(data.meta.dbFile(DATAFTX + 'x'), data.meta.cache);
+    dataY = new DataAccess(data.meta.dbFile(DATAFTX + 'y'), data.meta.cache);
+    dataZ = new DataAccess(data.meta.dbFile(DATAFTX + 'z'), data.meta.cache);
     positions = new int[data.meta.maxlen + 3];
     final int pl = positions.length;
     for(int p = 0; p < pl; p++) positions[p] = -1;
@@ -127,7 +137,7 @@ public final class FTIndex extends ValueIndex {
     // return cached or new result
     final IndexEntry entry = entry(token);
     if(entry.size > 0) {
-      return iter(entry.offset, entry.size, dataZ, token);
+      return iter(entry.offset, entry.size, token);
     }
 
     // no results
@@ -356,10 +366,10 @@ public final class FTIndex extends ValueIndex {
       int t = s + 1, r = -1;
       while(t < pl && r == -1) r = positions[t++];
       while(p < r) {
-        if(ls.similar(dataY.readBytes(p, s), token, k)) {
-          iters.add(iter(pointer(p, s), size(p, s), dataZ, token));
-        }
-        p += s + ENTRY;
+        final byte[] tok = dataY.readBytes(p, s);
+        final int m = ls.mismatch(tok, token, k);
+        if(m == -1) iters.add(iter(pointer(p, s), size(p, s), token));
+        p = next(tok, m, p, r, s);
       }
     }
     return iters.isEmpty() ? FTIndexIterator.FTEMPTY :
@@ -387,36 +397,121 @@ public final class FTIndex extends ValueIndex {
       while(start < end) {
         final byte[] t = dataY.readBytes(start, p);
         if(!startsWith(t, prefix)) break;
-        if(wc.match(t)) {
+        final int m = wc.mismatch(t);
+        if(m == -1) {
           dataZ.cursor(pointer(start, p));
           final int s = size(start, p);
           for(int d = 0; d < s; d++) {
-            pr.add(dataZ.readNum());
-            ps.add(dataZ.readNum());
+            final int pre = pre(dataZ.readNum()), pos = dataZ.readNum();
+            if(pre != -1) {
+              pr.add(pre);
+              ps.add(pos);
+            }
           }
         }
-        start += p + ENTRY;
+        start = next(t, m, start, end, p);
       }
     }
-    return iter(new FTCache(pr, ps), token);
+    return iter(pr, ps, token);
+  }
+
+  /**
+   * Returns the position of the next token that needs to be checked in a fuzzy or wildcard
+   * search. If a prefix of the current token has been rejected, all tokens with the same prefix
+   * are skipped: the position of the next token is found via galloping search.
+   * @param token current token
+   * @param m length of the rejected prefix, or {@code -1} if the token was accepted
+   * @param start position of the current token
+   * @param end end position of the tokens with the same length
+   * @param ti token length
+   * @return position of the next token
+   */
+  private int next(final byte[] token, final int m, final int start, final int end,
+      final int ti) {
+
+    final int tl = ti + ENTRY;
+    if(m == -1 || m == ti) return start + tl;
+    if(m == 0) return end;
+
+    // gallop over the tokens with the rejected prefix, then narrow down the range
+    int lo = start, hi = start + tl;
+    for(int step = tl; hi < end && prefix(token, m, hi); step <<= 1) {
+      lo = hi;
+      hi = (int) Math.min(end, (long) hi + step);
+    }
+    hi = Math.min(hi, end);
+    while(hi - lo > tl) {
+      final int mid = lo + (hi - lo) / tl / 2 * tl;
+      if(prefix(token, m, mid)) lo = mid;
+      else hi = mid;
+    }
+    return hi;
+  }
+
+  /**
+   * Checks if the token at the specified position starts with the specified prefix.
+   * @param token token
+   * @param m length of the prefix
+   * @param pos position of the token
+   * @return result of check
+   */
+  private boolean prefix(final byte[] token, final int m, final int pos) {
+    return Arrays.equals(token, 0, m, dataY.readBytes(pos, m), 0, m);
+  }
+
+  /**
+   * Returns the number of occurrences of a token that have not been deleted.
+   * @param token token
+   * @return number of occurrences
+   */
+  final synchronized int count(final byte[] token) {
+    final IndexEntry entry = entry(token);
+    dataZ.cursor(entry.offset);
+    int c = 0;
+    for(int s = 0; s < entry.size; s++) {
+      if(pre(dataZ.readNum()) != -1) c++;
+      dataZ.readNum();
+    }
+    return c;
+  }
+
+  /**
+   * Returns the pre value for the specified id.
+   * @param id id value
+   * @return pre value, or {@code -1} if the entry has been deleted
+   */
+  protected int pre(final int id) {
+    return id;
   }
 
   /**
    * Returns an iterator for an index entry.
    * @param off offset on entries
    * @param size number of id/pos entries
-   * @param da data source
    * @param token index token
    * @return iterator
    */
-  private static FTIndexIterator iter(final long off, final int size, final DataAccess da,
-      final byte[] token) {
-    da.cursor(off);
+  private FTIndexIterator iter(final long off, final int size, final byte[] token) {
+    dataZ.cursor(off);
     final IntList pr = new IntList(size), ps = new IntList(size);
     for(int c = 0; c < size; c++) {
-      pr.add(da.readNum());
-      ps.add(da.readNum());
+      final int pre = pre(dataZ.readNum()), pos = dataZ.readNum();
+      if(pre != -1) {
+        pr.add(pre);
+        ps.add(pos);
+      }
     }
+    return iter(pr, ps, token);
+  }
+
+  /**
+   * Returns an iterator for the specified pre values and positions.
+   * @param pr pre values
+   * @param ps positions
+   * @param token index token
+   * @return iterator
+   */
+  static FTIndexIterator iter(final IntList pr, final IntList ps, final byte[] token) {
     return iter(new FTCache(pr, ps), token);
   }
 
@@ -448,6 +543,19 @@ public final class FTIndex extends ValueIndex {
         return true;
       }
 
+      @Override
+      public boolean skipTo(final int target) {
+        // binary search for the first entry with a pre value that is not smaller than the target
+        int l = c, h = size - 1;
+        while(l <= h) {
+          final int m = l + h >>> 1;
+          if(ftc.pre.get(ftc.order[m]) < target) l = m + 1;
+          else h = m - 1;
+        }
+        c = l;
+        return more();
+      }
+
       @Override
       public FTMatches matches() {
         return all;
@@ -468,6 +576,11 @@ public final class FTIndex extends ValueIndex {
         return size;
       }
 
+      @Override
+      public int nodes() {
+        return ftc.nodes;
+      }
+
       @Override
       public String toString() {
         return Strings.concat(token, '(', size, "x)");
@@ -485,6 +598,8 @@ public final class FTIndex extends ValueIndex {
     private final IntList pre;
     /** Pos values. */
     private final IntList pos;
+    /** Number of distinct pre values. */
+    private final int nodes;
 
     /**
      * Constructor.
@@ -498,6 +613,11 @@ public final class FTIndex extends ValueIndex {
       order = Array.createOrder(v, true);
       pre = pr;
       pos = ps;
+      int n = 0;
+      for(int i = 0; i < s; i++) {
+        if(i == 0 || pr.get(order[i]) != pr.get(order[i - 1])) n++;
+      }
+      nodes = n;
     }
   }
 
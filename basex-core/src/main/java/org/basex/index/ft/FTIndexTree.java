@@ -46,11 +46,14 @@ final class FTIndexTree extends IndexTree {
       if(poss.size() > i && poss.get(i) != null) {
         poss.set(i, Num.add(poss.get(i), pos));
         numpre.set(i, numpre.get(i) + 1);
+        idMemory += Num.length(pos);
         return;
       }
     }
-    poss.add(Num.newNum(pos));
+    final byte[] ps = Num.newNum(pos);
+    poss.add(ps);
     numpre.add(1);
+    idMemory += ARRAY + ps.length + 4;
   }
 
   /**
@@ -61,6 +64,7 @@ final class FTIndexTree extends IndexTree {
     ids = new TokenList(FACTOR);
     numpre = new IntList(FACTOR);
     maps = new TokenIntMap();
+    idMemory = 0;
   }
 
   /**
@@ -44,6 +44,18 @@ final class FTIndexTrees {
     }
   }
 
+  /**
+   * Returns the estimated memory consumption of all trees.
+   * @return number of bytes
+   */
+  long memory() {
+    long memory = 0;
+    for(final FTIndexTree tree : trees) {
+      if(tree != null) memory += tree.memory();
+    }
+    return memory;
+  }
+
   /**
    * Initializes all trees for iterative traversal.
    */
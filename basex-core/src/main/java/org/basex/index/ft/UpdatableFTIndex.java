@@ -0,0 +1,452 @@
+package org.basex.index.ft;
+
+import static org.basex.data.DataText.*;
+import static org.basex.util.Token.*;
+import static org.basex.util.ft.FTFlag.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.index.value.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.io.random.*;
+import org.basex.query.expr.ft.*;
+import org.basex.query.util.index.*;
+import org.basex.util.*;
+import org.basex.util.ft.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+import org.basex.util.similarity.*;
+
+/**
+ * This class provides an incrementally updatable full-text index. Node ids are stored in the
+ * disk index, which is treated as an immutable segment. Updates are stored in main memory:
+ * new tokens are added to an {@link FTDelta} instance, and the ids of deleted text nodes are
+ * recorded as tombstones, which hide the entries of the disk index.
+ *
+ * <p>The incremental updates are written to the file {@link DataText#DATAFTX} + {@code d}
+ * whenever the meta data is written. If the number of updates exceeds {@link #MERGE}, they
+ * are frozen and merged with the disk index in the background. The merged index files are
+ * swapped in when the next update is finished.</p>
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class UpdatableFTIndex extends FTIndex {
+  /** Number of incremental updates that trigger a merge. */
+  private static final int MERGE = 1 << 18;
+  /** Executor for merging incremental updates in the background. */
+  private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+    final Thread thread = new Thread(r, "FTMerge");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /** Levenshtein reference. */
+  private final Levenshtein ls = new Levenshtein();
+  /** Lexer for tokenizing updated texts. */
+  private final FTLexer lexer;
+
+  /** Incremental updates. */
+  private FTDelta delta = new FTDelta();
+  /** Ids of deleted text nodes. */
+  private IntSet deleted = new IntSet();
+  /** Incremental updates that are currently merged (can be {@code null}). */
+  private FTDelta frozen;
+  /** Ids of deleted text nodes that are currently merged. */
+  private IntSet frozenDeleted = new IntSet();
+  /** Running or finished merge (can be {@code null}). */
+  private Future<?> merging;
+  /** Indicates if the running merge is to be stopped. */
+  private volatile boolean stop;
+
+  /**
+   * Constructor, initializing the index structure.
+   * @param data data reference
+   * @throws IOException I/O Exception
+   */
+  public UpdatableFTIndex(final Data data) throws IOException {
+    super(data);
+    final IOFile file = data.meta.dbFile(DATAFTX + 'd');
+    if(file.exists()) {
+      try(DataInput in = new DataInput(file)) {
+        delta = new FTDelta(in);
+        for(final int id : in.readNums()) deleted.add(id);
+      }
+    }
+    lexer = FTBuilder.lexer(data);
+  }
+
+  @Override
+  protected int pre(final int id) {
+    return deleted.contains(id) || frozenDeleted.contains(id) ? -1 : data.pre(id);
+  }
+
+  @Override
+  public synchronized IndexCosts costs(final IndexSearch search) {
+    final IndexCosts costs = super.costs(search);
+    final FTOpt opt = ((FTLexer) search).ftOpt();
+    if(costs == null || opt.is(FZ) || opt.is(WC)) return costs;
+
+    final byte[] token = search.token();
+    final int count = delta.count(token) + (frozen != null ? frozen.count(token) : 0);
+    return count == 0 ? costs : IndexCosts.get(costs.results() + count);
+  }
+
+  @Override
+  public synchronized IndexIterator iter(final IndexSearch search) {
+    final FTIndexIterator iter = (FTIndexIterator) super.iter(search);
+    final FTLexer lxr = (FTLexer) search;
+    final FTOpt opt = lxr.ftOpt();
+    final byte[] token = lxr.token();
+
+    // choose matching function for the tokens of the incremental updates
+    Predicate<byte[]> matches = null;
+    if(opt.is(WC)) {
+      final FTWildcard wc = new FTWildcard(token);
+      if(!wc.valid()) return iter;
+      if(!wc.simple()) matches = wc::match;
+    } else if(opt.is(FZ)) {
+      final int k = lxr.errors(token);
+      matches = t -> ls.similar(t, token, k);
+    }
+
+    final IntList pr = new IntList(), ps = new IntList();
+    if(frozen != null) add(frozen, deleted, token, matches, pr, ps);
+    add(delta, null, token, matches, pr, ps);
+    return pr.isEmpty() ? iter : FTIndexIterator.union(iter, iter(pr, ps, token));
+  }
+
+  /**
+   * Adds the pre values and positions of matching incremental updates.
+   * @param dlt incremental updates
+   * @param skip ids of entries to be skipped (can be {@code null})
+   * @param token search token
+   * @param matches matching function (if {@code null}, tokens are compared for equality)
+   * @param pr pre values
+   * @param ps positions
+   */
+  private void add(final FTDelta dlt, final IntSet skip, final byte[] token,
+      final Predicate<byte[]> matches, final IntList pr, final IntList ps) {
+
+    final byte[][] tokens = matches != null ? dlt.tokens(matches) : new byte[][] { token };
+    for(final byte[] tok : tokens) {
+      final IntList list = dlt.get(tok);
+      if(list == null) continue;
+      final int is = list.size();
+      for(int l = 0; l < is; l += 2) {
+        final int id = list.get(l);
+        if(skip == null || !skip.contains(id)) {
+          pr.add(data.pre(id));
+          ps.add(list.get(l + 1));
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized EntryIterator entries(final IndexEntries entries) {
+    // collect entries of the disk index and the incremental updates
+    final TokenIntMap counts = new TokenIntMap();
+    final boolean tombstones = !deleted.isEmpty() || !frozenDeleted.isEmpty();
+    final EntryIterator ei = super.entries(entries);
+    for(byte[] token; (token = ei.next()) != null;) {
+      final int count = tombstones ? count(token) : ei.count();
+      if(count > 0) counts.put(token, count);
+    }
+    final byte[] prefix = entries.token();
+    final Predicate<byte[]> matches = token -> startsWith(token, prefix);
+    if(frozen != null) {
+      for(final byte[] token : frozen.tokens(matches)) {
+        final IntList list = frozen.get(token);
+        final int is = list.size();
+        int count = Math.max(0, counts.get(token));
+        for(int l = 0; l < is; l += 2) {
+          if(!deleted.contains(list.get(l))) count++;
+        }
+        if(count > 0) counts.put(token, count);
+      }
+    }
+    for(final byte[] token : delta.tokens(matches)) {
+      counts.put(token, Math.max(0, counts.get(token)) + delta.count(token));
+    }
+
+    final byte[][] tokens = new TokenList(counts).finish();
+    Arrays.sort(tokens, FTDelta::compare);
+    return new EntryIterator() {
+      int t = -1;
+
+      @Override
+      public byte[] next() {
+        return ++t < tokens.length ? tokens[t] : null;
+      }
+
+      @Override
+      public int count() {
+        return counts.get(tokens[t]);
+      }
+    };
+  }
+
+  @Override
+  public synchronized int size() {
+    // approximate size: tokens may occur both on disk and in the incremental updates
+    return super.size() + delta.tokens(token -> true).length;
+  }
+
+  @Override
+  public synchronized void add(final ValueCache values) {
+    final int maxlen = data.meta.maxlen;
+    final StopWords sw = lexer.ftOpt().sw;
+    for(final byte[] text : values) {
+      final IntList ids = values.ids(text);
+      final int is = ids.size();
+      lexer.init(text);
+      int pos = -1;
+      boolean indexed = false;
+      while(lexer.hasNext()) {
+        final byte[] token = lexer.nextToken();
+        ++pos;
+        // skip too long and stopword tokens
+        if(token.length <= maxlen && !sw.contains(token)) {
+          for(int i = 0; i < is; i++) delta.add(token, ids.get(i), pos);
+          indexed = true;
+        }
+      }
+      if(indexed) statistics(text, is);
+    }
+    merge();
+  }
+
+  @Override
+  public synchronized void delete(final ValueCache values) {
+    final int maxlen = data.meta.maxlen;
+    final StopWords sw = lexer.ftOpt().sw;
+    for(final byte[] text : values) {
+      final IntList ids = values.ids(text);
+      final int is = ids.size();
+      for(int i = 0; i < is; i++) deleted.add(ids.get(i));
+      lexer.init(text);
+      boolean indexed = false;
+      while(lexer.hasNext()) {
+        final byte[] token = lexer.nextToken();
+        for(int i = 0; i < is; i++) delta.delete(token, ids.get(i));
+        indexed |= token.length <= maxlen && !sw.contains(token);
+      }
+      if(indexed) statistics(text, -is);
+    }
+    merge();
+  }
+
+  /**
+   * Updates the statistics for relevance scoring.
+   * @param text text
+   * @param count number of added (positive) or deleted (negative) text nodes
+   */
+  private void statistics(final byte[] text, final int count) {
+    final MetaData meta = data.meta;
+    if(meta.ftnodes == -1) return;
+    meta.ftnodes = Math.max(0, meta.ftnodes + count);
+    meta.ftlength = Math.max(0, meta.ftlength + (long) text.length * count);
+  }
+
+  /**
+   * Starts a background merge if the number of incremental updates exceeds the threshold.
+   */
+  private void merge() {
+    if(merging != null || delta.size() + deleted.size() < MERGE) return;
+
+    final FTDelta dlt = delta;
+    final IntSet dltDeleted = deleted;
+    frozen = dlt;
+    frozenDeleted = dltDeleted;
+    delta = new FTDelta();
+    deleted = new IntSet();
+    stop = false;
+    merging = EXECUTOR.submit(() -> {
+      merge(dlt, dltDeleted);
+      return null;
+    });
+  }
+
+  /**
+   * Merges the disk index with the specified incremental updates and writes the result
+   * to new index files.
+   * @param dlt incremental updates
+   * @param dltDeleted ids of deleted text nodes
+   * @throws IOException I/O exception
+   */
+  private void merge(final FTDelta dlt, final IntSet dltDeleted) throws IOException {
+    final MetaData meta = data.meta;
+    final String name = DATAFTX + 'm';
+    try(DataAccess inX = new DataAccess(meta.dbFile(DATAFTX + 'x'));
+        DataAccess inY = new DataAccess(meta.dbFile(DATAFTX + 'y'));
+        DataAccess inZ = new DataAccess(meta.dbFile(DATAFTX + 'z'));
+        DataOutput outX = new DataOutput(meta.dbFile(name + 'x'));
+        DataOutput outY = new DataOutput(meta.dbFile(name + 'y'));
+        DataOutput outZ = new DataOutput(meta.dbFile(name + 'z'))) {
+
+      // read token lengths and offsets of the disk index
+      final IntList lengths = new IntList(), offsets = new IntList();
+      for(int is = inX.readNum(); --is >= 0;) {
+        lengths.add(inX.readNum());
+        offsets.add(inX.read4());
+      }
+      offsets.add((int) inY.length());
+
+      final byte[][] tokens = dlt.tokens(token -> true);
+      final int tl = tokens.length, ll = lengths.size();
+      final IntList ind = new IntList(), list = new IntList();
+      int t = 0, l = 0, len = lengths.isEmpty() ? 0 : lengths.get(0), j = 0;
+      long off = ll == 0 ? 0 : offsets.get(0);
+      while(t < tl || l < ll) {
+        if(stop) throw new IOException("Merge was stopped.");
+
+        // choose next token of the disk index or the incremental updates
+        byte[] token = l < ll ? inY.readBytes(off, len) : null;
+        final int d = token == null ? 1 : t == tl ? -1 : FTDelta.compare(token, tokens[t]);
+        list.reset();
+        if(d <= 0) {
+          final long pointer = inY.read5();
+          final int size = inY.read4();
+          inZ.cursor(pointer);
+          for(int s = 0; s < size; s++) {
+            final int id = inZ.readNum(), pos = inZ.readNum();
+            if(!dltDeleted.contains(id)) list.add(id).add(pos);
+          }
+          off += len + 9;
+          while(l < ll && off == offsets.get(l + 1)) {
+            if(++l < ll) len = lengths.get(l);
+          }
+        }
+        if(d >= 0) {
+          token = tokens[t++];
+          final IntList entries = dlt.get(token);
+          final int es = entries.size();
+          for(int e = 0; e < es; e++) list.add(entries.get(e));
+        }
+
+        // write token and its id/pos entries
+        final int is = list.size();
+        if(is == 0) continue;
+        if(j < token.length) {
+          j = token.length;
+          ind.add(j);
+          ind.add((int) outY.size());
+        }
+        outY.writeBytes(token);
+        outY.write5(outZ.size());
+        outY.write4(is >> 1);
+        for(int s = 0; s < is; s++) outZ.writeNum(list.get(s));
+      }
+      FTBuilder.writeInd(outX, ind, ++j, (int) outY.size());
+    }
+  }
+
+  /**
+   * Checks if a background merge has been finished.
+   * @return result of check
+   */
+  public synchronized boolean merged() {
+    return merging != null && merging.isDone();
+  }
+
+  /**
+   * Replaces the disk index with the results of a finished background merge.
+   * The caller must ensure that the index files can be written directly.
+   * @throws IOException I/O exception
+   */
+  public synchronized void swap() throws IOException {
+    final Future<?> mrg = merging;
+    merging = null;
+    try {
+      mrg.get();
+    } catch(final ExecutionException | InterruptedException ex) {
+      // merge failed: keep frozen updates in main memory
+      Util.debug(ex);
+      restore();
+      data.meta.drop(DATAFTX + "m.");
+      return;
+    }
+
+    final MetaData meta = data.meta;
+    super.close();
+    for(final char c : new char[] { 'x', 'y', 'z' }) {
+      final IOFile file = meta.dbFile(DATAFTX + c);
+      if(!file.delete() || !meta.dbFile(DATAFTX + 'm' + c).rename(file)) {
+        throw new IOException("Full-text index file could not be replaced: " + file);
+      }
+    }
+    open();
+    frozen = null;
+    frozenDeleted = new IntSet();
+    write(meta.dbFile(DATAFTX + 'd'));
+  }
+
+  /**
+   * Moves frozen updates back to the incremental updates.
+   */
+  private void restore() {
+    if(frozen == null) return;
+    final FTDelta dlt = new FTDelta();
+    dlt.add(frozen, deleted);
+    dlt.add(delta, new IntSet());
+    for(final int id : frozenDeleted.toArray()) deleted.add(id);
+    delta = dlt;
+    frozen = null;
+    frozenDeleted = new IntSet();
+  }
+
+  /**
+   * Writes the incremental updates to the specified file.
+   * @param file index file
+   * @throws IOException I/O exception
+   */
+  public void write(final IOFile file) throws IOException {
+    try(DataOutput out = new DataOutput(file)) {
+      write(out);
+    }
+  }
+
+  /**
+   * Writes the incremental updates to the specified output, including frozen updates that
+   * have not been merged yet.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  public synchronized void write(final DataOutput out) throws IOException {
+    final FTDelta dlt = new FTDelta();
+    final IntSet dltDeleted = new IntSet();
+    if(frozen != null) dlt.add(frozen, deleted);
+    dlt.add(delta, dltDeleted);
+    for(final int id : frozenDeleted.toArray()) dltDeleted.add(id);
+    for(final int id : deleted.toArray()) dltDeleted.add(id);
+    dlt.write(out);
+    out.writeNums(dltDeleted.toArray());
+  }
+
+  @Override
+  public synchronized void close() {
+    final Future<?> mrg = merging;
+    if(mrg != null) {
+      // stop running merge and discard its results
+      stop = true;
+      try {
+        mrg.get();
+      } catch(final ExecutionException | InterruptedException ex) {
+        Util.debug(ex);
+      }
+      merging = null;
+      restore();
+      data.meta.drop(DATAFTX + "m.");
+    }
+    super.close();
+  }
+}
@@ -36,6 +36,28 @@ public abstract class FTIndexIterator implements IndexIterator {
    */
   public abstract void pos(int p);
 
+  /**
+   * Returns the number of distinct nodes that will be returned.
+   * The default implementation returns the number of results.
+   * @return number of nodes
+   */
+  public int nodes() {
+    return size();
+  }
+
+  /**
+   * {@inheritDoc}
+   * The default implementation iterates through the results. It must only be called if the
+   * current result is smaller than the specified pre value.
+   */
+  @Override
+  public boolean skipTo(final int pre) {
+    while(more()) {
+      if(pre() >= pre) return true;
+    }
+    return false;
+  }
+
   /**
    * Merges two index iterators for unions.
    * @param iters index iterators to merge
@@ -107,6 +129,13 @@ public abstract class FTIndexIterator implements IndexIterator {
         return c;
       }
 
+      @Override
+      public int nodes() {
+        int c = 0;
+        for(final FTIndexIterator iter : iters) c += iter.nodes();
+        return c;
+      }
+
       @Override
       public String toString() {
         final StringBuilder sb = new StringBuilder().append('(');
@@ -137,8 +166,14 @@ public abstract class FTIndexIterator implements IndexIterator {
       public boolean more() {
         int d = 0;
         while(true) {
-          if(d <= 0) ii1 = i1.more() ? i1 : null;
-          if(d >= 0) ii2 = i2.more() ? i2 : null;
+          if(d == 0) {
+            ii1 = i1.more() ? i1 : null;
+            ii2 = i2.more() ? i2 : null;
+          } else if(d < 0) {
+            ii1 = i1.skipTo(ii2.pre()) ? i1 : null;
+          } else {
+            ii2 = i2.skipTo(ii1.pre()) ? i2 : null;
+          }
           if(ii1 == null || ii2 == null) return false;
           d = ii1.pre() - ii2.pre();
           if(d != 0) continue;
@@ -176,6 +211,11 @@ public abstract class FTIndexIterator implements IndexIterator {
         return Math.min(i1.size(), i2.size());
       }
 
+      @Override
+      public int nodes() {
+        return Math.min(i1.nodes(), i2.nodes());
+      }
+
       @Override
       public String toString() {
         return "(" + i1 + " & " + i2 + ')';
@@ -1,5 +1,7 @@
 package org.basex.index.query;
 
+import org.basex.util.*;
+
 /**
  * Iterator for returning index results.
  *
@@ -15,6 +17,8 @@ public interface IndexIterator {
     public int pre() { return 0; }
     @Override
     public int size() { return 0; }
+    @Override
+    public boolean skipTo(final int pre) { return false; }
   };
 
   /**
@@ -34,4 +38,15 @@ public interface IndexIterator {
    * @return approximate number of results
    */
   int size();
+
+  /**
+   * Skips all results that are smaller than the specified pre value.
+   * If {@code true} is returned, {@link #pre()} will return the first remaining result.
+   * Skipping is only supported by iterators that return ordered pre values.
+   * @param pre pre value
+   * @return {@code true} if more results can be returned
+   */
+  default boolean skipTo(final int pre) {
+    throw Util.notExpected();
+  }
 }
@@ -0,0 +1,192 @@
+package org.basex.index.value;
+
+import java.io.*;
+
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.io.out.DataOutput;
+import org.basex.io.random.*;
+import org.basex.util.list.*;
+
+/**
+ * This class provides a Bloom filter for the keys of a {@link DiskValues} index.
+ * If a key is rejected by the filter, it is guaranteed not to exist in the index, and the
+ * binary search for the key can be skipped.
+ *
+ * <p>The filter is stored as a bit array with {@link #BITS} bits per key. The number of 4-byte
+ * words is stored in the first 4 bytes of the file, followed by the words. The bits are kept
+ * in main memory, and updates are written through to the file. As keys cannot be removed from
+ * a Bloom filter, deleted keys will only be dropped if the filter is rebuilt.</p>
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+final class BloomFilter {
+  /** Number of bits per key. */
+  private static final int BITS = 10;
+  /** Number of hash functions (approximately {@code ln 2 * BITS}). */
+  private static final int HASHES = 7;
+
+  /** Filter file. */
+  private final DataAccess da;
+  /** Bit array. */
+  private int[] words;
+
+  /**
+   * Constructor.
+   * @param file filter file
+   * @param meta meta data
+   * @throws IOException I/O Exception
+   */
+  BloomFilter(final IOFile file, final MetaData meta) throws IOException {
+    da = new DataAccess(file, meta.cache);
+    read();
+  }
+
+  /**
+   * Checks if the specified key may be contained in the index.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param key key
+   * @return {@code false} if the key is definitely not contained in the index
+   */
+  boolean contains(final byte[] key) {
+    final int[] wrds = words;
+    final long hash = hash(key), bits = wrds.length * 32L;
+    for(int h = 0; h < HASHES; h++) {
+      final long bit = bit(hash, h, bits);
+      if((wrds[(int) (bit >>> 5)] & 1 << bit) == 0) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Adds a key to the filter.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param key key
+   */
+  void add(final byte[] key) {
+    final long hash = hash(key), bits = words.length * 32L;
+    for(int h = 0; h < HASHES; h++) {
+      final long bit = bit(hash, h, bits);
+      final int w = (int) (bit >>> 5), word = words[w] | 1 << bit;
+      if(word != words[w]) {
+        words[w] = word;
+        da.write4(4 + w * 4L, word);
+      }
+    }
+  }
+
+  /**
+   * Checks if the filter is too small for the specified number of keys.
+   * @param keys number of keys
+   * @return result of check
+   */
+  boolean full(final int keys) {
+    return words.length * 32L < (long) keys * BITS / 2;
+  }
+
+  /**
+   * Rebuilds the filter for the specified key hashes.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param hashes hashes of the keys (see {@link #hash(byte[])})
+   */
+  void rebuild(final LongList hashes) {
+    final int[] wrds = words(hashes);
+    da.write4(0, wrds.length);
+    for(final int word : wrds) da.write4(word);
+    words = wrds;
+  }
+
+  /**
+   * Writes all future updates to the specified log.
+   * @param wal write-ahead log
+   */
+  void log(final WriteAheadLog wal) {
+    da.log(wal);
+    // bits may have been recovered from the log
+    read();
+  }
+
+  /**
+   * Flushes the buffered data.
+   */
+  void flush() {
+    da.flush();
+  }
+
+  /**
+   * Closes the file.
+   */
+  void close() {
+    da.close();
+  }
+
+  /**
+   * Reads the bit array.
+   */
+  private void read() {
+    final int[] wrds = new int[da.read4(0)];
+    final int wl = wrds.length;
+    for(int w = 0; w < wl; w++) wrds[w] = da.read4();
+    words = wrds;
+  }
+
+  /**
+   * Writes a filter for the specified key hashes.
+   * @param file filter file
+   * @param hashes hashes of the keys (see {@link #hash(byte[])})
+   * @throws IOException I/O Exception
+   */
+  static void write(final IOFile file, final LongList hashes) throws IOException {
+    final int[] wrds = words(hashes);
+    try(DataOutput out = new DataOutput(file)) {
+      out.write4(wrds.length);
+      for(final int word : wrds) out.write4(word);
+    }
+  }
+
+  /**
+   * Computes a 64-bit hash value for the specified key (FNV-1a with a final mixing step).
+   * @param key key
+   * @return hash value
+   */
+  static long hash(final byte[] key) {
+    long h = 0xCBF29CE484222325L;
+    for(final byte b : key) h = (h ^ b) * 0x100000001B3L;
+    h = (h ^ h >>> 33) * 0xFF51AFD7ED558CCDL;
+    h = (h ^ h >>> 33) * 0xC4CEB9FE1A85EC53L;
+    return h ^ h >>> 33;
+  }
+
+  /**
+   * Creates a bit array for the specified key hashes.
+   * @param hashes hashes of the keys
+   * @return bit array
+   */
+  private static int[] words(final LongList hashes) {
+    // reserve space for at least one key
+    final int hs = hashes.size();
+    final int[] wrds = new int[(int) (Math.max(1, hs) * (long) BITS + 31 >>> 5)];
+    final long bits = wrds.length * 32L;
+    for(int i = 0; i < hs; i++) {
+      final long hash = hashes.get(i);
+      for(int h = 0; h < HASHES; h++) {
+        final long bit = bit(hash, h, bits);
+        wrds[(int) (bit >>> 5)] |= 1 << bit;
+      }
+    }
+    return wrds;
+  }
+
+  /**
+   * Returns the position of a bit. The lower and upper 32 bits of the hash value are used as
+   * the two base hashes of double hashing.
+   * @param hash hash value of a key
+   * @param h number of the hash function
+   * @param bits number of bits
+   * @return position
+   */
+  private static long bit(final long hash, final int h, final long bits) {
+    return ((int) hash + h * (int) (hash >>> 32) & 0xFFFFFFFFL) % bits;
+  }
+}
@@ -0,0 +1,134 @@
+package org.basex.index.value;
+
+import static org.basex.util.Token.*;
+
+import java.io.*;
+
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.io.random.*;
+
+/**
+ * This class provides access to the stored keys of a {@link DiskValues} index. The keys are
+ * stored in blocks of {@link #BLOCK} entries. The first key of a block is stored in full;
+ * all other keys are stored as the length of the prefix they share with the preceding key and
+ * the remaining suffix. The first keys of all blocks are kept in main memory.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+final class DiskKeys {
+  /** Number of keys in a block. */
+  static final int BLOCK = 32;
+
+  /** Keys. */
+  private final DataAccess keys;
+  /** Offsets to the blocks. */
+  private final long[] offsets;
+  /** First keys of the blocks. */
+  private final byte[][] firsts;
+  /** Number of keys. */
+  private final int size;
+
+  /** Keys of the currently decoded block. */
+  private final byte[][] block = new byte[BLOCK][];
+  /** Index of the currently decoded block ({@code -1}: none). */
+  private int current = -1;
+
+  /**
+   * Constructor.
+   * @param file index file
+   * @param meta meta data
+   * @throws IOException I/O Exception
+   */
+  DiskKeys(final IOFile file, final MetaData meta) throws IOException {
+    keys = new DataAccess(file, meta.cache);
+    final long length = keys.length();
+    size = keys.read4(length - 8);
+    final int blocks = keys.read4(length - 4);
+    offsets = new long[blocks];
+    firsts = new byte[blocks][];
+    final long start = length - 8 - blocks * 5L;
+    for(int b = 0; b < blocks; b++) {
+      offsets[b] = keys.read5(start + b * 5L);
+      firsts[b] = keys.readToken(offsets[b]);
+    }
+  }
+
+  /**
+   * Returns the number of keys.
+   * @return number of keys
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Binary search for a key.
+   * @param key key to be found
+   * @return index of the key, or (-(insertion point) - 1)
+   */
+  synchronized int get(final byte[] key) {
+    // find last block whose first key is not greater than the searched key
+    int l = 0, h = firsts.length - 1;
+    while(l <= h) {
+      final int m = l + h >>> 1;
+      final int d = diff(firsts[m], key);
+      if(d == 0) return m * BLOCK;
+      if(d < 0) l = m + 1;
+      else h = m - 1;
+    }
+    if(h < 0) return -1;
+
+    // search key in the block
+    final int bs = decode(h);
+    for(int k = 1; k < bs; k++) {
+      final int d = diff(block[k], key);
+      if(d == 0) return h * BLOCK + k;
+      if(d > 0) return -(h * BLOCK + k + 1);
+    }
+    return -(h * BLOCK + bs + 1);
+  }
+
+  /**
+   * Returns the key at the specified position.
+   * @param index index of the key
+   * @return key
+   */
+  synchronized byte[] key(final int index) {
+    decode(index / BLOCK);
+    return block[index % BLOCK];
+  }
+
+  /**
+   * Closes the file.
+   */
+  synchronized void close() {
+    keys.close();
+  }
+
+  /**
+   * Decodes the keys of a block.
+   * @param b index of the block
+   * @return number of keys in the block
+   */
+  private int decode(final int b) {
+    final int bs = Math.min(BLOCK, size - b * BLOCK);
+    if(b != current) {
+      keys.cursor(offsets[b]);
+      byte[] key = keys.readToken();
+      block[0] = key;
+      for(int k = 1; k < bs; k++) {
+        final int prefix = keys.readNum();
+        final byte[] suffix = keys.readToken();
+        final byte[] next = new byte[prefix + suffix.length];
+        System.arraycopy(key, 0, next, 0, prefix);
+        System.arraycopy(suffix, 0, next, prefix, suffix.length);
+        block[k] = next;
+        key = next;
+      }
+      current = b;
+    }
+    return bs;
+  }
+}
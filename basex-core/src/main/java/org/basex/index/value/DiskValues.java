@@ -12,6 +12,7 @@ import org.basex.data.*;
 import org.basex.index.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
+import org.basex.io.*;
 import org.basex.io.random.*;
 import org.basex.query.util.index.*;
 import org.basex.util.*;
@@ -26,10 +27,23 @@ import org.basex.util.list.*;
  * @author Christian Gruen
  */
 public class DiskValues extends ValueIndex {
+  /** Number of ids in a block of an id list that can be skipped. */
+  static final int SKIP = 128;
+
   /** ID references. */
   final DataAccess idxr;
   /** ID lists. */
   final DataAccess idxl;
+  /** Numeric keys (can be {@code null}). */
+  private final DataAccess idxn;
+  /** Skip entries of id lists (can be {@code null}). */
+  private final DataAccess idxs;
+  /** Stored keys (can be {@code null}). */
+  private final DiskKeys keys;
+  /** Bloom filter for the keys (can be {@code null}). */
+  private final BloomFilter filter;
+  /** Histograms for the keys and the numeric keys (can be {@code null}). */
+  private final Histogram[] histograms;
   /** Cached index entries: mapping between keys and index entries. */
   final IndexCache cache = new IndexCache();
   /** Cached texts: mapping between key positions in the reference file, and the indexed texts. */
@@ -59,8 +73,18 @@ public class DiskValues extends ValueIndex {
    */
   DiskValues(final Data data, final IndexType type, final String prefix) throws IOException {
     super(data, type);
-    idxl = new DataAccess(data.meta.dbFile(prefix + 'l'));
-    idxr = new DataAccess(data.meta.dbFile(prefix + 'r'));
+    idxl = new DataAccess(data.meta.dbFile(prefix + 'l'), data.meta.cache);
+    idxr = new DataAccess(data.meta.dbFile(prefix + 'r'), data.meta.cache);
+    final IOFile numeric = data.meta.dbFile(prefix + 'n');
+    idxn = numeric.exists() ? new DataAccess(numeric, data.meta.cache) : null;
+    final IOFile skips = data.meta.dbFile(prefix + 's');
+    idxs = skips.exists() ? new DataAccess(skips, data.meta.cache) : null;
+    final IOFile stored = data.meta.dbFile(prefix + 'k');
+    keys = stored.exists() ? new DiskKeys(stored, data.meta) : null;
+    final IOFile bloom = data.meta.dbFile(prefix + 'b');
+    filter = bloom.exists() ? new BloomFilter(bloom, data.meta) : null;
+    final IOFile histogram = data.meta.dbFile(prefix + 'h');
+    histograms = histogram.exists() ? Histogram.read(histogram) : null;
     size.set(idxl.read4());
   }
 
@@ -78,7 +102,9 @@ public class DiskValues extends ValueIndex {
       for(int index = 0; index < entries; index++) {
         final long pos = idxr.read5(index * 5L);
         final int count = idxl.readNum(pos);
-        if(stats.adding(count)) stats.add(key(idxl.readNum()), count);
+        if(stats.adding(count)) {
+          stats.add(keys != null ? keys.key(index) : key(idxl.readNum()), count);
+        }
       }
     }
     stats.print(tb);
@@ -93,42 +119,27 @@ public class DiskValues extends ValueIndex {
   @Override
   public final IndexCosts costs(final IndexSearch search) {
     return IndexCosts.get(
-      search instanceof StringRange ? Math.max(1, data.meta.size / 10) :
-      search instanceof NumericRange ? Math.max(1, data.meta.size / 3) :
+      search instanceof StringRange ? costs((StringRange) search) :
+      search instanceof NumericRange ? costs((NumericRange) search) :
       entry(search.token()).size);
   }
 
   @Override
   public final IndexIterator iter(final IndexSearch search) {
-    final IntList pres;
+    final LongList offsets = new LongList();
+    final IntList counts = new IntList();
     if(search instanceof StringRange) {
-      pres = idRange((StringRange) search);
+      idRange((StringRange) search, offsets, counts);
     } else if(search instanceof NumericRange) {
-      pres = idRange((NumericRange) search);
+      idRange((NumericRange) search, offsets, counts);
     } else {
       final IndexEntry ie = entry(search.token());
-      pres = pres(ie.size, ie.offset);
-    }
-
-    return new IndexIterator() {
-      final int sz = pres.size();
-      int c;
-
-      @Override
-      public boolean more() {
-        return c < sz;
-      }
-
-      @Override
-      public int pre() {
-        return pres.get(c++);
-      }
-
-      @Override
-      public int size() {
-        return sz;
+      if(ie.size > 0) {
+        offsets.add(ie.offset);
+        counts.add(ie.size);
       }
-    };
+    }
+    return iter(offsets.finish(), counts.finish());
   }
 
   @Override
@@ -141,6 +152,10 @@ public class DiskValues extends ValueIndex {
     synchronized(monitor) {
       idxl.close();
       idxr.close();
+      if(idxn != null) idxn.close();
+      if(idxs != null) idxs.close();
+      if(keys != null) keys.close();
+      if(filter != null) filter.close();
     }
   }
 
@@ -165,10 +180,27 @@ public class DiskValues extends ValueIndex {
     return entries.descending ? keys(0, i, true) : keys(i, size(), false);
   }
 
+  @Override
+  public final boolean numeric() {
+    return idxn != null;
+  }
+
   @Override
   public final void flush() {
     idxl.flush();
     idxr.flush();
+    if(filter != null) filter.flush();
+  }
+
+  @Override
+  public final void log(final WriteAheadLog wal) {
+    synchronized(monitor) {
+      idxl.log(wal);
+      idxr.log(wal);
+      if(filter != null) filter.log(wal);
+      // number of entries may have been recovered from the log
+      size.set(idxl.read4(0));
+    }
   }
 
   /**
@@ -199,6 +231,9 @@ public class DiskValues extends ValueIndex {
    * @return index of the key, or (-(insertion point) - 1)
    */
   protected final int get(final byte[] key, final int first, final int last) {
+    // stored keys: search in-memory directory, decode single block
+    if(keys != null && first == 0 && last == keys.size()) return keys.get(key);
+
     int l = first, h = last - 1;
     synchronized(monitor) {
       while(l <= h) {
@@ -213,6 +248,25 @@ public class DiskValues extends ValueIndex {
     return -(l + 1);
   }
 
+  /**
+   * Adds new keys to the Bloom filter. The filter is rebuilt if it has become too small.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param added keys that have been added to the index
+   */
+  final void filter(final TokenList added) {
+    if(filter == null) return;
+    final int sz = size();
+    if(filter.full(sz)) {
+      final LongList hashes = new LongList(sz);
+      synchronized(monitor) {
+        for(int index = 0; index < sz; index++) hashes.add(BloomFilter.hash(indexKey(index)));
+      }
+      filter.rebuild(hashes);
+    } else {
+      for(final byte[] key : added) filter.add(key);
+    }
+  }
+
   // PRIVATE METHODS ==============================================================================
 
   /**
@@ -224,6 +278,8 @@ public class DiskValues extends ValueIndex {
   private IndexEntry entry(final byte[] value) {
     final IndexEntry entry = cache.get(value);
     if(entry != null) return entry;
+    // skip binary search if the key is rejected by the Bloom filter
+    if(filter != null && !filter.contains(value)) return new IndexEntry(value, 0, 0);
 
     final long index = get(value);
     if(index < 0) return new IndexEntry(value, 0, 0);
@@ -327,20 +383,98 @@ public class DiskValues extends ValueIndex {
     final long pos = idxr.read5(index * 5L);
     final int count = idxl.readNum(pos);
     if(key == null) {
-      key = key(idxl.readNum());
+      key = keys != null ? keys.key(index) : key(idxl.readNum());
       ctext.put(index, key);
     }
     return cache.add(key, count, pos + Num.length(count));
   }
 
   /**
-   * Iterator method.
+   * Returns an iterator for the specified id lists.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param offsets offsets to the id lists
+   * @param counts number of ids per list
+   * @return iterator
+   */
+  protected IndexIterator iter(final long[] offsets, final int[] counts) {
+    return offsets.length == 0 ? IndexIterator.EMPTY :
+      new DiskValuesIterator(this, offsets, counts);
+  }
+
+  /**
+   * Reads the next ids of an id list.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param offset offset to the next id
+   * @param id last id that has been read
+   * @param ids array for the ids to be read
+   * @param count number of ids to be read
+   * @return offset to the next id
+   */
+  final long ids(final long offset, final int id, final int[] ids, final int count) {
+    synchronized(monitor) {
+      idxl.cursor(offset);
+      for(int i = 0, d = id; i < count; i++) {
+        d += idxl.readNum();
+        // token index: skip position
+        if(type == IndexType.TOKEN) idxl.readNum();
+        ids[i] = d;
+      }
+      return idxl.cursor();
+    }
+  }
+
+  /**
+   * Returns the index of the first skip entry of an id list.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param offset offset to the id list
+   * @return index of the first skip entry, or {@code -1} if the list has no skip entries
+   */
+  final int skips(final long offset) {
+    if(idxs == null) return -1;
+    synchronized(monitor) {
+      int l = 0, h = idxs.read4(0) - 1;
+      while(l <= h) {
+        final int m = l + h >>> 1;
+        final long o = idxs.read5(m * 9L + 4);
+        if(o == offset) return idxs.read4(m * 9L + 9);
+        if(o < offset) l = m + 1;
+        else h = m - 1;
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the last skip entry in the specified range whose id is smaller than the given id.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param first index of the first skip entry
+   * @param last index of the last skip entry
+   * @param id id
+   * @return index, id and offset of the skip entry, or {@code null}
+   */
+  final long[] skip(final int first, final int last, final int id) {
+    synchronized(monitor) {
+      final long start = idxs.read4(0) * 9L + 4;
+      int l = first, h = last;
+      while(l <= h) {
+        final int m = l + h >>> 1;
+        if(idxs.read4(start + m * 9L) < id) l = m + 1;
+        else h = m - 1;
+      }
+      if(h < first) return null;
+      final long pos = start + h * 9L;
+      return new long[] { h, idxs.read4(pos), idxs.read5(pos + 4) };
+    }
+  }
+
+  /**
+   * Returns the pre values of an id list.
    * <p><em>Important:</em> This method is thread-safe.</p>
    * @param sz number of values
    * @param offset offset
-   * @return sorted pre values
+   * @return pre values
    */
-  protected IntList pres(final int sz, final long offset) {
+  protected final IntList pres(final int sz, final long offset) {
     final IntList pres = new IntList(sz);
     synchronized(monitor) {
       idxl.cursor(offset);
@@ -354,71 +488,159 @@ public class DiskValues extends ValueIndex {
     return pres;
   }
 
+  /**
+   * Adds the offset and the number of ids of the id list of the specified key.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param index index of the key
+   * @param offsets offsets to the id lists
+   * @param counts number of ids per list
+   */
+  private void idList(final int index, final LongList offsets, final IntList counts) {
+    counts.add(idxl.readNum(idxr.read5(index * 5L)));
+    offsets.add(idxl.cursor());
+  }
+
   /**
    * Performs a string-based range query.
    * <p><em>Important:</em> This method is thread-safe.</p>
    * @param tok index term
-   * @return results
+   * @param offsets offsets to the id lists
+   * @param counts number of ids per list
    */
-  private IntList idRange(final StringRange tok) {
-    // check if min and max are positive integers with the same number of digits
-    final IntList pres = new IntList();
+  private void idRange(final StringRange tok, final LongList offsets, final IntList counts) {
     synchronized(monitor) {
       final int i = get(tok.min);
       final int entries = size();
       for(int index = i < 0 ? -i - 1 : tok.mni ? i : i + 1; index < entries; index++) {
-        final int count = idxl.readNum(idxr.read5(index * 5L));
-        int id = idxl.readNum();
         // skip traversal if value is too large
-        final int diff = diff(key(id), tok.max);
+        final int diff = diff(indexKey(index), tok.max);
         if(diff > 0 || !tok.mxi && diff == 0) break;
-        // add pre values
-        for(int c = 0; c < count; c++) {
-          pres.add(pre(id));
-          id += idxl.readNum();
-        }
+        idList(index, offsets, counts);
+      }
+    }
+  }
+
+  /**
+   * Returns the costs of a string range query.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param range range
+   * @return number of expected results
+   */
+  private int costs(final StringRange range) {
+    if(histograms == null) return Math.max(1, data.meta.size / 10);
+
+    final int min = get(range.min), max = get(range.max);
+    final int first = min < 0 ? -min - 1 : range.mni ? min : min + 1;
+    final int last = max < 0 ? -max - 1 : range.mxi ? max + 1 : max;
+    return histograms[0].estimate(first, last);
+  }
+
+  /**
+   * Returns the costs of a numeric range query.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param range range
+   * @return number of expected results
+   */
+  private int costs(final NumericRange range) {
+    if(idxn == null) return Math.max(1, data.meta.size / 3);
+
+    int results = 0;
+    synchronized(monitor) {
+      final int first = numeric(range.min, true), last = numeric(range.max, false);
+      if(histograms != null) return histograms[1].estimate(first, last);
+      for(int n = first; n < last; n++) {
+        results += idxl.readNum(idxr.read5(idxn.read4(n * 12L + 12) * 5L));
       }
     }
-    return pres.sort();
+    return results;
+  }
+
+  /**
+   * Performs a range query with the numeric keys.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param range range
+   * @param offsets offsets to the id lists
+   * @param counts number of ids per list
+   */
+  private void numeric(final NumericRange range, final LongList offsets, final IntList counts) {
+    final int last = numeric(range.max, false);
+    for(int n = numeric(range.min, true); n < last; n++) {
+      idList(idxn.read4(n * 12L + 12), offsets, counts);
+    }
+  }
+
+  /**
+   * Binary search for a value in the numeric keys.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param value value to be found
+   * @param min return position of the first key that is equal to or greater than the value;
+   *   otherwise, return position of the first key that is greater than the value
+   * @return position
+   */
+  private int numeric(final double value, final boolean min) {
+    int l = 0, h = idxn.read4(0) - 1;
+    while(l <= h) {
+      final int m = l + h >>> 1;
+      final long pos = m * 12L + 4;
+      final double v = Double.longBitsToDouble((long) idxn.read4(pos) << 32 |
+          idxn.read4(pos + 4) & 0xFFFFFFFFL);
+      if(v < value || !min && v == value) l = m + 1;
+      else h = m - 1;
+    }
+    return l;
   }
 
   /**
    * Performs a range query. All index values must be numeric.
    * <p><em>Important:</em> This method is thread-safe.</p>
    * @param tok index term
-   * @return results
+   * @param offsets offsets to the id lists
+   * @param counts number of ids per list
    */
-  private IntList idRange(final NumericRange tok) {
+  private void idRange(final NumericRange tok, final LongList offsets, final IntList counts) {
     // check if min and max are positive integers with the same number of digits
     final double min = tok.min, max = tok.max;
     final int len = max > 0 && (long) max == max ? token(max).length : 0;
     final boolean simple = len != 0 && min > 0 && (long) min == min && token(min).length == len;
 
-    final IntList pres = new IntList();
     synchronized(monitor) {
+      // numeric keys: find first key in range and scan until the maximum is exceeded
+      if(idxn != null) {
+        numeric(tok, offsets, counts);
+        return;
+      }
+
       final int entries = size();
       final boolean text = type == IndexType.TEXT;
       for(int index = 0; index < entries; ++index) {
-        final int count = idxl.readNum(idxr.read5(index * 5L));
-        int id = idxl.readNum();
-        final int pre = pre(id);
+        idxl.readNum(idxr.read5(index * 5L));
+        final int pre = pre(idxl.readNum());
 
         final double v = data.textDbl(pre, text);
         if(v >= min && v <= max) {
           // value is in range
-          for(int c = 0; c < count; c++) {
-            pres.add(pre(id));
-            id += idxl.readNum();
-          }
-        } else if(simple && v > max && data.textLen(pre, text) == len) {
-          // if limits are integers, if min, max and current value have the same
+          idList(index, offsets, counts);
+        } else if(simple && v > max && data.textLen(pre, text) == len &&
+            toLong(data.text(pre, text)) == v) {
+          // if limits are integers, if min, max and current value are integers with the same
           // string length, and if current value is larger than max, test can be
           // skipped, as all remaining values will be bigger
           break;
         }
       }
     }
-    return pres.sort();
+  }
+
+  /**
+   * Returns the key at the specified position.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param index index of the key
+   * @return key
+   */
+  private byte[] indexKey(final int index) {
+    if(keys != null) return keys.key(index);
+    idxl.readNum(idxr.read5(index * 5L));
+    return key(idxl.readNum());
   }
 
   /**
@@ -447,7 +669,7 @@ public class DiskValues extends ValueIndex {
       int id = idxl.readNum();
       tb.add("  ").addInt(index).add(". offset: ").addLong(pos);
       if(all) {
-        tb.add(", key: \"").add(key(id)).add('"');
+        tb.add(", key: \"").add(keys != null ? keys.key(index) : key(id)).add('"');
         tb.add(", ids").add("/pres").add(": ").addInt(id).add('/').addInt(pre(id));
       } else {
         tb.add(", ids").add(": ").addInt(id);
@@ -473,6 +695,7 @@ public class DiskValues extends ValueIndex {
    * @return file suffix
    */
   static String fileSuffix(final IndexType type) {
-    return type == IndexType.TOKEN ? DATATOK : type == IndexType.TEXT ? DATATXT : DATAATV;
+    return type == IndexType.TOKEN ? DATATOK : type == IndexType.TRIGRAM ? DATATRI :
+      type == IndexType.PATHVALUE ? DATAPVL : type == IndexType.TEXT ? DATATXT : DATAATV;
   }
 }
@@ -3,6 +3,7 @@ package org.basex.index.value;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.util.*;
 
 import org.basex.data.*;
 import org.basex.index.*;
@@ -26,23 +27,103 @@ import org.basex.util.list.*;
  *   structure. Instead, they can be found by following the id references to
  *   the main table.
  * </li>
+ * <li> {@code DATATXT/ATV + 'n'}: contains the numeric keys, ordered by their
+ *   double values. The number of entries is stored in the first 4 bytes of the
+ *   file, followed by the 8-byte double values and 4-byte key positions. The
+ *   file is only created for non-incremental text and attribute indexes.
+ * </li>
+ * <li> {@code DATATXT/ATV + 's'}: contains skip entries for id lists with more
+ *   than {@link DiskValues#SKIP} ids. The number of lists is stored in the first
+ *   4 bytes of the file, followed by the 5-byte offsets of the lists and the
+ *   4-byte indexes of their first skip entries. A skip entry consists of the
+ *   4-byte id that ends a block of {@link DiskValues#SKIP} ids and the 5-byte
+ *   offset to the next id. The file is only created for non-incremental indexes.
+ * </li>
+ * <li> {@code DATATXT/ATV + 'k'}: contains the keys in blocks of
+ *   {@link DiskKeys#BLOCK} entries. The first key of a block is stored as token;
+ *   all other keys are stored as the length of the prefix shared with the
+ *   preceding key and the remaining suffix. The blocks are followed by their
+ *   5-byte offsets, the 4-byte number of keys and the 4-byte number of blocks.
+ *   The file is only created for non-incremental indexes.
+ * </li>
+ * <li> {@code DATATXT/ATV + 'b'}: contains a {@link BloomFilter} for the keys,
+ *   which allows lookups of non-existing keys to be skipped. The number of
+ *   4-byte words of the bit array is stored in the first 4 bytes of the file,
+ *   followed by the words.
+ * </li>
+ * <li> {@code DATATXT/ATV + 'h'}: contains {@link Histogram}s for the keys and the
+ *   numeric keys, which are used to estimate the results of range queries. The
+ *   file is only created for non-incremental indexes.
+ * </li>
  * </ul>
  *
+ * <p>Trigram indexes ({@code DATATRI}) are stored in the same format. Their keys are the
+ * distinct trigrams of the indexed texts, and their ids are always pre values.</p>
+ *
+ * <p>Path value indexes ({@code DATAPVL}) are stored in the same format. Their keys consist of
+ * the indexed path and the values of the children of an element, separated by
+ * {@link IndexPaths#SEPARATOR}, and their ids are the pre values of the elements.</p>
+ *
  * @author BaseX Team 2005-23, BSD License
  * @author Christian Gruen
  */
 public final class DiskValuesBuilder extends ValuesBuilder {
+  /** Minimum number of pre values of a partition. */
+  private static final int PARTITION = 1 << 16;
+
+  /** Number of threads. */
+  private final int threads;
+  /** Indicates if the index will be updatable. */
+  private final boolean updatable;
   /** Temporary value tree. */
   private IndexTree index;
+  /** Double values of numeric keys (can be {@code null}). */
+  private final DoubleList numbers;
+  /** Positions of numeric keys (can be {@code null}). */
+  private final IntList numKeys;
+  /** Offsets of id lists with skip entries (can be {@code null}). */
+  private final LongList skipLists;
+  /** Indexes of the first skip entries of id lists (can be {@code null}). */
+  private final IntList skipFirst;
+  /** Ids of skip entries (can be {@code null}). */
+  private final IntList skipIds;
+  /** Offsets of skip entries (can be {@code null}). */
+  private final LongList skipOffsets;
+  /** Offsets of key blocks (can be {@code null}). */
+  private final LongList keyBlocks;
+  /** Number of ids of the written keys (can be {@code null}). */
+  private final IntList keyCounts;
+  /** Hashes of the written keys. */
+  private final LongList hashes = new LongList();
+  /** Last written key. */
+  private byte[] lastKey;
+  /** Number of written keys. */
+  private int keys;
 
   /**
    * Constructor.
    * @param data data reference
    * @param type index type
+   * @param threads number of threads
+   * @param builders number of index builders that run concurrently
    */
-  public DiskValuesBuilder(final Data data, final IndexType type) {
-    super(data, type);
+  public DiskValuesBuilder(final Data data, final IndexType type, final int threads,
+      final int builders) {
+    super(data, type, builders);
+    this.threads = threads;
+    // trigram and path value indexes are never updated incrementally
+    updatable = data.meta.updindex && !trigrams && includePaths == null;
     index = new IndexTree(type);
+    final boolean numeric = !tokenize && !trigrams && includePaths == null && !updatable;
+    numbers = numeric ? new DoubleList() : null;
+    numKeys = numeric ? new IntList() : null;
+    final boolean skip = !updatable;
+    skipLists = skip ? new LongList() : null;
+    skipFirst = skip ? new IntList() : null;
+    skipIds = skip ? new IntList() : null;
+    skipOffsets = skip ? new LongList() : null;
+    keyBlocks = skip ? new LongList() : null;
+    keyCounts = skip ? new IntList() : null;
   }
 
   @Override
@@ -50,33 +131,37 @@ public final class DiskValuesBuilder extends ValuesBuilder {
     Util.debug(detailedInfo());
 
     try {
-      final boolean updindex = data.meta.updindex;
-      for(pre = 0; pre < size; ++pre) {
-        if((pre & 0x0FFF) == 0) check();
-        if(indexEntry()) {
-          final int id = updindex ? data.id(pre) : pre;
-          if(tokenize) {
-            int pos = 0;
-            for(final byte[] token : distinctTokens(data.text(pre, text))) {
-              index.add(token, id, pos++);
-              count++;
-            }
-          } else if(data.textLen(pre, text) <= data.meta.maxlen) {
-            index.add(data.text(pre, text), id, 0);
-            count++;
-          }
-        }
-      }
-
-      writeIndex(splits > 0);
-      if(splits > 1) {
+      final int parts = Math.min(threads, size / PARTITION);
+      if(parts > 1) {
+        // index partitions of the pre values in parallel, merge the resulting runs
         index = null;
-        clean();
+        final ArrayList<Parallel.Task> tasks = new ArrayList<>(parts);
+        for(int p = 0; p < parts; p++) {
+          final int start = (int) ((long) size * p / parts);
+          final int end = (int) ((long) size * (p + 1) / parts);
+          tasks.add(() -> index(start, end, parts));
+        }
+        Parallel.run(tasks);
         merge();
+      } else {
+        for(pre = 0; pre < size; ++pre) {
+          if((pre & 0x0FFF) == 0) check();
+          if(indexEntry()) count += add(index, pre);
+        }
+        writeIndex(splits > 0);
+        if(splits > 1) {
+          index = null;
+          merge();
+        }
       }
 
+      final String name = DiskValues.fileSuffix(type);
+      final int[] numeric = numbers != null ? writeNumeric() : null;
+      if(skipLists != null) writeSkips();
+      if(keyCounts != null) Histogram.write(data.meta.dbFile(name + 'h'), keyCounts, numeric);
+      BloomFilter.write(data.meta.dbFile(name + 'b'), hashes);
       finishIndex();
-      return updindex ? new UpdatableDiskValues(data, type) : new DiskValues(data, type);
+      return updatable ? new UpdatableDiskValues(data, type) : new DiskValues(data, type);
 
     } catch(final Throwable th) {
       // drop index files
@@ -85,14 +170,90 @@ public final class DiskValuesBuilder extends ValuesBuilder {
     }
   }
 
+  /**
+   * Indexes a partition of the pre values and writes the entries to temporary runs.
+   * Called in parallel for disjoint partitions.
+   * @param start first pre value
+   * @param end last pre value (exclusive)
+   * @param parts number of partitions
+   * @throws IOException I/O exception
+   */
+  private void index(final int start, final int end, final int parts) throws IOException {
+    IndexTree tree = new IndexTree(type);
+    long ops = 0, total = 0;
+    int last = start;
+    for(int p = start; p < end; p++) {
+      if((p & 0x0FFF) == 0 && p > start) {
+        checkStop();
+        progress(p - last, 0);
+        last = p;
+        // write run if memory budget is exhausted
+        if(splitRequired(ops, tree.memory(), parts)) {
+          writeRun(tree, run());
+          tree = new IndexTree(type);
+          total += ops;
+          ops = 0;
+        }
+      }
+      if(indexEntry(p)) ops += add(tree, p);
+    }
+    writeRun(tree, run());
+    progress(end - last, total + ops);
+  }
+
+  /**
+   * Adds the value of the specified entry to an index tree.
+   * @param tree index tree
+   * @param p pre value
+   * @return number of index operations
+   */
+  private int add(final IndexTree tree, final int p) {
+    final int id = updatable ? data.id(p) : p;
+    if(includePaths != null) {
+      final TokenList keys = includePaths.keys(p);
+      for(final byte[] key : keys) tree.add(key, id, 0);
+      return keys.size();
+    }
+    if(trigrams) {
+      final byte[][] grams = distinctTrigrams(data.text(p, text));
+      for(final byte[] gram : grams) tree.add(gram, id, 0);
+      return grams.length;
+    }
+    if(tokenize) {
+      int pos = 0;
+      for(final byte[] token : distinctTokens(data.text(p, text))) tree.add(token, id, pos++);
+      return pos;
+    }
+    if(data.textLen(p, text) > data.meta.maxlen) return 0;
+    tree.add(data.text(p, text), id, 0);
+    return 1;
+  }
+
+  /**
+   * Returns the number of the next temporary run.
+   * @return run number
+   */
+  private synchronized int run() {
+    return splits++;
+  }
+
+  /**
+   * Registers the progress of a partition.
+   * @param pres number of processed pre values
+   * @param ops number of index operations
+   */
+  private synchronized void progress(final int pres, final long ops) {
+    pre += pres;
+    count += ops;
+  }
+
   @Override
   protected void check() throws IOException {
     super.check();
-    // check if main memory is exhausted
-    if(splitRequired()) {
+    // check if memory budget is exhausted
+    if(splitRequired(index.memory())) {
       writeIndex(true);
       index = new IndexTree(type);
-      clean();
     }
   }
 
@@ -104,7 +265,8 @@ public final class DiskValuesBuilder extends ValuesBuilder {
     final String f = DiskValues.fileSuffix(type);
     int entries = 0;
     try(DataOutput outL = new DataOutput(data.meta.dbFile(f + 'l'));
-        DataOutput outR = new DataOutput(data.meta.dbFile(f + 'r'))) {
+        DataOutput outR = new DataOutput(data.meta.dbFile(f + 'r'));
+        DataOutput outK = keyBlocks != null ? new DataOutput(data.meta.dbFile(f + 'k')) : null) {
       outL.write4(0);
 
       // initialize cached index iterators
@@ -136,6 +298,7 @@ public final class DiskValuesBuilder extends ValuesBuilder {
         }
 
         // parse through all values, cache and sort id values
+        final byte[] key = vm[min].key;
         final int ms = ml.size();
         for(int m = 0; m < ms; ++m) {
           final DiskValuesMerger t = vm[ml.get(m)];
@@ -151,9 +314,12 @@ public final class DiskValuesBuilder extends ValuesBuilder {
           t.next();
         }
         // write final structure to disk
+        numeric(key, entries);
+        key(outK, key);
         write(outL, outR, id, pos);
         ++entries;
       }
+      finishKeys(outK);
     }
 
     // write number of entries to first position
@@ -168,23 +334,23 @@ public final class DiskValuesBuilder extends ValuesBuilder {
    * @throws IOException I/O exception
    */
   private void writeIndex(final boolean partial) throws IOException {
-    // write id arrays and references
-    final String name = DiskValues.fileSuffix(type) + (partial ? splits : "");
-    try(DataOutput outL = new DataOutput(data.meta.dbFile(name + 'l'));
-        DataOutput outR = new DataOutput(data.meta.dbFile(name + 'r'))) {
-      outL.write4(index.size());
+    if(partial) {
+      writeRun(index, splits);
+    } else {
+      // write id arrays and references
+      final String name = DiskValues.fileSuffix(type);
+      try(DataOutput outL = new DataOutput(data.meta.dbFile(name + 'l'));
+          DataOutput outR = new DataOutput(data.meta.dbFile(name + 'r'));
+          DataOutput outK = keyBlocks != null ?
+            new DataOutput(data.meta.dbFile(name + 'k')) : null) {
+        outL.write4(index.size());
 
-      final IntList id = new IntList(), pos = tokenize ? new IntList() : null;
-      index.init();
-      while(index.more()) {
-        final byte[] values = index.ids.get(index.next());
-        final int vs = Num.size(values);
-
-        if(partial) {
-          // write temporary structure to disk: number of entries, absolute values
-          outR.write5(outL.size());
-          outL.write(values, 0, vs);
-        } else {
+        final IntList id = new IntList(), pos = tokenize ? new IntList() : null;
+        index.init();
+        for(int entry = 0; index.more(); entry++) {
+          final int next = index.next();
+          final byte[] values = index.ids.get(next);
+          final int vs = Num.size(values);
           // cache and sort all values
           for(int ip = 4; ip < vs; ip += Num.length(values, ip)) {
             id.add(Num.get(values, ip));
@@ -194,20 +360,132 @@ public final class DiskValuesBuilder extends ValuesBuilder {
             }
           }
           // write final structure to disk
+          numeric(index.keys.get(next), entry);
+          key(outK, index.keys.get(next));
           write(outL, outR, id, pos);
         }
+        finishKeys(outK);
       }
     }
+    // increase split counter
+    splits++;
+  }
 
+  /**
+   * Writes an index tree to a temporary run.
+   * @param tree index tree
+   * @param run run number
+   * @throws IOException I/O exception
+   */
+  private void writeRun(final IndexTree tree, final int run) throws IOException {
+    // write temporary structure to disk: number of entries, absolute values
+    final String name = DiskValues.fileSuffix(type) + run;
+    try(DataOutput outL = new DataOutput(data.meta.dbFile(name + 'l'));
+        DataOutput outR = new DataOutput(data.meta.dbFile(name + 'r'))) {
+      outL.write4(tree.size());
+      tree.init();
+      while(tree.more()) {
+        final byte[] values = tree.ids.get(tree.next());
+        outR.write5(outL.size());
+        outL.write(values, 0, Num.size(values));
+      }
+    }
     // temporarily write texts
-    if(partial) {
-      try(DataOutput outT = new DataOutput(data.meta.dbFile(name + 't'))) {
-        index.init();
-        while(index.more()) outT.writeToken(index.keys.get(index.next()));
+    try(DataOutput outT = new DataOutput(data.meta.dbFile(name + 't'))) {
+      tree.init();
+      while(tree.more()) outT.writeToken(tree.keys.get(tree.next()));
+    }
+  }
+
+  /**
+   * Caches the double value of a numeric key.
+   * @param key key
+   * @param entry position of the key
+   */
+  private void numeric(final byte[] key, final int entry) {
+    if(numbers == null) return;
+    final double value = toDouble(key);
+    if(!Double.isNaN(value)) {
+      numbers.add(value);
+      numKeys.add(entry);
+    }
+  }
+
+  /**
+   * Writes the numeric keys, ordered by their double values.
+   * @return positions of the numeric keys, ordered by their double values
+   * @throws IOException I/O exception
+   */
+  private int[] writeNumeric() throws IOException {
+    final double[] values = numbers.finish();
+    final int[] order = Array.createOrder(values, true);
+    final int vl = values.length;
+    final int[] positions = new int[vl];
+    try(DataOutput outN = new DataOutput(data.meta.dbFile(DiskValues.fileSuffix(type) + 'n'))) {
+      outN.write4(vl);
+      for(int v = 0; v < vl; v++) {
+        final long bits = Double.doubleToRawLongBits(values[v]);
+        positions[v] = numKeys.get(order[v]);
+        outN.write4((int) (bits >>> 32));
+        outN.write4((int) bits);
+        outN.write4(positions[v]);
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * Registers a key for the Bloom filter and writes it to the stored keys.
+   * @param outK output for keys (can be {@code null})
+   * @param key key
+   * @throws IOException I/O exception
+   */
+  private void key(final DataOutput outK, final byte[] key) throws IOException {
+    hashes.add(BloomFilter.hash(key));
+    if(outK == null) return;
+    if(keys++ % DiskKeys.BLOCK == 0) {
+      keyBlocks.add(outK.size());
+      outK.writeToken(key);
+    } else {
+      final int kl = key.length, ll = Math.min(kl, lastKey.length);
+      int prefix = 0;
+      while(prefix < ll && key[prefix] == lastKey[prefix]) prefix++;
+      outK.writeNum(prefix);
+      outK.writeToken(substring(key, prefix, kl));
+    }
+    lastKey = key;
+  }
+
+  /**
+   * Writes the offsets of the key blocks and the number of keys and blocks.
+   * @param outK output for keys (can be {@code null})
+   * @throws IOException I/O exception
+   */
+  private void finishKeys(final DataOutput outK) throws IOException {
+    if(outK == null) return;
+    final int bs = keyBlocks.size();
+    for(int b = 0; b < bs; b++) outK.write5(keyBlocks.get(b));
+    outK.write4(keys);
+    outK.write4(bs);
+  }
+
+  /**
+   * Writes the skip entries of the id lists.
+   * @throws IOException I/O exception
+   */
+  private void writeSkips() throws IOException {
+    try(DataOutput outS = new DataOutput(data.meta.dbFile(DiskValues.fileSuffix(type) + 's'))) {
+      final int ls = skipLists.size(), ss = skipIds.size();
+      outS.write4(ls);
+      for(int l = 0; l < ls; l++) {
+        outS.write5(skipLists.get(l));
+        outS.write4(skipFirst.get(l));
+      }
+      for(int s = 0; s < ss; s++) {
+        outS.write4(skipIds.get(s));
+        outS.write5(skipOffsets.get(s));
       }
     }
-    // increase split counter
-    splits++;
   }
 
   /**
@@ -232,9 +510,19 @@ public final class DiskValuesBuilder extends ValuesBuilder {
     }
 
     final int is = id.size();
+    if(keyCounts != null) keyCounts.add(is);
     outR.write5(outL.size());
     outL.writeNum(is);
+    final boolean skip = skipLists != null && is > DiskValues.SKIP;
+    if(skip) {
+      skipLists.add(outL.size());
+      skipFirst.add(skipIds.size());
+    }
     for(int i = 0, old = 0; i < is; i++) {
+      if(skip && i > 0 && i % DiskValues.SKIP == 0) {
+        skipIds.add(old);
+        skipOffsets.add(outL.size());
+      }
       final int value = id.get(i);
       outL.writeNum(value - old);
       if(order != null) outL.writeNum(pos.get(order[i]));
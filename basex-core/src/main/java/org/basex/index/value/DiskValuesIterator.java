@@ -0,0 +1,191 @@
+package org.basex.index.value;
+
+import org.basex.index.query.*;
+
+/**
+ * Iterator for the id lists of a {@link DiskValues} index. The sorted id lists of all keys are
+ * merged on the fly, and ids are read from disk in small chunks. The iterator can only be used
+ * if the ids of the index are identical to the pre values.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+final class DiskValuesIterator implements IndexIterator {
+  /** Maximum number of ids that will be read in a single step. */
+  private static final int CHUNK = 256;
+
+  /** Index. */
+  private final DiskValues index;
+  /** Id lists, organized as min-heap. */
+  private final IdList[] heap;
+  /** Number of results. */
+  private final int size;
+  /** Number of id lists in the heap. */
+  private int lists;
+  /** Current pre value. */
+  private int pre = -1;
+  /** Indicates if the first id list in the heap has been consumed. */
+  private boolean consumed;
+
+  /**
+   * Constructor.
+   * @param index index
+   * @param offsets offsets to the id lists
+   * @param counts number of ids per list
+   */
+  DiskValuesIterator(final DiskValues index, final long[] offsets, final int[] counts) {
+    this.index = index;
+    final int ll = offsets.length;
+    heap = new IdList[ll];
+    int sz = 0;
+    for(int l = 0; l < ll; l++) {
+      final IdList list = new IdList(offsets[l], counts[l]);
+      if(list.next()) heap[lists++] = list;
+      sz += counts[l];
+    }
+    size = sz;
+    for(int l = (lists >>> 1) - 1; l >= 0; l--) down(l);
+  }
+
+  @Override
+  public boolean more() {
+    if(consumed) advance(heap[0].next());
+    consumed = true;
+    if(lists == 0) return false;
+    pre = heap[0].id;
+    return true;
+  }
+
+  @Override
+  public int pre() {
+    return pre;
+  }
+
+  @Override
+  public boolean skipTo(final int target) {
+    if(consumed && lists > 0 && pre >= target) return true;
+    while(lists > 0 && heap[0].id < target) advance(heap[0].skip(target));
+    consumed = true;
+    if(lists == 0) return false;
+    pre = heap[0].id;
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Restores the heap order after the first id list has been advanced.
+   * @param more indicates if the first id list has more ids
+   */
+  private void advance(final boolean more) {
+    if(lists == 0) return;
+    if(!more) heap[0] = heap[--lists];
+    down(0);
+  }
+
+  /**
+   * Moves an id list down the heap.
+   * @param l heap position
+   */
+  private void down(final int l) {
+    final IdList list = heap[l];
+    int p = l;
+    for(int c; (c = (p << 1) + 1) < lists; p = c) {
+      if(c + 1 < lists && heap[c + 1].id < heap[c].id) c++;
+      if(heap[c].id >= list.id) break;
+      heap[p] = heap[c];
+    }
+    heap[p] = list;
+  }
+
+  /** Id list of a single index key. */
+  private final class IdList {
+    /** Ids of the current chunk. */
+    private final int[] ids;
+    /** Offset to the id list. */
+    private final long start;
+    /** Number of ids. */
+    private final int count;
+    /** Index of the first skip entry ({@code -1}: none, {@code -2}: unknown). */
+    private int skips = -2;
+    /** Offset to the next unread id. */
+    private long offset;
+    /** Number of unread ids. */
+    private int unread;
+    /** Last id that has been read. */
+    private int base;
+    /** Number of ids in the current chunk. */
+    private int len;
+    /** Position of the next id in the current chunk. */
+    private int pos;
+    /** Current id. */
+    private int id;
+
+    /**
+     * Constructor.
+     * @param offset offset to the id list
+     * @param count number of ids
+     */
+    private IdList(final long offset, final int count) {
+      this.offset = offset;
+      this.count = count;
+      start = offset;
+      unread = count;
+      ids = new int[Math.min(count, CHUNK)];
+    }
+
+    /**
+     * Moves to the next id.
+     * @return {@code false} if the list is exhausted
+     */
+    private boolean next() {
+      if(pos == len) {
+        if(unread == 0) return false;
+        len = Math.min(unread, CHUNK);
+        offset = index.ids(offset, base, ids, len);
+        base = ids[len - 1];
+        unread -= len;
+        pos = 0;
+      }
+      id = ids[pos++];
+      return true;
+    }
+
+    /**
+     * Moves to the first id that is equal to or greater than the specified value.
+     * @param target target value
+     * @return {@code false} if the list is exhausted
+     */
+    private boolean skip(final int target) {
+      if(unread > 0 && base < target) {
+        // use skip entries to jump to the last block with smaller ids
+        if(skips == -2) skips = count > DiskValues.SKIP ? index.skips(start) : -1;
+        if(skips != -1) {
+          final int read = count - unread, blocks = (count - 1) / DiskValues.SKIP;
+          final int first = Math.max(0, (read + DiskValues.SKIP - 1) / DiskValues.SKIP - 1);
+          final long[] entry = index.skip(skips + first, skips + blocks - 1, target);
+          if(entry != null) {
+            base = (int) entry[1];
+            offset = entry[2];
+            unread = count - ((int) entry[0] - skips + 1) * DiskValues.SKIP;
+            id = base;
+            pos = len;
+          }
+        }
+        // skip chunks whose last id is smaller than the target
+        while(unread > 0 && base < target) {
+          id = base;
+          pos = len;
+          if(!next()) return false;
+        }
+      }
+      while(id < target) {
+        if(!next()) return false;
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package org.basex.index.value;
+
+import java.io.*;
+import java.util.function.*;
+
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.util.list.*;
+
+/**
+ * This class provides an equi-depth histogram for the sorted keys of a {@link DiskValues} index.
+ * It is used to estimate the number of results of range queries.
+ *
+ * <p>The histogram consists of samples, which contain a key position and the number of ids of
+ * all preceding keys. The samples are chosen such that all buckets between two samples contain
+ * a similar number of ids; keys with more ids than a bucket are assigned buckets of their own.
+ * Within a bucket, the ids are assumed to be evenly distributed among the keys.
+ * The number of samples is stored first, followed by the compressed positions and counts.</p>
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+final class Histogram {
+  /** Number of buckets. */
+  private static final int BUCKETS = 256;
+
+  /** Key positions (ascending, first position is {@code 0}). */
+  private final int[] positions;
+  /** Number of ids of the keys preceding the positions. */
+  private final long[] counts;
+
+  /**
+   * Constructor.
+   * @param in input stream
+   * @throws IOException I/O Exception
+   */
+  private Histogram(final DataInput in) throws IOException {
+    final int size = in.readNum();
+    positions = new int[size];
+    counts = new long[size];
+    for(int s = 0; s < size; s++) {
+      positions[s] = in.readNum();
+      counts[s] = in.readLong();
+    }
+  }
+
+  /**
+   * Estimates the number of ids of the keys in the specified range.
+   * @param from position of the first key (inclusive)
+   * @param to position of the last key (exclusive)
+   * @return number of ids (at least the number of keys)
+   */
+  int estimate(final int from, final int to) {
+    if(to <= from) return 0;
+    final long results = Math.max(to - from, Math.round(count(to) - count(from)));
+    return (int) Math.min(Integer.MAX_VALUE, results);
+  }
+
+  /**
+   * Returns the estimated number of ids of the keys preceding the specified position.
+   * @param pos key position
+   * @return number of ids
+   */
+  private double count(final int pos) {
+    int l = 0, h = positions.length - 1;
+    while(l <= h) {
+      final int m = l + h >>> 1;
+      if(positions[m] <= pos) l = m + 1;
+      else h = m - 1;
+    }
+    // interpolate between the enclosing samples
+    final long c = counts[h];
+    if(positions[h] == pos || l == positions.length) return c;
+    return c + (double) (counts[l] - c) * (pos - positions[h]) / (positions[l] - positions[h]);
+  }
+
+  /**
+   * Reads the histograms of an index.
+   * @param file histogram file
+   * @return histograms for the keys and the numeric keys
+   * @throws IOException I/O Exception
+   */
+  static Histogram[] read(final IOFile file) throws IOException {
+    try(DataInput in = new DataInput(file)) {
+      return new Histogram[] { new Histogram(in), new Histogram(in) };
+    }
+  }
+
+  /**
+   * Writes the histograms of an index.
+   * @param file histogram file
+   * @param counts number of ids of all keys
+   * @param numeric positions of the numeric keys, ordered by their values (can be {@code null})
+   * @throws IOException I/O Exception
+   */
+  static void write(final IOFile file, final IntList counts, final int[] numeric)
+      throws IOException {
+    try(DataOutput out = new DataOutput(file)) {
+      write(out, counts.size(), counts::get);
+      write(out, numeric != null ? numeric.length : 0, n -> counts.get(numeric[n]));
+    }
+  }
+
+  /**
+   * Writes a histogram.
+   * @param out output stream
+   * @param size number of keys
+   * @param count function returning the number of ids of a key
+   * @throws IOException I/O Exception
+   */
+  private static void write(final DataOutput out, final int size, final IntUnaryOperator count)
+      throws IOException {
+
+    long total = 0;
+    for(int s = 0; s < size; s++) total += count.applyAsInt(s);
+    final long depth = Math.max(1, total / BUCKETS);
+
+    final IntList positions = new IntList();
+    final LongList counts = new LongList();
+    positions.add(0);
+    counts.add(0);
+    long sum = 0, next = depth;
+    for(int s = 0; s < size; s++) {
+      final int c = count.applyAsInt(s);
+      // assign separate buckets to keys with many ids
+      final boolean large = c >= depth;
+      if(large && positions.peek() != s) {
+        positions.add(s);
+        counts.add(sum);
+      }
+      sum += c;
+      if(large || sum >= next) {
+        positions.add(s + 1);
+        counts.add(sum);
+        next = sum + depth;
+      }
+    }
+    if(positions.peek() != size) {
+      positions.add(size);
+      counts.add(sum);
+    }
+
+    final int ps = positions.size();
+    out.writeNum(ps);
+    for(int p = 0; p < ps; p++) {
+      out.writeNum(positions.get(p));
+      out.writeLong(counts.get(p));
+    }
+  }
+}
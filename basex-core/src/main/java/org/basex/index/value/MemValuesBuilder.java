@@ -21,7 +21,7 @@ public class MemValuesBuilder extends ValuesBuilder {
    * @param type index type
    */
   public MemValuesBuilder(final Data data, final IndexType type) {
-    super(data, type);
+    super(data, type, 1);
   }
 
   @Override
@@ -4,6 +4,7 @@ import java.io.*;
 
 import org.basex.data.*;
 import org.basex.index.*;
+import org.basex.index.query.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
 
@@ -85,6 +86,7 @@ public final class UpdatableDiskValues extends DiskValues {
       writeIds(key, values.ids(key), values.pos(key), newIndex--);
     }
     size(sz + ns);
+    filter(newKeys);
   }
 
   @Override
@@ -104,8 +106,22 @@ public final class UpdatableDiskValues extends DiskValues {
   }
 
   @Override
-  protected IntList pres(final int sz, final long offset) {
-    return super.pres(sz, offset).sort();
+  protected IndexIterator iter(final long[] offsets, final int[] counts) {
+    // ids are not ordered by pre values: materialize and sort results
+    final IntList list = new IntList();
+    final int ll = offsets.length;
+    for(int l = 0; l < ll; l++) list.add(pres(counts[l], offsets[l]).finish());
+    final int[] pres = list.sort().finish();
+
+    return new IndexIterator() {
+      int p;
+      @Override
+      public boolean more() { return p < pres.length; }
+      @Override
+      public int pre() { return pres[p++]; }
+      @Override
+      public int size() { return pres.length; }
+    };
   }
 
   /**
@@ -2,6 +2,7 @@ package org.basex.index.value;
 
 import org.basex.data.*;
 import org.basex.index.*;
+import org.basex.io.random.*;
 
 /**
  * Index for texts, attribute values and full-texts.
@@ -47,4 +48,21 @@ public abstract class ValueIndex implements Index {
    * Flushes the buffered data.
    */
   public abstract void flush();
+
+  /**
+   * Indicates if numeric range queries can be answered by a seek on ordered numeric keys.
+   * By default, all keys are scanned.
+   * @return result of check
+   */
+  public boolean numeric() {
+    return false;
+  }
+
+  /**
+   * Writes all future updates of the index to the specified log.
+   * By default, nothing is logged.
+   * @param wal write-ahead log
+   */
+  @SuppressWarnings("unused")
+  public void log(final WriteAheadLog wal) { }
 }
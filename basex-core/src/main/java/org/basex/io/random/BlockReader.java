@@ -0,0 +1,43 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import org.basex.io.*;
+
+/**
+ * Functional interface for reading single blocks of a database file.
+ * Implementations must be thread-safe and must not change the file cursor.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+@FunctionalInterface
+interface BlockReader {
+  /**
+   * Reads a block.
+   * @param block block number
+   * @param data target array
+   * @throws IOException I/O exception
+   */
+  void read(long block, byte[] data) throws IOException;
+
+  /**
+   * Returns a reader for uncompressed files, which performs positional channel reads.
+   * @param channel file channel
+   * @param length number of readable bytes
+   * @return reader
+   */
+  static BlockReader of(final FileChannel channel, final long length) {
+    return (block, data) -> {
+      long pos = block << IO.BLOCKPOWER;
+      final ByteBuffer bb = ByteBuffer.wrap(data, 0, (int) Math.min(length - pos, IO.BLOCKSIZE));
+      while(bb.hasRemaining()) {
+        final int r = channel.read(bb, pos);
+        if(r == -1) break;
+        pos += r;
+      }
+    };
+  }
+}
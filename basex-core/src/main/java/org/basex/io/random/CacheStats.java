@@ -0,0 +1,30 @@
+package org.basex.io.random;
+
+/**
+ * Statistics on page cache accesses.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class CacheStats {
+  /** Number of pages that were found in the cache. */
+  long hits;
+  /** Number of pages that had to be read from disk. */
+  long misses;
+
+  /**
+   * Returns the number of pages that were found in the cache.
+   * @return number of hits
+   */
+  public long hits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of pages that had to be read from disk.
+   * @return number of misses
+   */
+  public long misses() {
+    return misses;
+  }
+}
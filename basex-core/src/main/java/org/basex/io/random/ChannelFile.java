@@ -0,0 +1,85 @@
+package org.basex.io.random;
+
+import java.io.*;
+
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * This class provides read-only access to a database file via positional block reads.
+ * Each thread reads blocks into its own buffer, and no shared file cursor is changed.
+ * Blocks are requested from the page cache before they are read from disk.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+final class ChannelFile extends ReadAccess {
+  /** Block reader. */
+  private final BlockReader reader;
+  /** Number of readable bytes. */
+  private final long length;
+  /** File id in the page cache. */
+  private final int id;
+  /** Page cache statistics (can be {@code null}). */
+  private final CacheStats stats;
+  /** Buffers of the reading threads. */
+  private final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+
+  /**
+   * Constructor.
+   * @param reader block reader
+   * @param length number of readable bytes
+   * @param id file id in the page cache
+   * @param stats page cache statistics (can be {@code null})
+   */
+  ChannelFile(final BlockReader reader, final long length, final int id,
+      final CacheStats stats) {
+    this.reader = reader;
+    this.length = length;
+    this.id = id;
+    this.stats = stats;
+  }
+
+  @Override
+  int read1(final long pos) {
+    return buffer(pos).data[(int) (pos & IO.BLOCKSIZE - 1)] & 0xFF;
+  }
+
+  @Override
+  byte[] readBytes(final long pos, final int len) {
+    final byte[] bytes = new byte[len];
+    long p = pos;
+    int o = 0;
+    while(o < len) {
+      final int off = (int) (p & IO.BLOCKSIZE - 1), l = Math.min(len - o, IO.BLOCKSIZE - off);
+      Array.copy(buffer(p).data, off, l, bytes, o);
+      o += l;
+      p += l;
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the buffer of the current thread, containing the block with the specified position.
+   * @param pos file position
+   * @return buffer
+   */
+  private Buffer buffer(final long pos) {
+    final Buffer buffer = buffers.get();
+    final long b = pos & -IO.BLOCKSIZE;
+    if(buffer.pos != b) {
+      buffer.pos = b;
+      final long page = b >>> IO.BLOCKPOWER;
+      if(b < length && !PageCache.SHARED.read(id, page, buffer.data, stats)) {
+        try {
+          reader.read(page, buffer.data);
+          PageCache.SHARED.add(id, page, buffer.data);
+        } catch(final IOException ex) {
+          buffer.pos = -1;
+          throw Util.notExpected(ex);
+        }
+      }
+    }
+    return buffer;
+  }
+}
@@ -0,0 +1,376 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.*;
+
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class provides block-wise compressed storage of a database file.
+ * Each block is compressed separately and stored in a slot of the data file. A directory,
+ * which is stored in a separate file, contains the offsets and sizes of all slots and the
+ * uncompressed file length.
+ *
+ * Slots that are referenced by the stored directory are never overwritten: updated blocks are
+ * written to free slots, and the original slots are released after the new directory has been
+ * written. Free slots are reused; if no slot is large enough, the block will be appended to the
+ * end of the file. Blocks that cannot be compressed are stored unchanged. If the file contains
+ * entries of fixed size, the bytes of all entries are transposed before compression: bytes at
+ * identical offsets are grouped, which results in much better compression rates.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class CompressedFile implements BlockReader, Closeable {
+  /** Granularity of slot sizes. */
+  private static final int UNIT = 256;
+  /** Inflaters of the reading threads. */
+  private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+  /** Data file. */
+  private final FileChannel channel;
+  /** Directory file. */
+  private final IOFile dir;
+  /** Size of fixed-size entries ({@code 0}: entries are not transposed). */
+  private final int entry;
+  /** Compressor. */
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  /** Offsets of free slots, indexed by the number of units. */
+  private final LongList[] free = new LongList[IO.BLOCKSIZE / UNIT + 1];
+  /** Slots that will be released after the directory has been written (offset + units). */
+  private final LongList released = new LongList();
+  /** Blocks whose slots are not referenced by the stored directory. */
+  private final BitSet fresh = new BitSet();
+
+  /** Slot offsets ({@code -1}: block is not stored). */
+  private long[] offsets;
+  /** Compressed block sizes ({@link IO#BLOCKSIZE}: block is not compressed). */
+  private int[] sizes;
+  /** Number of blocks. */
+  private int blocks;
+  /** Uncompressed file length. */
+  private long length;
+  /** End of the data file. */
+  private long end;
+  /** Dirty flag. */
+  private boolean dirty;
+
+  /**
+   * Constructor.
+   * @param channel channel of the data file
+   * @param dir directory file (will be created if it does not exist)
+   * @param entry size of fixed-size entries ({@code 0}: entries are not transposed)
+   * @throws IOException I/O exception
+   */
+  CompressedFile(final FileChannel channel, final IOFile dir, final int entry)
+      throws IOException {
+    this.channel = channel;
+    this.dir = dir;
+    this.entry = entry;
+    if(dir.exists()) {
+      try(DataInput in = new DataInput(dir)) {
+        length = in.readLong();
+        end = in.readLong();
+        blocks = in.readNum();
+        offsets = new long[blocks];
+        sizes = new int[blocks];
+        for(int b = 0; b < blocks; b++) {
+          offsets[b] = in.readLong();
+          sizes[b] = in.readNum();
+        }
+      }
+      init();
+    } else {
+      offsets = new long[0];
+      sizes = new int[0];
+      dirty = true;
+    }
+  }
+
+  /**
+   * Collects the free slots between the stored blocks and assigns the end of the data file.
+   */
+  private void init() {
+    final LongList slots = new LongList(blocks);
+    for(int b = 0; b < blocks; b++) {
+      if(offsets[b] != -1) slots.add(offsets[b] + slot(sizes[b]) / UNIT);
+    }
+    slots.sort();
+    long pos = 0;
+    final int sl = slots.size();
+    for(int s = 0; s < sl; s++) {
+      final long slot = slots.get(s), off = slot & -UNIT;
+      free(pos, off - pos);
+      pos = off + (slot & UNIT - 1) * UNIT;
+    }
+    end = pos;
+  }
+
+  /**
+   * Converts an uncompressed file to a compressed file.
+   * @param file file to be converted
+   * @param dir directory file
+   * @param entry size of fixed-size entries ({@code 0}: entries are not transposed)
+   * @throws IOException I/O exception
+   */
+  public static void compress(final IOFile file, final IOFile dir, final int entry)
+      throws IOException {
+    final IOFile tmp = new IOFile(file.path() + IO.TMPSUFFIX);
+    try(RandomAccessFile in = new RandomAccessFile(file.file(), "r");
+        RandomAccessFile out = new RandomAccessFile(tmp.file(), "rw");
+        CompressedFile cf = new CompressedFile(out.getChannel(), dir, entry)) {
+      final long length = in.length();
+      final byte[] data = new byte[IO.BLOCKSIZE];
+      for(long b = 0, pos = 0; pos < length; b++, pos += IO.BLOCKSIZE) {
+        final int l = (int) Math.min(length - pos, IO.BLOCKSIZE);
+        in.readFully(data, 0, l);
+        Arrays.fill(data, l, IO.BLOCKSIZE, (byte) 0);
+        cf.write(b, data);
+      }
+      cf.length(length);
+    }
+    if(!file.delete() || !tmp.rename(file)) throw new IOException("Could not compress " + file);
+  }
+
+  /**
+   * Returns the uncompressed file length.
+   * @return length
+   */
+  synchronized long length() {
+    return length;
+  }
+
+  /**
+   * Assigns the uncompressed file length.
+   * @param len length
+   */
+  synchronized void length(final long len) {
+    if(len == length) return;
+    length = len;
+    dirty = true;
+  }
+
+  @Override
+  public void read(final long block, final byte[] data) throws IOException {
+    final long off;
+    final int size;
+    synchronized(this) {
+      if(block >= blocks || offsets[(int) block] == -1) {
+        Arrays.fill(data, (byte) 0);
+        return;
+      }
+      off = offsets[(int) block];
+      size = sizes[(int) block];
+    }
+
+    // uncompressed block
+    if(size == IO.BLOCKSIZE) {
+      read(off, data, size);
+      return;
+    }
+
+    final byte[] packed = new byte[size];
+    read(off, packed, size);
+    final Inflater inflater = INFLATER.get();
+    inflater.reset();
+    inflater.setInput(packed);
+    final byte[] target = entry == 0 ? data : new byte[IO.BLOCKSIZE];
+    try {
+      int n = 0;
+      while(n < IO.BLOCKSIZE && !inflater.finished()) {
+        final int i = inflater.inflate(target, n, IO.BLOCKSIZE - n);
+        if(i == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Block " + block + " is corrupt.");
+        }
+        n += i;
+      }
+    } catch(final DataFormatException ex) {
+      throw new IOException(ex);
+    }
+    if(entry != 0) transpose(target, data, entry, IO.BLOCKSIZE / entry);
+  }
+
+  /**
+   * Writes a block.
+   * @param block block number
+   * @param data block data
+   * @throws IOException I/O exception
+   */
+  synchronized void write(final long block, final byte[] data) throws IOException {
+    deflater.reset();
+    deflater.setInput(entry == 0 ? data : transpose(data));
+    deflater.finish();
+    byte[] packed = new byte[IO.BLOCKSIZE];
+    int size = 0;
+    while(!deflater.finished() && size < IO.BLOCKSIZE) {
+      size += deflater.deflate(packed, size, IO.BLOCKSIZE - size);
+    }
+    if(!deflater.finished() || size >= IO.BLOCKSIZE) {
+      // incompressible data: store original block
+      packed = data;
+      size = IO.BLOCKSIZE;
+    }
+
+    final int b = (int) block;
+    if(b >= blocks) {
+      final int nb = b + 1;
+      if(nb > offsets.length) {
+        final int s = Array.newCapacity(nb);
+        offsets = Arrays.copyOf(offsets, s);
+        sizes = Arrays.copyOf(sizes, s);
+      }
+      Arrays.fill(offsets, blocks, nb, -1);
+      blocks = nb;
+    }
+
+    // overwrite slot if it is not referenced by the stored directory and if the block fits
+    final long old = offsets[b];
+    final int os = old == -1 ? 0 : slot(sizes[b]), ns = slot(size);
+    final boolean overwrite = old != -1 && fresh.get(b) && os >= ns;
+    final long off = overwrite ? old : allocate(ns);
+    final ByteBuffer bb = ByteBuffer.wrap(packed, 0, size);
+    for(long pos = off; bb.hasRemaining();) pos += channel.write(bb, pos);
+
+    if(overwrite) {
+      free(off + ns, os - ns);
+    } else if(old != -1) {
+      if(fresh.get(b)) free(old, os);
+      else released.add(old + os / UNIT);
+    }
+    offsets[b] = off;
+    sizes[b] = size;
+    fresh.set(b);
+    dirty = true;
+  }
+
+  /**
+   * Returns the offset of a free slot. If no free slot is large enough, a new slot will be
+   * allocated at the end of the file.
+   * @param size slot size
+   * @return offset
+   */
+  private long allocate(final int size) {
+    final int units = size / UNIT;
+    for(int u = units; u < free.length; u++) {
+      final LongList list = free[u];
+      if(list != null && !list.isEmpty()) {
+        final long off = list.pop();
+        free(off + size, (u - units) * UNIT);
+        return off;
+      }
+    }
+    final long off = end;
+    end += size;
+    return off;
+  }
+
+  /**
+   * Adds the specified space to the free slots.
+   * @param off offset
+   * @param size size of the space (multiple of {@link #UNIT})
+   */
+  private void free(final long off, final long size) {
+    for(long o = off, s = size; s > 0;) {
+      final int units = (int) Math.min(s, IO.BLOCKSIZE) / UNIT;
+      if(free[units] == null) free[units] = new LongList();
+      free[units].add(o);
+      o += units * UNIT;
+      s -= units * UNIT;
+    }
+  }
+
+  /**
+   * Writes the directory. The blocks are forced to disk before the directory is replaced.
+   * @throws IOException I/O exception
+   */
+  synchronized void flush() throws IOException {
+    if(!dirty) return;
+    channel.force(false);
+    final IOFile tmp = new IOFile(dir.path() + IO.TMPSUFFIX);
+    try(DataOutput out = new DataOutput(tmp)) {
+      out.writeLong(length);
+      out.writeLong(end);
+      out.writeNum(blocks);
+      for(int b = 0; b < blocks; b++) {
+        out.writeLong(offsets[b]);
+        out.writeNum(sizes[b]);
+      }
+    }
+    Files.move(tmp.file().toPath(), dir.file().toPath(), StandardCopyOption.REPLACE_EXISTING,
+      StandardCopyOption.ATOMIC_MOVE);
+
+    // slots of replaced blocks are not referenced anymore
+    final int rs = released.size();
+    for(int r = 0; r < rs; r++) {
+      final long slot = released.get(r);
+      free(slot & -UNIT, (slot & UNIT - 1) * UNIT);
+    }
+    released.reset();
+    fresh.clear();
+    dirty = false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    deflater.end();
+    flush();
+  }
+
+  /**
+   * Reads bytes from the specified position.
+   * @param pos file position
+   * @param data target array
+   * @param len number of bytes to read
+   * @throws IOException I/O exception
+   */
+  private void read(final long pos, final byte[] data, final int len) throws IOException {
+    final ByteBuffer bb = ByteBuffer.wrap(data, 0, len);
+    for(long p = pos; bb.hasRemaining();) {
+      final int r = channel.read(bb, p);
+      if(r == -1) throw new EOFException();
+      p += r;
+    }
+  }
+
+  /**
+   * Groups the bytes of all entries by their offset.
+   * @param data block data
+   * @return transposed data
+   */
+  private byte[] transpose(final byte[] data) {
+    final byte[] target = new byte[IO.BLOCKSIZE];
+    transpose(data, target, IO.BLOCKSIZE / entry, entry);
+    return target;
+  }
+
+  /**
+   * Transposes a matrix.
+   * @param source source matrix
+   * @param target target matrix
+   * @param rows number of source rows
+   * @param cols number of source columns
+   */
+  private static void transpose(final byte[] source, final byte[] target, final int rows,
+      final int cols) {
+    for(int r = 0; r < rows; r++) {
+      for(int c = 0; c < cols; c++) target[c * rows + r] = source[r * cols + c];
+    }
+  }
+
+  /**
+   * Returns the slot size for a block of the specified size.
+   * @param size compressed size
+   * @return slot size
+   */
+  private static int slot(final int size) {
+    return (size + UNIT - 1) / UNIT * UNIT;
+  }
+}
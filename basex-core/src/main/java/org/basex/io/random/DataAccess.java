@@ -14,14 +14,26 @@ import org.basex.util.*;
 public final class DataAccess implements Closeable {
   /** Buffer manager. */
   private final Buffers buffers = new Buffers();
+  /** File id in the page cache. */
+  private final int id = PageCache.id();
+  /** Page cache statistics (can be {@code null}). */
+  private final CacheStats stats;
+  /** File. */
+  private final IOFile file;
   /** Reference to the data input stream. */
   private final RandomAccessFile raf;
+  /** Compressed blocks (can be {@code null}). */
+  private final CompressedFile compressed;
   /** File size. */
   private long length;
   /** Changed flag. */
   private boolean changed;
   /** Offset. */
   private int off;
+  /** Concurrent read access (only assigned as long as no data is written). */
+  private volatile ReadAccess reader;
+  /** Journal (assigned if updates are written to a write-ahead log). */
+  private Journal journal;
 
   /**
    * Constructor, initializing the file reader.
@@ -29,10 +41,35 @@ public final class DataAccess implements Closeable {
    * @throws IOException I/O Exception
    */
   public DataAccess(final IOFile file) throws IOException {
+    this(file, null);
+  }
+
+  /**
+   * Constructor, initializing the file reader.
+   * @param file the file to be read
+   * @param stats page cache statistics (can be {@code null})
+   * @throws IOException I/O Exception
+   */
+  public DataAccess(final IOFile file, final CacheStats stats) throws IOException {
+    this(file, stats, null);
+  }
+
+  /**
+   * Constructor, initializing the file reader.
+   * @param file the file to be read
+   * @param stats page cache statistics (can be {@code null})
+   * @param dir directory of the compressed file (can be {@code null})
+   * @throws IOException I/O Exception
+   */
+  public DataAccess(final IOFile file, final CacheStats stats, final IOFile dir)
+      throws IOException {
+    this.file = file;
+    this.stats = stats;
     RandomAccessFile f = null;
     try {
       f = new RandomAccessFile(file.file(), "rw");
-      length = f.length();
+      compressed = dir != null ? new CompressedFile(f.getChannel(), dir, 0) : null;
+      length = compressed != null ? compressed.length() : f.length();
       raf = f;
       cursor(0);
     } catch(final IOException ex) {
@@ -41,6 +78,34 @@ public final class DataAccess implements Closeable {
     }
   }
 
+  /**
+   * Writes all future updates to the specified log. Modified pages will only be written back
+   * to the file if {@link #flush()} is called.
+   * @param wal write-ahead log
+   */
+  public synchronized void log(final WriteAheadLog wal) {
+    journal = wal.journal(file, () -> {
+      for(final Buffer buffer : buffers.all()) {
+        if(buffer.dirty) writeBlock(buffer);
+      }
+      if(length != journal.length) {
+        wal.length(journal.name, length);
+        journal.length = length;
+      }
+    });
+    if(journal.length == -1) {
+      journal.length = length;
+    } else if(journal.length != length) {
+      // assign file length that has been recovered from the log
+      length = journal.length;
+      changed = true;
+    }
+    // discard buffered pages, which may have been recovered from the log
+    reader = null;
+    buffers.init();
+    cursor(0);
+  }
+
   /**
    * Flushes the buffered data.
    */
@@ -49,23 +114,57 @@ public final class DataAccess implements Closeable {
       for(final Buffer buffer : buffers.all()) {
         if(buffer.dirty) writeBlock(buffer);
       }
+      if(journal != null && (changed || !journal.isEmpty())) journal.drain(this::writePage);
       if(changed) {
-        raf.setLength(length);
+        if(compressed != null) compressed.length(length);
+        else raf.setLength(length);
         changed = false;
       }
+      if(compressed != null) compressed.flush();
     } catch(final IOException ex) {
       Util.stack(ex);
     }
   }
 
+  /**
+   * Enables or disables concurrent read access.
+   * If enabled, positional read operations will be performed without changing the file cursor,
+   * and they will not be synchronized. Data will either be read from a memory-mapped file or
+   * via positional block reads. Compressed files will never be mapped. Concurrent read access
+   * will be disabled as soon as data is written, and it will only be enabled if all changes
+   * have been written back.
+   * @param enable enable or disable concurrent reads
+   * @param map map file into memory
+   */
+  public synchronized void concurrent(final boolean enable, final boolean map) {
+    if(enable && reader != null) return;
+    reader = null;
+    if(!enable || dirty()) return;
+    if(map && compressed == null) {
+      try {
+        reader = new MappedFile(raf.getChannel(), length);
+        return;
+      } catch(final IOException ex) {
+        Util.debug(ex);
+      }
+    }
+    final BlockReader br = compressed != null ? compressed :
+      BlockReader.of(raf.getChannel(), length);
+    reader = new ChannelFile(br, length, id, stats);
+  }
+
   @Override
   public synchronized void close() {
+    reader = null;
     flush();
+    if(journal != null) journal.wal.remove(journal);
     try {
+      if(compressed != null) compressed.close();
       raf.close();
     } catch(final IOException ex) {
       Util.stack(ex);
     }
+    PageCache.SHARED.remove(id);
   }
 
   /**
@@ -97,9 +196,13 @@ public final class DataAccess implements Closeable {
    * @param pos position
    * @return integer value
    */
-  public synchronized byte read1(final long pos) {
-    cursor(pos);
-    return read1();
+  public byte read1(final long pos) {
+    final ReadAccess ra = reader;
+    if(ra != null) return (byte) ra.read1(pos);
+    synchronized(this) {
+      cursor(pos);
+      return read1();
+    }
   }
 
   /**
@@ -115,9 +218,13 @@ public final class DataAccess implements Closeable {
    * @param pos position
    * @return integer value
    */
-  public synchronized int read4(final long pos) {
-    cursor(pos);
-    return read4();
+  public int read4(final long pos) {
+    final ReadAccess ra = reader;
+    if(ra != null) return ra.read4(pos);
+    synchronized(this) {
+      cursor(pos);
+      return read4();
+    }
   }
 
   /**
@@ -133,9 +240,13 @@ public final class DataAccess implements Closeable {
    * @param pos position
    * @return long value
    */
-  public synchronized long read5(final long pos) {
-    cursor(pos);
-    return read5();
+  public long read5(final long pos) {
+    final ReadAccess ra = reader;
+    if(ra != null) return ra.read5(pos);
+    synchronized(this) {
+      cursor(pos);
+      return read5();
+    }
   }
 
   /**
@@ -151,9 +262,13 @@ public final class DataAccess implements Closeable {
    * @param pos text position
    * @return read num
    */
-  public synchronized int readNum(final long pos) {
-    cursor(pos);
-    return readNum();
+  public int readNum(final long pos) {
+    final ReadAccess ra = reader;
+    if(ra != null) return ra.readNum(pos);
+    synchronized(this) {
+      cursor(pos);
+      return readNum();
+    }
   }
 
   /**
@@ -161,9 +276,13 @@ public final class DataAccess implements Closeable {
    * @param pos text position
    * @return text as byte array
    */
-  public synchronized byte[] readToken(final long pos) {
-    cursor(pos);
-    return readToken();
+  public byte[] readToken(final long pos) {
+    final ReadAccess ra = reader;
+    if(ra != null) return ra.readToken(pos);
+    synchronized(this) {
+      cursor(pos);
+      return readToken();
+    }
   }
 
   /**
@@ -181,9 +300,13 @@ public final class DataAccess implements Closeable {
    * @param len length
    * @return byte array
    */
-  public synchronized byte[] readBytes(final long pos, final int len) {
-    cursor(pos);
-    return readBytes(len);
+  public byte[] readBytes(final long pos, final int len) {
+    final ReadAccess ra = reader;
+    if(ra != null) return ra.readBytes(pos, len);
+    synchronized(this) {
+      cursor(pos);
+      return readBytes(len);
+    }
   }
 
   /**
@@ -221,9 +344,21 @@ public final class DataAccess implements Closeable {
     try {
       if(buffer.dirty) writeBlock(buffer);
       buffer.pos = b;
-      raf.seek(buffer.pos);
-      if(buffer.pos < raf.length())
-        raf.readFully(buffer.data, 0, (int) Math.min(length - buffer.pos, IO.BLOCKSIZE));
+      final long page = b >>> IO.BLOCKPOWER;
+      if(journal != null && journal.read(b, buffer.data)) {
+        // page has not been written back yet
+        return;
+      }
+      if(compressed != null) {
+        if(b < length && !PageCache.SHARED.read(id, page, buffer.data, stats)) {
+          compressed.read(page, buffer.data);
+          PageCache.SHARED.add(id, page, buffer.data);
+        }
+      } else if(b < raf.length() && !PageCache.SHARED.read(id, page, buffer.data, stats)) {
+        raf.seek(b);
+        raf.readFully(buffer.data, 0, (int) Math.min(length - b, IO.BLOCKSIZE));
+        PageCache.SHARED.add(id, page, buffer.data);
+      }
     } catch(final IOException ex) {
       Util.stack(ex);
     }
@@ -309,6 +444,7 @@ public final class DataAccess implements Closeable {
    * @param len number of bytes to be written
    */
   public void writeBytes(final byte[] data, final int offset, final int len) {
+    if(reader != null) reader = null;
     final int last = offset + len;
     int o = offset;
 
@@ -345,6 +481,7 @@ public final class DataAccess implements Closeable {
    * @return new offset to store text
    */
   public long free(final long pos, final int size) {
+    if(reader != null) reader = null;
     // old text size (available space)
     int os = readNum(pos) + (int) (cursor() - pos);
 
@@ -388,6 +525,18 @@ public final class DataAccess implements Closeable {
 
   // PRIVATE METHODS ==============================================================================
 
+  /**
+   * Checks if the file contains changes that have not been written back yet.
+   * @return result of check
+   */
+  private boolean dirty() {
+    if(changed || journal != null && !journal.isEmpty()) return true;
+    for(final Buffer buffer : buffers.all()) {
+      if(buffer.dirty) return true;
+    }
+    return false;
+  }
+
   /**
    * Reads the next byte.
    * @return next byte
@@ -402,6 +551,7 @@ public final class DataAccess implements Closeable {
    * @param value byte to be written
    */
   private void write(final int value) {
+    if(reader != null) reader = null;
     final Buffer buffer = buffer();
     buffer.dirty = true;
     buffer.data[off++] = (byte) value;
@@ -410,17 +560,35 @@ public final class DataAccess implements Closeable {
   }
 
   /**
-   * Writes the specified block to disk.
+   * Writes the specified block to disk, or to the journal.
    * @param buffer buffer to write
    * @throws IOException I/O exception
    */
   private void writeBlock(final Buffer buffer) throws IOException {
-    final long pos = buffer.pos, len = Math.min(IO.BLOCKSIZE, length - pos);
-    raf.seek(pos);
-    raf.write(buffer.data, 0, (int) len);
+    if(journal != null) journal.put(buffer.pos, buffer.data);
+    else writePage(buffer.pos, buffer.data);
     buffer.dirty = false;
   }
 
+  /**
+   * Writes a block to disk.
+   * @param pos file offset of the block
+   * @param data block data
+   * @throws IOException I/O exception
+   */
+  private void writePage(final long pos, final byte[] data) throws IOException {
+    // skip blocks that have been truncated in the meantime
+    final int len = (int) Math.min(IO.BLOCKSIZE, length - pos);
+    if(len <= 0) return;
+    if(compressed != null) {
+      compressed.write(pos >>> IO.BLOCKPOWER, data);
+    } else {
+      raf.seek(pos);
+      raf.write(data, 0, len);
+    }
+    PageCache.SHARED.update(id, pos >>> IO.BLOCKPOWER, data);
+  }
+
   /**
    * Returns a buffer which can be used for writing new bytes.
    * @return buffer
@@ -0,0 +1,124 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.io.*;
+
+/**
+ * Journal of a database file whose updates are recorded in a {@link WriteAheadLog}.
+ * Pages that are evicted from the buffers of a file are added to the log. The journal keeps
+ * the offsets of their images in the log until the next checkpoint, and the pages are read from
+ * the log until they have been written back to the file.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+final class Journal {
+  /** Owner of a journal. */
+  interface Owner {
+    /**
+     * Writes all modified buffers to the journal.
+     * Called before the changes of a transaction are logged.
+     * @throws IOException I/O exception
+     */
+    void log() throws IOException;
+  }
+
+  /** Writes pages back to a file. */
+  interface Writer {
+    /**
+     * Writes a page.
+     * @param pos page position
+     * @param data page data
+     * @throws IOException I/O exception
+     */
+    void write(long pos, byte[] data) throws IOException;
+  }
+
+  /** Write-ahead log. */
+  final WriteAheadLog wal;
+  /** Name of the file. */
+  final String name;
+  /** Owner. */
+  private final Owner owner;
+  /** Offsets in the log of the pages that have not been written back yet. */
+  private final TreeMap<Long, Long> pages = new TreeMap<>();
+  /** File length at the time of the last commit ({@code -1}: unknown). */
+  long length = -1;
+
+  /**
+   * Constructor.
+   * @param wal write-ahead log
+   * @param name name of the file
+   * @param owner owner
+   */
+  Journal(final WriteAheadLog wal, final String name, final Owner owner) {
+    this.wal = wal;
+    this.name = name;
+    this.owner = owner;
+  }
+
+  /**
+   * Adds a page to the log.
+   * @param pos page position
+   * @param data page data
+   * @throws IOException I/O exception
+   */
+  void put(final long pos, final byte[] data) throws IOException {
+    pages.put(pos, wal.page(name, pos, data));
+  }
+
+  /**
+   * Reads a page that has not been written back yet from the log.
+   * @param pos page position
+   * @param data target array
+   * @return {@code true} if the page was found
+   * @throws IOException I/O exception
+   */
+  boolean read(final long pos, final byte[] data) throws IOException {
+    final Long off = pages.get(pos);
+    if(off == null) return false;
+    wal.read(off, data);
+    return true;
+  }
+
+  /**
+   * Indicates if all pages have been written back.
+   * @return result of check
+   */
+  boolean isEmpty() {
+    return pages.isEmpty();
+  }
+
+  /**
+   * Adds all pages that are still buffered to the log.
+   * @throws IOException I/O exception
+   */
+  void log() throws IOException {
+    owner.log();
+  }
+
+  /**
+   * Adds pages that have been recovered from the log.
+   * @param recovered offsets of the recovered pages
+   */
+  void recover(final Map<Long, Long> recovered) {
+    pages.putAll(recovered);
+  }
+
+  /**
+   * Forces the log to disk and writes all pages back to the file, in ascending order.
+   * @param writer page writer
+   * @throws IOException I/O exception
+   */
+  void drain(final Writer writer) throws IOException {
+    wal.force();
+    final byte[] data = new byte[IO.BLOCKSIZE];
+    for(final Map.Entry<Long, Long> page : pages.entrySet()) {
+      wal.read(page.getValue(), data);
+      writer.write(page.getKey(), data);
+    }
+    pages.clear();
+  }
+}
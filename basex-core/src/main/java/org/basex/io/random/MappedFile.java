@@ -0,0 +1,87 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.channels.FileChannel.*;
+
+/**
+ * This class provides read-only, memory-mapped access to a database file.
+ * Files are split into chunks, as a single mapping cannot exceed 2 GB.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+final class MappedFile extends ReadAccess {
+  /** Chunk size (power of two, must be a multiple of the block size). */
+  private static final int CHUNKPOWER = 30;
+  /** Chunk size. */
+  private static final long CHUNKSIZE = 1L << CHUNKPOWER;
+
+  /** Mapped chunks. */
+  private final MappedByteBuffer[] chunks;
+  /** Number of mapped bytes. */
+  private final long length;
+
+  /**
+   * Constructor.
+   * @param channel file channel
+   * @param length number of bytes to be mapped
+   * @throws IOException I/O exception
+   */
+  MappedFile(final FileChannel channel, final long length) throws IOException {
+    this.length = length;
+    final int cs = (int) ((length + CHUNKSIZE - 1) >>> CHUNKPOWER);
+    chunks = new MappedByteBuffer[cs];
+    for(int c = 0; c < cs; c++) {
+      final long pos = (long) c << CHUNKPOWER;
+      chunks[c] = channel.map(MapMode.READ_ONLY, pos, Math.min(CHUNKSIZE, length - pos));
+    }
+  }
+
+  /**
+   * Returns the number of mapped bytes.
+   * @return length
+   */
+  long length() {
+    return length;
+  }
+
+  @Override
+  int read1(final long pos) {
+    return chunks[(int) (pos >>> CHUNKPOWER)].get((int) (pos & CHUNKSIZE - 1)) & 0xFF;
+  }
+
+  @Override
+  int read2(final long pos) {
+    final int o = (int) (pos & CHUNKSIZE - 1);
+    if(o <= CHUNKSIZE - 2) {
+      return chunks[(int) (pos >>> CHUNKPOWER)].getShort(o) & 0xFFFF;
+    }
+    return super.read2(pos);
+  }
+
+  @Override
+  int read4(final long pos) {
+    final int o = (int) (pos & CHUNKSIZE - 1);
+    if(o <= CHUNKSIZE - 4) return chunks[(int) (pos >>> CHUNKPOWER)].getInt(o);
+    return super.read4(pos);
+  }
+
+  @Override
+  byte[] readBytes(final long pos, final int len) {
+    final byte[] bytes = new byte[len];
+    long p = pos;
+    int o = 0;
+    while(o < len) {
+      // duplicate buffer: the position of the shared instance must not be changed
+      final ByteBuffer bb = chunks[(int) (p >>> CHUNKPOWER)].duplicate();
+      final int off = (int) (p & CHUNKSIZE - 1), l = Math.min(len - o, bb.capacity() - off);
+      bb.position(off);
+      bb.get(bytes, o, l);
+      o += l;
+      p += l;
+    }
+    return bytes;
+  }
+}
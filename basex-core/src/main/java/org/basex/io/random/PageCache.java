@@ -0,0 +1,246 @@
+package org.basex.io.random;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * Page cache, which is shared by all database files. Pages are evicted via the scan-resistant
+ * 2Q algorithm (Johnson/Shasha): pages that are accessed for the first time are placed in a
+ * small FIFO queue; only pages that are requested again after having been evicted from this
+ * queue are moved to the main LRU queue. As a result, sequential scans will not flush pages
+ * that are frequently accessed.
+ *
+ * Only clean pages are stored in the cache: modified pages remain pinned in the buffers of the
+ * accessing instances until they are written back.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class PageCache {
+  /** Shared instance. */
+  public static final PageCache SHARED = new PageCache();
+
+  /** File ids. */
+  private static final AtomicInteger IDS = new AtomicInteger();
+
+  /** Pages that have been accessed once (FIFO order). */
+  private final LinkedHashMap<Long, byte[]> in = new LinkedHashMap<>();
+  /** Frequently accessed pages (LRU order). */
+  private final LinkedHashMap<Long, byte[]> main = new LinkedHashMap<>(16, 0.75f, true);
+  /** Ids of pages that have recently been evicted from the FIFO queue. */
+  private final LinkedHashMap<Long, Boolean> out = new LinkedHashMap<>();
+  /** Keys of the cached and remembered pages, indexed by file id. */
+  private final HashMap<Integer, HashSet<Long>> files = new HashMap<>();
+
+  /** Maximum number of cached pages ({@code 0}: cache is disabled). */
+  private volatile int capacity;
+  /** Maximum number of pages in the FIFO queue. */
+  private int inCapacity;
+  /** Maximum number of remembered page ids. */
+  private int outCapacity;
+
+  /**
+   * Returns a new id for a file to be cached.
+   * @return id
+   */
+  static int id() {
+    return IDS.incrementAndGet();
+  }
+
+  /**
+   * Assigns the maximum cache size and evicts pages if the cache gets smaller.
+   * @param size size in bytes ({@code 0}: disable cache)
+   */
+  public synchronized void size(final long size) {
+    final int c = (int) Math.min(Integer.MAX_VALUE, size >>> IO.BLOCKPOWER);
+    capacity = c;
+    inCapacity = Math.max(1, c >>> 2);
+    outCapacity = Math.max(1, c >>> 1);
+    if(c == 0) {
+      in.clear();
+      main.clear();
+      out.clear();
+      files.clear();
+    } else {
+      reclaim();
+    }
+  }
+
+  /**
+   * Returns the number of cached pages.
+   * @return number of pages
+   */
+  public synchronized int pages() {
+    return in.size() + main.size();
+  }
+
+  /**
+   * Indicates if the cache is enabled.
+   * @return result of check
+   */
+  boolean enabled() {
+    return capacity != 0;
+  }
+
+  /**
+   * Checks if a page is cached.
+   * @param id file id
+   * @param page page number
+   * @return result of check
+   */
+  synchronized boolean contains(final int id, final long page) {
+    final Long key = key(id, page);
+    return main.containsKey(key) || in.containsKey(key);
+  }
+
+  /**
+   * Copies a cached page to the specified array.
+   * @param id file id
+   * @param page page number
+   * @param data target array
+   * @param stats statistics (can be {@code null})
+   * @return {@code true} if the page was found
+   */
+  boolean read(final int id, final long page, final byte[] data, final CacheStats stats) {
+    if(capacity == 0) return false;
+
+    final Long key = key(id, page);
+    synchronized(this) {
+      byte[] cached = main.get(key);
+      if(cached == null) cached = in.get(key);
+      if(stats != null) {
+        if(cached != null) stats.hits++;
+        else stats.misses++;
+      }
+      if(cached == null) return false;
+      Array.copy(cached, data.length, data);
+      return true;
+    }
+  }
+
+  /**
+   * Adds a page that has been read from disk.
+   * Pages that have recently been evicted from the FIFO queue are moved to the main queue.
+   * @param id file id
+   * @param page page number
+   * @param data page data
+   */
+  void add(final int id, final long page, final byte[] data) {
+    if(capacity == 0) return;
+
+    final Long key = key(id, page);
+    synchronized(this) {
+      if(capacity == 0 || main.containsKey(key) || in.containsKey(key)) return;
+      final byte[] copy = reclaim(1);
+      Array.copy(data, data.length, copy);
+      if(out.remove(key) != null) {
+        main.put(key, copy);
+      } else {
+        in.put(key, copy);
+        files.computeIfAbsent(id, k -> new HashSet<>()).add(key);
+      }
+    }
+  }
+
+  /**
+   * Updates a page that has been written to disk.
+   * Only pages that are already cached will be updated.
+   * @param id file id
+   * @param page page number
+   * @param data page data
+   */
+  void update(final int id, final long page, final byte[] data) {
+    if(capacity == 0) return;
+
+    final Long key = key(id, page);
+    synchronized(this) {
+      byte[] cached = main.get(key);
+      if(cached == null) cached = in.get(key);
+      if(cached != null) Array.copy(data, data.length, cached);
+    }
+  }
+
+  /**
+   * Removes all pages of the specified file.
+   * @param id file id
+   */
+  void remove(final int id) {
+    if(capacity == 0) return;
+
+    synchronized(this) {
+      final HashSet<Long> keys = files.remove(id);
+      if(keys == null) return;
+      for(final Long key : keys) {
+        if(in.remove(key) == null && main.remove(key) == null) out.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Evicts pages until the specified number of pages can be added.
+   * @param count number of pages to be added
+   * @return evicted page array (can be reused), or a new array
+   */
+  private byte[] reclaim(final int count) {
+    byte[] data = null;
+    while(in.size() + main.size() + count > capacity) {
+      data = evict();
+    }
+    return data != null ? data : new byte[IO.BLOCKSIZE];
+  }
+
+  /**
+   * Evicts pages until the maximum cache size is not exceeded anymore.
+   */
+  private void reclaim() {
+    reclaim(0);
+    while(out.size() > outCapacity) removeFirst(out);
+  }
+
+  /**
+   * Evicts a single page.
+   * @return data of the evicted page
+   */
+  private byte[] evict() {
+    if(in.size() > inCapacity || main.isEmpty()) {
+      // evict page from FIFO queue and remember its id
+      final Map.Entry<Long, byte[]> entry = in.entrySet().iterator().next();
+      in.remove(entry.getKey());
+      out.put(entry.getKey(), Boolean.TRUE);
+      if(out.size() > outCapacity) removeFirst(out);
+      return entry.getValue();
+    }
+    return removeFirst(main);
+  }
+
+  /**
+   * Removes the first entry from the specified map. The page will no longer be tracked.
+   * @param <V> value type
+   * @param map map
+   * @return value of the removed entry
+   */
+  private <V> V removeFirst(final LinkedHashMap<Long, V> map) {
+    final Iterator<Map.Entry<Long, V>> iter = map.entrySet().iterator();
+    final Map.Entry<Long, V> entry = iter.next();
+    iter.remove();
+
+    final Long key = entry.getKey();
+    final int id = (int) (key >>> 32);
+    final HashSet<Long> keys = files.get(id);
+    if(keys != null && keys.remove(key) && keys.isEmpty()) files.remove(id);
+    return entry.getValue();
+  }
+
+  /**
+   * Computes the key for a page.
+   * @param id file id
+   * @param page page number
+   * @return key
+   */
+  private static Long key(final int id, final long page) {
+    return (long) id << 32 | page & 0xFFFFFFFFL;
+  }
+}
@@ -0,0 +1,84 @@
+package org.basex.io.random;
+
+import org.basex.util.*;
+
+/**
+ * This abstract class provides positional read access to a database file.
+ * Read operations do not change a shared file cursor and can be performed concurrently.
+ * Instances must be discarded as soon as the underlying file is modified.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+abstract class ReadAccess {
+  /**
+   * Reads a byte value and returns it as unsigned integer value.
+   * @param pos file position
+   * @return integer value
+   */
+  abstract int read1(long pos);
+
+  /**
+   * Reads a number of bytes.
+   * @param pos file position
+   * @param len number of bytes
+   * @return byte array
+   */
+  abstract byte[] readBytes(long pos, int len);
+
+  /**
+   * Reads a short value and returns it as unsigned integer value.
+   * @param pos file position
+   * @return integer value
+   */
+  int read2(final long pos) {
+    return (read1(pos) << 8) + read1(pos + 1);
+  }
+
+  /**
+   * Reads an integer value.
+   * @param pos file position
+   * @return integer value
+   */
+  int read4(final long pos) {
+    return (read1(pos) << 24) + (read1(pos + 1) << 16) + (read1(pos + 2) << 8) + read1(pos + 3);
+  }
+
+  /**
+   * Reads a 5-byte value and returns it as long value.
+   * @param pos file position
+   * @return long value
+   */
+  final long read5(final long pos) {
+    return ((long) read1(pos) << 32) + (read4(pos + 1) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Reads a compressed number and returns it as integer value.
+   * @param pos file position
+   * @return integer value
+   */
+  final int readNum(final long pos) {
+    final int value = read1(pos);
+    switch(value & 0xC0) {
+      case 0:
+        return value;
+      case 0x40:
+        return (value - 0x40 << 8) + read1(pos + 1);
+      case 0x80:
+        return (value - 0x80 << 24) + (read1(pos + 1) << 16) + read2(pos + 2);
+      default:
+        return read4(pos + 1);
+    }
+  }
+
+  /**
+   * Reads a token, prefixed by its compressed length.
+   * @param pos file position
+   * @return token
+   */
+  final byte[] readToken(final long pos) {
+    final int l = readNum(pos);
+    return readBytes(pos + Num.length(l), l);
+  }
+}
@@ -0,0 +1,148 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * Asynchronous read-ahead for sequentially accessed table pages.
+ * If pages are requested in ascending order, the subsequent pages will be read into the
+ * page cache by a background thread. Read-ahead must only be enabled as long as the table
+ * is not updated.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+final class ReadAhead {
+  /** Number of sequential page requests that trigger read-ahead. */
+  private static final int THRESHOLD = 2;
+  /** Block reader. */
+  private final BlockReader reader;
+  /** File id in the page cache. */
+  private final int id;
+  /** Maximum number of pages to be read in advance. */
+  private final int window;
+
+  /** Indicates if read-ahead is enabled. */
+  private volatile boolean enabled;
+  /** Number of pending tasks. */
+  private int pending;
+  /** Last requested page. */
+  private int last = -1;
+  /** Number of sequential page requests. */
+  private int run;
+  /** Last page that has been scheduled for reading. */
+  private int scheduled = -1;
+
+  /**
+   * Constructor.
+   * @param reader block reader
+   * @param id file id in the page cache
+   * @param window maximum number of pages to be read in advance
+   */
+  ReadAhead(final BlockReader reader, final int id, final int window) {
+    this.reader = reader;
+    this.id = id;
+    this.window = window;
+  }
+
+  /**
+   * Enables read-ahead.
+   */
+  synchronized void start() {
+    last = -1;
+    run = 0;
+    scheduled = -1;
+    enabled = true;
+  }
+
+  /**
+   * Disables read-ahead and waits until all pending pages have been read.
+   */
+  synchronized void stop() {
+    enabled = false;
+    boolean interrupted = false;
+    while(pending > 0) {
+      try {
+        wait();
+      } catch(final InterruptedException ex) {
+        Util.debug(ex);
+        interrupted = true;
+      }
+    }
+    if(interrupted) Thread.currentThread().interrupt();
+  }
+
+  /**
+   * Registers a page request. If the page directly follows the previously requested one,
+   * the next pages will be read in the background.
+   * @param page requested page (logical page number)
+   * @param pages number of pages
+   * @param physical function that maps logical to physical page numbers
+   */
+  synchronized void access(final int page, final int pages, final IntUnaryOperator physical) {
+    if(!enabled || !PageCache.SHARED.enabled()) return;
+
+    run = page == last + 1 ? run + 1 : 0;
+    last = page;
+    if(run < THRESHOLD) {
+      scheduled = page;
+      return;
+    }
+
+    // schedule next pages as soon as half of the window has been consumed
+    final int max = Math.min(pages - 1, page + window);
+    if(scheduled - page > window >>> 1 || scheduled >= max) return;
+
+    final int min = Math.max(page, scheduled) + 1, size = max - min + 1;
+    final long[] list = new long[size];
+    for(int p = 0; p < size; p++) list[p] = physical.applyAsInt(min + p);
+    scheduled = max;
+    pending++;
+    try {
+      Pool.EXECUTOR.execute(() -> read(list));
+    } catch(final RejectedExecutionException ex) {
+      Util.debug(ex);
+      pending--;
+    }
+  }
+
+  /**
+   * Reads the specified pages into the page cache.
+   * @param list physical page numbers
+   */
+  private void read(final long[] list) {
+    try {
+      final byte[] data = new byte[IO.BLOCKSIZE];
+      for(final long page : list) {
+        if(!enabled) break;
+        if(PageCache.SHARED.contains(id, page)) continue;
+        reader.read(page, data);
+        PageCache.SHARED.add(id, page, data);
+      }
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    } finally {
+      synchronized(this) {
+        pending--;
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Thread pool for reading pages in the background.
+   * The threads are only started if pages are read in advance for the first time.
+   */
+  private static final class Pool {
+    /** Executor. */
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(4, r -> {
+      final Thread thread = new Thread(r, "ReadAhead");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
@@ -10,6 +10,7 @@ import org.basex.core.*;
 import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.io.in.DataInput;
+import org.basex.io.out.*;
 import org.basex.io.out.DataOutput;
 import org.basex.util.*;
 
@@ -23,12 +24,24 @@ import org.basex.util.*;
 public final class TableDiskAccess extends TableAccess {
   /** Buffer manager. */
   private final Buffers buffers = new Buffers();
+  /** File id in the page cache. */
+  private final int id = PageCache.id();
   /** File storing all pages. */
   private final RandomAccessFile file;
+  /** Compressed pages (can be {@code null}). */
+  private final CompressedFile compressed;
   /** Bitmap storing free (=0) and used (=1) pages. */
   private BitArray usedPages;
   /** File lock. */
   private FileLock lock;
+  /** Memory-mapped table file (assigned if no write lock is held and mapping is enabled). */
+  private volatile MappedFile mapped;
+  /** Read-ahead for sequential page access (can be {@code null}). */
+  private final ReadAhead readAhead;
+  /** Journal (assigned if updates are written to a write-ahead log). */
+  private Journal journal;
+  /** Indicates if the page index has been changed since the last commit. */
+  private boolean modified;
 
   /** First pre values (ascending order); will be initialized with the first update. */
   private int[] fPreIndex;
@@ -76,6 +89,10 @@ public final class TableDiskAccess extends TableAccess {
 
     // initialize data file
     file = new RandomAccessFile(meta.dbFile(DATATBL).file(), "rw");
+    compressed = meta.compressdata ?
+      new CompressedFile(file.getChannel(), meta.dbFile(DATATBL + 'z'), IO.NODESIZE) : null;
+    readAhead = meta.readahead <= 0 ? null : new ReadAhead(compressed != null ? compressed :
+      BlockReader.of(file.getChannel(), Long.MAX_VALUE), id, meta.readahead);
     if(!lock(write)) throw new BaseXException(Text.DB_PINNED_X, meta.name);
   }
 
@@ -97,46 +114,55 @@ public final class TableDiskAccess extends TableAccess {
     }
   }
 
+  /**
+   * Writes all future updates to the specified log. Modified pages will only be written back
+   * to the table file if {@link #flush(boolean)} is called with {@code true}.
+   * @param wal write-ahead log
+   */
+  public synchronized void log(final WriteAheadLog wal) {
+    journal = wal.journal(meta.dbFile(DATATBL), () -> {
+      for(final Buffer buffer : buffers.all()) write(buffer);
+      if(modified) {
+        final ArrayOutput ao = new ArrayOutput();
+        try(DataOutput out = new DataOutput(ao)) {
+          writeIndex(out);
+        }
+        wal.file(meta.dbFile(DATATBL + 'i'), ao.finish());
+        modified = false;
+      }
+    });
+    // discard buffered pages, which may have been recovered from the log
+    buffers.init();
+  }
+
   @Override
   public synchronized void flush(final boolean all) throws IOException {
     for(final Buffer buffer : buffers.all()) {
       write(buffer);
     }
+    if(journal != null) {
+      // logged pages are only written back if all data is flushed
+      if(!all) return;
+      journal.drain(this::writePage);
+    }
+    if(compressed != null) compressed.flush();
     if(!dirty || !all) return;
 
     try(DataOutput out = new DataOutput(meta.dbFile(DATATBL + 'i'))) {
-      final int p = pages;
-      boolean regular = true;
-
-      // check if page mapping is regular (are all pages used and in ascending order?)
-      if(fPreIndex != null) {
-        regular = p == used;
-        for(int i = 0; i < p && regular; i++) regular = fPreIndex[i] == i * IO.ENTRIES;
-        for(int i = 0; i < p && regular; i++) regular = pageIndex[i] == i;
-        if(regular) removeMapping();
-      }
-
-      if(regular) {
-        // no mapping available or required (0: empty table; MAX: no mapping, see TableOutput#close)
-        out.writeNum(p);
-        out.writeNum(used == 0 ? 0 : Integer.MAX_VALUE);
-      } else {
-        out.writeNum(p);
-        out.writeNum(used);
-        out.writeNum(p);
-        for(int s = 0; s < p; s++) out.writeNum(fPreIndex[s]);
-        out.writeNum(p);
-        for(int s = 0; s < p; s++) out.writeNum(pageIndex[s]);
-        out.writeLongs(usedPages.toArray());
-      }
+      writeIndex(out);
     }
     dirty = false;
   }
 
   @Override
   public synchronized void close() throws IOException {
+    mapped = null;
+    if(readAhead != null) readAhead.stop();
     flush(true);
+    if(journal != null) journal.wal.remove(journal);
+    if(compressed != null) compressed.close();
     file.close();
+    PageCache.SHARED.remove(id);
   }
 
   @Override
@@ -146,41 +172,68 @@ public final class TableDiskAccess extends TableAccess {
         if(write != lock.isShared()) return true;
         lock.release();
       }
+      // updates are performed page-wise: discard mapping and stop read-ahead before
+      // acquiring a write lock
+      if(write) {
+        mapped = null;
+        if(readAhead != null) readAhead.stop();
+      }
       lock = file.getChannel().tryLock(0, Long.MAX_VALUE, !write);
-      return lock != null;
+      if(lock == null) return false;
+      if(!write) {
+        map();
+        if(readAhead != null && mapped == null) readAhead.start();
+      }
+      return true;
     } catch(final IOException ex) {
       throw Util.notExpected(ex);
     }
   }
 
   @Override
-  public synchronized int read1(final int pre, final int offset) {
-    final int o = offset + cursor(pre);
-    final byte[] data = buffers.current().data;
-    return data[o] & 0xFF;
+  public int read1(final int pre, final int offset) {
+    final MappedFile mf = mapped;
+    if(mf != null) return mf.read1(position(pre) + offset);
+    synchronized(this) {
+      final int o = offset + cursor(pre);
+      final byte[] data = buffers.current().data;
+      return data[o] & 0xFF;
+    }
   }
 
   @Override
-  public synchronized int read2(final int pre, final int offset) {
-    final int o = offset + cursor(pre);
-    final byte[] data = buffers.current().data;
-    return ((data[o] & 0xFF) << 8) + (data[o + 1] & 0xFF);
+  public int read2(final int pre, final int offset) {
+    final MappedFile mf = mapped;
+    if(mf != null) return mf.read2(position(pre) + offset);
+    synchronized(this) {
+      final int o = offset + cursor(pre);
+      final byte[] data = buffers.current().data;
+      return ((data[o] & 0xFF) << 8) + (data[o + 1] & 0xFF);
+    }
   }
 
   @Override
-  public synchronized int read4(final int pre, final int offset) {
-    final int o = offset + cursor(pre);
-    final byte[] data = buffers.current().data;
-    return ((data[o] & 0xFF) << 24) + ((data[o + 1] & 0xFF) << 16) +
-      ((data[o + 2] & 0xFF) << 8) + (data[o + 3] & 0xFF);
+  public int read4(final int pre, final int offset) {
+    final MappedFile mf = mapped;
+    if(mf != null) return mf.read4(position(pre) + offset);
+    synchronized(this) {
+      final int o = offset + cursor(pre);
+      final byte[] data = buffers.current().data;
+      return ((data[o] & 0xFF) << 24) + ((data[o + 1] & 0xFF) << 16) +
+        ((data[o + 2] & 0xFF) << 8) + (data[o + 3] & 0xFF);
+    }
   }
 
   @Override
-  public synchronized long read5(final int pre, final int offset) {
-    final int o = offset + cursor(pre);
-    final byte[] data = buffers.current().data;
-    return ((long) (data[o] & 0xFF) << 32) + ((long) (data[o + 1] & 0xFF) << 24) +
-      ((data[o + 2] & 0xFF) << 16) + ((data[o + 3] & 0xFF) << 8) + (data[o + 4] & 0xFF);
+  public long read5(final int pre, final int offset) {
+    final MappedFile mf = mapped;
+    if(mf != null) return mf.read5(position(pre) + offset);
+    synchronized(this) {
+      final int o = offset + cursor(pre);
+      final byte[] data = buffers.current().data;
+      return ((long) (data[o] & 0xFF) << 32) + ((long) (data[o + 1] & 0xFF) << 24) +
+        ((data[o + 2] & 0xFF) << 16) + ((data[o + 3] & 0xFF) << 8) + (data[o + 4] & 0xFF);
+    }
   }
 
   @Override
@@ -453,6 +506,81 @@ public final class TableDiskAccess extends TableAccess {
       usedPages = new BitArray(used, true);
     }
     dirty = true;
+    modified = true;
+  }
+
+  /**
+   * Writes the page index.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  private void writeIndex(final DataOutput out) throws IOException {
+    final int p = pages;
+    boolean regular = true;
+
+    // check if page mapping is regular (are all pages used and in ascending order?)
+    if(fPreIndex != null) {
+      regular = p == used;
+      for(int i = 0; i < p && regular; i++) regular = fPreIndex[i] == i * IO.ENTRIES;
+      for(int i = 0; i < p && regular; i++) regular = pageIndex[i] == i;
+      if(regular) removeMapping();
+    }
+
+    if(regular) {
+      // no mapping available or required (0: empty table; MAX: no mapping, see TableOutput#close)
+      out.writeNum(p);
+      out.writeNum(used == 0 ? 0 : Integer.MAX_VALUE);
+    } else {
+      out.writeNum(p);
+      out.writeNum(used);
+      out.writeNum(p);
+      for(int s = 0; s < p; s++) out.writeNum(fPreIndex[s]);
+      out.writeNum(p);
+      for(int s = 0; s < p; s++) out.writeNum(pageIndex[s]);
+      out.writeLongs(usedPages.toArray());
+    }
+  }
+
+  /**
+   * Maps the table file into memory if this is enabled for the database.
+   * Falls back to page-wise access if the file cannot be mapped or is compressed.
+   */
+  private void map() {
+    if(!meta.mapdata || compressed != null) return;
+    try {
+      synchronized(this) {
+        // write buffered pages; the page index will be kept in main memory
+        flush(false);
+        // logged pages must be written back before the file can be mapped
+        if(journal != null && !journal.isEmpty()) return;
+        mapped = new MappedFile(file.getChannel(), file.length());
+      }
+    } catch(final IOException ex) {
+      Util.debug(ex);
+      mapped = null;
+    }
+  }
+
+  /**
+   * Returns the file position of the entry for the specified pre value.
+   * Called if the table is mapped into memory. In contrast to {@link #cursor(int)},
+   * no state will be changed.
+   * @param pre pre value
+   * @return file position
+   */
+  private long position(final int pre) {
+    // regular page mapping: compute position directly
+    final int[] fpres = fPreIndex;
+    if(fpres == null) return (long) pre << IO.NODEPOWER;
+
+    // find page containing the pre value
+    int l = 0, h = used - 1;
+    while(l < h) {
+      final int m = l + h + 1 >>> 1;
+      if(pre < fpres[m]) h = m - 1;
+      else l = m;
+    }
+    return ((long) pageIndex[l] << IO.BLOCKPOWER) + (pre - fpres[l] << IO.NODEPOWER);
   }
 
   /**
@@ -462,6 +590,9 @@ public final class TableDiskAccess extends TableAccess {
    * @return offset of the entry in the page
    */
   private int cursor(final int pre) {
+    // page-wise access will be enforced if the table is to be updated
+    if(mapped != null) mapped = null;
+
     int fp = firstPre, np = nextPre;
     if(pre < fp || pre >= np) {
       final int last = used - 1;
@@ -503,6 +634,10 @@ public final class TableDiskAccess extends TableAccess {
   private void readPage(final int pre) {
     setPage(pre);
     read(pageIndex == null ? pre : pageIndex[pre]);
+    if(readAhead != null) {
+      final int[] pi = pageIndex;
+      readAhead.access(pre, used, p -> pi == null ? p : pi[p]);
+    }
   }
 
   /**
@@ -527,9 +662,16 @@ public final class TableDiskAccess extends TableAccess {
       buffer.pos = pre;
       if(pre >= pages) {
         pages = pre + 1;
-      } else {
-        file.seek(buffer.pos << IO.BLOCKPOWER);
-        file.readFully(buffer.data);
+      } else if((journal == null || !journal.read(pre, buffer.data)) &&
+          !PageCache.SHARED.read(id, pre, buffer.data, meta.cache)) {
+        // page has neither been logged nor cached: read it from disk
+        if(compressed != null) {
+          compressed.read(pre, buffer.data);
+        } else {
+          file.seek(buffer.pos << IO.BLOCKPOWER);
+          file.readFully(buffer.data);
+        }
+        PageCache.SHARED.add(id, pre, buffer.data);
       }
     } catch(final IOException ex) {
       Util.stack(ex);
@@ -537,18 +679,34 @@ public final class TableDiskAccess extends TableAccess {
   }
 
   /**
-   * Writes the specified buffer to disk and resets the dirty flag.
+   * Writes the specified buffer to disk, or to the journal, and resets the dirty flag.
    * @param buffer buffer to write
    * @throws IOException I/O exception
    */
   private void write(final Buffer buffer) throws IOException {
     if(!buffer.dirty) return;
 
-    file.seek(buffer.pos << IO.BLOCKPOWER);
-    file.write(buffer.data);
+    if(journal != null) journal.put(buffer.pos, buffer.data);
+    else writePage(buffer.pos, buffer.data);
     buffer.dirty = false;
   }
 
+  /**
+   * Writes a page to disk.
+   * @param pos page position
+   * @param data page data
+   * @throws IOException I/O exception
+   */
+  private void writePage(final long pos, final byte[] data) throws IOException {
+    if(compressed != null) {
+      compressed.write(pos, data);
+    } else {
+      file.seek(pos << IO.BLOCKPOWER);
+      file.write(data);
+    }
+    PageCache.SHARED.update(id, pos, data);
+  }
+
   /**
    * Deletes pages in the page mapping.
    * @param count number of pages to delete
@@ -8,7 +8,8 @@ import org.basex.util.*;
 
 /**
  * This class allows main memory access to the database table representation.
- * All table entries are stored in arrays
+ * All table entries are stored in arrays, or in direct buffers if {@link MetaData#offheap}
+ * is enabled.
  *
  * @author BaseX Team 2005-23, BSD License
  * @author Christian Gruen
@@ -140,7 +141,7 @@ public final class TableMemAccess extends TableAccess {
       final int bs = blocks.size();
       final int remaining = bs == 0 ? 0 : blocks.get(bs - 1).remaining(size);
       if(remaining < count) {
-        blocks.addAll(bs, TableMemBlock.get(count - remaining, pre + remaining));
+        blocks.addAll(bs, TableMemBlock.get(count - remaining, pre + remaining, meta.offheap));
       }
     } else {
       // insert entries. if no space is left, insert new blocks
@@ -1,5 +1,6 @@
 package org.basex.io.random;
 
+import java.nio.*;
 import java.util.*;
 
 import org.basex.io.*;
@@ -8,35 +9,49 @@ import org.basex.util.list.*;
 
 /**
  * Organizes a single main memory table block.
- * All table entries are stored in arrays
+ * All table entries are stored in arrays. If off-heap storage is enabled, blocks that have
+ * reached their maximum size are moved to direct buffers, which are not scanned by the garbage
+ * collector.
  *
  * @author BaseX Team 2005-23, BSD License
  * @author Christian Gruen
  */
 final class TableMemBlock {
-  /** Table data, with two values for one XML node. */
+  /** Maximum number of values in a block. */
+  private static final int MAX = IO.BLOCKSIZE << 1;
+
+  /** Off-heap flag. */
+  private final boolean offheap;
+  /** Table data, with two values for one XML node ({@code null} if data is stored off-heap). */
   private long[] data;
+  /** Off-heap table data ({@code null} if data is stored on the heap). */
+  private LongBuffer buffer;
   /** First pre value. */
   int firstPre;
 
   /**
    * Constructor with initial capacity.
    * @param compact compact block size
+   * @param offheap off-heap storage
    */
-  private TableMemBlock(final boolean compact) {
-    data = new long[(compact ? 1 : IO.BLOCKSIZE) << 1];
+  private TableMemBlock(final boolean compact, final boolean offheap) {
+    this.offheap = offheap;
+    if(offheap && !compact) buffer = allocate();
+    else data = new long[(compact ? 1 : IO.BLOCKSIZE) << 1];
   }
 
   /**
    * Creates new blocks.
    * @param count number of entries to add
    * @param compact compact block size
+   * @param offheap off-heap storage
    * @return new blocks
    */
-  private static ArrayList<TableMemBlock> get(final int count, final boolean compact) {
+  private static ArrayList<TableMemBlock> get(final int count, final boolean compact,
+      final boolean offheap) {
     final int bs = IO.BLOCKSIZE + count - 1 >>> IO.BLOCKPOWER;
     final ArrayList<TableMemBlock> list = new ArrayList<>(bs);
-    for(int b = 0; b < bs; b++) list.add(new TableMemBlock(compact));
+    for(int b = 0; b < bs; b++) list.add(new TableMemBlock(compact, offheap));
     return list;
   }
 
@@ -44,10 +59,11 @@ final class TableMemBlock {
    * Creates new blocks with computed pre values.
    * @param count number of entries to add
    * @param pre pre value of first block (will be incremented for subsequent blocks)
+   * @param offheap off-heap storage
    * @return new blocks
    */
-  static ArrayList<TableMemBlock> get(final int count, final int pre) {
-    final ArrayList<TableMemBlock> blocks = get(count, true);
+  static ArrayList<TableMemBlock> get(final int count, final int pre, final boolean offheap) {
+    final ArrayList<TableMemBlock> blocks = get(count, true, offheap);
     int fp = pre;
     for(final TableMemBlock block : blocks) {
       block.firstPre = fp;
@@ -72,7 +88,8 @@ final class TableMemBlock {
    * @return value
    */
   long value(final int pre, final int offset) {
-    return data[index(pre, offset)];
+    final int i = index(pre, offset);
+    return data != null ? data[i] : buffer.get(i);
   }
 
   /**
@@ -84,7 +101,8 @@ final class TableMemBlock {
   void value(final int pre, final int offset, final long value) {
     final int i = index(pre, offset);
     resize(i + 1);
-    data[i] = value;
+    if(data != null) data[i] = value;
+    else buffer.put(i, value);
   }
 
   /**
@@ -97,7 +115,7 @@ final class TableMemBlock {
   int delete(final int pre, final int count, final int nextPre) {
     final int first = pre - firstPre, last = first + count, filled = nextPre - firstPre;
     if(last >= filled) return filled - first;
-    System.arraycopy(data, last << 1, data, first << 1, filled - last << 1);
+    move(last << 1, first << 1, filled - last << 1);
     return count;
   }
 
@@ -115,18 +133,18 @@ final class TableMemBlock {
     // check if entries can be inserted into existing block
     if(count <= remaining) {
       resize(last + copy << 1);
-      System.arraycopy(data, first << 1, data, last << 1, copy << 1);
+      move(first << 1, last << 1, copy << 1);
       return null;
     }
 
     // otherwise, create new blocks
-    resize(IO.BLOCKSIZE << 1);
-    final ArrayList<TableMemBlock> blocks = get(count - remaining, false);
+    resize(MAX);
+    final ArrayList<TableMemBlock> blocks = get(count - remaining, false, offheap);
     // create temporary array with final entries
     final int total = filled + count;
     final long[] longs = new long[total << 1];
-    System.arraycopy(data, 0, longs, 0, first << 1);
-    System.arraycopy(data, first << 1, longs, last << 1, copy << 1);
+    read(0, longs, 0, first << 1);
+    read(first << 1, longs, last << 1, copy << 1);
 
     /* redistribute entries evenly:
      * 300 entries: 2 blocks with 150 entries each
@@ -135,12 +153,12 @@ final class TableMemBlock {
     final int bs = blocks.size(), fill = (total + bs) / (bs + 1);
     final int total2 = total << 1, fill2 = fill << 1;
     // populate original block
-    System.arraycopy(longs, 0, data, 0, fill2);
+    write(longs, 0, 0, fill2);
     // populate new blocks
     int copied = fill, copied2 = fill2;
     for(final TableMemBlock block : blocks) {
       block.firstPre = firstPre + copied;
-      System.arraycopy(longs, copied2, block.data, 0, Math.min(fill2, total2 - copied2));
+      block.write(longs, copied2, 0, Math.min(fill2, total2 - copied2));
       copied += fill;
       copied2 += fill2;
     }
@@ -153,8 +171,19 @@ final class TableMemBlock {
    */
   private void resize(final int size) {
     final long[] dt = data;
+    if(dt == null) return;
     final int dl = dt.length;
-    if(dl < size) data = Arrays.copyOf(dt, Math.min(Math.max(size, dl << 1), IO.BLOCKSIZE << 1));
+    if(dl < size) {
+      final int ns = Math.min(Math.max(size, dl << 1), MAX);
+      if(offheap && ns == MAX) {
+        // block has reached its final size: move data off-heap
+        buffer = allocate();
+        data = null;
+        write(dt, 0, 0, dl);
+      } else {
+        data = Arrays.copyOf(dt, ns);
+      }
+    }
   }
 
   @Override
@@ -162,9 +191,9 @@ final class TableMemBlock {
     final StringBuilder sb = new StringBuilder(Util.className(this) + '[' + firstPre + ": ");
     final IntList ints = new IntList();
     int first = -1, last = 0;
-    final int dl = data.length;
+    final int dl = data != null ? data.length : MAX;
     for(int d = 0; d < dl; d++) {
-      if(data[d] != 0) {
+      if((data != null ? data[d] : buffer.get(d)) != 0) {
         if(first == -1) first = d;
         last = d;
       } else if(first != -1) {
@@ -182,6 +211,55 @@ final class TableMemBlock {
 
   // PRIVATE METHODS ==============================================================================
 
+  /**
+   * Allocates a direct buffer for all values of a block.
+   * @return buffer
+   */
+  private static LongBuffer allocate() {
+    return ByteBuffer.allocateDirect(MAX << 3).order(ByteOrder.nativeOrder()).asLongBuffer();
+  }
+
+  /**
+   * Moves values within this block.
+   * @param from source index
+   * @param to target index
+   * @param length number of values
+   */
+  private void move(final int from, final int to, final int length) {
+    if(data != null) {
+      System.arraycopy(data, from, data, to, length);
+    } else {
+      // use temporary array, as the source and target ranges may overlap
+      final long[] tmp = new long[length];
+      read(from, tmp, 0, length);
+      write(tmp, 0, to, length);
+    }
+  }
+
+  /**
+   * Copies values from this block to an array.
+   * @param from source index
+   * @param target target array
+   * @param to target index
+   * @param length number of values
+   */
+  private void read(final int from, final long[] target, final int to, final int length) {
+    if(data != null) System.arraycopy(data, from, target, to, length);
+    else buffer.duplicate().position(from).get(target, to, length);
+  }
+
+  /**
+   * Copies values from an array to this block.
+   * @param source source array
+   * @param from source index
+   * @param to target index
+   * @param length number of values
+   */
+  private void write(final long[] source, final int from, final int to, final int length) {
+    if(data != null) System.arraycopy(source, from, data, to, length);
+    else buffer.duplicate().position(to).put(source, from, length);
+  }
+
   /**
    * Returns the index to the current table segment.
    * @param pre pre value
@@ -0,0 +1,538 @@
+package org.basex.io.random;
+
+import static java.nio.file.StandardOpenOption.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.zip.*;
+
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.*;
+import org.basex.io.out.DataOutput;
+import org.basex.util.*;
+
+/**
+ * Write-ahead log of a database. The changes of a transaction are appended to the log as
+ * records, which contain images of modified pages and the changed parts of files. The size of
+ * records is limited: the changes of large transactions are split into several records, and only
+ * the last record of a transaction is flagged as committed. Modified pages are not written back to
+ * the database files before the next checkpoint. Until then, they are read from the log
+ * (see {@link Journal}).
+ *
+ * Files are compared with their last logged contents, and only the changed parts are logged.
+ * After a checkpoint, the complete contents of a file are logged once.
+ *
+ * Records are not forced to disk when they are appended. Instead, transactions release their
+ * locks and wait for their records to become durable before they return (see {@link #sync()}).
+ * The first waiting transaction forces the log to disk. The records that other transactions have
+ * appended in the meantime are made durable with the same force (group commit). Changes are
+ * visible to other transactions before they are durable.
+ *
+ * A record consists of a header (length of the entries, checksum, sequence number, number of
+ * entries, commit flag) and the entries. Recovery reads one record at a time and stops at the
+ * first incomplete or invalid record. Changes of transactions that have not been committed are
+ * discarded.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class WriteAheadLog implements Closeable {
+  /** Log size after which a checkpoint will be performed. */
+  public static final long CHECKPOINT = 1 << 26;
+
+  /** Entry: page image. */
+  private static final int PAGE = 1;
+  /** Entry: file length. */
+  private static final int LENGTH = 2;
+  /** Entry: changed part of a file. */
+  private static final int FILE = 3;
+  /** Size of the record header. */
+  private static final int HEADER = 24;
+  /** Flag for the last record of a transaction. */
+  private static final int COMMIT = 1;
+  /** Size of the entries after which a record will be appended. */
+  private static final int RECORD = 1 << 20;
+  /** Maximum size of a changed part of a file in a single entry. */
+  private static final int PART = RECORD >>> 2;
+  /** Records of the current thread that may not have been forced to disk yet. */
+  private static final ThreadLocal<HashMap<WriteAheadLog, Long>> PENDING =
+      ThreadLocal.withInitial(HashMap::new);
+
+  /** Log file. */
+  private final IOFile file;
+  /** Directory of the logged files. */
+  private final IOFile dir;
+  /** File channel. */
+  private final FileChannel channel;
+  /** Journals of the logged files. */
+  private final ArrayList<Journal> journals = new ArrayList<>();
+  /** Entries of the current record. */
+  private final ArrayOutput entries = new ArrayOutput();
+  /** Output stream for the entries of the current record. */
+  private final DataOutput out = new DataOutput(entries);
+  /** Contents of the files that have been logged since the last checkpoint. */
+  private final HashMap<String, byte[][]> images = new HashMap<>();
+
+  /** Recovered pages (file names, page positions, offsets in the log). */
+  private final HashMap<String, TreeMap<Long, Long>> pages = new HashMap<>();
+  /** Recovered file lengths. */
+  private final HashMap<String, Long> lengths = new HashMap<>();
+  /** Indicates if records have been recovered. */
+  private final boolean recovered;
+
+  /** Number of entries of the current record. */
+  private int count;
+  /** Indicates if records of the current transaction have already been appended. */
+  private boolean partial;
+  /** Sequence number of the next record. */
+  private long seq;
+  /** Total number of bytes that have been appended to the log since it was opened. */
+  private long written;
+  /** Number of appended bytes that have been truncated from the log. */
+  private long truncated;
+  /** Number of appended bytes that have been forced to disk. */
+  private long synced;
+  /** Indicates if the log is currently being forced to disk. */
+  private boolean syncing;
+  /** Number of times the log has been forced to disk. */
+  private long forces;
+
+  /**
+   * Opens the log. If the log contains records, files that have been logged completely are
+   * restored, and page images are recovered. Recovered pages will be assigned to the journals of
+   * the logged files (see {@link #journal}); they will be written back with the next checkpoint.
+   * @param file log file
+   * @throws IOException I/O exception
+   */
+  public WriteAheadLog(final IOFile file) throws IOException {
+    this.file = file;
+    dir = file.parent();
+    channel = FileChannel.open(file.file().toPath(), CREATE, READ, WRITE);
+    recovered = channel.size() > 0 && recover();
+  }
+
+  /**
+   * Indicates if records have been recovered when the log was opened.
+   * @return result of check
+   */
+  public boolean recovered() {
+    return recovered;
+  }
+
+  /**
+   * Adds the changes of a file to the current record. The parts of the file are compared with
+   * the parts that have been logged before, and only the changed bytes are logged.
+   * @param target file
+   * @param parts file contents, split into parts (the arrays must not be modified anymore)
+   * @throws IOException I/O exception
+   */
+  public synchronized void file(final IOFile target, final byte[]... parts) throws IOException {
+    final String name = target.name();
+    final byte[][] old = images.get(name);
+    if(old != null && old.length == parts.length) {
+      long pos = 0;
+      for(int p = 0; p < parts.length; p++) {
+        file(name, pos, old[p], parts[p]);
+        pos += parts[p].length;
+      }
+    } else {
+      // no contents have been logged since the last checkpoint: log complete file
+      file(name, 0, old != null ? Token.concat(old) : Token.EMPTY, Token.concat(parts));
+    }
+    images.put(name, parts);
+  }
+
+  /**
+   * Logs all changes of the current transaction and appends the last record to the log.
+   * The records will not be forced to disk yet (see {@link #sync()}).
+   * @throws IOException I/O exception
+   */
+  public void commit() throws IOException {
+    final long end;
+    synchronized(this) {
+      for(final Journal journal : journals) journal.log();
+      if(count == 0 && !partial) return;
+      write(true);
+      end = written;
+    }
+    PENDING.get().merge(this, end, Math::max);
+  }
+
+  /**
+   * Waits until all records that have been committed by the current thread have been forced to
+   * disk. Should be called after the locks of the transaction have been released.
+   * @throws IOException I/O exception
+   */
+  public static void sync() throws IOException {
+    final HashMap<WriteAheadLog, Long> pending = PENDING.get();
+    if(pending.isEmpty()) return;
+    try {
+      for(final Map.Entry<WriteAheadLog, Long> entry : pending.entrySet()) {
+        entry.getKey().sync(entry.getValue());
+      }
+    } finally {
+      pending.clear();
+    }
+  }
+
+  /**
+   * Forces all records to disk.
+   * @throws IOException I/O exception
+   */
+  public void force() throws IOException {
+    final long end;
+    synchronized(this) {
+      end = written;
+    }
+    sync(end);
+  }
+
+  /**
+   * Returns the number of times the log has been forced to disk.
+   * @return number of forces
+   */
+  public synchronized long forces() {
+    return forces;
+  }
+
+  /**
+   * Returns the size of the log.
+   * @return size in bytes
+   */
+  public synchronized long size() {
+    return written - truncated;
+  }
+
+  /**
+   * Completes a checkpoint. Must be called after all logged changes have been written back to
+   * the database files: the files are forced to disk, and the log is truncated.
+   * @throws IOException I/O exception
+   */
+  public synchronized void checkpoint() throws IOException {
+    for(final IOFile child : dir.children()) {
+      if(!child.isDir() && !child.eq(file)) force(child);
+    }
+    channel.truncate(0);
+    channel.force(true);
+    truncated = written;
+    synced = written;
+    // discard the entries of a running transaction, which have been written back as well
+    entries.reset();
+    count = 0;
+    partial = false;
+    images.clear();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    // the log is only deleted if all changes have been written back
+    final boolean empty = channel.size() == 0;
+    channel.close();
+    if(empty) file.delete();
+  }
+
+  /**
+   * Creates a journal for a database file and assigns recovered pages.
+   * @param target database file
+   * @param owner owner of the journal
+   * @return journal
+   */
+  synchronized Journal journal(final IOFile target, final Journal.Owner owner) {
+    final String name = target.name();
+    final Journal journal = new Journal(this, name, owner);
+    final TreeMap<Long, Long> recover = pages.remove(name);
+    if(recover != null) journal.recover(recover);
+    final Long length = lengths.remove(name);
+    if(length != null) journal.length = length;
+    journals.add(journal);
+    return journal;
+  }
+
+  /**
+   * Removes a journal.
+   * @param journal journal
+   */
+  synchronized void remove(final Journal journal) {
+    journals.remove(journal);
+  }
+
+  /**
+   * Adds a page image to the current record.
+   * @param name name of the file
+   * @param pos page position
+   * @param data page data
+   * @return offset of the page image in the log
+   * @throws IOException I/O exception
+   */
+  synchronized long page(final String name, final long pos, final byte[] data)
+      throws IOException {
+    entry(PAGE, name);
+    out.writeLong(pos);
+    final long off = written - truncated + HEADER + entries.size();
+    out.writeBytes(data);
+    return off;
+  }
+
+  /**
+   * Reads a page image from the log.
+   * @param off offset of the page image in the log
+   * @param data target array
+   * @throws IOException I/O exception
+   */
+  synchronized void read(final long off, final byte[] data) throws IOException {
+    final long start = written - truncated + HEADER;
+    if(off >= start) {
+      // page is part of the current record
+      Array.copyToStart(entries.buffer(), (int) (off - start), IO.BLOCKSIZE, data);
+    } else {
+      read(off, ByteBuffer.wrap(data));
+    }
+  }
+
+  /**
+   * Adds a file length to the current record.
+   * @param name name of the file
+   * @param length file length
+   * @throws IOException I/O exception
+   */
+  synchronized void length(final String name, final long length) throws IOException {
+    entry(LENGTH, name);
+    out.writeLong(length);
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Starts a new entry. If the current record is too large, it is appended to the log first.
+   * @param type entry type
+   * @param name name of the file
+   * @throws IOException I/O exception
+   */
+  private void entry(final int type, final String name) throws IOException {
+    if(entries.size() >= RECORD) write(false);
+    out.write1(type);
+    out.writeToken(Token.token(name));
+    count++;
+  }
+
+  /**
+   * Adds the changed bytes of a file part to the current record.
+   * @param name name of the file
+   * @param pos position of the part in the file
+   * @param old logged contents of the part
+   * @param data new contents of the part
+   * @throws IOException I/O exception
+   */
+  private void file(final String name, final long pos, final byte[] old, final byte[] data)
+      throws IOException {
+    // skip common prefix and suffix
+    final int ol = old.length, dl = data.length, min = Math.min(ol, dl);
+    int s = 0, e = 0;
+    while(s < min && old[s] == data[s]) s++;
+    while(e < min - s && old[ol - e - 1] == data[dl - e - 1]) e++;
+    int removed = ol - s - e;
+    final int end = dl - e;
+    if(removed == 0 && s == end) return;
+
+    // replace removed bytes with the new bytes; split large changes into several entries
+    int d = s;
+    do {
+      final int l = Math.min(end - d, PART);
+      entry(FILE, name);
+      out.writeLong(pos + d);
+      out.writeNum(removed);
+      out.writeToken(Arrays.copyOfRange(data, d, d + l));
+      removed = 0;
+      d += l;
+    } while(d < end);
+  }
+
+  /**
+   * Appends the current record to the log.
+   * @param commit indicates if this is the last record of a transaction
+   * @throws IOException I/O exception
+   */
+  private void write(final boolean commit) throws IOException {
+    final int length = (int) entries.size();
+    final byte[] body = entries.buffer();
+    final ByteBuffer header = ByteBuffer.allocate(HEADER);
+    header.putInt(length).putInt(0).putLong(seq).putInt(count).putInt(commit ? COMMIT : 0);
+    header.putInt(4, checksum(header.array(), body, length)).flip();
+
+    long pos = written - truncated;
+    while(header.hasRemaining()) pos += channel.write(header, pos);
+    for(final ByteBuffer bb = ByteBuffer.wrap(body, 0, length); bb.hasRemaining();) {
+      pos += channel.write(bb, pos);
+    }
+    written += HEADER + length;
+    entries.reset();
+    count = 0;
+    seq++;
+    partial = !commit;
+  }
+
+  /**
+   * Waits until the log has been forced to disk up to the specified position.
+   * If no other thread is currently forcing the log, the log is forced by the calling thread.
+   * @param end end position of a record
+   * @throws IOException I/O exception
+   */
+  private void sync(final long end) throws IOException {
+    final long target;
+    synchronized(this) {
+      while(syncing && synced < end) {
+        try {
+          wait();
+        } catch(final InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new IOException(ex);
+        }
+      }
+      if(synced >= end || !channel.isOpen()) return;
+      syncing = true;
+      target = written;
+    }
+
+    boolean forced = false;
+    try {
+      channel.force(false);
+      forced = true;
+    } finally {
+      synchronized(this) {
+        syncing = false;
+        if(forced) {
+          synced = Math.max(synced, target);
+          forces++;
+        }
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Reads all valid records, restores logged files and collects the offsets of the logged pages.
+   * Records are read one by one, and page images remain in the log. Records of transactions that
+   * have not been committed are discarded.
+   * @return {@code true} if at least one transaction was found
+   * @throws IOException I/O exception
+   */
+  private boolean recover() throws IOException {
+    final HashMap<String, byte[]> files = new HashMap<>();
+    // changes of the current transaction
+    final HashMap<String, TreeMap<Long, Long>> tpages = new HashMap<>();
+    final HashMap<String, Long> tlengths = new HashMap<>();
+    final HashMap<String, byte[]> tfiles = new HashMap<>();
+
+    final long size = channel.size();
+    final ByteBuffer header = ByteBuffer.allocate(HEADER);
+    long pos = 0, valid = 0, next = 0;
+    while(size - pos >= HEADER) {
+      header.clear();
+      read(pos, header);
+      final int length = header.getInt(0);
+      if(length < 0 || length > RECORD << 1 || length > size - pos - HEADER) break;
+      // sequence numbers must be consecutive (older records may follow after a truncation)
+      final long s = header.getLong(8);
+      if(pos != 0 && s != seq) break;
+      final byte[] record = new byte[length];
+      read(pos + HEADER, ByteBuffer.wrap(record));
+      if(header.getInt(4) != checksum(header.array(), record, length)) break;
+
+      try(DataInput in = new DataInput(new IOContent(record))) {
+        for(int c = header.getInt(16); c > 0; c--) {
+          final int type = in.read();
+          final String name = Token.string(in.readToken());
+          if(type == PAGE) {
+            final long p = in.readLong(), off = pos + HEADER + in.size();
+            tpages.computeIfAbsent(name, n -> new TreeMap<>()).put(p, off);
+            for(int d = 0; d < IO.BLOCKSIZE; d++) in.read();
+          } else if(type == LENGTH) {
+            tlengths.put(name, in.readLong());
+          } else if(type == FILE) {
+            final int p = (int) in.readLong(), removed = in.readNum();
+            final byte[] data = in.readToken();
+            byte[] image = tfiles.get(name);
+            if(image == null) image = files.getOrDefault(name, Token.EMPTY);
+            final byte[] tmp = new byte[image.length - removed + data.length];
+            Array.copy(image, p, tmp);
+            Array.copyFromStart(data, data.length, tmp, p);
+            Array.copy(image, p + removed, image.length - p - removed, tmp, p + data.length);
+            tfiles.put(name, tmp);
+          } else {
+            throw new IOException("Invalid log entry: " + type);
+          }
+        }
+      }
+      seq = s + 1;
+      pos += HEADER + length;
+
+      if(header.getInt(20) == COMMIT) {
+        for(final Map.Entry<String, TreeMap<Long, Long>> entry : tpages.entrySet()) {
+          pages.computeIfAbsent(entry.getKey(), n -> new TreeMap<>()).putAll(entry.getValue());
+        }
+        lengths.putAll(tlengths);
+        files.putAll(tfiles);
+        tpages.clear();
+        tlengths.clear();
+        tfiles.clear();
+        valid = pos;
+        next = seq;
+      }
+    }
+
+    // restore files before they are opened
+    for(final Map.Entry<String, byte[]> entry : files.entrySet()) {
+      final IOFile target = new IOFile(dir, entry.getKey());
+      target.write(entry.getValue());
+      force(target);
+    }
+    // discard records of incomplete transactions; new records will be appended to the valid ones
+    channel.truncate(valid);
+    seq = next;
+    written = valid;
+    synced = valid;
+    return valid != 0;
+  }
+
+  /**
+   * Reads bytes from the log.
+   * @param pos position in the log
+   * @param bb target buffer
+   * @throws IOException I/O exception
+   */
+  private void read(final long pos, final ByteBuffer bb) throws IOException {
+    for(long p = pos; bb.hasRemaining();) {
+      final int r = channel.read(bb, p);
+      if(r == -1) throw new EOFException();
+      p += r;
+    }
+  }
+
+  /**
+   * Computes the checksum of a record.
+   * @param header record header
+   * @param entries entries
+   * @param length length of the entries
+   * @return checksum
+   */
+  private static int checksum(final byte[] header, final byte[] entries, final int length) {
+    final CRC32 crc = new CRC32();
+    crc.update(header, 8, HEADER - 8);
+    crc.update(entries, 0, length);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Forces the contents of a file to disk.
+   * @param target file
+   * @throws IOException I/O exception
+   */
+  private static void force(final IOFile target) throws IOException {
+    try(FileChannel fc = FileChannel.open(target.file().toPath(), WRITE)) {
+      fc.force(true);
+    }
+  }
+}
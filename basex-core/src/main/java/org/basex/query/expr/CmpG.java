@@ -559,6 +559,9 @@ public class CmpG extends Cmp {
     // only equality expressions on default collation can be rewritten
     if(op != OpG.EQ || coll != null) return false;
 
+    // path value index: compare values of children of the current step
+    if(ii.create(exprs[0], exprs[1], this, info)) return true;
+
     Expr expr1 = exprs[0];
     IndexType type = null;
     if(Function.TOKENIZE.is(expr1)) {
@@ -8,6 +8,7 @@ import org.basex.index.*;
 import org.basex.index.name.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
+import org.basex.index.value.*;
 import org.basex.query.*;
 import org.basex.query.CompileContext.*;
 import org.basex.query.expr.CmpG.*;
@@ -225,13 +226,17 @@ public final class CmpR extends Single {
     ii.costs = IndexInfo.costs(data, nr);
     if(ii.costs == null) return false;
 
-    // skip if numbers are negative, doubles, or of different string length
-    final int mnl = min >= 0 && (long) min == min ? Token.token(min).length : -1;
-    final int mxl = max >= 0 && (long) max == max ? Token.token(max).length : -1;
-    if(mnl == -1 || mnl != mxl) return false;
+    // index with ordered numeric keys: range can be accessed directly
+    final Index index = data != null ? data.index(type) : null;
+    if(!(index instanceof ValueIndex && ((ValueIndex) index).numeric())) {
+      // skip if numbers are negative, doubles, or of different string length
+      final int mnl = min >= 0 && (long) min == min ? Token.token(min).length : -1;
+      final int mxl = max >= 0 && (long) max == max ? Token.token(max).length : -1;
+      if(mnl == -1 || mnl != mxl) return false;
 
-    // don't use index if min/max values are infinite
-    if(Token.token((int) nr.min).length != Token.token((int) nr.max).length) return false;
+      // don't use index if min/max values are infinite
+      if(Token.token((int) nr.min).length != Token.token((int) nr.max).length) return false;
+    }
 
     final TokenBuilder tb = new TokenBuilder();
     tb.add('[').add(min).add(',').add(max).add(']');
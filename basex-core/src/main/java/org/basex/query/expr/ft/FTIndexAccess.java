@@ -1,9 +1,12 @@
 package org.basex.query.expr.ft;
 
+import java.util.function.*;
+
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.index.*;
 import org.basex.query.func.*;
+import org.basex.query.func.Function;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
 import org.basex.query.value.*;
@@ -41,11 +44,28 @@ public final class FTIndexAccess extends Simple {
 
   @Override
   public NodeIter iter(final QueryContext qc) throws QueryException {
+    return iter(qc, null);
+  }
+
+  /**
+   * Returns an iterator, which skips nodes with too small scores.
+   * @param qc query context
+   * @param min minimum score: nodes with the same or smaller scores can be skipped
+   *   (can be {@code null})
+   * @return iterator
+   * @throws QueryException query exception
+   */
+  public NodeIter iter(final QueryContext qc, final DoubleSupplier min) throws QueryException {
     final FTIter iter = ftexpr.iter(qc);
     return new NodeIter() {
       @Override
       public ANode next() throws QueryException {
-        final FTNode item = iter.next();
+        FTNode item;
+        // skip nodes with a score bound below the requested minimum (no text access needed)
+        do {
+          item = iter.next();
+        } while(item != null && min != null && item.maxScore() <= min.getAsDouble());
+
         if(item != null) {
           // assign scoring
           if(qc.scoring) item.score();
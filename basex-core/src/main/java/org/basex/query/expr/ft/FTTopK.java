@@ -0,0 +1,228 @@
+package org.basex.query.expr.ft;
+
+import static org.basex.query.QueryText.*;
+
+import java.util.*;
+
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.query.func.ft.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.seq.*;
+import org.basex.query.value.type.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+
+/**
+ * Returns the items with the highest scores, ordered by descending scores.
+ * Items with the same score are returned in their original order.
+ *
+ * If the input is a full-text index search, nodes whose score bounds do not exceed the lowest
+ * score of the current candidates will be skipped without computing their actual scores.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class FTTopK extends Single {
+  /** Maximum number of results. */
+  private final int max;
+
+  /**
+   * Constructor.
+   * @param info input info
+   * @param expr input expression
+   * @param max maximum number of results
+   */
+  public FTTopK(final InputInfo info, final Expr expr, final int max) {
+    super(info, expr, expr.seqType().union(Occ.ZERO));
+    this.max = max;
+  }
+
+  @Override
+  public Expr optimize(final CompileContext cc) throws QueryException {
+    final long size = expr.size();
+    exprType.assign(expr.seqType().union(Occ.ZERO), size == -1 ? -1 : Math.min(size, max));
+    return this;
+  }
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    return value(qc).iter();
+  }
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    final boolean s = qc.scoring;
+    try {
+      qc.scoring = true;
+      final Candidates cands = new Candidates(max);
+      final Iter input = expr instanceof FtSearch ?
+        ((FtSearch) expr).iter(qc, cands::min) : expr.iter(qc);
+      for(Item item; (item = qc.next(input)) != null;) cands.add(item);
+      return cands.value(this);
+    } finally {
+      qc.scoring = s;
+    }
+  }
+
+  @Override
+  public Expr copy(final CompileContext cc, final IntObjMap<Var> vm) {
+    return copyType(new FTTopK(info, expr.copy(cc, vm), max));
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return this == obj || obj instanceof FTTopK && max == ((FTTopK) obj).max &&
+        super.equals(obj);
+  }
+
+  @Override
+  public void toXml(final QueryPlan plan) {
+    plan.add(plan.create(this, MAX, max), expr);
+  }
+
+  @Override
+  public void toString(final QueryString qs) {
+    qs.token("top").params(new Object[] { expr, max });
+  }
+
+  /**
+   * Candidates with the highest scores, organized as a min-heap.
+   */
+  private static final class Candidates {
+    /** Maximum number of candidates. */
+    private final int max;
+    /** Items. */
+    private Item[] items;
+    /** Scores. */
+    private double[] scores;
+    /** Input positions. */
+    private int[] positions;
+    /** Number of candidates. */
+    private int size;
+    /** Number of added items. */
+    private int count;
+
+    /**
+     * Constructor.
+     * @param max maximum number of candidates
+     */
+    private Candidates(final int max) {
+      final int c = Math.min(max, Array.INITIAL_CAPACITY);
+      this.max = max;
+      items = new Item[c];
+      scores = new double[c];
+      positions = new int[c];
+    }
+
+    /**
+     * Returns the lowest score of the candidates if the maximum number of candidates is reached.
+     * @return minimum score
+     */
+    private double min() {
+      return size == max ? scores[0] : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Adds an item if its score is higher than the lowest score of the current candidates.
+     * @param item item
+     */
+    private void add(final Item item) {
+      final double score = item.score();
+      final int pos = count++;
+      if(size < max) {
+        if(size == items.length) {
+          final int c = Math.min(max, Array.newCapacity(size));
+          items = Arrays.copyOf(items, c);
+          scores = Arrays.copyOf(scores, c);
+          positions = Arrays.copyOf(positions, c);
+        }
+        set(size, item, score, pos);
+        up(size++);
+      } else if(score > scores[0]) {
+        set(0, item, score, pos);
+        down(0);
+      }
+    }
+
+    /**
+     * Returns the candidates, ordered by descending scores.
+     * @param expr expression
+     * @return value
+     */
+    private Value value(final Expr expr) {
+      final Item[] result = new Item[size];
+      for(int r = size; --r >= 0;) {
+        result[r] = items[0];
+        set(0, items[r], scores[r], positions[r]);
+        size = r;
+        down(0);
+      }
+      return ItemSeq.get(result, result.length, expr.seqType().type);
+    }
+
+    /**
+     * Moves an entry towards the root.
+     * @param i index of the entry
+     */
+    private void up(final int i) {
+      for(int c = i, p; c > 0 && less(c, p = c - 1 >>> 1); c = p) swap(c, p);
+    }
+
+    /**
+     * Moves an entry towards the leaves.
+     * @param i index of the entry
+     */
+    private void down(final int i) {
+      for(int p = i;;) {
+        final int l = (p << 1) + 1, r = l + 1;
+        int m = p;
+        if(l < size && less(l, m)) m = l;
+        if(r < size && less(r, m)) m = r;
+        if(m == p) break;
+        swap(p, m);
+        p = m;
+      }
+    }
+
+    /**
+     * Checks if the first entry ranks lower than the second.
+     * @param i1 index of the first entry
+     * @param i2 index of the second entry
+     * @return result of check
+     */
+    private boolean less(final int i1, final int i2) {
+      final int d = Double.compare(scores[i1], scores[i2]);
+      return d < 0 || d == 0 && positions[i1] > positions[i2];
+    }
+
+    /**
+     * Assigns an entry.
+     * @param i index
+     * @param item item
+     * @param score score
+     * @param pos input position
+     */
+    private void set(final int i, final Item item, final double score, final int pos) {
+      items[i] = item;
+      scores[i] = score;
+      positions[i] = pos;
+    }
+
+    /**
+     * Swaps two entries.
+     * @param i1 index of the first entry
+     * @param i2 index of the second entry
+     */
+    private void swap(final int i1, final int i2) {
+      final Item item = items[i1];
+      final double score = scores[i1];
+      final int pos = positions[i1];
+      set(i1, items[i2], scores[i2], positions[i2]);
+      set(i2, item, score, pos);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package org.basex.query.expr.ft;
 import static org.basex.util.Token.*;
 
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * Wildcard expression.
@@ -144,6 +145,69 @@ public final class FTWildcard {
     return match(cps(tok), 0, 0);
   }
 
+  /**
+   * Checks if the wildcard matches the specified token. Otherwise, returns the length of the
+   * shortest prefix of the token that cannot be extended to a match. All tokens with this
+   * prefix can be skipped when traversing a sorted list of tokens.
+   * @param tok token
+   * @return {@code -1} if the token matches, or length of the rejected prefix in bytes
+   */
+  public int mismatch(final byte[] tok) {
+    // simulate the wildcard automaton: states are pairs of query positions and occurrences
+    IntList states = closure(new IntList().add(0).add(0));
+    final int tl = tok.length;
+    for(int t = 0; t < tl; t += cl(tok, t)) {
+      final int cp = cp(tok, t);
+      final IntList next = new IntList();
+      final int ss = states.size();
+      for(int s = 0; s < ss; s += 2) {
+        final int qp = states.get(s), n = states.get(s + 1);
+        if(qp == size) continue;
+        if(cps[qp] == DOT) {
+          // unlimited occurrences: further characters lead to the same state
+          final int mx = max[qp];
+          if(n < mx) add(next, qp, mx == Integer.MAX_VALUE ? Math.min(n + 1, min[qp]) : n + 1);
+        } else if(cps[qp] == cp) {
+          add(next, qp + 1, 0);
+        }
+      }
+      if(next.isEmpty()) return t + cl(tok, t);
+      states = closure(next);
+    }
+    final int ss = states.size();
+    for(int s = 0; s < ss; s += 2) {
+      if(states.get(s) == size) return -1;
+    }
+    return tl;
+  }
+
+  /**
+   * Adds the states that can be reached without consuming characters.
+   * @param states states
+   * @return states
+   */
+  private IntList closure(final IntList states) {
+    for(int s = 0; s < states.size(); s += 2) {
+      final int qp = states.get(s);
+      if(qp < size && cps[qp] == DOT && states.get(s + 1) >= min[qp]) add(states, qp + 1, 0);
+    }
+    return states;
+  }
+
+  /**
+   * Adds a state if it does not exist yet.
+   * @param states states
+   * @param qp query position
+   * @param n number of occurrences
+   */
+  private static void add(final IntList states, final int qp, final int n) {
+    final int ss = states.size();
+    for(int s = 0; s < ss; s += 2) {
+      if(states.get(s) == qp && states.get(s + 1) == n) return;
+    }
+    states.add(qp).add(n);
+  }
+
   /**
    * Indicates if the input contains no wildcard characters.
    * @return result of check
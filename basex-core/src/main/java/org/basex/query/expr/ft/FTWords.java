@@ -203,8 +203,8 @@ public final class FTWords extends FTExpr {
             }
           }
         }
-        return ftiter == null || !ftiter.more() ? null :
-          new FTNode(ftiter.matches(), data, ftiter.pre(), length, ftiter.size());
+        return ftiter == null || !ftiter.more() ? null : new FTNode(ftiter.matches(), data,
+          ftiter.pre(), length, ftiter.size(), ftiter.nodes());
       }
     };
   }
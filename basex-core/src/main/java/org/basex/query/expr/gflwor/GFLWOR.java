@@ -6,6 +6,7 @@ import java.util.function.*;
 import org.basex.query.*;
 import org.basex.query.CompileContext.*;
 import org.basex.query.expr.*;
+import org.basex.query.expr.ft.*;
 import org.basex.query.expr.path.*;
 import org.basex.query.func.Function;
 import org.basex.query.iter.*;
@@ -761,6 +762,29 @@ public final class GFLWOR extends ParseExpr {
     return false;
   }
 
+  /**
+   * Rewrites a FLWOR expression that orders full-text search results by descending scores,
+   * and that is limited to the first results, to a top-k search.
+   * @param max maximum number of results
+   * @param cc compilation context
+   * @return new expression or {@code null}
+   * @throws QueryException query exception
+   */
+  public Expr topK(final long max, final CompileContext cc) throws QueryException {
+    // for $n score $s in ft:search(...) order by $s descending return $n
+    if(max > Integer.MAX_VALUE || clauses.size() != 2 || !rtrn.seqType().one()) return null;
+    final Clause clause1 = clauses.getFirst(), clause2 = clauses.getLast();
+    if(!(clause1 instanceof For && clause2 instanceof OrderBy)) return null;
+    final For fr = (For) clause1;
+    if(fr.score == null || fr.pos != null || fr.empty || !Function._FT_SEARCH.is(fr.expr) ||
+        !((OrderBy) clause2).descending(fr.score)) return null;
+
+    // -> for $n score $s in top(ft:search(...), max) return $n
+    fr.expr = new FTTopK(info, fr.expr, (int) max).optimize(cc);
+    clauses.removeLast();
+    return optimize(cc);
+  }
+
   /**
    * Rewrites if expressions to where clauses.
    * @param cc compilation context
@@ -147,6 +147,18 @@ public final class OrderBy extends Clause {
     return false;
   }
 
+  /**
+   * Checks if tuples are ordered by the descending values of the specified variable.
+   * @param var variable
+   * @return result of check
+   */
+  boolean descending(final Var var) {
+    if(keys.length != 1) return false;
+    final OrderKey key = keys[0];
+    return key.desc && key.coll == null && key.expr instanceof VarRef &&
+        ((VarRef) key.expr).var.is(var);
+  }
+
   @Override
   public boolean has(final Flag... flags) {
     for(final OrderKey key : keys) {
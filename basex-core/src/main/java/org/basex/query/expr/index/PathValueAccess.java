@@ -0,0 +1,114 @@
+package org.basex.query.expr.index;
+
+import static org.basex.query.QueryText.*;
+
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.query.func.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.list.*;
+import org.basex.query.value.*;
+import org.basex.query.value.node.*;
+import org.basex.query.value.type.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+
+/**
+ * This index class retrieves elements from the path value index.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class PathValueAccess extends IndexAccess {
+  /** Name of the indexed elements. */
+  private final byte[] name;
+  /** Index keys. */
+  private final TokenSet keys;
+  /** Predicate that is replaced by the index access (only used for serialization). */
+  private final Expr pred;
+
+  /**
+   * Constructor.
+   * @param info input info
+   * @param name name of the indexed elements
+   * @param keys index keys
+   * @param pred predicate that is replaced by the index access
+   * @param db index database
+   */
+  public PathValueAccess(final InputInfo info, final byte[] name, final TokenSet keys,
+      final Expr pred, final IndexDb db) {
+    super(db, info, NodeType.ELEMENT);
+    this.name = name;
+    this.keys = keys;
+    this.pred = pred;
+  }
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    final Data data = db.data(qc, IndexType.PATHVALUE);
+    if(keys.size() == 1) return iter(keys.key(1), data);
+
+    // multiple keys: collect results, return result iterator
+    final ANodeBuilder nodes = new ANodeBuilder();
+    for(final byte[] key : keys) {
+      for(final ANode node : iter(key, data)) {
+        qc.checkStop();
+        nodes.add(node);
+      }
+    }
+    return nodes.value(this).iter();
+  }
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    return iter(qc).value(qc, this);
+  }
+
+  /**
+   * Returns an iterator for the elements with the specified key.
+   * @param key index key
+   * @param data data reference
+   * @return iterator
+   */
+  private static BasicNodeIter iter(final byte[] key, final Data data) {
+    final IndexIterator ii = data.iter(new StringToken(IndexType.PATHVALUE, key));
+    return new DBNodeIter(data) {
+      @Override
+      public DBNode next() {
+        return ii.more() ? new DBNode(data, ii.pre(), Data.ELEM) : null;
+      }
+    };
+  }
+
+  @Override
+  public Expr inline(final InlineContext ic) throws QueryException {
+    return inlineDb(ic) ? optimize(ic.cc) : null;
+  }
+
+  @Override
+  public Expr copy(final CompileContext cc, final IntObjMap<Var> vm) {
+    return copyType(new PathValueAccess(info, name, keys, pred, db.copy(cc, vm)));
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if(this == obj) return true;
+    if(!(obj instanceof PathValueAccess)) return false;
+    final PathValueAccess pva = (PathValueAccess) obj;
+    return Token.eq(name, pva.name) && pred.equals(pva.pred) && super.equals(obj);
+  }
+
+  @Override
+  public void toXml(final QueryPlan plan) {
+    plan.add(plan.create(this, INDEX, IndexType.PATHVALUE, NAME, name), db, pred);
+  }
+
+  @Override
+  public void toString(final QueryString qs) {
+    qs.function(Function._DB_GET, db).token('/').token('/').token(name).bracket(pred);
+  }
+}
@@ -0,0 +1,201 @@
+package org.basex.query.expr.index;
+
+import static org.basex.query.QueryText.*;
+import static org.basex.util.Token.*;
+
+import java.util.*;
+import java.util.regex.*;
+
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.query.func.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.query.value.seq.*;
+import org.basex.query.value.type.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * This index class retrieves text nodes via the trigram index. The id lists of all trigrams of
+ * a literal search string are intersected, and the resulting candidates are verified.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class TrigramAccess extends IndexAccess {
+  /** Function to be checked ({@link Function#CONTAINS}, {@link Function#STARTS_WITH},
+   * {@link Function#ENDS_WITH} or {@link Function#MATCHES}). */
+  private final Function function;
+  /** Search string (substring or regular expression). */
+  private final byte[] search;
+  /** Literal string that is contained in all results. */
+  private final byte[] literal;
+  /** Regular expression pattern (only assigned for {@link Function#MATCHES}). */
+  private final Pattern pattern;
+
+  /**
+   * Constructor.
+   * @param info input info
+   * @param function function to be checked
+   * @param search search string
+   * @param literal literal string that is contained in all results (at least three characters)
+   * @param pattern regular expression pattern (can be {@code null})
+   * @param db index database
+   */
+  public TrigramAccess(final InputInfo info, final Function function, final byte[] search,
+      final byte[] literal, final Pattern pattern, final IndexDb db) {
+    super(db, info, NodeType.TEXT);
+    this.function = function;
+    this.search = search;
+    this.literal = literal;
+    this.pattern = pattern;
+  }
+
+  /**
+   * Returns the index searches for the trigrams of the specified literal string.
+   * @param literal literal string
+   * @return index searches (empty if the string has less than three characters)
+   */
+  public static IndexSearch[] searches(final byte[] literal) {
+    final byte[][] trigrams = distinctTrigrams(literal);
+    final int tl = trigrams.length;
+    final IndexSearch[] searches = new IndexSearch[tl];
+    for(int t = 0; t < tl; t++) searches[t] = new StringToken(IndexType.TRIGRAM, trigrams[t]);
+    return searches;
+  }
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    final Data data = db.data(qc, IndexType.TRIGRAM);
+    final IndexIterator ii = candidates(data);
+
+    return new DBNodeIter(data) {
+      @Override
+      public DBNode next() {
+        while(ii.more()) {
+          final int pre = ii.pre();
+          if(matches(data.text(pre, true))) return new DBNode(data, pre, Data.TEXT);
+        }
+        return null;
+      }
+    };
+  }
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    final Data data = db.data(qc, IndexType.TRIGRAM);
+    final IndexIterator ii = candidates(data);
+    final IntList list = new IntList();
+    while(ii.more()) {
+      qc.checkStop();
+      final int pre = ii.pre();
+      if(matches(data.text(pre, true))) list.add(pre);
+    }
+    return DBNodeSeq.get(list.finish(), data, this);
+  }
+
+  /**
+   * Returns an iterator for all text nodes that contain all trigrams of the literal string.
+   * @param data data reference
+   * @return index iterator
+   */
+  private IndexIterator candidates(final Data data) {
+    final IndexSearch[] searches = searches(literal);
+    final int sl = searches.length;
+    final IndexIterator[] iters = new IndexIterator[sl];
+    for(int s = 0; s < sl; s++) {
+      iters[s] = data.iter(searches[s]);
+      if(iters[s].size() == 0) return IndexIterator.EMPTY;
+    }
+    if(sl == 1) return iters[0];
+
+    // start with the smallest id list
+    Arrays.sort(iters, Comparator.comparingInt(IndexIterator::size));
+    return new IndexIterator() {
+      int pre;
+
+      @Override
+      public boolean more() {
+        final IndexIterator first = iters[0];
+        if(!first.more()) return false;
+        pre = first.pre();
+        for(int i = 1; i < sl;) {
+          if(!iters[i].skipTo(pre)) return false;
+          final int p = iters[i].pre();
+          if(p == pre) {
+            i++;
+          } else {
+            // advance all lists to the larger pre value
+            if(!first.skipTo(p)) return false;
+            pre = first.pre();
+            i = 1;
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public int pre() {
+        return pre;
+      }
+
+      @Override
+      public int size() {
+        return iters[0].size();
+      }
+    };
+  }
+
+  /**
+   * Checks if the specified text matches the search string.
+   * @param text text
+   * @return result of check
+   */
+  private boolean matches(final byte[] text) {
+    switch(function) {
+      case CONTAINS:    return contains(text, search);
+      case STARTS_WITH: return startsWith(text, search);
+      case ENDS_WITH:   return endsWith(text, search);
+      default:          return pattern.matcher(string(text)).find();
+    }
+  }
+
+  @Override
+  public Expr inline(final InlineContext ic) throws QueryException {
+    return inlineDb(ic) ? optimize(ic.cc) : null;
+  }
+
+  @Override
+  public Expr copy(final CompileContext cc, final IntObjMap<Var> vm) {
+    return copyType(new TrigramAccess(info, function, search, literal, pattern,
+        db.copy(cc, vm)));
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if(this == obj) return true;
+    if(!(obj instanceof TrigramAccess)) return false;
+    final TrigramAccess ta = (TrigramAccess) obj;
+    return function == ta.function && eq(search, ta.search) && super.equals(obj);
+  }
+
+  @Override
+  public void toXml(final QueryPlan plan) {
+    plan.add(plan.create(this, INDEX, IndexType.TRIGRAM, FUNCTION, function.args(" .",
+        Str.get(search)).trim()), db);
+  }
+
+  @Override
+  public void toString(final QueryString qs) {
+    qs.function(Function._DB_GET, db).token('/').token('/').token("text()").
+      bracket(function.args(" .", Str.get(search)).trim());
+  }
+}
@@ -403,11 +403,25 @@ public abstract class Path extends ParseExpr {
    * @return statistics or {@code null}
    */
   public ArrayList<Stats> pathStats() {
+    final ArrayList<PathNode> nodes = pathLeaves();
+    if(nodes == null) return null;
+
+    final ArrayList<Stats> stats = new ArrayList<>(nodes.size());
+    for(final PathNode node : nodes) stats.add(node.stats);
+    return stats;
+  }
+
+  /**
+   * Returns the text and attribute path nodes that will result from this path.
+   * If an element is addressed, its text child will be returned.
+   * @return path nodes or {@code null}
+   */
+  public ArrayList<PathNode> pathLeaves() {
     final ArrayList<PathNode> nodes = pathNodes(root, true);
     if(nodes == null) return null;
 
     // loop through all nodes
-    final ArrayList<Stats> stats = new ArrayList<>();
+    final ArrayList<PathNode> leaves = new ArrayList<>();
     for(PathNode node : nodes) {
       // retrieve text child if addressed node is an element
       if(node.kind == Data.ELEM) {
@@ -420,9 +434,9 @@ public abstract class Path extends ParseExpr {
       // check if distinct values are available
       final int kind = node.kind;
       if(kind != Data.TEXT && kind != Data.ATTR) return null;
-      stats.add(node.stats);
+      leaves.add(node);
     }
-    return stats;
+    return leaves;
   }
 
   /**
@@ -729,6 +743,16 @@ public abstract class Path extends ParseExpr {
    * 8. @a[. = '...']        : IA('...', @a)</pre>
    *
    * Queries of type 1, 3, 5 will not yield any results if the string to be compared is empty.
+   * If a path value index exists for the name of the step and the names of the compared children,
+   * queries of type 4 and 7 and pairs of such predicates will directly be rewritten to
+   * {@link PathValueAccess} instances:
+   *
+   * <pre>
+   * 9. A[B = '...']            : PVA(A/B, '...')
+   * 10. A[B = '...'][C = '...'] : PVA(A/B+C, '...', '...')</pre>
+   *
+   * If other predicates of the same step can be rewritten for index access with similar costs,
+   * the results of all index accesses will be intersected.
    *
    * @param cc compilation context
    * @param rt root at compile time (can be {@code null})
@@ -741,12 +765,14 @@ public abstract class Path extends ParseExpr {
 
     // cache index access costs
     IndexInfo index = null;
-    // cheapest predicate and step
-    int predIndex = 0, stepIndex = 0;
+    // cheapest predicate and step, second predicate of composite index access
+    int predIndex = 0, stepIndex = 0, predIndex2 = -1;
 
     // check if path can be converted to an index access
     final Data data = data();
     final int sl = steps.length;
+    // index accesses of all predicates
+    final IndexInfo[][] infos = new IndexInfo[sl][];
     for(int s = 0; s < sl; s++) {
       // only accept descendant steps without positional predicates
       // Example for position predicate: child:x[1] != parent::x[1]
@@ -761,9 +787,13 @@ public abstract class Path extends ParseExpr {
           new IndexDynDb(root == null ? new ContextValue(info) : root, info);
 
         // choose the cheapest index access
+        infos[s] = new IndexInfo[el];
+        final IndexInfo[] checked = new IndexInfo[el];
         for(int e = 0; e < el; e++) {
           final IndexInfo ii = new IndexInfo(db, cc, step);
+          checked[e] = ii;
           if(!step.exprs[e].indexAccessible(ii)) continue;
+          infos[s][e] = ii;
 
           if(ii.costs.results() == 0) {
             // no results...
@@ -775,6 +805,25 @@ public abstract class Path extends ParseExpr {
             index = ii;
             predIndex = e;
             stepIndex = s;
+            predIndex2 = -1;
+          }
+        }
+        // combine two predicates for path value index access with composite keys
+        for(int e1 = 0; e1 < el; e1++) {
+          for(int e2 = e1 + 1; e2 < el; e2++) {
+            final IndexInfo ii = new IndexInfo(db, cc, step);
+            if(!ii.create(checked[e1], checked[e2], info)) continue;
+
+            if(ii.costs.results() == 0) {
+              cc.info(QueryText.OPTNORESULTS_X, step);
+              return Empty.VALUE;
+            }
+            if(index == null || index.costs.compareTo(ii.costs) >= 0) {
+              index = ii;
+              predIndex = e1;
+              stepIndex = s;
+              predIndex2 = e2;
+            }
           }
         }
       }
@@ -788,15 +837,33 @@ public abstract class Path extends ParseExpr {
     // rewrite for index access
     cc.info(index.optInfo);
 
+    // intersect results with index accesses of other predicates with similar costs
+    // (skipped if scores are computed, which are only returned by the first operand)
+    final ExprList accesses = new ExprList().add(index.expr), preds = new ExprList();
+    final IndexInfo[] stepInfos = infos[stepIndex];
+    final int el = stepInfos.length;
+    for(int e = 0; e < el; e++) {
+      final IndexInfo ii = stepInfos[e];
+      if(e == predIndex || e == predIndex2) continue;
+      if(ii != null && !cc.qc.scoring && index.costs.intersect(ii.costs)) {
+        cc.info(ii.optInfo);
+        accesses.add(ii.expr);
+      } else {
+        preds.add(index.step.exprs[e]);
+      }
+    }
+    final Expr indexExpr = accesses.size() == 1 ? index.expr :
+      new Intersect(info, accesses.finish()).optimize(cc);
+
     // create new root expression
     final ExprList indexSteps = new ExprList();
     final Expr indexRoot;
-    if(index.expr instanceof Path) {
-      final Path path = (Path) index.expr;
+    if(indexExpr instanceof Path) {
+      final Path path = (Path) indexExpr;
       indexRoot = path.root;
       indexSteps.add(path.steps);
     } else {
-      indexRoot = index.expr;
+      indexRoot = indexExpr;
     }
     // only one hit: update sequence type
     if(index.costs.results() == 1 && indexRoot instanceof ParseExpr) {
@@ -843,7 +910,7 @@ public abstract class Path extends ParseExpr {
       lastPreds.add(cc.get(indexStep != null ? indexStep : indexRoot,
         () -> get(cc, info, null, invSteps.finish())));
     }
-    lastPreds.add(Array.remove(index.step.exprs, predIndex));
+    lastPreds.add(preds);
 
     // attach predicates to last step or new self::node() step
     if(!lastPreds.isEmpty()) {
@@ -5,6 +5,7 @@ import org.basex.query.expr.*;
 import org.basex.query.func.*;
 import org.basex.query.util.*;
 import org.basex.query.util.collation.*;
+import org.basex.query.util.index.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.seq.*;
 import org.basex.util.*;
@@ -36,4 +37,13 @@ public final class FnContains extends StandardFunc {
     }
     return this;
   }
+
+  @Override
+  public boolean indexAccessible(final IndexInfo ii) throws QueryException {
+    // support limited to default collation and static strings
+    final Expr value = arg(0), substring = arg(1);
+    if(defined(2) || !(substring instanceof Str)) return false;
+    final byte[] search = ((Str) substring).string();
+    return ii.create(value, Function.CONTAINS, search, search, null, info);
+  }
 }
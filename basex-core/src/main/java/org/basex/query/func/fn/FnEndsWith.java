@@ -1,8 +1,10 @@
 package org.basex.query.func.fn;
 
 import org.basex.query.*;
+import org.basex.query.expr.*;
 import org.basex.query.func.*;
 import org.basex.query.util.collation.*;
+import org.basex.query.util.index.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 
@@ -22,4 +24,13 @@ public final class FnEndsWith extends StandardFunc {
     return Bln.get(coll == null ? Token.endsWith(value, substring) :
       coll.endsWith(value, substring, info));
   }
+
+  @Override
+  public boolean indexAccessible(final IndexInfo ii) throws QueryException {
+    // support limited to default collation and static strings
+    final Expr value = arg(0), substring = arg(1);
+    if(defined(2) || !(substring instanceof Str)) return false;
+    final byte[] search = ((Str) substring).string();
+    return ii.create(value, Function.ENDS_WITH, search, search, null, info);
+  }
 }
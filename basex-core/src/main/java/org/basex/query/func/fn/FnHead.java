@@ -7,6 +7,7 @@ import java.util.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.List;
+import org.basex.query.expr.gflwor.*;
 import org.basex.query.func.*;
 import org.basex.query.func.file.*;
 import org.basex.query.value.item.*;
@@ -62,6 +63,12 @@ public final class FnHead extends StandardFunc {
       // static integer will always be greater than 1
       if(input.arg(1) instanceof Int) return cc.function(HEAD, info, input.arg(0));
     }
+    // head(for $n score $s in ft:search(...) order by $s descending return $n)
+    // ->  for $n score $s in top(ft:search(...), 1) return $n
+    if(input instanceof GFLWOR) {
+      final Expr ex = ((GFLWOR) input).topK(1, cc);
+      if(ex != null) return ex;
+    }
     // head(file:read-text-lines(E))  ->  file:read-text-lines(E, 0, 1)
     if(_FILE_READ_TEXT_LINES.is(input))
       return FileReadTextLines.opt(this, 0, 1, cc);
@@ -5,6 +5,7 @@ import static org.basex.util.Token.*;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.util.index.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
@@ -44,4 +45,14 @@ public final class FnMatches extends RegEx {
     }
     return this;
   }
+
+  @Override
+  public boolean indexAccessible(final IndexInfo ii) throws QueryException {
+    // support limited to static patterns without flags that start with a literal string
+    final Expr value = arg(0), pattern = arg(1);
+    if(defined(2) || !(pattern instanceof Str)) return false;
+    final byte[] regex = ((Str) pattern).string(), literal = literal(regex);
+    return length(literal) >= 3 && ii.create(value, MATCHES, regex, literal,
+        pattern(regex, null, ii.cc.qc, false), info);
+  }
 }
@@ -7,6 +7,7 @@ import java.util.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.List;
+import org.basex.query.expr.gflwor.*;
 import org.basex.query.func.*;
 import org.basex.query.func.file.*;
 import org.basex.query.iter.*;
@@ -209,6 +210,12 @@ public class FnSubsequence extends StandardFunc {
         return sr.start == 0 ? input : Empty.VALUE;
       }
 
+      // subsequence(for $n score $s in ft:search(...) order by $s descending return $n, 1, 10)
+      // ->  for $n score $s in top(ft:search(...), 10) return $n
+      if(sr.start == 0 && input instanceof GFLWOR) {
+        final Expr ex = ((GFLWOR) input).topK(sr.end, cc);
+        if(ex != null) return ex;
+      }
       if(sr.length == 1) {
         // subsequence(E, 1, 1)  ->  head(E)
         // subsequence(E, pos, 1)  ->  items-at(E, pos)
@@ -6,6 +6,8 @@ import static org.basex.query.value.type.AtomType.*;
 import java.math.*;
 import java.util.*;
 
+import org.basex.data.*;
+import org.basex.index.path.*;
 import org.basex.index.stats.*;
 import org.basex.query.*;
 import org.basex.query.CompileContext.*;
@@ -79,12 +81,14 @@ public class FnSum extends StandardFunc {
         if(type.isNumber()) return avg ? item : Calc.MULT.eval(item, Int.get(seq.size()), info);
       }
     } else if(values instanceof Path) {
-      final ArrayList<Stats> list = ((Path) values).pathStats();
-      if(list != null) {
+      final ArrayList<PathNode> nodes = ((Path) values).pathLeaves();
+      if(nodes != null) {
         double sum = 0;
         long count = 0;
-        for(final Stats stats : list) {
-          if(!StatsType.isNumeric(stats.type) || !StatsType.isCategory(stats.type)) return this;
+        for(final PathNode node : nodes) {
+          final Stats stats = node.stats;
+          if(!StatsType.isNumeric(stats.type)) return this;
+          if(!StatsType.isCategory(stats.type)) return columns(values.data(), nodes, avg);
           for(final byte[] value : stats.values) {
             if(value.length == 0) return null;
             final long c = stats.values.get(value);
@@ -98,6 +102,19 @@ public class FnSum extends StandardFunc {
     return null;
   }
 
+  /**
+   * Computes the result from the numeric columns of a database.
+   * @param data data reference
+   * @param nodes leaf path nodes
+   * @param avg calculate average
+   * @return result or this expression
+   */
+  private Expr columns(final Data data, final ArrayList<PathNode> nodes, final boolean avg) {
+    final NumericColumns columns = data.columns();
+    final double[] sum = columns != null ? columns.sum(nodes) : null;
+    return sum == null ? this : Dbl.get(avg ? sum[0] / sum[1] : sum[0]);
+  }
+
   @Override
   protected final void simplifyArgs(final CompileContext cc) throws QueryException {
     final Type type = arg(0).seqType().type;
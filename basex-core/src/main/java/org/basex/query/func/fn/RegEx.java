@@ -87,6 +87,23 @@ abstract class RegEx extends StandardFunc {
     return separator == -1 || contains(REGEX_CHARS, separator) ? -1 : separator;
   }
 
+  /**
+   * Returns the literal prefix of a regular expression, which must be contained in all matches.
+   * @param pattern pattern
+   * @return literal prefix (empty if the pattern contains alternatives)
+   */
+  static byte[] literal(final byte[] pattern) {
+    if(contains(pattern, '|')) return EMPTY;
+    final int pl = pattern.length, s = pl > 0 && pattern[0] == '^' ? 1 : 0;
+    int e = s;
+    while(e < pl && !contains(REGEX_CHARS, pattern[e])) e++;
+    // the last character is optional if it is followed by a quantifier
+    if(e < pl && (pattern[e] == '?' || pattern[e] == '*' || pattern[e] == '{')) {
+      while(e > s && (pattern[--e] & 0xC0) == 0x80);
+    }
+    return substring(pattern, s, e);
+  }
+
   /**
    * Compiles this regular expression to a {@link Pattern}.
    * @param regex regular expression to parse
@@ -1,5 +1,7 @@
 package org.basex.query.func.ft;
 
+import java.util.function.*;
+
 import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.CompileContext.*;
@@ -20,6 +22,17 @@ import org.basex.util.ft.*;
 public final class FtSearch extends FtAccess {
   @Override
   public NodeIter iter(final QueryContext qc) throws QueryException {
+    return iter(qc, null);
+  }
+
+  /**
+   * Returns an iterator, which skips nodes with too small scores.
+   * @param qc query context
+   * @param min minimum score (can be {@code null})
+   * @return iterator
+   * @throws QueryException query exception
+   */
+  public NodeIter iter(final QueryContext qc, final DoubleSupplier min) throws QueryException {
     final Data data = toData(qc);
     final Value query = arg(1).value(qc);
     final FtIndexOptions options = toOptions(arg(2), new FtIndexOptions(), true, qc);
@@ -29,7 +42,7 @@ public final class FtSearch extends FtAccess {
     final FTOpt opt = ftOpt(options, qc).assign(data.meta);
 
     final FTWords ftw = new FTWords(info, db, query, mode).ftOpt(opt).optimize(qc);
-    return new FTIndexAccess(info, ftExpr(ftw, options), db).iter(qc);
+    return new FTIndexAccess(info, ftExpr(ftw, options), db).iter(qc, min);
   }
 
   @Override
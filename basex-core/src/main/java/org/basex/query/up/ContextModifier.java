@@ -123,9 +123,15 @@ abstract class ContextModifier {
       throw DB_LOCK2_X.get(null, ex);
     } finally {
       // remove locks: in case of a crash, remove only already acquired write locks
+      IOException exc = null;
       for(final Data data : datas) {
-        data.finishUpdate(ctx.options);
+        try {
+          data.finishUpdate(ctx.options);
+        } catch(final IOException ex) {
+          exc = ex;
+        }
       }
+      if(exc != null) throw UPDBERROR_X.get(null, exc);
     }
 
     // apply remaining updates based on database names
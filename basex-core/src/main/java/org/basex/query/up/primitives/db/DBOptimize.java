@@ -46,7 +46,9 @@ public final class DBOptimize extends DBUpdate {
 
     final ArrayList<Option<?>> supported = new ArrayList<>();
     for(final Option<?> option : MainOptions.INDEXING) {
-      if(all || option != MainOptions.UPDINDEX) supported.add(option);
+      if(all || option != MainOptions.UPDINDEX && option != MainOptions.COMPRESSDATA) {
+        supported.add(option);
+      }
     }
 
     // create options, based on global defaults
@@ -55,13 +57,19 @@ public final class DBOptimize extends DBUpdate {
     dbopts.assignIfAbsent(MainOptions.TEXTINDEX, meta.createtext);
     dbopts.assignIfAbsent(MainOptions.ATTRINDEX, meta.createattr);
     dbopts.assignIfAbsent(MainOptions.TOKENINDEX, meta.createtoken);
+    dbopts.assignIfAbsent(MainOptions.TRIGRAMINDEX, meta.createtrigram);
+    dbopts.assignIfAbsent(MainOptions.PATHVALUEINDEX, meta.createpathvalue);
     dbopts.assignIfAbsent(MainOptions.FTINDEX, meta.createft);
     dbopts.assignIfAbsent(MainOptions.TEXTINCLUDE, meta.textinclude);
     dbopts.assignIfAbsent(MainOptions.ATTRINCLUDE, meta.attrinclude);
     dbopts.assignIfAbsent(MainOptions.TOKENINCLUDE, meta.tokeninclude);
+    dbopts.assignIfAbsent(MainOptions.TRIGRAMINCLUDE, meta.trigraminclude);
+    dbopts.assignIfAbsent(MainOptions.PATHVALUEINCLUDE, meta.pathvalueinclude);
     dbopts.assignIfAbsent(MainOptions.FTINCLUDE, meta.ftinclude);
     dbopts.assignIfAbsent(MainOptions.UPDINDEX, meta.updindex);
     dbopts.assignIfAbsent(MainOptions.AUTOOPTIMIZE, meta.autooptimize);
+    dbopts.assignIfAbsent(MainOptions.COMPRESSDATA, meta.compressdata);
+    dbopts.assignIfAbsent(MainOptions.NUMCOLUMNS, meta.numcolumns);
     dbopts.assignIfAbsent(MainOptions.SPLITSIZE, meta.splitsize);
     dbopts.assignIfAbsent(MainOptions.MAXCATS, meta.maxcats);
     dbopts.assignIfAbsent(MainOptions.MAXLEN, meta.maxlen);
@@ -79,6 +87,8 @@ public final class DBOptimize extends DBUpdate {
     final String textinclude = options.get(MainOptions.TEXTINCLUDE);
     final String attrinclude = options.get(MainOptions.ATTRINCLUDE);
     final String tokeninclude = options.get(MainOptions.TOKENINCLUDE);
+    final String trigraminclude = options.get(MainOptions.TRIGRAMINCLUDE);
+    final String pathvalueinclude = options.get(MainOptions.PATHVALUEINCLUDE);
     final String ftinclude = options.get(MainOptions.FTINCLUDE);
     final boolean stemming = options.get(MainOptions.STEMMING);
     final boolean casesens = options.get(MainOptions.CASESENS);
@@ -91,22 +101,30 @@ public final class DBOptimize extends DBUpdate {
     final boolean rebuildText = !meta.textinclude.equals(textinclude) || rebuild;
     final boolean rebuildAttr = !meta.attrinclude.equals(attrinclude) || rebuild;
     final boolean rebuildToken = !meta.tokeninclude.equals(tokeninclude);
+    final boolean rebuildTrigram = !meta.trigraminclude.equals(trigraminclude);
+    final boolean rebuildPathValue = !meta.pathvalueinclude.equals(pathvalueinclude) || rebuild;
     final boolean rebuildFt = !meta.ftinclude.equals(ftinclude) || rebuild ||
         stemming != meta.stemming || casesens != meta.casesens || diacritics != meta.diacritics ||
-        !language.equals(meta.language) || !stopwords.equals(meta.stopwords);
+        !language.equals(meta.language) || !stopwords.equals(meta.stopwords) ||
+        meta.ftindex && meta.updftindex != options.get(MainOptions.UPDINDEX);
 
     // assign options to meta data
     meta.createtext = options.get(MainOptions.TEXTINDEX);
     meta.createattr = options.get(MainOptions.ATTRINDEX);
     meta.createtoken = options.get(MainOptions.TOKENINDEX);
+    meta.createtrigram = options.get(MainOptions.TRIGRAMINDEX);
+    meta.createpathvalue = options.get(MainOptions.PATHVALUEINDEX);
     meta.createft = options.get(MainOptions.FTINDEX);
     meta.maxcats = options.get(MainOptions.MAXCATS);
     meta.updindex = options.get(MainOptions.UPDINDEX);
     meta.autooptimize = options.get(MainOptions.AUTOOPTIMIZE);
+    meta.numcolumns = options.get(MainOptions.NUMCOLUMNS);
     meta.splitsize = options.get(MainOptions.SPLITSIZE);
     meta.textinclude = textinclude;
     meta.attrinclude = attrinclude;
     meta.tokeninclude = tokeninclude;
+    meta.trigraminclude = trigraminclude;
+    meta.pathvalueinclude = pathvalueinclude;
     meta.maxlen = maxlen;
     meta.ftinclude = ftinclude;
     meta.stemming   = stemming;
@@ -115,10 +133,18 @@ public final class DBOptimize extends DBUpdate {
     meta.language   = language;
     meta.stopwords  = stopwords;
 
+    // storage format is only changed if the database is rebuilt
+    final boolean compressdata = meta.compressdata;
     try {
-      if(all) OptimizeAll.optimizeAll(data, qc.context, options, null);
-      else Optimize.optimize(data, rebuildText, rebuildAttr, rebuildToken, rebuildFt, null);
+      if(all) {
+        meta.compressdata = options.get(MainOptions.COMPRESSDATA);
+        OptimizeAll.optimizeAll(data, qc.context, options, null);
+      } else {
+        Optimize.optimize(data, rebuildText, rebuildAttr, rebuildToken, rebuildTrigram,
+          rebuildPathValue, rebuildFt, null);
+      }
     } catch(final IOException ex) {
+      meta.compressdata = compressdata;
       throw UPDBERROR_X.get(info, ex);
     }
 
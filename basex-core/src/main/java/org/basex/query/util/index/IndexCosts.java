@@ -16,6 +16,8 @@ public final class IndexCosts implements Comparable<IndexCosts> {
   public static final IndexCosts ENFORCE_DYNAMIC = new IndexCosts(-1);
   /** No results. */
   public static final IndexCosts ZERO = new IndexCosts(0);
+  /** Maximum ratio between the results of index accesses that will be intersected. */
+  private static final int INTERSECT = 16;
 
   /**
    * Number of expected results.
@@ -73,6 +75,17 @@ public final class IndexCosts implements Comparable<IndexCosts> {
     return results > data.meta.size;
   }
 
+  /**
+   * Checks if the results of this index access should be intersected with the results of
+   * another index access. This is the case if the number of expected results of the other
+   * access is known and not much larger.
+   * @param ic costs of the other index access
+   * @return result of check
+   */
+  public boolean intersect(final IndexCosts ic) {
+    return results > 0 && ic.results > 0 && ic.results / INTERSECT < results;
+  }
+
   @Override
   public int compareTo(final IndexCosts ic) {
     return results - ic.results;
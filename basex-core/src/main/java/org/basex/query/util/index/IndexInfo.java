@@ -2,6 +2,8 @@ package org.basex.query.util.index;
 
 import static org.basex.query.QueryText.*;
 
+import java.util.regex.*;
+
 import org.basex.core.*;
 import org.basex.data.*;
 import org.basex.index.*;
@@ -11,6 +13,7 @@ import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.index.*;
 import org.basex.query.expr.path.*;
+import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
 import org.basex.query.value.*;
@@ -18,6 +21,7 @@ import org.basex.query.value.item.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * This class contains methods for storing information on new index expressions.
@@ -46,6 +50,12 @@ public final class IndexInfo {
 
   /** Predicate expression. */
   private IndexPred pred;
+  /** Name of a child that is compared with a value (can be {@code null}). */
+  private byte[] child;
+  /** Value that is compared with the child (can be {@code null}). */
+  private Expr value;
+  /** Comparison of the child and the value (can be {@code null}). */
+  private Expr comparison;
 
   /**
    * Constructor.
@@ -99,7 +109,7 @@ public final class IndexInfo {
 
     // check if the index contains result for the specified elements or attributes
     final IndexType it = type != null ? type : text ? IndexType.TEXT : IndexType.ATTRIBUTE;
-    if(text ? it != IndexType.TEXT && it != IndexType.FULLTEXT :
+    if(text ? it != IndexType.TEXT && it != IndexType.FULLTEXT && it != IndexType.TRIGRAM :
       it != IndexType.TOKEN && it != IndexType.ATTRIBUTE) return null;
 
     // database is known at compile time: perform additional checks
@@ -197,6 +207,161 @@ public final class IndexInfo {
     return true;
   }
 
+  /**
+   * Tries to rewrite a string function for trigram index access.
+   * @param input input expression
+   * @param function function to be checked
+   * @param search search string (substring or regular expression)
+   * @param literal literal string that is contained in all results
+   * @param pattern regular expression pattern (can be {@code null})
+   * @param ii input info
+   * @return success flag
+   * @throws QueryException query exception
+   */
+  public boolean create(final Expr input, final Function function, final byte[] search,
+      final byte[] literal, final Pattern pattern, final InputInfo ii) throws QueryException {
+
+    // strings with less than three characters cannot be looked up
+    final IndexSearch[] searches = TrigramAccess.searches(literal);
+    if(searches.length == 0 || type(input, IndexType.TRIGRAM) == null) return false;
+
+    final Data data = db.data();
+    if(data == null && !enforce()) return false;
+
+    // the smallest id list limits the number of results
+    IndexCosts ic = null;
+    for(final IndexSearch is : searches) {
+      final IndexCosts c = costs(data, is);
+      if(c == null) return false;
+      if(ic == null || c.compareTo(ic) < 0) ic = c;
+    }
+    costs = ic;
+    create(new TrigramAccess(ii, function, search, literal, pattern, db), true,
+        Util.info(OPTINDEX_X_X, IndexType.TRIGRAM, function.args(" .", Str.get(search)).trim()),
+        ii);
+    return true;
+  }
+
+  /**
+   * Tries to rewrite an equality comparison with a child of the current step for path value
+   * index access. Example: {@code //order[status = 'open']}.
+   * @param input input expression (path to the child)
+   * @param search search expression
+   * @param cmp comparison that will be replaced by the index access
+   * @param ii input info
+   * @return success flag
+   * @throws QueryException query exception
+   */
+  public boolean create(final Expr input, final Expr search, final Expr cmp, final InputInfo ii)
+      throws QueryException {
+
+    // remember comparison: it may be combined with another one to a composite key
+    final byte[] name = child(input);
+    if(name == null || !(search instanceof Value)) return false;
+    child = name;
+    value = search;
+    comparison = cmp;
+    return create(new byte[][] { name }, new Expr[] { search }, cmp, ii);
+  }
+
+  /**
+   * Tries to rewrite the equality comparisons of two predicates of the current step for
+   * path value index access with composite keys.
+   * Example: {@code //order[customer = 'A'][date = '2023-01-01']}.
+   * @param ii1 index info of the first predicate
+   * @param ii2 index info of the second predicate
+   * @param ii input info
+   * @return success flag
+   * @throws QueryException query exception
+   */
+  public boolean create(final IndexInfo ii1, final IndexInfo ii2, final InputInfo ii)
+      throws QueryException {
+
+    if(ii1.child == null || ii2.child == null) return false;
+    final byte[][] children = { ii1.child, ii2.child };
+    final Expr[] values = { ii1.value, ii2.value };
+    return create(children, values, new And(ii, ii1.comparison, ii2.comparison), ii);
+  }
+
+  /**
+   * Tries to rewrite equality comparisons with children of the current step for path value
+   * index access.
+   * @param children names of the children (attribute names are prefixed with '@')
+   * @param searches search values
+   * @param pred predicate that will be replaced by the index access
+   * @param ii input info
+   * @return success flag
+   * @throws QueryException query exception
+   */
+  private boolean create(final byte[][] children, final Expr[] searches, final Expr pred,
+      final InputInfo ii) throws QueryException {
+
+    // the database must be known at compile time, as the paths of the index may differ
+    final Data data = db.data();
+    if(data == null || !data.meta.index(IndexType.PATHVALUE) || !data.nspaces.isEmpty() ||
+        !(step.test instanceof NameTest)) return false;
+    final NameTest nt = (NameTest) step.test;
+    if(nt.type != NodeType.ELEMENT || nt.part() != NamePart.LOCAL) return false;
+
+    // find indexed path: check all orders of the children
+    final IndexPaths paths = new IndexPaths(data);
+    byte[] path = paths.path(nt.local, children);
+    Expr[] values = searches;
+    if(path == null && children.length == 2) {
+      path = paths.path(nt.local, children[1], children[0]);
+      values = new Expr[] { searches[1], searches[0] };
+    }
+    if(path == null) return false;
+
+    // create keys for all combinations of the search strings
+    TokenList keys = new TokenList().add(path);
+    for(final Expr search : values) {
+      final TokenList list = new TokenList();
+      final Iter iter = search.iter(cc.qc);
+      for(Item item; (item = cc.qc.next(iter)) != null;) {
+        // only strings and untyped items are supported; empty and long strings are not indexed
+        if(!item.type.isStringOrUntyped()) return false;
+        final byte[] token = item.string(ii);
+        final int tl = token.length;
+        if(tl == 0 || tl > data.meta.maxlen) return false;
+        for(final byte[] key : keys) list.add(IndexPaths.key(key, token));
+      }
+      keys = list;
+    }
+
+    IndexCosts ic = IndexCosts.ZERO;
+    final TokenSet set = new TokenSet();
+    for(final byte[] key : keys) {
+      if(set.add(key)) ic = IndexCosts.add(ic, costs(data, new StringToken(IndexType.PATHVALUE,
+          key)));
+    }
+    costs = ic;
+
+    final PathValueAccess pva = new PathValueAccess(ii, nt.local, set, pred, db);
+    if(set.size() == 1) pva.exprType.assign(pva.seqType(), costs.results());
+    expr = pva;
+    optInfo = Util.info(OPTINDEX_X_X, IndexType.PATHVALUE, pred);
+    return true;
+  }
+
+  /**
+   * Returns the name of the child that is addressed by the specified expression.
+   * @param input input expression
+   * @return name of child element or attribute (prefixed with '@'), or {@code null}
+   */
+  private static byte[] child(final Expr input) {
+    if(!(input instanceof AxisPath)) return null;
+    final AxisPath path = (AxisPath) input;
+    if(path.root != null || path.steps.length != 1) return null;
+    final Step st = path.step(0);
+    if(st.exprs.length != 0 || !(st.test instanceof NameTest)) return null;
+    final NameTest nt = (NameTest) st.test;
+    if(nt.part() != NamePart.LOCAL) return null;
+    return st.axis == Axis.CHILD && nt.type == NodeType.ELEMENT ? nt.local :
+      st.axis == Axis.ATTRIBUTE && nt.type == NodeType.ATTRIBUTE ? Token.concat("@", nt.local) :
+      null;
+  }
+
   /**
    * Creates an index expression with an inverted axis path.
    * @param root new root expression
@@ -17,6 +17,8 @@ public final class FTNode extends DBNode {
   private final int tl;
   /** Total number of indexed results. */
   private final int is;
+  /** Number of text nodes with indexed results. */
+  private final int nodes;
   /** Full-text matches. */
   private FTMatches matches;
   /** Score value. */
@@ -28,7 +30,7 @@ public final class FTNode extends DBNode {
    * @param score score value
    */
   public FTNode(final FTMatches matches, final double score) {
-    this(matches, null, 0, 0, 0);
+    this(matches, null, 0, 0, 0, 0);
     this.score = score;
   }
 
@@ -39,14 +41,16 @@ public final class FTNode extends DBNode {
    * @param pre pre value
    * @param tl token length
    * @param is number of indexed results
+   * @param nodes number of text nodes with indexed results
    */
   public FTNode(final FTMatches matches, final Data data, final int pre, final int tl,
-      final int is) {
+      final int is, final int nodes) {
 
     super(data, pre, null, NodeType.TEXT);
     this.matches = matches;
     this.tl = tl;
     this.is = is;
+    this.nodes = nodes;
   }
 
   /**
@@ -69,11 +73,38 @@ public final class FTNode extends DBNode {
   public double score() {
     if(score == null) {
       if(matches == null) return 0;
-      score = Scoring.textNode(matches.size(), is, tl, data().textLen(pre(), true));
+      final Data data = data();
+      final int length = data.textLen(pre(), true);
+      final MetaData meta = data.meta;
+      score = meta.ftnodes > 0 ?
+        Scoring.bm25(matches.size(), nodes, meta.ftnodes, length, average(meta)) :
+        Scoring.textNode(matches.size(), is, tl, length);
     }
     return score;
   }
 
+  /**
+   * Returns an upper bound for the score value. The bound is computed without accessing the
+   * text of the node.
+   * @return upper bound, or {@link Double#MAX_VALUE} if no bound can be computed
+   */
+  public double maxScore() {
+    if(score != null) return score;
+    if(matches == null) return 0;
+    final MetaData meta = data().meta;
+    return meta.ftnodes > 0 ?
+      Scoring.bm25(matches.size(), nodes, meta.ftnodes, 0, average(meta)) : Double.MAX_VALUE;
+  }
+
+  /**
+   * Returns the average length of the indexed text nodes.
+   * @param meta meta data
+   * @return average length
+   */
+  private static double average(final MetaData meta) {
+    return Math.max(1, (double) meta.ftlength / meta.ftnodes);
+  }
+
   /**
    * Sets a new score value.
    * @param s score value
@@ -157,8 +157,12 @@ public final class ServerQuery extends Job {
       if(qp != null) {
         if(parsed) {
           qp.close();
-          qp.unregister(ctx);
           parsed = false;
+          try {
+            qp.unregister(ctx);
+          } catch(final IOException ex) {
+            throw new BaseXException(ex);
+          }
         }
         qp = null;
         popJob();
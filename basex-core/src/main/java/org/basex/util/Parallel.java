@@ -0,0 +1,79 @@
+package org.basex.util;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs a list of tasks in parallel.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class Parallel {
+  /** Hidden constructor. */
+  private Parallel() { }
+
+  /**
+   * Task to be run.
+   */
+  @FunctionalInterface
+  public interface Task {
+    /**
+     * Runs the task.
+     * @throws IOException I/O exception
+     */
+    void run() throws IOException;
+  }
+
+  /**
+   * Returns the normalized number of threads.
+   * @param threads number of threads (values smaller than 1: number of processors)
+   * @return number of threads
+   */
+  public static int threads(final int threads) {
+    return threads < 1 ? Runtime.getRuntime().availableProcessors() : Math.min(0x7FFF, threads);
+  }
+
+  /**
+   * Runs the specified tasks in parallel and waits until all of them have been finished.
+   * If tasks fail, the first error will be raised.
+   * @param tasks tasks
+   * @throws IOException I/O exception
+   */
+  public static void run(final List<Task> tasks) throws IOException {
+    final int ts = tasks.size();
+    if(ts == 1) {
+      tasks.get(0).run();
+      return;
+    }
+
+    final ForkJoinPool pool = new ForkJoinPool(Math.max(1, ts));
+    try {
+      final ArrayList<Future<?>> futures = new ArrayList<>(ts);
+      for(final Task task : tasks) {
+        futures.add(pool.submit(() -> {
+          task.run();
+          return null;
+        }));
+      }
+      // wait for all tasks, remember first error
+      Throwable error = null;
+      for(final Future<?> future : futures) {
+        try {
+          future.get();
+        } catch(final ExecutionException ex) {
+          if(error == null) error = ex.getCause();
+        } catch(final InterruptedException ex) {
+          if(error == null) error = ex;
+        }
+      }
+      if(error instanceof IOException) throw (IOException) error;
+      if(error instanceof RuntimeException) throw (RuntimeException) error;
+      if(error instanceof Error) throw (Error) error;
+      if(error != null) throw new IOException(error);
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
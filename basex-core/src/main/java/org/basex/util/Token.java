@@ -10,6 +10,7 @@ import java.util.function.*;
 import org.basex.io.out.*;
 import org.basex.query.util.*;
 import org.basex.query.util.collation.*;
+import org.basex.util.hash.*;
 import org.basex.util.list.*;
 
 /**
@@ -1125,6 +1126,26 @@ public final class Token {
     return Array.copyOf(tokens, tl);
   }
 
+  /**
+   * Returns the distinct trigrams of a token. A trigram is a substring with three characters.
+   * @param token token
+   * @return trigrams in the order of their first occurrence
+   *   (empty if the token has less than three characters)
+   */
+  public static byte[][] distinctTrigrams(final byte[] token) {
+    final TokenList list = new TokenList();
+    final TokenSet set = new TokenSet();
+    final int tl = token.length;
+    for(int s = 0; s < tl; s += cl(token, s)) {
+      int e = s, c = 0;
+      for(; c < 3 && e < tl; c++) e += cl(token, e);
+      if(c < 3) break;
+      final byte[] trigram = substring(token, s, e);
+      if(set.add(trigram)) list.add(trigram);
+    }
+    return list.finish();
+  }
+
   /**
    * Checks if the specified token has only whitespaces.
    * @param token token
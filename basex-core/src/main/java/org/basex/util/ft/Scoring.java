@@ -11,6 +11,10 @@ import static java.lang.StrictMath.*;
 public final class Scoring {
   /** Logarithmic base for calculating the score value. */
   private static final double LOG = Math.E - 1;
+  /** BM25: term frequency saturation. */
+  private static final double K1 = 1.2;
+  /** BM25: length normalization. */
+  private static final double B = 0.75;
 
   /** Private constructor. */
   private Scoring() { }
@@ -58,4 +62,24 @@ public final class Scoring {
       final int length) {
     return max((double) number / size, log(token * number + 1) / log(length + 1));
   }
+
+  /**
+   * Calculates the Okapi BM25 score for a text node, normalized to the range {@code [0, 1)}.
+   * If {@code 0} is supplied as text length, an upper bound for all text nodes with the same
+   * number of matches is returned.
+   * @param number number of matches in the text node
+   * @param nodes number of text nodes containing the query terms
+   * @param total total number of indexed text nodes
+   * @param length text length
+   * @param avg average length of indexed text nodes
+   * @return score
+   */
+  public static double bm25(final int number, final int nodes, final int total,
+      final int length, final double avg) {
+    final int n = min(nodes, total);
+    final double idf = log(1 + (total - n + 0.5) / (n + 0.5));
+    final double norm = K1 * (1 - B + B * length / avg);
+    final double score = idf * number * (K1 + 1) / (number + norm);
+    return score / (score + 1);
+  }
 }
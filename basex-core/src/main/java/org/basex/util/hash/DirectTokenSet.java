@@ -0,0 +1,200 @@
+package org.basex.util.hash;
+
+import java.nio.*;
+import java.util.*;
+
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.util.*;
+
+/**
+ * This hash set stores tokens in direct buffers, which are allocated outside the Java heap.
+ * Only the offsets and hash values of the tokens are kept on the heap. Tokens are appended to
+ * chunks, which are doubled in size until a maximum size is reached.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class DirectTokenSet extends TokenSet {
+  /** Size of the first chunk. */
+  private static final int MINCHUNK = 1 << 12;
+  /** Maximum chunk size (larger tokens will be stored in separate chunks). */
+  private static final int MAXCHUNK = 1 << 24;
+
+  /** Chunks with the stored tokens (length, followed by the token bytes). */
+  private final ArrayList<ByteBuffer> chunks = new ArrayList<>();
+  /** Offsets to the keys (chunk index and position, {@code -1} for deleted keys). */
+  private long[] offsets;
+  /** Hash values of the keys. */
+  private int[] hashes;
+
+  /**
+   * Default constructor.
+   */
+  public DirectTokenSet() {
+    super(Array.INITIAL_CAPACITY);
+    keys = new byte[0][];
+    offsets = new long[capacity()];
+    hashes = new int[capacity()];
+  }
+
+  @Override
+  public void read(final DataInput in) {
+    throw Util.notExpected();
+  }
+
+  @Override
+  public void write(final DataOutput out) {
+    throw Util.notExpected();
+  }
+
+  @Override
+  public boolean add(final byte[] key) {
+    return index(key) > 0;
+  }
+
+  @Override
+  public int put(final byte[] key) {
+    return Math.abs(index(key));
+  }
+
+  @Override
+  public int id(final byte[] key) {
+    final int h = Token.hash(key);
+    for(int id = buckets[h & capacity() - 1]; id != 0; id = next[id]) {
+      if(hashes[id] == h && eq(key, offsets[id])) return id;
+    }
+    return 0;
+  }
+
+  @Override
+  public byte[] key(final int id) {
+    final long offset = offsets[id];
+    if(offset == -1) return null;
+
+    final ByteBuffer chunk = chunks.get((int) (offset >>> 32));
+    final int pos = (int) offset;
+    final byte[] key = new byte[chunk.getInt(pos)];
+    // duplicate buffer: the position of the shared instance must not be changed
+    chunk.duplicate().position(pos + 4).get(key);
+    return key;
+  }
+
+  @Override
+  public int remove(final byte[] key) {
+    final int h = Token.hash(key), b = h & capacity() - 1;
+    for(int p = 0, id = buckets[b]; id != 0; p = id, id = next[id]) {
+      if(hashes[id] != h || !eq(key, offsets[id])) continue;
+      if(p == 0) buckets[b] = next[id];
+      else next[p] = next[id];
+      offsets[id] = -1;
+      return id;
+    }
+    return 0;
+  }
+
+  @Override
+  protected int hash(final int id) {
+    return hashes[id];
+  }
+
+  @Override
+  protected void rehash(final int newSize) {
+    offsets = Arrays.copyOf(offsets, newSize);
+    hashes = Arrays.copyOf(hashes, newSize);
+  }
+
+  @Override
+  public void clear() {
+    chunks.clear();
+    super.clear();
+  }
+
+  @Override
+  public Iterator<byte[]> iterator() {
+    return new Iterator<>() {
+      private int id = 1;
+
+      @Override
+      public boolean hasNext() {
+        while(id < size && offsets[id] == -1) id++;
+        return id < size;
+      }
+
+      @Override
+      public byte[] next() {
+        return key(id++);
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder(Util.className(this)).append('[');
+    final Iterator<byte[]> iter = iterator();
+    while(iter.hasNext()) {
+      sb.append(Token.string(iter.next()));
+      if(iter.hasNext()) sb.append(", ");
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Stores the specified key and returns its id, or returns the negative id if the key has already
+   * been stored.
+   * @param key key to be indexed
+   * @return id, or negative id if key has already been stored
+   */
+  private int index(final byte[] key) {
+    final int h = Token.hash(key);
+    int b = h & capacity() - 1;
+    for(int id = buckets[b]; id != 0; id = next[id]) {
+      if(hashes[id] == h && eq(key, offsets[id])) return -id;
+    }
+    final int s = size++;
+    if(checkCapacity()) b = h & capacity() - 1;
+    next[s] = buckets[b];
+    offsets[s] = store(key);
+    hashes[s] = h;
+    buckets[b] = s;
+    return s;
+  }
+
+  /**
+   * Appends a key to the current chunk. A new chunk is allocated if the key does not fit.
+   * @param key key
+   * @return offset
+   */
+  private long store(final byte[] key) {
+    final int kl = key.length, size = kl + 4;
+    int c = chunks.size() - 1;
+    ByteBuffer chunk = c == -1 ? null : chunks.get(c);
+    if(chunk == null || chunk.remaining() < size) {
+      final int cap = chunk == null ? MINCHUNK :
+        (int) Math.min(MAXCHUNK, (long) chunk.capacity() << 1);
+      chunk = ByteBuffer.allocateDirect(Math.max(cap, size));
+      chunks.add(chunk);
+      c++;
+    }
+    final int pos = chunk.position();
+    chunk.putInt(kl).put(key);
+    return (long) c << 32 | pos;
+  }
+
+  /**
+   * Compares a token with a stored key.
+   * @param token token
+   * @param offset offset of the stored key
+   * @return result of check
+   */
+  private boolean eq(final byte[] token, final long offset) {
+    if(offset == -1) return false;
+    final ByteBuffer chunk = chunks.get((int) (offset >>> 32));
+    final int pos = (int) offset + 4, tl = token.length;
+    if(chunk.getInt(pos - 4) != tl) return false;
+    for(int t = 0; t < tl; t++) {
+      if(chunk.get(pos + t) != token[t]) return false;
+    }
+    return true;
+  }
+}
@@ -89,7 +89,7 @@ public class TokenSet extends ASet implements Iterable<byte[]> {
    * @param key key to be added
    * @return {@code true} if the key did not exist yet and was stored
    */
-  public final boolean add(final byte[] key) {
+  public boolean add(final byte[] key) {
     return index(key) > 0;
   }
 
@@ -107,7 +107,7 @@ public class TokenSet extends ASet implements Iterable<byte[]> {
    * @param key key to be added
    * @return unique id of stored key (larger than zero)
    */
-  public final int put(final byte[] key) {
+  public int put(final byte[] key) {
     final int id = index(key);
     return Math.abs(id);
   }
@@ -126,7 +126,7 @@ public class TokenSet extends ASet implements Iterable<byte[]> {
    * @param key key to be looked up
    * @return id, or {@code 0} if key does not exist
    */
-  public final int id(final byte[] key) {
+  public int id(final byte[] key) {
     final int b = Token.hash(key) & capacity() - 1;
     for(int id = buckets[b]; id != 0; id = next[id]) {
       if(Token.eq(key, keys[id])) return id;
@@ -140,7 +140,7 @@ public class TokenSet extends ASet implements Iterable<byte[]> {
    * @param id id of the key to return
    * @return key
    */
-  public final byte[] key(final int id) {
+  public byte[] key(final int id) {
     return keys[id];
   }
 
@@ -200,7 +200,7 @@ public class TokenSet extends ASet implements Iterable<byte[]> {
   }
 
   @Override
-  public final Iterator<byte[]> iterator() {
+  public Iterator<byte[]> iterator() {
     return new ArrayIterator<>(keys, 1, size);
   }
 
@@ -21,6 +21,23 @@ public final class Levenshtein {
   private final int maxErrors;
   /** Matrix for calculating Levenshtein distance. */
   private int[][] matrix;
+  /** Length of the shortest rejected prefix of the last compared token. */
+  private int rejected;
+
+  /** Last compared token (reference). */
+  private byte[] cmp;
+  /** Number of allowed errors for the last compared token. */
+  private int errors;
+  /** Byte offsets of the codepoints of the last compared token. */
+  private int[] cps;
+  /** Normalized codepoints of the last compared token. */
+  private int[] cns;
+  /** Number of codepoints of the last compared token. */
+  private int ncps;
+  /** Prefix of the last input token for which valid matrix rows exist. */
+  private byte[] prefix;
+  /** Number of valid matrix rows. */
+  private int rows;
 
   /**
    * Constructor.
@@ -94,6 +111,20 @@ public final class Levenshtein {
     return distance(token, compare, max) != Integer.MAX_VALUE;
   }
 
+  /**
+   * Compares two tokens for similarity. If the tokens are not similar, returns the length of
+   * the shortest prefix of the first token that cannot be extended to a similar token. All
+   * tokens with this prefix can be skipped when traversing a sorted list of tokens.
+   * @param token input token
+   * @param compare token to be compared
+   * @param max number of allowed errors; dynamic calculation if value is {@code 0}
+   * @return {@code -1} if the arrays are similar, or length of the rejected prefix in bytes
+   */
+  public int mismatch(final byte[] token, final byte[] compare, final int max) {
+    rejected = token.length;
+    return distance(token, compare, max) != Integer.MAX_VALUE ? -1 : rejected;
+  }
+
   /**
    * Computes the Levenshtein distance.
    * @param token original token
@@ -126,27 +157,70 @@ public final class Levenshtein {
         mx[m][0] = m;
       }
       matrix = mx;
+      prefix = new byte[MAX];
+    }
+
+    // reuse the rows of the prefix shared with the last token
+    int start = 0;
+    if(compare == cmp && k == errors) {
+      final int pl = Math.min(rows, tl);
+      while(start < pl && token[start] == prefix[start]) ++start;
+    } else {
+      cmp = compare;
+      errors = k;
+      cps = new int[clen];
+      cns = new int[clen];
+      int n = 0;
+      for(int c = 0; c < clen; c += cl(compare, c)) {
+        cps[n] = c;
+        cns[n++] = noDiacritics(lc(cp(compare, c)));
+      }
+      ncps = n;
     }
 
-    int f = -1, g = -1;
-    for(int t = 0; t < tlen; t += cl(token, t)) {
+    final int[] offs = cps, norm = cns;
+    final int n = ncps;
+    int f = start == 0 ? -1 : noDiacritics(lc(token[start - 1]));
+    int g = start == 0 || n == 0 ? -1 : norm[n - 1];
+    int valid = start;
+    boolean ascii = true;
+    for(int t = start; t < tlen; t += cl(token, t)) {
+      ascii &= token[t] >= 0;
       final int tn = noDiacritics(lc(cp(token, t)));
       int d = Integer.MAX_VALUE;
-      for(int c = 0; c < clen; c += cl(compare, c)) {
-        final int cn = noDiacritics(lc(cp(compare, c)));
+      for(int i = 0; i < n; i++) {
+        final int c = offs[i], cn = norm[i];
         int e = m(mx[t][c + 1] + 1, mx[t + 1][c] + 1, mx[t][c] + (tn == cn ? 0 : 1));
         if(tn == g && cn == f) e = mx[t][c];
         mx[t + 1][c + 1] = e;
         d = Math.min(d, e);
         g = cn;
       }
-      if(d > k) return Integer.MAX_VALUE;
+      if(d > k) {
+        // the rows only depend on the prefix if all previous characters are single bytes
+        if(ascii) rejected = t + 1;
+        remember(token, start, valid);
+        return Integer.MAX_VALUE;
+      }
+      if(ascii) valid = t + 1;
       f = tn;
     }
+    remember(token, start, valid);
     final int d = mx[tlen][clen];
     return d <= k ? d : Integer.MAX_VALUE;
   }
 
+  /**
+   * Remembers the prefix of a token for which valid matrix rows exist.
+   * @param token token
+   * @param start length of the prefix that has already been remembered
+   * @param valid number of valid rows
+   */
+  private void remember(final byte[] token, final int start, final int valid) {
+    System.arraycopy(token, start, prefix, start, valid - start);
+    rows = valid;
+  }
+
   /**
    * <p>Computes the full Damerau-Levenshtein distance for two codepoint arrays and returns a
    * double value (0.0 - 1.0), which represents the distance. The value is computed as follows:</p>
@@ -0,0 +1,85 @@
+package org.basex.core;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.cmd.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * This class tests the {@link MainOptions#INDEXMEMORY} option.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class IndexMemoryTest extends SandboxTest {
+  /** Number of elements. */
+  private static final int SIZE = 100000;
+  /** Queries. */
+  private static final String[] QUERIES = {
+    _INDEX_TEXTS.args(NAME),
+    _INDEX_ATTRIBUTES.args(NAME),
+    _INDEX_TOKENS.args(NAME),
+    _DB_NODE_PRE.args(" //a[text() = 'w42 x5']"),
+    _DB_NODE_PRE.args(" //a[@v = 't3 u7']"),
+    _DB_NODE_PRE.args(" //a[contains-token(@v, 'u5')]"),
+    _DB_NODE_PRE.args(" //a[text() contains text 'w13']"),
+    "count(//a[text() contains text { 'x1', 'x2' } all words])",
+  };
+
+  /**
+   * Finalize test.
+   */
+  @AfterEach public void after() {
+    execute(new DropDB(NAME));
+    set(MainOptions.INDEXMEMORY, 0);
+    set(MainOptions.INDEXTHREADS, 1);
+    set(MainOptions.UPDINDEX, false);
+    set(MainOptions.TOKENINDEX, true);
+    set(MainOptions.FTINDEX, false);
+  }
+
+  /**
+   * Compares the results of indexes that have been built with a small and the default budget.
+   * @param updindex incremental indexing
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void build(final boolean updindex) {
+    set(MainOptions.UPDINDEX, updindex);
+    set(MainOptions.TOKENINDEX, true);
+    set(MainOptions.FTINDEX, true);
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(int i = 0; i < SIZE; i++) {
+      tb.add("<a v='t").addInt(i % 7).add(" u").addInt(i % 11).add("'>");
+      tb.add("w").addInt(i % 3001).add(" x").addInt(i % 17).add("</a>");
+    }
+    final String xml = tb.add("</xml>").toString();
+
+    execute(new CreateDB(NAME, xml));
+    final String[] results = results();
+
+    // build indexes with a budget of 1 MB
+    set(MainOptions.INDEXMEMORY, 1);
+    execute(new CreateDB(NAME, xml));
+    assertArrayEquals(results, results());
+    set(MainOptions.INDEXTHREADS, 4);
+    execute(new OptimizeAll());
+    assertArrayEquals(results, results());
+  }
+
+  /**
+   * Returns the results of all queries.
+   * @return results
+   */
+  private static String[] results() {
+    final int ql = QUERIES.length;
+    final String[] results = new String[ql];
+    for(int q = 0; q < ql; q++) results[q] = query(QUERIES[q]);
+    return results;
+  }
+}
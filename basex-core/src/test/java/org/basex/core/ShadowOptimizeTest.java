@@ -0,0 +1,132 @@
+package org.basex.core;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.cmd.*;
+import org.basex.core.cmd.Set;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the {@link MainOptions#SHADOWOPTIMIZE} option.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class ShadowOptimizeTest extends SandboxTest {
+  /** Test file. */
+  private static final String FILE = "src/test/resources/xmark.xml";
+  /** Query. */
+  private static final String QUERY = "count(" + _DB_GET.args(NAME) + "//*)";
+
+  /**
+   * Finalize test.
+   */
+  @AfterEach public void after() {
+    execute(new DropDB(NAME));
+    set(MainOptions.SHADOWOPTIMIZE, false);
+  }
+
+  /**
+   * Rebuilds an updated database.
+   */
+  @Test public void optimize() {
+    set(MainOptions.SHADOWOPTIMIZE, true);
+    execute(new CreateDB(NAME, FILE));
+    query(_DB_PUT_BINARY.args(NAME, "bin", "bin"));
+    query("delete node (//item)[1]");
+    query("insert node <new/> into /*");
+    final String result = query("count(//*)");
+
+    execute(new OptimizeAll());
+    query("count(//*)", result);
+    query("count(//new)", 1);
+    query(_DB_GET_BINARY.args(NAME, "bin") + " => convert:binary-to-string()", "bin");
+    assertTrue(context.data().meta.uptodate);
+  }
+
+  /**
+   * Reads a database while it is rebuilt in another session.
+   * @throws InterruptedException interrupted exception
+   */
+  @Test public void read() throws InterruptedException {
+    execute(new CreateDB(NAME, FILE));
+    execute(new Close());
+    final String result = query(QUERY);
+
+    final Exception[] error = new Exception[1];
+    final Thread thread = new Thread(() -> {
+      try(Session session = new LocalSession(context)) {
+        session.execute(new Set(MainOptions.SHADOWOPTIMIZE, true));
+        session.execute(new Open(NAME));
+        for(int i = 0; i < 5; i++) session.execute(new OptimizeAll());
+      } catch(final Exception ex) {
+        error[0] = ex;
+      }
+    });
+    thread.start();
+    while(thread.isAlive()) query(QUERY, result);
+    thread.join();
+
+    if(error[0] != null) {
+      Util.stack(error[0]);
+      fail(error[0].toString());
+    }
+    query(QUERY, result);
+  }
+
+  /**
+   * Rebuilds a database that is opened by another session.
+   * @throws Exception exception
+   */
+  @Test public void opened() throws Exception {
+    execute(new CreateDB(NAME, FILE));
+    query(_DB_PUT_BINARY.args(NAME, "bin", "bin"));
+    query("delete node (//item)[1]");
+    final String result = query("count(//*)");
+    try(Session session = new LocalSession(context)) {
+      session.execute(new Set(MainOptions.SHADOWOPTIMIZE, true));
+      session.execute(new Open(NAME));
+      session.execute(new OptimizeAll());
+      assertEquals(result, session.query("count(//*)").execute());
+    }
+    // old database is still opened: temporary database exists until it is closed
+    assertFalse(context.data().meta.uptodate);
+    query("count(//*)", result);
+    assertEquals(2, context.soptions.dbPath().children().length);
+    execute(new Close());
+    assertEquals(1, context.soptions.dbPath().children().length);
+
+    execute(new Open(NAME));
+    assertTrue(context.data().meta.uptodate);
+    query("count(//*)", result);
+    query(_DB_GET_BINARY.args(NAME, "bin") + " => convert:binary-to-string()", "bin");
+  }
+
+  /**
+   * Discards a rebuilt database if the opened database is updated by another session.
+   * @throws Exception exception
+   */
+  @Test public void openedUpdated() throws Exception {
+    execute(new CreateDB(NAME, FILE));
+    try(Session session = new LocalSession(context)) {
+      session.execute(new Set(MainOptions.SHADOWOPTIMIZE, true));
+      session.execute(new Open(NAME));
+      session.execute(new OptimizeAll());
+    }
+    query("insert node <new/> into /*");
+    final String result = query("count(//*)");
+    execute(new Close());
+    // no temporary databases are left behind
+    assertEquals(1, context.soptions.dbPath().children().length);
+
+    execute(new Open(NAME));
+    assertFalse(context.data().meta.uptodate);
+    query("count(//*)", result);
+    query("count(//new)", 1);
+  }
+}
@@ -0,0 +1,123 @@
+package org.basex.data;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * This class tests the {@link MainOptions#COMPRESSDATA} option.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class CompressDataTest extends SandboxTest {
+  /** Test file. */
+  private static final String FILE = "src/test/resources/xmark.xml";
+
+  /**
+   * Finalize test.
+   */
+  @AfterEach public void after() {
+    execute(new DropDB(NAME));
+    set(MainOptions.COMPRESSDATA, false);
+    set(MainOptions.UPDINDEX, false);
+  }
+
+  /**
+   * Queries and updates a compressed database.
+   * @param updindex incremental indexing
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void update(final boolean updindex) {
+    set(MainOptions.UPDINDEX, updindex);
+    execute(new CreateDB(NAME, FILE));
+    final String count = "count(//*)", text = "string-join(//text())", atts = "string-join(//@*)";
+    final String c = query(count), t = query(text), a = query(atts);
+    final long size = Long.parseLong(query(_DB_PROPERTY.args(NAME, "size")));
+
+    set(MainOptions.COMPRESSDATA, true);
+    execute(new CreateDB(NAME, FILE));
+    set(MainOptions.COMPRESSDATA, false);
+    query(_DB_PROPERTY.args(NAME, "compressdata"), true);
+    assertTrue(Long.parseLong(query(_DB_PROPERTY.args(NAME, "size"))) < size);
+    query(count, c);
+    query(text, t);
+    query(atts, a);
+
+    query("insert node <new a='x'>text</new> into (//item)[1]");
+    query("for $n at $p in //name return replace value of node $n with 'name' || $p");
+    query(count, Integer.parseInt(c) + 1);
+    query("//new/text()", "text");
+    query("distinct-values(//name ! substring(., 1, 4))", "name");
+    if(updindex) query(_DB_TEXT.args(NAME, "name1") + " ! name(..)", "name");
+
+    query("delete node //new");
+    query(count, c);
+    execute(new Close());
+
+    // reopen database: compression flag is stored in the meta data
+    execute(new Open(NAME));
+    query(_DB_PROPERTY.args(NAME, "compressdata"), true);
+    query(count, c);
+    query(atts, a);
+    query("distinct-values(//name ! substring(., 1, 4))", "name");
+
+    // rebuild database without compression
+    execute(new Optimize());
+    execute(new Close());
+    query(_DB_OPTIMIZE.args(NAME, true, " map { 'compressdata': false() }"));
+    execute(new Open(NAME));
+    query(_DB_PROPERTY.args(NAME, "compressdata"), false);
+    query(count, c);
+    query(atts, a);
+  }
+
+  /**
+   * Rebuilds a compressed database.
+   */
+  @Test public void optimizeAll() {
+    set(MainOptions.COMPRESSDATA, true);
+    execute(new CreateDB(NAME, FILE));
+    set(MainOptions.COMPRESSDATA, false);
+    final String count = "count(//*)", text = "string-join(//text())";
+    final String c = query(count), t = query(text);
+
+    // compression is preserved, even if it is disabled in the global options
+    execute(new OptimizeAll());
+    query(_DB_PROPERTY.args(NAME, "compressdata"), true);
+    query(count, c);
+    query(text, t);
+    execute(new Close());
+    query(_DB_OPTIMIZE.args(NAME, true));
+    execute(new Open(NAME));
+    query(_DB_PROPERTY.args(NAME, "compressdata"), true);
+    query(count, c);
+    query(text, t);
+  }
+
+  /**
+   * Checks that the slots of updated blocks are reused.
+   */
+  @Test public void reuse() {
+    set(MainOptions.COMPRESSDATA, true);
+    execute(new CreateDB(NAME, FILE));
+    final String update = "for $n at $p in //text() return replace value of node $n with ";
+    final String size = _DB_PROPERTY.args(NAME, "size");
+    query(update + "string-join(1 to $p mod 20)");
+    query(update + "string($p)");
+    final long initial = Long.parseLong(query(size));
+    for(int i = 0; i < 10; i++) {
+      query(update + "string-join(1 to $p mod 20)");
+      query(update + "string($p)");
+    }
+    assertTrue(Long.parseLong(query(size)) < initial * 1.2);
+  }
+}
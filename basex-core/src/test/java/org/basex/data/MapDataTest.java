@@ -0,0 +1,69 @@
+package org.basex.data;
+
+import static org.basex.query.func.Function.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * This class tests the {@link MainOptions#MAPDATA} option.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class MapDataTest extends SandboxTest {
+  /** Test file. */
+  private static final String FILE = "src/test/resources/xmark.xml";
+
+  /**
+   * Finalize test.
+   */
+  @AfterEach public void after() {
+    execute(new DropDB(NAME));
+    set(MainOptions.MAPDATA, false);
+    set(MainOptions.UPDINDEX, false);
+  }
+
+  /**
+   * Queries and updates a database with and without memory mapping.
+   * @param updindex incremental indexing
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void update(final boolean updindex) {
+    set(MainOptions.UPDINDEX, updindex);
+    execute(new CreateDB(NAME, FILE));
+    final String count = "count(//*)", text = "string-join(//text())", atts = "count(//@*)";
+    final String c = query(count), t = query(text), a = query(atts);
+    execute(new Close());
+
+    set(MainOptions.MAPDATA, true);
+    execute(new Open(NAME));
+    query(count, c);
+    query(text, t);
+    query(atts, a);
+
+    // updates are performed page-wise; afterwards, the files are mapped again
+    query("insert node <new a='x'>text</new> into (//item)[1]");
+    query("for $n in //name return replace value of node $n with 'name'");
+    query(count, Integer.parseInt(c) + 1);
+    query(atts, Integer.parseInt(a) + 1);
+    query("//new/text()", "text");
+    query("distinct-values(//name)", "name");
+    if(updindex) query(_DB_TEXT.args(NAME, "name") + " ! name(..) => distinct-values()", "name");
+
+    query("delete node //new");
+    query(count, c);
+    query(atts, a);
+    execute(new Close());
+
+    // reopen database
+    execute(new Open(NAME));
+    query(count, c);
+    query("distinct-values(//name)", "name");
+  }
+}
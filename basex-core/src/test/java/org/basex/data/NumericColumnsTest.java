@@ -0,0 +1,75 @@
+package org.basex.data;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the {@link MainOptions#NUMCOLUMNS} option.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class NumericColumnsTest extends SandboxTest {
+  /** Test document. */
+  private static final String DOC = "<x>" +
+    "<a>1</a><a>2</a><a>123456789012</a><b v='0.5'>1.5</b><b v='-2'>x</b><c>3</c>" +
+    "</x>";
+
+  /**
+   * Finalize test.
+   */
+  @AfterEach public void after() {
+    execute(new DropDB(NAME));
+    set(MainOptions.NUMCOLUMNS, false);
+  }
+
+  /** Creates columns and queries numeric values. */
+  @Test public void query() {
+    set(MainOptions.NUMCOLUMNS, true);
+    set(MainOptions.MAXCATS, 1);
+    execute(new CreateDB(NAME, DOC));
+    final NumericColumns columns = context.data().columns();
+    assertNotNull(columns);
+    // the string value of the second b element prevents its column from being created
+    assertEquals(6, columns.size());
+
+    query("sum(//a)", "1.23456789015E11");
+    query("avg(//a)", "4.1152263005E10");
+    query("sum(//@v)", "-1.5");
+    query("sum(//c)", 3);
+    query("//a[. > 2] ! xs:integer(.)", "123456789012");
+    query("sort(//@v ! number())", "-2\n0.5");
+    query("for $a in //a order by number($a) descending return string($a)",
+        "123456789012\n2\n1");
+  }
+
+  /** Invalidates columns after updates. */
+  @Test public void update() {
+    set(MainOptions.NUMCOLUMNS, true);
+    set(MainOptions.MAXCATS, 1);
+    execute(new CreateDB(NAME, DOC));
+    assertNotNull(context.data().columns());
+
+    query("replace value of node (//a)[1] with '10'");
+    assertNull(context.data().columns());
+    query("sum(//a)", "1.23456789024E11");
+    query("//a[. = 10] ! string()", "10");
+
+    execute(new Optimize());
+    assertNotNull(context.data().columns());
+    query("sum(//a)", "1.23456789024E11");
+
+    // drop columns
+    set(MainOptions.NUMCOLUMNS, false);
+    execute(new Optimize());
+    assertNull(context.data().columns());
+    assertFalse(context.data().meta.dbFile(DataText.DATACOL).exists());
+    query(_DB_PROPERTY.args(NAME, "numcolumns"), false);
+  }
+}
@@ -0,0 +1,56 @@
+package org.basex.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the {@link MainOptions#OFFHEAP} option.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class OffHeapTest extends SandboxTest {
+  /** Test file. */
+  private static final String FILE = "src/test/resources/xmark.xml";
+
+  /**
+   * Finalize test.
+   */
+  @AfterEach public void after() {
+    execute(new DropDB(NAME));
+    set(MainOptions.MAINMEM, false);
+    set(MainOptions.OFFHEAP, false);
+  }
+
+  /** Queries and updates a main memory database with off-heap storage. */
+  @Test public void update() {
+    execute(new CreateDB(NAME, FILE));
+    final String count = "count(//*)", text = "string-join(//text())", atts = "count(//@*)";
+    final String c = query(count), t = query(text), a = query(atts);
+    execute(new DropDB(NAME));
+
+    set(MainOptions.MAINMEM, true);
+    set(MainOptions.OFFHEAP, true);
+    execute(new CreateDB(NAME, FILE));
+    assertTrue(context.data().meta.offheap);
+    query(count, c);
+    query(text, t);
+    query(atts, a);
+
+    query("insert node <new a='x'>text</new> into (//item)[1]");
+    query("for $n in //name return replace value of node $n with 'name'");
+    query(count, Integer.parseInt(c) + 1);
+    query(atts, Integer.parseInt(a) + 1);
+    query("//new/text()", "text");
+    query("distinct-values(//name)", "name");
+
+    query("delete node //new");
+    query(count, c);
+    query(atts, a);
+  }
+}
@@ -0,0 +1,65 @@
+package org.basex.data;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.io.random.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * This class tests the {@link MainOptions#READAHEAD} option.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class ReadAheadTest extends SandboxTest {
+  /** Test file. */
+  private static final String FILE = "src/test/resources/xmark.xml";
+
+  /**
+   * Enables the page cache, which is required for reading pages in advance.
+   */
+  @BeforeEach public void before() {
+    PageCache.SHARED.size(1L << 24);
+  }
+
+  /**
+   * Finalize test.
+   */
+  @AfterEach public void after() {
+    execute(new DropDB(NAME));
+    set(MainOptions.READAHEAD, MainOptions.READAHEAD.value());
+    PageCache.SHARED.size((long) context.soptions.get(StaticOptions.PAGECACHE) << 20);
+  }
+
+  /**
+   * Scans and updates a database with different read-ahead windows.
+   * @param window number of pages to be read in advance
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 4, 1000})
+  public void scan(final int window) {
+    set(MainOptions.READAHEAD, 0);
+    execute(new CreateDB(NAME, FILE));
+    final String count = "count(//*)", text = "string-join(//text())", atts = "count(//@*)";
+    final String c = query(count), t = query(text), a = query(atts);
+    execute(new Close());
+
+    set(MainOptions.READAHEAD, window);
+    execute(new Open(NAME));
+    for(int i = 0; i < 3; i++) {
+      query(count, c);
+      query(text, t);
+      query(atts, a);
+    }
+
+    // read-ahead is stopped during updates
+    query("insert node <new a='x'>text</new> into (//item)[1]");
+    query(count, Integer.parseInt(c) + 1);
+    query("delete node //new");
+    query(text, t);
+    execute(new Close());
+  }
+}
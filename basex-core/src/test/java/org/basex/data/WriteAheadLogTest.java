@@ -0,0 +1,217 @@
+package org.basex.data;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.io.*;
+import org.basex.io.random.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * This class tests the {@link MainOptions#WAL} option.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class WriteAheadLogTest extends SandboxTest {
+  /** Test file. */
+  private static final String FILE = "src/test/resources/xmark.xml";
+  /** Name of the copied database. */
+  private static final String COPY = NAME + "Copy";
+  /** Name of the second copied database. */
+  private static final String COPY2 = NAME + "Copy2";
+  /** Queries. */
+  private static final String[] QUERIES = {
+    "count(//*)", "count(//@*)", "string-join(//text())", "//new/text()", "//new/@a/string()"
+  };
+
+  /**
+   * Finalize test.
+   */
+  @AfterEach public void after() {
+    execute(new DropDB(NAME));
+    execute(new DropDB(COPY));
+    execute(new DropDB(COPY2));
+    set(MainOptions.WAL, false);
+    set(MainOptions.UPDINDEX, false);
+  }
+
+  /**
+   * Logs updates and writes them back when the database is closed.
+   * @param updindex incremental indexing
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void update(final boolean updindex) {
+    set(MainOptions.UPDINDEX, updindex);
+    set(MainOptions.WAL, true);
+    execute(new CreateDB(NAME, FILE));
+    final IOFile log = context.data().meta.dbFile(DataText.DATAWAL);
+    assertTrue(log.exists());
+
+    final String[] results = update();
+    assertTrue(log.length() > 0);
+    if(updindex) query(_DB_TEXT.args(NAME, "name") + " ! name(..) => distinct-values()", "name");
+
+    // the log is deleted when the database is closed
+    execute(new Close());
+    assertFalse(log.exists());
+
+    set(MainOptions.WAL, false);
+    execute(new Open(NAME));
+    check(results);
+  }
+
+  /**
+   * Recovers updates from the log of a database that has not been closed.
+   * @throws IOException I/O exception
+   */
+  @Test public void recover() throws IOException {
+    set(MainOptions.UPDINDEX, true);
+    set(MainOptions.WAL, true);
+    execute(new CreateDB(NAME, FILE));
+    final String[] results = update();
+
+    // simulate a crash: copy the files of the opened database, append an incomplete record
+    final IOFile log = copy(COPY);
+    assertTrue(log.length() > 0);
+    Files.write(log.file().toPath(), new byte[] { 0, 0, 1, 0, 1, 2, 3 },
+        StandardOpenOption.APPEND);
+
+    set(MainOptions.WAL, false);
+    execute(new Open(COPY));
+    check(results);
+    query(_DB_TEXT.args(COPY, "name") + " ! name(..) => distinct-values()", "name");
+    query("insert node <new/> into /*");
+    execute(new Close());
+    assertFalse(log.exists());
+
+    execute(new Open(COPY));
+    query("count(//new)", 2);
+  }
+
+  /**
+   * Recovers a large transaction, which is split into several records, and discards a
+   * transaction whose last record is incomplete.
+   * @throws IOException I/O exception
+   */
+  @Test public void recoverLarge() throws IOException {
+    set(MainOptions.WAL, true);
+    execute(new CreateDB(NAME, FILE));
+    final String update = "for $n in //text() return replace value of node $n with ";
+    query(update + "string-join(1 to 100, ' ')");
+    final String[] results = results();
+    final IOFile wal = context.data().meta.dbFile(DataText.DATAWAL);
+    final long length = wal.length();
+
+    query(update + "string-join(1 to 1000, ' ')");
+    assertTrue(wal.length() - length > 2 << 20);
+    final String[] large = results();
+
+    // simulate crashes; truncate the last record of the second copy
+    copy(COPY);
+    final IOFile log = copy(COPY2);
+    try(RandomAccessFile raf = new RandomAccessFile(log.file(), "rw")) {
+      raf.setLength(raf.length() - 1);
+    }
+
+    // recover all transactions
+    execute(new Open(COPY));
+    check(large);
+    // discard incomplete transaction
+    execute(new Open(COPY2));
+    check(results);
+  }
+
+  /**
+   * Makes the records of concurrent transactions durable with a single force (group commit).
+   * @throws Exception exception
+   */
+  @Test public void groupCommit() throws Exception {
+    final IOFile dir = context.soptions.dbPath(COPY);
+    dir.md();
+    final int threads = 8;
+    final CyclicBarrier committed = new CyclicBarrier(threads);
+    final Object lock = new Object();
+    final ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try(WriteAheadLog wal = new WriteAheadLog(new IOFile(dir, DataText.DATAWAL + IO.BASEXSUFFIX))) {
+      final ArrayList<Future<?>> futures = new ArrayList<>();
+      for(int t = 0; t < threads; t++) {
+        final IOFile file = new IOFile(dir, "file" + t);
+        futures.add(pool.submit(() -> {
+          // log changes while the database is locked
+          synchronized(lock) {
+            wal.file(file, Token.token(file.name()));
+            wal.commit();
+          }
+          // release lock, wait until the changes of all transactions have been logged
+          committed.await();
+          WriteAheadLog.sync();
+          return null;
+        }));
+      }
+      for(final Future<?> future : futures) future.get();
+      assertEquals(1, wal.forces());
+    } finally {
+      pool.shutdown();
+      dir.delete();
+    }
+  }
+
+  /**
+   * Performs updates in separate transactions.
+   * @return query results
+   */
+  private static String[] update() {
+    query("insert node <new a='x'>text</new> into (//item)[1]");
+    query("for $n in //name return replace value of node $n with 'name'");
+    query("delete node (//item)[last()]");
+    for(int i = 0; i < 10; i++) query("insert node <item/> into (//regions/*)[1]");
+    return results();
+  }
+
+  /**
+   * Returns the results of the queries.
+   * @return query results
+   */
+  private static String[] results() {
+    final int ql = QUERIES.length;
+    final String[] results = new String[ql];
+    for(int q = 0; q < ql; q++) results[q] = query(QUERIES[q]);
+    return results;
+  }
+
+  /**
+   * Simulates a crash by copying the files of the opened database.
+   * @param name name of the copied database
+   * @return log file of the copied database
+   * @throws IOException I/O exception
+   */
+  private static IOFile copy(final String name) throws IOException {
+    final IOFile source = context.soptions.dbPath(NAME), target = context.soptions.dbPath(name);
+    target.md();
+    for(final IOFile file : source.children()) file.copyTo(new IOFile(target, file.name()));
+    return new IOFile(target, DataText.DATAWAL + IO.BASEXSUFFIX);
+  }
+
+  /**
+   * Compares query results.
+   * @param results expected results
+   */
+  private static void check(final String[] results) {
+    final int ql = QUERIES.length;
+    for(int q = 0; q < ql; q++) query(QUERIES[q], results[q]);
+  }
+}
@@ -0,0 +1,104 @@
+package org.basex.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.*;
+import org.basex.data.*;
+import org.basex.index.ft.*;
+import org.basex.index.value.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the memory budget of index builders.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class IndexBuilderTest extends SandboxTest {
+  /** Number of elements. */
+  private static final int SIZE = 100000;
+
+  /**
+   * Initializes a test.
+   */
+  @BeforeEach public void before() {
+    set(MainOptions.TEXTINDEX, false);
+    set(MainOptions.ATTRINDEX, false);
+    set(MainOptions.TOKENINDEX, false);
+    set(MainOptions.INDEXMEMORY, 1);
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(int i = 0; i < SIZE; i++) {
+      tb.add("<a v='t").addInt(i).add("'>w").addInt(i % 3001).add(" x").addInt(i % 17);
+      tb.add(" y").addInt(i % 5).add(" z").addInt(i % 13).add("</a>");
+    }
+    execute(new CreateDB(NAME, tb.add("</xml>").toString()));
+  }
+
+  /**
+   * Finalizes a test.
+   */
+  @AfterEach public void after() {
+    execute(new DropDB(NAME));
+    set(MainOptions.INDEXMEMORY, 0);
+    set(MainOptions.INDEXTHREADS, 1);
+    set(MainOptions.TEXTINDEX, true);
+    set(MainOptions.ATTRINDEX, true);
+    set(MainOptions.TOKENINDEX, true);
+  }
+
+  /**
+   * Checks that the memory budget is split among value index builders that run concurrently.
+   * @throws IOException I/O exception
+   */
+  @Test public void values() throws IOException {
+    final int single = splits(new DiskValuesBuilder(context.data(), IndexType.TEXT, 1, 1));
+    final int shared = splits(new DiskValuesBuilder(context.data(), IndexType.TEXT, 1, 4));
+    assertTrue(single > 0, "No runs were written.");
+    assertTrue(shared > single * 2, single + " vs. " + shared + " runs.");
+  }
+
+  /**
+   * Checks that the memory budget is split among full-text index builders that run concurrently.
+   * @throws IOException I/O exception
+   */
+  @Test public void fullText() throws IOException {
+    final int single = splits(new FTBuilder(context.data(), 1));
+    final int shared = splits(new FTBuilder(context.data(), 4));
+    assertTrue(single > 0, "No runs were written.");
+    assertTrue(shared > single * 2, single + " vs. " + shared + " runs.");
+  }
+
+  /**
+   * Builds indexes concurrently with a shared budget.
+   */
+  @Test public void concurrent() {
+    final String[] queries = { "count(//a[text() = 'w42 x8 y2 z3'])", "count(//a[@v = 't42'])",
+      "count(//a[text() contains text { 'w42', 'x8' } all words])" };
+    final String[] results = new String[queries.length];
+    for(int q = 0; q < queries.length; q++) results[q] = query(queries[q]);
+
+    set(MainOptions.INDEXTHREADS, 4);
+    for(final CmdIndex ci : new CmdIndex[] { CmdIndex.TEXT, CmdIndex.ATTRIBUTE,
+        CmdIndex.FULLTEXT }) execute(new CreateIndex(ci));
+    execute(new OptimizeAll());
+    for(int q = 0; q < queries.length; q++) query(queries[q], results[q]);
+  }
+
+  /**
+   * Builds an index and returns the number of written runs.
+   * @param builder index builder
+   * @return number of runs
+   * @throws IOException I/O exception
+   */
+  private static int splits(final IndexBuilder builder) throws IOException {
+    builder.build().close();
+    return builder.splits;
+  }
+}
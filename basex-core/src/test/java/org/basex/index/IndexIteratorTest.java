@@ -0,0 +1,123 @@
+package org.basex.index;
+
+import static org.basex.util.Token.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+import org.basex.index.query.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * Tests for the iterators of the value indexes.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class IndexIteratorTest extends SandboxTest {
+  /** Number of elements. */
+  private static final int SIZE = 50000;
+
+  /** Finishes a test. */
+  @AfterEach public void finish() {
+    execute(new DropDB(NAME));
+    set(MainOptions.UPDINDEX, false);
+  }
+
+  /**
+   * Checks the order of the returned results, and skips results.
+   * @param updindex incremental indexing
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void iterate(final boolean updindex) {
+    set(MainOptions.UPDINDEX, updindex);
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(int i = 0; i < SIZE; i++) tb.add("<a>").addInt(i % 97).add("</a>");
+    execute(new CreateDB(NAME, tb.add("</xml>").toString()));
+    final Data data = context.data();
+
+    check(data, new NumericRange(IndexType.TEXT, 10, 20), 10, 20);
+    check(data, new StringRange(IndexType.TEXT, token("50"), true, token("59"), true), 50, 59);
+    check(data, new StringToken(IndexType.TEXT, token("42")), 42, 42);
+    check(data, new NumericRange(IndexType.TEXT, 1000, 2000), 1, 0);
+
+    // skip results
+    if(!updindex) {
+      final IndexIterator ii = data.iter(new NumericRange(IndexType.TEXT, 10, 20));
+      assertTrue(ii.more());
+      final int first = ii.pre();
+      assertTrue(ii.skipTo(first));
+      assertEquals(first, ii.pre());
+      assertTrue(ii.skipTo(first + 1));
+      assertTrue(ii.pre() > first);
+
+      final int last = data.meta.size - 1;
+      assertTrue(ii.skipTo(last - 97 * 2));
+      int count = 1;
+      while(ii.more()) count++;
+      assertEquals(count(data, new NumericRange(IndexType.TEXT, 10, 20), last - 97 * 2), count);
+      assertFalse(ii.skipTo(last + 1));
+
+      // compare skipped results with all results
+      final IndexSearch search = new StringToken(IndexType.TEXT, token("42"));
+      final IntList pres = new IntList();
+      final IndexIterator all = data.iter(search);
+      while(all.more()) pres.add(all.pre());
+      for(int step = 1; step < 100000; step *= 3) {
+        final IndexIterator iter = data.iter(search);
+        for(int target = 0, p = 0;; target += step) {
+          while(p < pres.size() && pres.get(p) < target) p++;
+          final boolean more = iter.skipTo(target);
+          assertEquals(p < pres.size(), more);
+          if(!more) break;
+          assertEquals(pres.get(p), iter.pre());
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares the index results with the results of a sequential scan.
+   * @param data data reference
+   * @param search index search
+   * @param min minimum value
+   * @param max maximum value
+   */
+  private static void check(final Data data, final IndexSearch search, final int min,
+      final int max) {
+    final IntList pres = new IntList();
+    final IndexIterator ii = data.iter(search);
+    while(ii.more()) pres.add(ii.pre());
+
+    int count = 0;
+    for(int i = 0; i < SIZE; i++) {
+      if(i % 97 >= min && i % 97 <= max) count++;
+    }
+    assertEquals(count, pres.size());
+    assertEquals(pres.size(), ii.size());
+    for(int p = 1; p < pres.size(); p++) assertTrue(pres.get(p - 1) < pres.get(p));
+  }
+
+  /**
+   * Counts the results of an index search that are equal to or greater than the specified value.
+   * @param data data reference
+   * @param search index search
+   * @param min minimum pre value
+   * @return number of results
+   */
+  private static int count(final Data data, final IndexSearch search, final int min) {
+    int count = 0;
+    final IndexIterator ii = data.iter(search);
+    while(ii.more()) {
+      if(ii.pre() >= min) count++;
+    }
+    return count;
+  }
+}
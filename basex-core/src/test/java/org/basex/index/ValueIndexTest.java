@@ -10,10 +10,13 @@ import org.basex.*;
 import org.basex.core.*;
 import org.basex.core.cmd.*;
 import org.basex.core.cmd.Set;
+import org.basex.data.*;
 import org.basex.index.query.*;
 import org.basex.index.value.*;
+import org.basex.util.*;
 import org.basex.util.hash.*;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -117,6 +120,57 @@ public final class ValueIndexTest extends SandboxTest {
     valueIndexTest(IndexType.TOKEN, tokens, paramSet);
   }
 
+  /**
+   * Tests the lookup of stored keys.
+   */
+  @Test public void storedKeys() {
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(int i = 0; i < 2000; i++) tb.add("<a>key").addInt(i * 3).add("</a>");
+    execute(new CreateDB(NAME, tb.add("</xml>").toString()));
+    assertTrue(context.data().meta.dbFile(DataText.DATATXT + 'k').exists());
+
+    final ValueIndex index = (ValueIndex) context.data().index(IndexType.TEXT);
+    for(int i = 0; i < 6000; i++) {
+      final IndexIterator iter = index.iter(new StringToken(IndexType.TEXT, token("key" + i)));
+      assertEquals(i % 3 == 0 ? 1 : 0, iter.size(), "key" + i);
+    }
+
+    // keys are returned in ascending order
+    final EntryIterator entries = index.entries(new IndexEntries(EMPTY, true, IndexType.TEXT));
+    byte[] last = EMPTY;
+    int count = 0;
+    for(byte[] key; (key = entries.next()) != null; count++) {
+      assertTrue(diff(last, key) < 0);
+      last = key;
+    }
+    assertEquals(2000, count);
+  }
+
+  /**
+   * Tests lookups with the Bloom filter of an incrementally updated index.
+   */
+  @Test public void bloomFilter() {
+    set(MainOptions.UPDINDEX, true);
+    execute(new CreateDB(NAME, "<xml><a>key0</a></xml>"));
+    assertTrue(context.data().meta.dbFile(DataText.DATATXT + 'b').exists());
+
+    // filter is rebuilt when it becomes too small
+    query("for $i in 1 to 999 return insert node <a>{ 'key' || $i * 2 }</a> into /xml");
+    query("delete node //a[. = 'key10']");
+    final ValueIndex index = (ValueIndex) context.data().index(IndexType.TEXT);
+    for(int i = 0; i < 2000; i++) {
+      final IndexIterator iter = index.iter(new StringToken(IndexType.TEXT, token("key" + i)));
+      assertEquals(i % 2 == 0 && i != 10 ? 1 : 0, iter.size(), "key" + i);
+    }
+
+    // filter is persisted
+    execute(new Close());
+    execute(new Open(NAME));
+    query("insert node <a>key1</a> into /xml");
+    assertEquals("1", query("count(//a[text() = 'key1'])"));
+    assertEquals("0", query("count(//a[text() = 'key3'])"));
+  }
+
   /**
    * Tests the index: fetch results for different tokens, compare whether the right node was
    * returned and verify against the expected result size.
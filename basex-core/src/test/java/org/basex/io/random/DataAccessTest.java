@@ -4,10 +4,13 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 import org.basex.io.*;
 import org.basex.util.*;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
 
 /**
  * Tests for class {@link DataAccess}.
@@ -312,6 +315,55 @@ public class DataAccessTest {
     assertContent(pos, CINT1_BIN);
   }
 
+  /**
+   * Test method for {@link DataAccess#concurrent(boolean, boolean)}.
+   * @param map map file into memory
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public final void testConcurrent(final boolean map) {
+    da.concurrent(true, map);
+    final long off = STR_BIN.length;
+    assertEquals(BYTE, da.read1(off));
+    assertEquals(LONG, da.read5(off + BYTE_BIN.length));
+    assertEquals(INT, da.read4(off + BYTE_BIN.length + LONG_BIN.length));
+    assertEquals(CINT5, da.readNum(off + BYTE_BIN.length + LONG_BIN.length + INT_BIN.length));
+    assertEquals(STR, Token.string(da.readToken(0L)));
+    assertEquals(STR, Token.string(da.readToken(BLOCK_BOUNDARY_POS)));
+
+    // written data must be visible after concurrent read access has been disabled
+    da.write4(RANDOM_POS, INT);
+    assertEquals(INT, da.read4(RANDOM_POS));
+    da.concurrent(true, map);
+    assertEquals(INT, da.read4(RANDOM_POS));
+    da.concurrent(false, map);
+    assertEquals(INT, da.read4(RANDOM_POS));
+  }
+
+  /**
+   * Reads data from parallel threads.
+   * @param map map file into memory
+   * @throws Exception exception
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public final void testParallel(final boolean map) throws Exception {
+    da.concurrent(true, map);
+    final Thread[] threads = new Thread[8];
+    final AtomicInteger errors = new AtomicInteger();
+    for(int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(() -> {
+        for(int i = 0; i < 1000; i++) {
+          final long pos = i % 2 == 0 ? 0L : BLOCK_BOUNDARY_POS;
+          if(!STR.equals(Token.string(da.readToken(pos)))) errors.incrementAndGet();
+        }
+      });
+      threads[t].start();
+    }
+    for(final Thread thread : threads) thread.join();
+    assertEquals(0, errors.get());
+  }
+
   /** Test method for {@link DataAccess#free(long, int)}. */
   @Disabled
   @Test public final void testFree() {
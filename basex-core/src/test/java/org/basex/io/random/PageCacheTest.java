@@ -0,0 +1,105 @@
+package org.basex.io.random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.io.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests for class {@link PageCache}.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class PageCacheTest {
+  /** Number of cached pages. */
+  private static final int PAGES = 16;
+  /** Cache instance. */
+  private PageCache cache;
+
+  /** Creates a new cache. */
+  @BeforeEach public void init() {
+    cache = new PageCache();
+    cache.size((long) PAGES << IO.BLOCKPOWER);
+  }
+
+  /** Adds and reads pages. */
+  @Test public void read() {
+    final CacheStats stats = new CacheStats();
+    final int id = PageCache.id();
+    cache.add(id, 0, page(1));
+    assertTrue(cache.read(id, 0, new byte[IO.BLOCKSIZE], stats));
+    assertFalse(cache.read(id, 1, new byte[IO.BLOCKSIZE], stats));
+    assertFalse(cache.read(PageCache.id(), 0, new byte[IO.BLOCKSIZE], stats));
+    assertEquals(1, stats.hits());
+    assertEquals(2, stats.misses());
+
+    final byte[] data = new byte[IO.BLOCKSIZE];
+    cache.read(id, 0, data, null);
+    assertArrayEquals(page(1), data);
+  }
+
+  /** Updates cached pages. */
+  @Test public void update() {
+    final int id = PageCache.id();
+    cache.add(id, 0, page(1));
+    cache.update(id, 0, page(2));
+    cache.update(id, 1, page(3));
+
+    final byte[] data = new byte[IO.BLOCKSIZE];
+    assertTrue(cache.read(id, 0, data, null));
+    assertArrayEquals(page(2), data);
+    assertFalse(cache.read(id, 1, data, null));
+  }
+
+  /** Removes the pages of a file. */
+  @Test public void remove() {
+    final int id1 = PageCache.id(), id2 = PageCache.id();
+    cache.add(id1, 0, page(1));
+    cache.add(id2, 0, page(2));
+    cache.remove(id1);
+    assertEquals(1, cache.pages());
+    assertFalse(cache.read(id1, 0, new byte[IO.BLOCKSIZE], null));
+    assertTrue(cache.read(id2, 0, new byte[IO.BLOCKSIZE], null));
+  }
+
+  /** Checks that the cache size is not exceeded. */
+  @Test public void size() {
+    final int id = PageCache.id();
+    for(int p = 0; p < PAGES * 4; p++) cache.add(id, p, page(p));
+    assertEquals(PAGES, cache.pages());
+
+    cache.size((long) PAGES / 2 << IO.BLOCKPOWER);
+    assertEquals(PAGES / 2, cache.pages());
+
+    cache.size(0);
+    assertEquals(0, cache.pages());
+    cache.add(id, 0, page(0));
+    assertFalse(cache.read(id, 0, new byte[IO.BLOCKSIZE], null));
+  }
+
+  /** Checks that frequently accessed pages survive a sequential scan. */
+  @Test public void scan() {
+    final int id = PageCache.id(), hot = PAGES * 4;
+    // page is added, evicted from the FIFO queue, and added again to the main queue
+    cache.add(id, hot, page(0));
+    for(int p = 0; p < PAGES; p++) cache.add(id, p, page(p));
+    assertFalse(cache.read(id, hot, new byte[IO.BLOCKSIZE], null));
+    cache.add(id, hot, page(0));
+
+    // sequential scan
+    for(int p = PAGES; p < PAGES * 3; p++) cache.add(id, p, page(p));
+    assertTrue(cache.read(id, hot, new byte[IO.BLOCKSIZE], null));
+  }
+
+  /**
+   * Creates a page.
+   * @param value value of the first byte
+   * @return page
+   */
+  private static byte[] page(final int value) {
+    final byte[] data = new byte[IO.BLOCKSIZE];
+    data[0] = (byte) value;
+    return data;
+  }
+}
@@ -0,0 +1,19 @@
+package org.basex.io.random;
+
+import org.basex.data.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests for {@link TableMemAccess} class, using off-heap storage.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class TableMemAccessOffHeapTest extends TableMemAccessTest {
+  @Override
+  @BeforeEach public void setUp() {
+    final MetaData meta = new MetaData(context.options);
+    meta.offheap = true;
+    table = new TableMemAccess(meta);
+  }
+}
@@ -15,7 +15,7 @@ import org.junit.jupiter.api.*;
  * @author BaseX Team 2005-23, BSD License
  * @author Christian Gruen
  */
-public final class TableMemAccessTest extends SandboxTest {
+public class TableMemAccessTest extends SandboxTest {
   /** Test entry. */
   private static final byte[] ENTRY = {
     101, 102, 103, 104, 105, 106, 107, 108, 109, 110, 111, 112, 113, 127, -128, -1
@@ -83,4 +83,19 @@ public final class FTWildcardTest {
       }
     }
   }
+
+  /**
+   * Test detection of rejected prefixes.
+   */
+  @Test public void testMismatch() {
+    final int vl = VALIDWC.length;
+    for(int i = 0; i < vl; i++) {
+      final FTWildcard wc = new FTWildcard(token(VALIDWC[i]));
+      for(final String g : TEXTS_GOOD[i]) assertEquals(-1, wc.mismatch(token(g)));
+      for(final String b : TEXTS_BAD[i]) assertNotEquals(-1, wc.mismatch(token(b)));
+    }
+    assertEquals(3, new FTWildcard(token("w.ll")).mismatch(token("wxyz")));
+    assertEquals(1, new FTWildcard(token("a.*")).mismatch(token("ba")));
+    assertEquals(4, new FTWildcard(token("a.*b")).mismatch(token("aaaa")));
+  }
 }
@@ -593,6 +593,23 @@ public final class DbModuleTest extends QueryPlanTest {
     query(func.args(NAME, " (0, 1)") + "//title/text()", "XML");
     error(func.args(NAME, -1), DB_RANGE_X_X);
     error(func.args(NAME, Integer.MAX_VALUE), DB_RANGE_X_X);
+
+    // ids of updated databases
+    execute(new CreateDB(NAME, "<x><a/><b/></x>"));
+    query("insert node <c/> as first into " + _DB_GET.args(NAME) + "/x", "");
+    query("delete node " + _DB_GET.args(NAME) + "//b", "");
+    query(func.args(NAME, " (1, 4, 2)") + " ! name()", "x\nc\na");
+    query(_DB_GET.args(NAME) + "//* ! " + _DB_NODE_ID.args(" ."), "1\n4\n2");
+    error(func.args(NAME, 3), DB_RANGE_X_X);
+    execute(new Close());
+    query(func.args(NAME, 4) + " ! name()", "c");
+
+    // mapping is created from the table if it is not available
+    execute(new Open(NAME));
+    context.data().idmap = null;
+    query(func.args(NAME, " (1, 4, 2)") + " ! name()", "x\nc\na");
+    query("insert node <d/> into " + _DB_GET.args(NAME) + "/x", "");
+    query(func.args(NAME, " (5, 2)") + " ! name()", "a\nd");
   }
 
   /** Test method. */
@@ -3,11 +3,13 @@ package org.basex.query.func;
 import static org.basex.query.QueryError.*;
 import static org.basex.query.func.Function.*;
 
-import org.basex.*;
 import org.basex.core.*;
 import org.basex.core.cmd.*;
 import org.basex.core.parse.Commands.*;
 import org.basex.index.*;
+import org.basex.query.ast.*;
+import org.basex.query.expr.ft.*;
+import org.basex.query.expr.gflwor.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.Test;
 
@@ -17,7 +19,7 @@ import org.junit.jupiter.api.Test;
  * @author BaseX Team 2005-23, BSD License
  * @author Christian Gruen
  */
-public final class FtModuleTest extends SandboxTest {
+public final class FtModuleTest extends QueryPlanTest {
   /** Test file. */
   private static final String FILE = "src/test/resources/input.xml";
 
@@ -144,8 +146,31 @@ public final class FtModuleTest extends SandboxTest {
   /** Test method. */
   @Test public void score() {
     final Function func = _FT_SCORE;
-    query(func.args(_FT_SEARCH.args(NAME, "2")), 1);
-    query(func.args(_FT_SEARCH.args(NAME, "XML")), "1\n0.5");
+    query(func.args(_FT_SEARCH.args(NAME, "2")) + " ! (. > 0 and . < 1)", true);
+    // shorter texts are ranked higher
+    query("let $s := " + func.args(_FT_SEARCH.args(NAME, "XML")) + " return $s[1] > $s[2]", true);
+  }
+
+  /** Top-k search. */
+  @Test public void topK() {
+    final String search = "for $t score $s in " + _FT_SEARCH.args(NAME, " ('XML', 'Exercise')");
+    final String result = "XML\nExercise 1\nExercise 2\nDatabases and XML";
+
+    // full ordering
+    query(search + " order by $s descending return string($t)", result);
+    // top-k search
+    check("(" + search + " order by $s descending return string($t))[position() <= 2]",
+        "XML\nExercise 1", exists(FTTopK.class), empty(OrderBy.class));
+    check("head(" + search + " order by $s descending return string($t))",
+        "XML", exists(FTTopK.class));
+    check("(" + search + " order by $s descending return $t)[position() <= 10] ! string()",
+        result, exists(FTTopK.class));
+
+    // no rewrite: ascending order, multiple results per tuple
+    check("(" + search + " order by $s return string($t))[position() <= 2]",
+        "Databases and XML\nExercise 1", empty(FTTopK.class));
+    check("(" + search + " order by $s descending return ($t, $t))[position() <= 2] ! string()",
+        "XML\nXML", empty(FTTopK.class));
   }
 
   /** Test method. */
@@ -6,6 +6,7 @@ import org.basex.core.*;
 import org.basex.core.cmd.*;
 import org.basex.index.*;
 import org.basex.query.ast.*;
+import org.basex.query.expr.*;
 import org.basex.query.expr.ft.*;
 import org.basex.query.expr.index.*;
 import org.basex.util.*;
@@ -324,6 +325,25 @@ public final class IndexOptimizeTest extends QueryPlanTest {
     query("M/descendant-or-self::M[contains-token(@v, 'a')]", xml);
   }
 
+  /** Intersection of index accesses. */
+  @Test public void intersect() {
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(int i = 0; i < 1000; i++) {
+      tb.add("<item type='").addInt(i % 5).add("' region='").addInt(i % 7).add("'>");
+      tb.add(i == 500 ? "x" : "y").add("</item>");
+    }
+    execute(new CreateDB(NAME, tb.add("</xml>").toString()));
+
+    final String intersect = Util.className(Intersect.class);
+    final String access = Util.className(ValueAccess.class);
+    check("count(//item[@type = '1'][@region = '2'])", 29,
+        count(access, 2), exists(intersect));
+    check("count(//item[@type = '1'][@region = '2'][text() = 'y'])", 29,
+        count(access, 3), exists(intersect));
+    check("//item[text() = 'x'][@type = '0'][@region = '3']/@type/string()", 0,
+        count(access, 1), empty(intersect));
+  }
+
   /**
    * Creates a test database.
    */
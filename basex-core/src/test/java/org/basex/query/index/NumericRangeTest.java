@@ -0,0 +1,63 @@
+package org.basex.query.index;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * This class tests if numeric range queries are correctly evaluated with the index.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class NumericRangeTest extends QueryPlanTest {
+  /** Values. */
+  private static final String[] VALUES = {
+    "1", "01", "1.0", "2", "-5", "-5.5", "0", "-0", "1e3", "999.99", "100", "200"
+  };
+  /** Queries with expected results. */
+  private static final String[][] QUERIES = {
+    { "count(//*[@v >= 1 and @v <= 1])", "3" },
+    { "count(//*[@v > 1 and @v < 1000])", "4" },
+    { "count(//*[@v >= -5.5 and @v < 0])", "2" },
+    { "count(//*[@v >= -6 and @v <= 0])", "4" },
+    { "count(//*[@v > 200 and @v <= 1000])", "2" },
+    { "count(//*[@v >= 1001 and @v <= 2000])", "0" },
+    { "count(//t[text() >= 100 and text() <= 200])", "2" },
+    { "count(//t[text() > -10 and text() < 2])", "7" },
+  };
+
+  /**
+   * Finishes a test.
+   */
+  @AfterEach public void finish() {
+    execute(new DropDB(NAME));
+    set(MainOptions.UPDINDEX, false);
+  }
+
+  /**
+   * Evaluates range queries.
+   * @param updindex incremental indexing
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void range(final boolean updindex) {
+    set(MainOptions.UPDINDEX, updindex);
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(final String value : VALUES) {
+      tb.add("<a v='").add(value).add("'/><t>").add(value).add("</t>");
+    }
+    execute(new CreateDB(NAME, tb.add("</xml>").toString()));
+
+    // ordered numeric keys are only available for non-incremental indexes
+    for(final String[] query : QUERIES) {
+      if(updindex || query[1].equals("0")) check(query[0], query[1]);
+      else check(query[0], query[1], exists(Util.className(RangeAccess.class)));
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package org.basex.query.index;
+
+import static org.basex.query.func.Function.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.*;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests if queries are correctly evaluated with(out) the path value index.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class PathValueIndexTest extends QueryPlanTest {
+  /**
+   * Initializes the tests.
+   */
+  @BeforeAll public static void start() {
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(int i = 0; i < 2000; i++) {
+      tb.add("<order id='o").addInt(i).add("'><status>").add(i % 4 == 0 ? "open" : "closed");
+      tb.add("</status><customer>c").addInt(i % 50).add("</customer><date>2023-01-");
+      tb.add(i % 28 < 9 ? "0" : "").addInt(i % 28 + 1).add("</date></order>");
+      tb.add("<shipment><status>open</status><customer>c").addInt(i % 50);
+      tb.add("</customer></shipment>");
+    }
+    set(MainOptions.PATHVALUEINCLUDE, "order/status, order/@id, order/customer+date");
+    execute(new CreateDB(NAME, tb.add("</xml>").toString()));
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterAll public static void finish() {
+    execute(new DropDB(NAME));
+    set(MainOptions.PATHVALUEINDEX, false);
+    set(MainOptions.PATHVALUEINCLUDE, "");
+  }
+
+  /**
+   * Tests paths with a single child.
+   */
+  @Test public void single() {
+    test("count(//order[status = 'open']/customer)", 500);
+    test("count(//order[status = ('open', 'closed')]/customer)", 2000);
+    test("//order[@id = 'o42']/customer/string()", "c42");
+    test("count(/xml/order[status = 'open']/date)", 500);
+    // no results: the path is replaced by an empty sequence
+    test("count(//order[status = 'pending']/customer)", 0);
+  }
+
+  /**
+   * Tests paths with composite keys.
+   */
+  @Test public void composite() {
+    test("//order[customer = 'c4' and date = '2023-01-05']/@id/string()", "o4\no704\no1404");
+    test("//order[date = '2023-01-05'][customer = 'c4']/@id/string()", "o4\no704\no1404");
+    test("count(//order[customer = ('c4', 'c32') and date = '2023-01-05']/status)", 6);
+    test("count(//order[customer = 'c4'][date = '2023-01-05'][status = 'open']/status)", 3);
+  }
+
+  /**
+   * Tests queries that cannot be rewritten for path value index access.
+   */
+  @Test public void noIndex() {
+    execute(new CreateIndex(CmdIndex.PATHVALUE));
+    check("count(//shipment[status = 'open'])", 2000, empty(PathValueAccess.class));
+    check("count(//order[customer = 'c4'])", 40, empty(PathValueAccess.class));
+    check("count(//order[status != 'open'])", 1500, empty(PathValueAccess.class));
+    check("count(//order[status = ''])", 0, empty(PathValueAccess.class));
+    check("count(//order[customer = 'c4' or date = '2023-01-05'])", 109,
+        empty(PathValueAccess.class));
+
+    // index is invalidated by updates and recreated by optimizations
+    query(_DB_ADD.args(NAME, " <order><status>open</status></order>", "add.xml"));
+    check("count(//order[status = 'open'])", 501, empty(PathValueAccess.class));
+    execute(new Optimize());
+    check("count(//order[status = 'open']/customer)", 500, exists(PathValueAccess.class));
+    execute(new DropIndex(CmdIndex.PATHVALUE));
+    query(_DB_DELETE.args(NAME, "add.xml"));
+  }
+
+  /**
+   * Tests a query with and without index.
+   * @param query query
+   * @param result expected result
+   */
+  private static void test(final String query, final Object result) {
+    execute(new CreateIndex(CmdIndex.PATHVALUE));
+    check(query, result, result.equals(0) ? empty(PathValueAccess.class) :
+      exists(PathValueAccess.class));
+    execute(new DropIndex(CmdIndex.PATHVALUE));
+    check(query, result, empty(PathValueAccess.class));
+  }
+}
@@ -87,6 +87,27 @@ public final class StringRangeTest extends QueryPlanTest {
     test("count(//*[text() > '@'])", 900);
   }
 
+  /**
+   * Chooses the index access with the smallest number of estimated results.
+   */
+  @Test public void costs() {
+    final String name = NAME + "Costs";
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(int i = 100; i < 1000; i++) {
+      tb.add("<a><b>").add(i % 3 == 0 ? "X" : "Y" + i).add("</b><c>").addInt(i).add("</c></a>");
+    }
+    execute(new CreateDB(name, tb.add("</xml>").toString()));
+    try {
+      final String path = "db:get('" + name + "')//a";
+      check("count(" + path + "[b = 'X'][c >= '200' and c < '210'])", 3,
+          exists(StringRangeAccess.class), empty(ValueAccess.class));
+      check("count(" + path + "[c > '999' and c < '9999'])", 0, empty(StringRangeAccess.class));
+    } finally {
+      execute(new DropDB(name));
+      execute(new Open(NAME));
+    }
+  }
+
   /**
    * Tests a query with and without index.
    * @param query query
@@ -0,0 +1,108 @@
+package org.basex.query.index;
+
+import static org.basex.query.func.Function.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.*;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.basex.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests if substring queries are correctly evaluated with(out) the trigram index.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class TrigramIndexTest extends QueryPlanTest {
+  /** Codepoint collation. */
+  private static final String CODEPOINT =
+      "http://www.w3.org/2005/xpath-functions/collation/codepoint";
+
+  /**
+   * Initializes the tests.
+   */
+  @BeforeAll public static void start() {
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(int i = 0; i < 2000; i++) {
+      tb.add("<item><title>").add(i % 3 == 0 ? "XML" : "JSON").add(" Guide ").addInt(i);
+      tb.add(i % 7 == 0 ? " für Änfänger" : "").add("</title><id>").addInt(i).add("</id></item>");
+    }
+    execute(new CreateDB(NAME, tb.add("</xml>").toString()));
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterAll public static void finish() {
+    execute(new DropDB(NAME));
+    set(MainOptions.TRIGRAMINDEX, false);
+  }
+
+  /**
+   * Tests fn:contains.
+   */
+  @Test public void contains() {
+    test("count(//item[contains(title, 'XML')])", 667);
+    test("count(//title[contains(text(), 'Guide 19')])", 111);
+    test("count(//text()[contains(., 'Guide 1999')])", 1);
+    test("count(//item[contains(title, 'ür Änf')])", 286);
+    test("count(//item[contains(title, 'XML Guide 1')])", 369);
+    test("count(//item[contains(title, 'Guide 123') and contains(id, '123')])", 11);
+  }
+
+  /**
+   * Tests fn:starts-with and fn:ends-with.
+   */
+  @Test public void startsEndsWith() {
+    test("count(//item[starts-with(title, 'JSON Guide 2')])", 75);
+    test("count(//item[starts-with(title, 'Guide')])", 0);
+    test("count(//item[ends-with(title, 'Änfänger')])", 286);
+    test("count(//item[ends-with(title, 'Guide 10')])", 1);
+  }
+
+  /**
+   * Tests fn:matches.
+   */
+  @Test public void matches() {
+    test("count(//item[matches(title, '^XML Guide \\d+$')])", 571);
+    test("count(//item[matches(title, 'Guide 12?3')])", 122);
+    test("count(//item[matches(title, 'Guide 1[0-9]{3}')])", 1000);
+  }
+
+  /**
+   * Tests queries that cannot be rewritten for trigram index access.
+   */
+  @Test public void noIndex() {
+    execute(new CreateIndex(CmdIndex.TRIGRAM));
+    check("count(//item[contains(title, 'XM')])", 667, empty(TrigramAccess.class));
+    check("count(//item[contains(title, 'YAML')])", 0, empty(TrigramAccess.class));
+    check("count(//item[matches(title, 'XML|JSON')])", 2000, empty(TrigramAccess.class));
+    check("count(//item[matches(title, 'xml', 'i')])", 667, empty(TrigramAccess.class));
+    check("count(//item[contains(title, 'XML', '" + CODEPOINT + "')])", 667,
+        empty(TrigramAccess.class));
+
+    // index is invalidated by updates and recreated by optimizations
+    query(_DB_ADD.args(NAME, " <item><title>XML</title></item>", "add.xml"));
+    check("count(//item[contains(title, 'XML')])", 668, empty(TrigramAccess.class));
+    execute(new Optimize());
+    check("count(//item[contains(title, 'XML')])", 668, exists(TrigramAccess.class));
+    execute(new DropIndex(CmdIndex.TRIGRAM));
+    query(_DB_DELETE.args(NAME, "add.xml"));
+  }
+
+  /**
+   * Tests a query with and without index.
+   * @param query query
+   * @param result expected result
+   */
+  private static void test(final String query, final Object result) {
+    execute(new CreateIndex(CmdIndex.TRIGRAM));
+    check(query, result, exists(TrigramAccess.class));
+    execute(new DropIndex(CmdIndex.TRIGRAM));
+    check(query, result, empty(TrigramAccess.class));
+  }
+}
@@ -128,6 +128,46 @@ public final class ValueIndexTest extends QueryPlanTest {
     check("//a[text() = 'text']", "", empty());
   }
 
+  /**
+   * Tests the full-text index and update operations.
+   */
+  @Test public void fulltextUpdates() {
+    set(MainOptions.UPDINDEX, true);
+    set(MainOptions.FTINDEX, true);
+
+    set(MainOptions.FTINCLUDE, "a");
+    execute(new CreateDB(NAME, "<x><a>quick fox</a><b>quick dog</b></x>"));
+    check("count(//a[text() contains text 'quick'])", 1, exists(FTIndexAccess.class));
+
+    query("replace value of node x/a with 'lazy dog'");
+    check("count(//a[text() contains text 'dog'])", 1, exists(FTIndexAccess.class));
+    check("//a[text() contains text 'fox']", "", exists(FTIndexAccess.class));
+
+    query("insert node <a>brown dog</a> into x");
+    check("count(//a[text() contains text 'dog'])", 2, exists(FTIndexAccess.class));
+    check("count(//a[text() contains text 'br.*' using wildcards])", 1,
+        exists(FTIndexAccess.class));
+    check("count(//a[text() contains text 'dogs' using fuzzy])", 2, exists(FTIndexAccess.class));
+
+    query("rename node x/b as 'a'");
+    check("count(//a[text() contains text 'quick'])", 1, exists(FTIndexAccess.class));
+
+    query("delete node x/a[1]");
+    check("count(//a[text() contains text 'dog'])", 2, exists(FTIndexAccess.class));
+    check("//a[text() contains text 'lazy']", "", empty());
+
+    // incremental updates are persisted
+    execute(new Close());
+    execute(new Open(NAME));
+    check("count(//a[text() contains text 'dog'])", 2, exists(FTIndexAccess.class));
+    check("//a[text() contains text 'lazy']", "", empty());
+
+    // incremental updates are merged by optimizations
+    execute(new Optimize());
+    check("count(//a[text() contains text 'dog'])", 2, exists(FTIndexAccess.class));
+    check("count(//a[text() contains text 'quick'])", 1, exists(FTIndexAccess.class));
+  }
+
   /**
    * Sets the main memory flag.
    * @param mainmem main-memory flag
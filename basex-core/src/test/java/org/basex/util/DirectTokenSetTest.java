@@ -0,0 +1,51 @@
+package org.basex.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests for the {@link DirectTokenSet} class.
+ *
+ * @author BaseX Team 2005-23, BSD License
+ * @author Christian Gruen
+ */
+public final class DirectTokenSetTest {
+  /** Token set. */
+  private final TokenSet set = new DirectTokenSet();
+
+  /** Adds, looks up and removes tokens. */
+  @Test public void add() {
+    final int s = 100000;
+    final TokenList list = new TokenList(s);
+    for(int i = 0; i < s; i++) list.add(Token.token("token" + i));
+
+    for(final byte[] token : list) assertTrue(set.add(token), "Token was already indexed.");
+    assertEquals(s, set.size());
+    for(int i = 0; i < s; i++) {
+      assertEquals(i + 1, set.id(list.get(i)));
+      assertArrayEquals(list.get(i), set.key(i + 1));
+    }
+    assertEquals(1, set.put(list.get(0)));
+    assertFalse(set.contains(Token.token("token")));
+
+    for(int i = 0; i < s; i += 2) assertTrue(set.remove(list.get(i)) != 0, "Token not removed.");
+    for(int i = 0; i < s; i++) assertEquals(i % 2 != 0, set.contains(list.get(i)));
+    int c = 0;
+    for(final byte[] token : set) assertArrayEquals(list.get(c++ * 2 + 1), token);
+    assertEquals(s / 2, c);
+  }
+
+  /** Stores empty and large tokens. */
+  @Test public void sizes() {
+    final byte[] large = new byte[1 << 25];
+    large[large.length - 1] = 1;
+    final int e = set.put(Token.EMPTY), l = set.put(large), x = set.put(Token.token("x"));
+    assertArrayEquals(Token.EMPTY, set.key(e));
+    assertArrayEquals(large, set.key(l));
+    assertArrayEquals(Token.token("x"), set.key(x));
+    assertEquals(l, set.id(large.clone()));
+  }
+}